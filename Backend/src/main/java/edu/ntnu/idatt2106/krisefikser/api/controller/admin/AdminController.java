@@ -2,12 +2,18 @@ package edu.ntnu.idatt2106.krisefikser.api.controller.admin;
 
 import edu.ntnu.idatt2106.krisefikser.api.dto.auth.LoginResponse;
 import edu.ntnu.idatt2106.krisefikser.api.dto.auth.TwoFactorVerifyRequest;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdCacheStatsDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mail.MailQueueStatsDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.map.GeocodingBackfillResultDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserResponseDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.admin.AdminInviteRequest;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.admin.AdminSetupRequest;
 import edu.ntnu.idatt2106.krisefikser.service.admin.AdminInvitationService;
 import edu.ntnu.idatt2106.krisefikser.service.auth.AuthService;
 import edu.ntnu.idatt2106.krisefikser.service.auth.TwoFactorService;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdCache;
+import edu.ntnu.idatt2106.krisefikser.service.mail.MailQueueService;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeocodingBackfillService;
 import edu.ntnu.idatt2106.krisefikser.service.user.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -39,20 +45,32 @@ public class AdminController {
   private final TwoFactorService twoFactorService;
   private final AuthService authService;
   private final UserService userService;
+  private final MailQueueService mailQueueService;
+  private final HouseholdCache householdCache;
+  private final GeocodingBackfillService geocodingBackfillService;
 
   /**
    * Constructor for AdminController.
    *
-   * @param adminInvitationService The service for handling admin invitations.
-   * @param twoFactorService       The service for handling two-factor authentication.
-   * @param authService            The service for handling authentication.
+   * @param adminInvitationService   The service for handling admin invitations.
+   * @param twoFactorService         The service for handling two-factor authentication.
+   * @param authService              The service for handling authentication.
+   * @param userService              The service for handling users.
+   * @param mailQueueService         The service for the outbound mail queue.
+   * @param householdCache           The cache of household name, address and owner.
+   * @param geocodingBackfillService The service for geocoding stored addresses.
    */
   public AdminController(AdminInvitationService adminInvitationService,
-      TwoFactorService twoFactorService, AuthService authService, UserService userService) {
+      TwoFactorService twoFactorService, AuthService authService, UserService userService,
+      MailQueueService mailQueueService, HouseholdCache householdCache,
+      GeocodingBackfillService geocodingBackfillService) {
     this.adminInvitationService = adminInvitationService;
     this.twoFactorService = twoFactorService;
     this.authService = authService;
     this.userService = userService;
+    this.mailQueueService = mailQueueService;
+    this.householdCache = householdCache;
+    this.geocodingBackfillService = geocodingBackfillService;
   }
 
   /**
@@ -202,4 +220,72 @@ public class AdminController {
       return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Gets the queue depth and delivery statistics of the outbound mail queue. Only accessible by
+   * SUPERADMIN users.
+   *
+   * @return ResponseEntity containing the mail queue statistics
+   */
+  @Operation(summary = "Fetches outbound mail queue statistics",
+      description = "Gets queue depth, send latency and failure counts for outgoing emails. "
+          + "Only accesible by SUPERADMIN users.")
+  @GetMapping("/mail-queue/stats")
+  @PreAuthorize("hasRole('SUPERADMIN')")
+  public ResponseEntity<?> getMailQueueStats() {
+    try {
+      MailQueueStatsDto stats = mailQueueService.getStats();
+      logger.info("Fetched mail queue statistics");
+      return ResponseEntity.ok(stats);
+    } catch (Exception e) {
+      logger.error("Error fetching mail queue statistics: {}", e.getMessage());
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+
+  /**
+   * Gets the size and hit rate of the household read cache. Only accessible by SUPERADMIN users.
+   *
+   * @return ResponseEntity containing the household cache statistics
+   */
+  @Operation(summary = "Fetches household cache statistics",
+      description = "Gets size, hit rate, evictions and invalidations of the household read "
+          + "cache. Only accesible by SUPERADMIN users.")
+  @GetMapping("/household-cache/stats")
+  @PreAuthorize("hasRole('SUPERADMIN')")
+  public ResponseEntity<?> getHouseholdCacheStats() {
+    try {
+      HouseholdCacheStatsDto stats = householdCache.getStats();
+      logger.info("Fetched household cache statistics");
+      return ResponseEntity.ok(stats);
+    } catch (Exception e) {
+      logger.error("Error fetching household cache statistics: {}", e.getMessage());
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+
+  /**
+   * Geocodes the map icons and households that have an address but no coordinates. Only
+   * accessible by SUPERADMIN users.
+   *
+   * @return ResponseEntity containing the number of rows geocoded and not found
+   */
+  @Operation(summary = "Geocodes stored addresses",
+      description = "Looks up coordinates for every map icon and household that has none, using "
+          + "the offline address dataset. Only accesible by SUPERADMIN users.")
+  @PostMapping("/geocoding/backfill")
+  @PreAuthorize("hasRole('SUPERADMIN')")
+  public ResponseEntity<?> backfillGeocoding() {
+    try {
+      GeocodingBackfillResultDto result = geocodingBackfillService.backfill();
+      logger.info("Geocoding backfill finished");
+      return ResponseEntity.ok(result);
+    } catch (IllegalStateException e) {
+      logger.warn("Geocoding backfill rejected: {}", e.getMessage());
+      return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      logger.error("Error during geocoding backfill: {}", e.getMessage());
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+}
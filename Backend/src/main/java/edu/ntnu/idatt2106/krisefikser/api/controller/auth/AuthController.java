@@ -8,6 +8,9 @@ import edu.ntnu.idatt2106.krisefikser.service.auth.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +18,7 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -41,28 +45,45 @@ public class AuthController {
   }
 
   /**
-   * Register a new user.
+   * Register a new user. The request thread is released while registration runs, and the
+   * response is sent once the user has been saved.
    *
    * @param request the user to register
-   * @return a response entity indicating the result of the operation
+   * @return a future response entity indicating the result of the operation
    */
   @Operation(summary = "Registers a new user",
       description = "Registers a new user and sends a confirmation email")
   @PostMapping("/register")
-  public ResponseEntity<Map<String, String>> register(@RequestBody RegisterRequestDto request) {
+  public CompletableFuture<ResponseEntity<Map<String, String>>> register(
+      @RequestBody RegisterRequestDto request) {
     try {
-      authService.registerUser(request);
-      return ResponseEntity.status(201).body(Map.of("message", "User registered successfully"));
-    } catch (IllegalArgumentException e) {
-      logger.warn("Validation error during registration: {}", e.getMessage());
-      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+      return authService.registerUser(request)
+          .handle((ignored, error) -> registrationResponse(request, error));
     } catch (Exception e) {
-      logger.error("Unexpected error during registration for {}: {}", request.getEmail(),
-          e.getMessage(), e);
-      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+      return CompletableFuture.completedFuture(registrationResponse(request, e));
     }
   }
 
+  private ResponseEntity<Map<String, String>> registrationResponse(RegisterRequestDto request,
+      Throwable error) {
+    if (error == null) {
+      return ResponseEntity.status(201).body(Map.of("message", "User registered successfully"));
+    }
+    Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause() : error;
+    if (cause instanceof IllegalArgumentException) {
+      logger.warn("Validation error during registration: {}", cause.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", cause.getMessage()));
+    }
+    if (cause instanceof RejectedExecutionException) {
+      logger.warn("Registration rejected for {}: server is busy", request.getEmail());
+      return ResponseEntity.status(503).body(Map.of("error", "Server is busy, try again later"));
+    }
+    logger.error("Unexpected error during registration for {}: {}", request.getEmail(),
+        cause.getMessage(), cause);
+    return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+  }
+
   /**
    * Process login requests and return JWT tokens.
    *
@@ -225,4 +246,31 @@ public class AuthController {
       return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
     }
   }
+
+  /**
+   * Logs out the user by revoking the JWT token sent in the Authorization header.
+   *
+   * @param authorization the Authorization header containing the bearer token
+   * @return a response entity indicating the result of the operation
+   */
+  @Operation(summary = "Logs out the user",
+      description = "Revokes the JWT token so it can no longer be used")
+  @PostMapping("/logout")
+  public ResponseEntity<Map<String, String>> logout(
+      @RequestHeader(value = "Authorization", required = false) String authorization) {
+    try {
+      if (authorization == null || !authorization.startsWith("Bearer ")) {
+        throw new IllegalArgumentException("Bearer token is required");
+      }
+
+      authService.logout(authorization.substring(7));
+      return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    } catch (IllegalArgumentException e) {
+      logger.warn("Logout failed: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      logger.error("Unexpected error during logout: {}", e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
 }
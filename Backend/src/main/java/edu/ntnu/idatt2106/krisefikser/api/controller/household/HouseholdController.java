@@ -4,23 +4,29 @@ import edu.ntnu.idatt2106.krisefikser.api.dto.position.PositionResponseDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.household.CreateHouseholdRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.household.EditHouseholdRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdBasicResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdDetailsResponseDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.unregisteredmembers.EditMemberDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.unregisteredmembers.RemoveUnregisteredMemberRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.unregisteredmembers.UnregisteredMemberHouseholdAssignmentRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserHouseholdAssignmentRequestDto;
 import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdService;
+import edu.ntnu.idatt2106.krisefikser.service.household.RateLimitExceededException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -226,13 +232,14 @@ public class HouseholdController {
   @PostMapping("/details")
   public ResponseEntity<?> getHouseholdDetails() {
     try {
-      Map<String, Object> details = householdService.getHouseholdDetails();
+      HouseholdDetailsResponseDto details = householdService.getHouseholdDetails();
 
-      if (details == null || details.get("household") == null) {
+      if (details == null || details.getHousehold() == null) {
         LOGGER.info("User has no household");
         return ResponseEntity.status(404).body(Map.of("error", "Brukeren tilhører ingen husstand"));
       }
-      LOGGER.info("Household members retrieved successfully: {}", details);
+      LOGGER.info("Household members retrieved successfully for household {}",
+          details.getHousehold().getId());
       return ResponseEntity.ok(details);
     } catch (IllegalArgumentException e) {
       LOGGER.warn("Validation error during household member retrieval: {}", e.getMessage());
@@ -340,6 +347,48 @@ public class HouseholdController {
     } catch (IllegalArgumentException e) {
       LOGGER.warn("Household search failed: {}", e.getMessage());
       return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (RateLimitExceededException e) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      LOGGER.error("Unexpected error during household search", e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+
+  /**
+   * Searches for households by the start of their name or by exact household id.
+   *
+   * @param name the start of the household name
+   * @param id   the household id
+   * @param page the page number
+   * @param size the page size
+   * @return a page of households with their id and name
+   */
+  @Operation(summary = "Search for households by name prefix or id",
+      description = "Returns a page of households whose name starts with the given text, or the "
+          + "household with the given id")
+  @GetMapping("/search")
+  public ResponseEntity<?> searchHouseholds(
+      @RequestParam(required = false) String name,
+      @RequestParam(required = false) String id,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "20") int size) {
+    try {
+      Page<HouseholdBasicResponseDto> households =
+          householdService.searchHouseholds(name, id, page, size);
+      Map<String, Object> response = new HashMap<>();
+      response.put("households", households.getContent());
+      response.put("currentPage", households.getNumber());
+      response.put("totalItems", households.getTotalElements());
+      response.put("totalPages", households.getTotalPages());
+      return ResponseEntity.ok(response);
+    } catch (IllegalArgumentException e) {
+      LOGGER.warn("Household search failed: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (RateLimitExceededException e) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .body(Map.of("error", e.getMessage()));
     } catch (Exception e) {
       LOGGER.error("Unexpected error during household search", e);
       return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
@@ -1,8 +1,10 @@
 package edu.ntnu.idatt2106.krisefikser.api.controller.incident;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.HouseholdGapDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.incident.IncidentRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.incident.IncidentResponseDto;
 import edu.ntnu.idatt2106.krisefikser.service.incident.IncidentService;
+import edu.ntnu.idatt2106.krisefikser.service.incident.ScenarioGapService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -20,6 +22,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -33,14 +36,18 @@ public class IncidentController {
 
   private static final Logger logger = LoggerFactory.getLogger(IncidentController.class);
   private final IncidentService incidentService;
+  private final ScenarioGapService scenarioGapService;
 
   /**
    * Constructor for IncidentController.
    *
-   * @param incidentService the service for handling incident related requests
+   * @param incidentService    the service for handling incident related requests
+   * @param scenarioGapService the service comparing household storage with packing lists
    */
-  public IncidentController(IncidentService incidentService) {
+  public IncidentController(IncidentService incidentService,
+      ScenarioGapService scenarioGapService) {
     this.incidentService = incidentService;
+    this.scenarioGapService = scenarioGapService;
   }
 
   /**
@@ -122,21 +129,55 @@ public class IncidentController {
   }
 
   /**
-   * Retrieves all incidents.
+   * Retrieves all incidents, or those concerning one municipality.
    *
+   * @param municipality the municipality number to filter on, or null for all incidents
    * @return a list of incidents
    */
   @Operation(summary = "Gets all incidents",
-      description = "Gets all incidents. Accessible to all users")
+      description = "Gets all incidents, optionally only those scoped to or centered in a "
+          + "municipality. Accessible to all users")
   @GetMapping
-  public ResponseEntity<List<IncidentResponseDto>> getAllIncidents() {
+  public ResponseEntity<List<IncidentResponseDto>> getAllIncidents(
+      @RequestParam(required = false) String municipality) {
     try {
-      List<IncidentResponseDto> incidents = incidentService.getAllIncidents();
+      List<IncidentResponseDto> incidents = municipality == null
+          ? incidentService.getAllIncidents()
+          : incidentService.getIncidentsInMunicipality(municipality);
       logger.info("Retrieved {} incidents", incidents.size());
       return ResponseEntity.ok(incidents);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid incident filter: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
     } catch (Exception e) {
       logger.error("Error retrieving incidents: {}", e.getMessage(), e);
       return ResponseEntity.status(500).build();
     }
   }
+
+  /**
+   * Gets what each household near an incident is missing from the packing list of the incident's
+   * scenario.
+   *
+   * @param id the ID of the incident
+   * @return a response entity with the gap of each household, most missing first
+   */
+  @Operation(summary = "Gets the scenario gaps of households near an incident",
+      description = "Compares the storage of every household with a member inside the incident "
+          + "radius with the packing list of the incident's scenario. Only accessible by admins")
+  @GetMapping("/{id}/household-gaps")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<?> getHouseholdGaps(@PathVariable Long id) {
+    try {
+      List<HouseholdGapDto> gaps = scenarioGapService.getIncidentGaps(id);
+      logger.info("Computed scenario gaps for {} households near incident {}", gaps.size(), id);
+      return ResponseEntity.ok(gaps);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Could not compute household gaps for incident {}: {}", id, e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      logger.error("Error computing household gaps for incident {}: {}", id, e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
 }
@@ -1,7 +1,10 @@
 package edu.ntnu.idatt2106.krisefikser.api.controller.incident;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.HouseholdGapDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.PackingListItemDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.incident.ScenarioRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.incident.ScenarioResponseDto;
+import edu.ntnu.idatt2106.krisefikser.service.incident.ScenarioGapService;
 import edu.ntnu.idatt2106.krisefikser.service.incident.ScenarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -32,14 +35,18 @@ public class ScenarioController {
 
   private static final Logger logger = LoggerFactory.getLogger(ScenarioController.class);
   private final ScenarioService scenarioService;
+  private final ScenarioGapService scenarioGapService;
 
   /**
    * Constructor for ScenarioController.
    *
-   * @param scenarioService the service for handling scenario related requests
+   * @param scenarioService    the service for handling scenario related requests
+   * @param scenarioGapService the service comparing household storage with packing lists
    */
-  public ScenarioController(ScenarioService scenarioService) {
+  public ScenarioController(ScenarioService scenarioService,
+      ScenarioGapService scenarioGapService) {
     this.scenarioService = scenarioService;
+    this.scenarioGapService = scenarioGapService;
   }
 
   /**
@@ -136,4 +143,53 @@ public class ScenarioController {
       return ResponseEntity.status(500).build();
     }
   }
+
+  /**
+   * Get the parsed packing list of a scenario.
+   *
+   * @param id the ID of the scenario
+   * @return a response entity with the packing list entries
+   */
+  @Operation(summary = "Gets the packing list of a scenario",
+      description = "Gets the packing list of a scenario split into items with quantities. "
+          + "Accessible to all users")
+  @GetMapping("/{id}/packing-list")
+  public ResponseEntity<?> getPackingList(@PathVariable Long id) {
+    try {
+      List<PackingListItemDto> packingList = scenarioGapService.getPackingList(id);
+      logger.info("Fetched packing list with {} entries for scenario {}", packingList.size(), id);
+      return ResponseEntity.ok(packingList);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Could not fetch packing list for scenario {}: {}", id, e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      logger.error("Failed to fetch packing list for scenario {}: {}", id, e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+
+  /**
+   * Get what the current user's household is missing from the packing list of a scenario.
+   *
+   * @param id the ID of the scenario
+   * @return a response entity with the household's gap
+   */
+  @Operation(summary = "Gets the household's gap for a scenario",
+      description = "Compares the current user's household storage with the packing list of a "
+          + "scenario and returns what is missing")
+  @GetMapping("/{id}/gap")
+  public ResponseEntity<?> getHouseholdGap(@PathVariable Long id) {
+    try {
+      HouseholdGapDto gap = scenarioGapService.getHouseholdGap(id);
+      logger.info("Household {} is missing {} items for scenario {}", gap.getHouseholdId(),
+          gap.getMissing().size(), id);
+      return ResponseEntity.ok(gap);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Could not compute gap for scenario {}: {}", id, e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      logger.error("Failed to compute gap for scenario {}: {}", id, e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
 }
@@ -0,0 +1,72 @@
+package edu.ntnu.idatt2106.krisefikser.api.controller.map;
+
+import edu.ntnu.idatt2106.krisefikser.service.map.MapTileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for serving map tiles.
+ */
+@Tag(name = "MapTiles", description = "Endpoints for map tiles")
+@RestController
+@RequestMapping("/api/map/tiles")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+public class MapTileController {
+
+  /**
+   * Media type of Mapbox Vector Tiles.
+   */
+  public static final MediaType VECTOR_TILE = MediaType.parseMediaType(
+      "application/vnd.mapbox-vector-tile");
+
+  private static final Logger logger = LoggerFactory.getLogger(MapTileController.class);
+  private final MapTileService mapTileService;
+
+  /**
+   * Constructor for MapTileController.
+   *
+   * @param mapTileService the service for building map tiles
+   */
+  public MapTileController(MapTileService mapTileService) {
+    this.mapTileService = mapTileService;
+  }
+
+  /**
+   * Gets a vector tile with map icons and active incidents.
+   *
+   * @param z the zoom level
+   * @param x the tile column
+   * @param y the tile row
+   * @return the tile, or no content if nothing is in it
+   */
+  @Operation(summary = "Gets a map tile",
+      description = "Gets a Mapbox Vector Tile with the map icons (layer map_icons) and active "
+          + "incidents (layer incidents) in a tile. Accessible to all users")
+  @GetMapping("/{z}/{x}/{y}")
+  public ResponseEntity<?> getTile(@PathVariable int z, @PathVariable int x,
+      @PathVariable int y) {
+    try {
+      byte[] tile = mapTileService.getTile(z, x, y);
+      if (tile.length == 0) {
+        return ResponseEntity.noContent().build();
+      }
+      return ResponseEntity.ok().contentType(VECTOR_TILE).body(tile);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid map tile {}/{}/{}: {}", z, x, y, e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      logger.error("Error building map tile {}/{}/{}: {}", z, x, y, e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package edu.ntnu.idatt2106.krisefikser.api.controller.map;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.map.MunicipalityDto;
+import edu.ntnu.idatt2106.krisefikser.service.map.MunicipalityService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for looking up municipalities.
+ */
+@Tag(name = "Municipalities", description = "Endpoints for municipality lookup")
+@RestController
+@RequestMapping("/api/municipalities")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+public class MunicipalityController {
+
+  private static final Logger logger = LoggerFactory.getLogger(MunicipalityController.class);
+  private final MunicipalityService municipalityService;
+
+  /**
+   * Constructor for MunicipalityController.
+   *
+   * @param municipalityService the service for municipality lookup
+   */
+  public MunicipalityController(MunicipalityService municipalityService) {
+    this.municipalityService = municipalityService;
+  }
+
+  /**
+   * Gets every known municipality.
+   *
+   * @return the municipalities
+   */
+  @Operation(summary = "Gets municipalities",
+      description = "Gets the number and name of every known municipality. Accessible to all "
+          + "users")
+  @GetMapping
+  public ResponseEntity<?> getMunicipalities() {
+    try {
+      return ResponseEntity.ok(municipalityService.getMunicipalities());
+    } catch (Exception e) {
+      logger.error("Error retrieving municipalities: {}", e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+
+  /**
+   * Finds the municipality a position lies in.
+   *
+   * @param latitude  the latitude
+   * @param longitude the longitude
+   * @return the municipality, or 404 if the position is outside all known municipalities
+   */
+  @Operation(summary = "Finds the municipality of a position",
+      description = "Finds the municipality a position lies in. Accessible to all users")
+  @GetMapping("/lookup")
+  public ResponseEntity<?> lookup(@RequestParam double latitude,
+      @RequestParam double longitude) {
+    try {
+      Optional<MunicipalityDto> municipality = municipalityService.lookup(latitude, longitude);
+      if (municipality.isEmpty()) {
+        return ResponseEntity.notFound().build();
+      }
+      return ResponseEntity.ok(municipality.get());
+    } catch (IllegalArgumentException e) {
+      logger.warn("Validation error during municipality lookup: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      logger.error("Error during municipality lookup: {}", e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+
+  /**
+   * Finds the municipality a household lives in.
+   *
+   * @param householdId the id of the household
+   * @return the municipality, or 404 if the home is outside all known municipalities
+   */
+  @Operation(summary = "Finds the municipality of a household",
+      description = "Finds the municipality a household lives in, from its geocoded address. "
+          + "Only accessible by admins")
+  @GetMapping("/households/{householdId}")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<?> lookupHousehold(@PathVariable String householdId) {
+    try {
+      Optional<MunicipalityDto> municipality =
+          municipalityService.lookupHousehold(householdId);
+      if (municipality.isEmpty()) {
+        return ResponseEntity.notFound().build();
+      }
+      return ResponseEntity.ok(municipality.get());
+    } catch (IllegalArgumentException e) {
+      logger.warn("Validation error during household municipality lookup: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      logger.error("Error during household municipality lookup: {}", e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+}
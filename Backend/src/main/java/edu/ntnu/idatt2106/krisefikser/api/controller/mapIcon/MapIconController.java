@@ -1,15 +1,25 @@
 package edu.ntnu.idatt2106.krisefikser.api.controller.mapIcon;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconChangesDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconClusterDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconImportResultDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconFileFormat;
 import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconService;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconTransferService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -22,6 +32,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Controller for handling MapIcon related requests.
@@ -34,14 +45,18 @@ public class MapIconController {
 
   private static final Logger logger = LoggerFactory.getLogger(MapIconController.class);
   private final MapIconService mapIconService;
+  private final MapIconTransferService transferService;
 
   /**
    * Constructor for MapIconController.
    *
-   * @param mapIconService the service for managing map icons
+   * @param mapIconService  the service for managing map icons
+   * @param transferService the service for importing and exporting map icons in bulk
    */
-  public MapIconController(MapIconService mapIconService) {
+  public MapIconController(MapIconService mapIconService,
+      MapIconTransferService transferService) {
     this.mapIconService = mapIconService;
+    this.transferService = transferService;
   }
 
   /**
@@ -149,6 +164,69 @@ public class MapIconController {
     }
   }
 
+  /**
+   * Retrieves map icons within a specified radius grouped into clusters for a zoom level.
+   *
+   * @param latitude  the latitude of the center of the map
+   * @param longitude the longitude of the center of the map
+   * @param radiusKm  the radius in kilometers to search within
+   * @param zoom      the zoom level of the map
+   * @return a list of clusters within the specified radius
+   */
+  @Operation(summary = "Gets map icon clusters",
+      description = "Gets map icons within a specified radius from a given location, grouped "
+          + "into clusters with a count and centroid for the given zoom level. Meant for zoomed "
+          + "out maps. Accessible to all users")
+  @GetMapping("/clusters")
+  public ResponseEntity<?> getMapIconClusters(
+      @RequestParam double latitude,
+      @RequestParam double longitude,
+      @RequestParam double radiusKm,
+      @RequestParam int zoom) {
+    try {
+      List<MapIconClusterDto> clusters = mapIconService.getMapIconClusters(latitude, longitude,
+          radiusKm, zoom);
+      logger.info("Retrieved {} map icon clusters at zoom {}", clusters.size(), zoom);
+      return ResponseEntity.ok(clusters);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Validation error retrieving map icon clusters: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      logger.error("Error retrieving map icon clusters: {}", e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+
+  /**
+   * Retrieves the map icons changed or deleted after a change sequence number.
+   *
+   * @param since the last change sequence number the client has seen, 0 for every icon
+   * @param limit the most changes to return
+   * @return the changes and the sequence number to ask for changes after next time
+   */
+  @Operation(summary = "Gets map icon changes",
+      description = "Gets the map icons created, updated or deleted after a change sequence "
+          + "number, so clients keeping a copy of the map only download what changed. Start "
+          + "from 0 and pass nextSince on the next call; call again at once while hasMore is "
+          + "true. Accessible to all users")
+  @GetMapping("/changes")
+  public ResponseEntity<?> getMapIconChanges(
+      @RequestParam(defaultValue = "0") long since,
+      @RequestParam(defaultValue = "1000") int limit) {
+    try {
+      MapIconChangesDto changes = mapIconService.getMapIconChanges(since, limit);
+      logger.info("Retrieved {} map icon changes after {}",
+          changes.getChanged().size() + changes.getDeleted().size(), since);
+      return ResponseEntity.ok(changes);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Validation error retrieving map icon changes: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      logger.error("Error retrieving map icon changes: {}", e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+
   /**
    * Finds the closest map icon of a specified type from a given location.
    *
@@ -177,4 +255,81 @@ public class MapIconController {
       return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
     }
   }
+
+  /**
+   * Imports map icons in bulk from the request body.
+   *
+   * @param format the format of the body, {@code geojson} or {@code csv}
+   * @param body   the file, read as it arrives
+   * @return the number of rows read, imported and rejected, and the first errors
+   */
+  @Operation(summary = "Imports map icons",
+      description = "Creates map icons from a GeoJSON FeatureCollection of Points or a CSV file "
+          + "sent as the request body. Invalid rows are skipped and reported. Only accessible "
+          + "by admins")
+  @PostMapping("/import")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<?> importMapIcons(
+      @RequestParam(defaultValue = "geojson") String format,
+      InputStream body) {
+    try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+      MapIconImportResultDto result = transferService.importIcons(reader,
+          MapIconFileFormat.fromName(format));
+      logger.info("Imported {} map icons, rejected {}", result.getImported(),
+          result.getRejected());
+      return ResponseEntity.ok(result);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Validation error during map icon import: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (IllegalStateException e) {
+      logger.warn("Map icon import rejected: {}", e.getMessage());
+      return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      logger.error("Unexpected error during map icon import: {}", e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+
+  /**
+   * Gets the progress of the map icon import running on this node, or the outcome of the last
+   * one. Imports are tracked per node, so the status of an import running on another node is not
+   * seen here.
+   *
+   * @return the number of rows read, imported and rejected so far
+   */
+  @Operation(summary = "Gets map icon import progress",
+      description = "Gets the progress of the bulk import running on the node answering the "
+          + "request, or the outcome of its last one. Only accessible by admins")
+  @GetMapping("/import/status")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<MapIconImportResultDto> getImportStatus() {
+    return ResponseEntity.ok(transferService.getImportStatus());
+  }
+
+  /**
+   * Exports every map icon, streamed to the response as it is read from the database.
+   *
+   * @param format the format to export, {@code geojson} or {@code csv}
+   * @return the file
+   */
+  @Operation(summary = "Exports map icons",
+      description = "Downloads every map icon as a GeoJSON FeatureCollection or a CSV file. Only "
+          + "accessible by admins")
+  @GetMapping("/export")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<StreamingResponseBody> exportMapIcons(
+      @RequestParam(defaultValue = "geojson") String format) {
+    MapIconFileFormat fileFormat;
+    try {
+      fileFormat = MapIconFileFormat.fromName(format);
+    } catch (IllegalArgumentException e) {
+      logger.warn("Validation error during map icon export: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_TYPE, fileFormat.getContentType() + ";charset=UTF-8")
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"map-icons." + fileFormat.getExtension() + "\"")
+        .body(output -> transferService.exportIcons(fileFormat, output));
+  }
 }
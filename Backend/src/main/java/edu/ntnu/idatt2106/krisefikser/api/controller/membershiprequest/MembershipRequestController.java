@@ -1,7 +1,10 @@
 package edu.ntnu.idatt2106.krisefikser.api.controller.membershiprequest;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.BulkInvitationRequestDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.BulkInvitationResultDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.MembershipInviteDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.MembershipRequestResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.PendingRequestCountsDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.RequestOperationDto;
 import edu.ntnu.idatt2106.krisefikser.service.membershiprequests.MembershipRequestService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -153,6 +156,31 @@ public class MembershipRequestController {
     }
   }
 
+  /**
+   * Sends membership invitations to many users for the current user's household.
+   *
+   * @param request the request containing the emails
+   * @return a response entity with the emails that were invited and those that were skipped
+   */
+  @Operation(summary = "Send membership invitations in bulk",
+      description = "Invites many users to the current user's household, skipping existing "
+          + "members, pending invitations and unknown emails")
+  @PostMapping("/send-invitations")
+  public ResponseEntity<?> sendBulkInvitations(@RequestBody BulkInvitationRequestDto request) {
+    try {
+      BulkInvitationResultDto result =
+          membershipRequestService.sendBulkInvitations(request.getEmails());
+      LOGGER.info("Bulk invitations sent to {} users", result.getInvited().size());
+      return ResponseEntity.ok(result);
+    } catch (IllegalArgumentException e) {
+      LOGGER.warn("Bulk invitation failed: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      LOGGER.error("Unexpected error during bulk invitation: {}", e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+
   /**
    * Gets all invitations sent by a household.
    *
@@ -290,4 +318,26 @@ public class MembershipRequestController {
       return ResponseEntity.status(500).body("Internal server error");
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Gets the number of pending requests for the current user and their household.
+   *
+   * @return a response entity with the pending request counts
+   */
+  @Operation(summary = "Get pending request counts",
+      description = "Retrieves the number of pending invitations and join requests for the "
+          + "current user and their household")
+  @PostMapping("/pending-counts")
+  public ResponseEntity<?> getPendingCounts() {
+    try {
+      PendingRequestCountsDto counts = membershipRequestService.getPendingCounts();
+      return ResponseEntity.ok(counts);
+    } catch (IllegalArgumentException e) {
+      LOGGER.warn("Validation error retrieving pending request counts: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (Exception e) {
+      LOGGER.error("Unexpected error retrieving pending request counts: {}", e.getMessage(), e);
+      return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.household;
+
+/**
+ * Data Transfer Object (DTO) with a snapshot of the household read cache, used by admins to check
+ * that it is sized well.
+ */
+public class HouseholdCacheStatsDto {
+
+  private final int size;
+  private final int maxSize;
+  private final long hits;
+  private final long misses;
+  private final double hitRate;
+  private final long evictions;
+  private final long invalidations;
+
+  /**
+   * Instantiates a new Household cache stats dto.
+   *
+   * @param size          the number of cached households
+   * @param maxSize       the most households the cache holds
+   * @param hits          the number of reads served from the cache since startup
+   * @param misses        the number of reads that went to the database since startup
+   * @param hitRate       the share of reads served from the cache, between 0 and 1
+   * @param evictions     the number of households dropped to make room since startup
+   * @param invalidations the number of households dropped because they changed since startup
+   */
+  public HouseholdCacheStatsDto(int size, int maxSize, long hits, long misses, double hitRate,
+      long evictions, long invalidations) {
+    this.size = size;
+    this.maxSize = maxSize;
+    this.hits = hits;
+    this.misses = misses;
+    this.hitRate = hitRate;
+    this.evictions = evictions;
+    this.invalidations = invalidations;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public double getHitRate() {
+    return hitRate;
+  }
+
+  public long getEvictions() {
+    return evictions;
+  }
+
+  public long getInvalidations() {
+    return invalidations;
+  }
+}
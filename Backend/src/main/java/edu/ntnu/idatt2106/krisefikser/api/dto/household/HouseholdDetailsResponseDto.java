@@ -0,0 +1,42 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.household;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.unregisteredmembers.UnregisteredMemberResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserResponseDto;
+import java.util.List;
+
+/**
+ * The household details screen: the household with its owner, the registered users and the
+ * unregistered members.
+ */
+public class HouseholdDetailsResponseDto {
+
+  private final HouseholdResponseDto household;
+  private final List<UserResponseDto> users;
+  private final List<UnregisteredMemberResponseDto> unregisteredMembers;
+
+  /**
+   * Constructor for HouseholdDetailsResponseDto.
+   *
+   * @param household           the household
+   * @param users               the registered users of the household
+   * @param unregisteredMembers the unregistered members of the household
+   */
+  public HouseholdDetailsResponseDto(HouseholdResponseDto household, List<UserResponseDto> users,
+      List<UnregisteredMemberResponseDto> unregisteredMembers) {
+    this.household = household;
+    this.users = users;
+    this.unregisteredMembers = unregisteredMembers;
+  }
+
+  public HouseholdResponseDto getHousehold() {
+    return household;
+  }
+
+  public List<UserResponseDto> getUsers() {
+    return users;
+  }
+
+  public List<UnregisteredMemberResponseDto> getUnregisteredMembers() {
+    return unregisteredMembers;
+  }
+}
@@ -0,0 +1,36 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.household;
+
+/**
+ * DTO for where a household lives, as geocoded from its address.
+ */
+public class HouseholdLocationDto {
+
+  private final String id;
+  private final double latitude;
+  private final double longitude;
+
+  /**
+   * Instantiates a new Household location dto.
+   *
+   * @param id        the id of the household
+   * @param latitude  the latitude of the address
+   * @param longitude the longitude of the address
+   */
+  public HouseholdLocationDto(String id, double latitude, double longitude) {
+    this.id = id;
+    this.latitude = latitude;
+    this.longitude = longitude;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public double getLatitude() {
+    return latitude;
+  }
+
+  public double getLongitude() {
+    return longitude;
+  }
+}
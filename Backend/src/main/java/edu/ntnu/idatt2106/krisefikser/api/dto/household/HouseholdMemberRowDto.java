@@ -0,0 +1,68 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.household;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserResponseDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
+
+/**
+ * One row of the household details query: the household and its owner, repeated for each
+ * registered member. Built directly by a JPQL constructor expression, so no entities are loaded.
+ */
+public class HouseholdMemberRowDto {
+
+  private final String householdId;
+  private final String householdName;
+  private final String householdAddress;
+  private final UserResponseDto owner;
+  private final UserResponseDto member;
+
+  /**
+   * Constructor for HouseholdMemberRowDto. The owner columns are null when the household has no
+   * owner.
+   *
+   * @param householdId      the id of the household
+   * @param householdName    the name of the household
+   * @param householdAddress the address of the household
+   * @param ownerId          the id of the owner
+   * @param ownerEmail       the email of the owner
+   * @param ownerFullName    the full name of the owner
+   * @param ownerTlf         the phone number of the owner
+   * @param ownerRole        the role of the owner
+   * @param memberId         the id of the member
+   * @param memberEmail      the email of the member
+   * @param memberFullName   the full name of the member
+   * @param memberTlf        the phone number of the member
+   * @param memberRole       the role of the member
+   */
+  public HouseholdMemberRowDto(String householdId, String householdName, String householdAddress,
+      String ownerId, String ownerEmail, String ownerFullName, String ownerTlf, Role ownerRole,
+      String memberId, String memberEmail, String memberFullName, String memberTlf,
+      Role memberRole) {
+    this.householdId = householdId;
+    this.householdName = householdName;
+    this.householdAddress = householdAddress;
+    this.owner = ownerId == null ? null
+        : new UserResponseDto(ownerId, ownerEmail, ownerFullName, ownerTlf, ownerRole);
+    this.member = new UserResponseDto(memberId, memberEmail, memberFullName, memberTlf,
+        memberRole);
+  }
+
+  public String getHouseholdId() {
+    return householdId;
+  }
+
+  public String getHouseholdName() {
+    return householdName;
+  }
+
+  public String getHouseholdAddress() {
+    return householdAddress;
+  }
+
+  public UserResponseDto getOwner() {
+    return owner;
+  }
+
+  public UserResponseDto getMember() {
+    return member;
+  }
+}
@@ -1,6 +1,7 @@
 package edu.ntnu.idatt2106.krisefikser.api.dto.household;
 
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserResponseDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
 
 /**
  * A simple DTO for Household, to avoid infinite loops and expose only safe data.
@@ -23,6 +24,25 @@ public class HouseholdResponseDto {
     this.owner = owner;
   }
 
+  /**
+   * Constructor for HouseholdResponseDto from flat owner columns, used by JPQL constructor
+   * expressions so the household can be read without loading entities.
+   *
+   * @param id            the id of the household
+   * @param name          the name of the household
+   * @param address       the address of the household
+   * @param ownerId       the id of the owner
+   * @param ownerEmail    the email of the owner
+   * @param ownerFullName the full name of the owner
+   * @param ownerTlf      the phone number of the owner
+   * @param ownerRole     the role of the owner
+   */
+  public HouseholdResponseDto(String id, String name, String address, String ownerId,
+      String ownerEmail, String ownerFullName, String ownerTlf, Role ownerRole) {
+    this(id, name, address,
+        new UserResponseDto(ownerId, ownerEmail, ownerFullName, ownerTlf, ownerRole));
+  }
+
   public String getId() {
     return id;
   }
@@ -0,0 +1,58 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.incident;
+
+/**
+ * Data Transfer Object (DTO) for a packing list entry a household does not have enough of.
+ */
+public class GapItemDto {
+
+  private final String name;
+  private final Long itemId;
+  private final String unit;
+  private final double required;
+  private final double available;
+  private final double missing;
+
+  /**
+   * Instantiates a new Gap item dto.
+   *
+   * @param name      the name as written in the packing list
+   * @param itemId    the id of the matching catalog item, or null if there is none
+   * @param unit      the unit of the quantities, or null if none was given
+   * @param required  the quantity the packing list asks for
+   * @param available the quantity in the household's storage
+   * @param missing   the quantity still needed
+   */
+  public GapItemDto(String name, Long itemId, String unit, double required, double available,
+      double missing) {
+    this.name = name;
+    this.itemId = itemId;
+    this.unit = unit;
+    this.required = required;
+    this.available = available;
+    this.missing = missing;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Long getItemId() {
+    return itemId;
+  }
+
+  public String getUnit() {
+    return unit;
+  }
+
+  public double getRequired() {
+    return required;
+  }
+
+  public double getAvailable() {
+    return available;
+  }
+
+  public double getMissing() {
+    return missing;
+  }
+}
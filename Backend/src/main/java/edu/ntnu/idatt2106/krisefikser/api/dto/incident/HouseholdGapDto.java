@@ -0,0 +1,60 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.incident;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) with what a household is missing from a scenario's packing list.
+ */
+public class HouseholdGapDto {
+
+  private final String householdId;
+  private final String householdName;
+  private final Long scenarioId;
+  private final int totalItems;
+  private final int coveredItems;
+  private final List<GapItemDto> missing;
+
+  /**
+   * Instantiates a new Household gap dto.
+   *
+   * @param householdId   the id of the household
+   * @param householdName the name of the household
+   * @param scenarioId    the id of the scenario
+   * @param totalItems    the number of entries in the packing list
+   * @param coveredItems  the number of entries the household has enough of
+   * @param missing       the entries the household does not have enough of
+   */
+  public HouseholdGapDto(String householdId, String householdName, Long scenarioId,
+      int totalItems, int coveredItems, List<GapItemDto> missing) {
+    this.householdId = householdId;
+    this.householdName = householdName;
+    this.scenarioId = scenarioId;
+    this.totalItems = totalItems;
+    this.coveredItems = coveredItems;
+    this.missing = missing;
+  }
+
+  public String getHouseholdId() {
+    return householdId;
+  }
+
+  public String getHouseholdName() {
+    return householdName;
+  }
+
+  public Long getScenarioId() {
+    return scenarioId;
+  }
+
+  public int getTotalItems() {
+    return totalItems;
+  }
+
+  public int getCoveredItems() {
+    return coveredItems;
+  }
+
+  public List<GapItemDto> getMissing() {
+    return missing;
+  }
+}
@@ -1,5 +1,7 @@
 package edu.ntnu.idatt2106.krisefikser.api.dto.incident;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Incident;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Scenario;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.Severity;
@@ -15,11 +17,14 @@ public class IncidentRequestDto {
   @NotBlank
   private String name;
   private String description;
-  @NotNull
-  private double latitude;
-  @NotNull
-  private double longitude;
-  private double impactRadius;
+  // The center and radius of a circular impact area; all three may be left out when an impact
+  // zone is given
+  private Double latitude;
+  private Double longitude;
+  private Double impactRadius;
+  private String municipalityCode;
+  // A GeoJSON Polygon or MultiPolygon geometry
+  private JsonNode impactZone;
   private String severity;
   private LocalDateTime startedAt;
   private LocalDateTime endedAt;
@@ -37,6 +42,8 @@ public class IncidentRequestDto {
     incident.setLatitude(this.latitude);
     incident.setLongitude(this.longitude);
     incident.setImpactRadius(this.impactRadius);
+    incident.setMunicipalityCode(this.municipalityCode);
+    incident.setImpactZone(getImpactZoneJson());
     incident.setSeverity(Severity.valueOf(this.severity.toUpperCase()));
     incident.setStartedAt(this.startedAt);
     incident.setEndedAt(this.endedAt);
@@ -62,30 +69,66 @@ public class IncidentRequestDto {
     this.description = description;
   }
 
-  public double getLatitude() {
+  public Double getLatitude() {
     return latitude;
   }
 
-  public void setLatitude(double latitude) {
+  public void setLatitude(Double latitude) {
     this.latitude = latitude;
   }
 
-  public double getLongitude() {
+  public Double getLongitude() {
     return longitude;
   }
 
-  public void setLongitude(double longitude) {
+  public void setLongitude(Double longitude) {
     this.longitude = longitude;
   }
 
-  public double getImpactRadius() {
+  public Double getImpactRadius() {
     return impactRadius;
   }
 
-  public void setImpactRadius(double impactRadius) {
+  public void setImpactRadius(Double impactRadius) {
     this.impactRadius = impactRadius;
   }
 
+  public String getMunicipalityCode() {
+    return municipalityCode;
+  }
+
+  public void setMunicipalityCode(String municipalityCode) {
+    this.municipalityCode = municipalityCode;
+  }
+
+  public JsonNode getImpactZone() {
+    return impactZone;
+  }
+
+  public void setImpactZone(JsonNode impactZone) {
+    this.impactZone = impactZone;
+  }
+
+  /**
+   * Checks whether the request gives a circular impact area.
+   *
+   * @return true if the latitude, longitude and impact radius are all set
+   */
+  @JsonIgnore
+  public boolean hasImpactCircle() {
+    return latitude != null && longitude != null && impactRadius != null;
+  }
+
+  /**
+   * Gets the impact zone as GeoJSON text.
+   *
+   * @return the impact zone, or null if the incident only has a radius
+   */
+  @JsonIgnore
+  public String getImpactZoneJson() {
+    return impactZone == null || impactZone.isNull() ? null : impactZone.toString();
+  }
+
   public String getSeverity() {
     return severity;
   }
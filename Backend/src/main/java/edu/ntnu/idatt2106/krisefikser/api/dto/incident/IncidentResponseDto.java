@@ -1,5 +1,6 @@
 package edu.ntnu.idatt2106.krisefikser.api.dto.incident;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Incident;
 import java.time.LocalDateTime;
 
@@ -11,9 +12,12 @@ public class IncidentResponseDto {
   private Long id;
   private String name;
   private String description;
-  private double latitude;
-  private double longitude;
-  private double impactRadius;
+  private Double latitude;
+  private Double longitude;
+  private Double impactRadius;
+  private String municipalityCode;
+  @JsonRawValue
+  private String impactZone;
   private String severity;
   private LocalDateTime startedAt;
   private LocalDateTime endedAt;
@@ -33,6 +37,8 @@ public class IncidentResponseDto {
     dto.setLatitude(incident.getLatitude());
     dto.setLongitude(incident.getLongitude());
     dto.setImpactRadius(incident.getImpactRadius());
+    dto.setMunicipalityCode(incident.getMunicipalityCode());
+    dto.setImpactZone(incident.getImpactZone());
     dto.setSeverity(incident.getSeverity().name());
     dto.setStartedAt(incident.getStartedAt());
     dto.setEndedAt(incident.getEndedAt());
@@ -65,30 +71,46 @@ public class IncidentResponseDto {
     this.description = description;
   }
 
-  public double getLatitude() {
+  public Double getLatitude() {
     return latitude;
   }
 
-  public void setLatitude(double latitude) {
+  public void setLatitude(Double latitude) {
     this.latitude = latitude;
   }
 
-  public double getLongitude() {
+  public Double getLongitude() {
     return longitude;
   }
 
-  public void setLongitude(double longitude) {
+  public void setLongitude(Double longitude) {
     this.longitude = longitude;
   }
 
-  public double getImpactRadius() {
+  public Double getImpactRadius() {
     return impactRadius;
   }
 
-  public void setImpactRadius(double impactRadius) {
+  public void setImpactRadius(Double impactRadius) {
     this.impactRadius = impactRadius;
   }
 
+  public String getMunicipalityCode() {
+    return municipalityCode;
+  }
+
+  public void setMunicipalityCode(String municipalityCode) {
+    this.municipalityCode = municipalityCode;
+  }
+
+  public String getImpactZone() {
+    return impactZone;
+  }
+
+  public void setImpactZone(String impactZone) {
+    this.impactZone = impactZone;
+  }
+
   public String getSeverity() {
     return severity;
   }
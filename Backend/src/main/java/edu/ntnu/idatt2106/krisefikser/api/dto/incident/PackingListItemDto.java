@@ -0,0 +1,43 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.incident;
+
+/**
+ * Data Transfer Object (DTO) for one entry of a parsed scenario packing list.
+ */
+public class PackingListItemDto {
+
+  private final String name;
+  private final Long itemId;
+  private final double quantity;
+  private final String unit;
+
+  /**
+   * Instantiates a new Packing list item dto.
+   *
+   * @param name     the name as written in the packing list
+   * @param itemId   the id of the matching catalog item, or null if there is none
+   * @param quantity the quantity to keep
+   * @param unit     the unit of the quantity, or null if none was given
+   */
+  public PackingListItemDto(String name, Long itemId, double quantity, String unit) {
+    this.name = name;
+    this.itemId = itemId;
+    this.quantity = quantity;
+    this.unit = unit;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Long getItemId() {
+    return itemId;
+  }
+
+  public double getQuantity() {
+    return quantity;
+  }
+
+  public String getUnit() {
+    return unit;
+  }
+}
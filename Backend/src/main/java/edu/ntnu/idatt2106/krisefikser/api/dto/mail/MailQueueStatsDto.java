@@ -0,0 +1,66 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.mail;
+
+/**
+ * Data Transfer Object (DTO) with a snapshot of the outbound mail queue, used by admins to monitor
+ * email delivery.
+ */
+public class MailQueueStatsDto {
+
+  private final long pending;
+  private final long failed;
+  private final long sentTotal;
+  private final long failedAttemptsTotal;
+  private final long batchesTotal;
+  private final double averageBatchLatencyMs;
+  private final long lastBatchLatencyMs;
+
+  /**
+   * Instantiates a new Mail queue stats dto.
+   *
+   * @param pending               the number of mails waiting to be sent
+   * @param failed                the number of mails that gave up after the maximum attempts
+   * @param sentTotal             the number of mails sent since startup
+   * @param failedAttemptsTotal   the number of failed delivery attempts since startup
+   * @param batchesTotal          the number of batches sent since startup
+   * @param averageBatchLatencyMs the average time spent sending one batch
+   * @param lastBatchLatencyMs    the time spent sending the most recent batch
+   */
+  public MailQueueStatsDto(long pending, long failed, long sentTotal, long failedAttemptsTotal,
+      long batchesTotal, double averageBatchLatencyMs, long lastBatchLatencyMs) {
+    this.pending = pending;
+    this.failed = failed;
+    this.sentTotal = sentTotal;
+    this.failedAttemptsTotal = failedAttemptsTotal;
+    this.batchesTotal = batchesTotal;
+    this.averageBatchLatencyMs = averageBatchLatencyMs;
+    this.lastBatchLatencyMs = lastBatchLatencyMs;
+  }
+
+  public long getPending() {
+    return pending;
+  }
+
+  public long getFailed() {
+    return failed;
+  }
+
+  public long getSentTotal() {
+    return sentTotal;
+  }
+
+  public long getFailedAttemptsTotal() {
+    return failedAttemptsTotal;
+  }
+
+  public long getBatchesTotal() {
+    return batchesTotal;
+  }
+
+  public double getAverageBatchLatencyMs() {
+    return averageBatchLatencyMs;
+  }
+
+  public long getLastBatchLatencyMs() {
+    return lastBatchLatencyMs;
+  }
+}
@@ -0,0 +1,44 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.map;
+
+/**
+ * DTO for the outcome of geocoding the map icons and households that had no coordinates.
+ */
+public class GeocodingBackfillResultDto {
+
+  private final int iconsGeocoded;
+  private final int iconsUnmatched;
+  private final int householdsGeocoded;
+  private final int householdsUnmatched;
+
+  /**
+   * Instantiates a new Geocoding backfill result dto.
+   *
+   * @param iconsGeocoded       the number of map icons given coordinates
+   * @param iconsUnmatched      the number of map icons whose address was not found
+   * @param householdsGeocoded  the number of households given coordinates
+   * @param householdsUnmatched the number of households whose address was not found
+   */
+  public GeocodingBackfillResultDto(int iconsGeocoded, int iconsUnmatched,
+      int householdsGeocoded, int householdsUnmatched) {
+    this.iconsGeocoded = iconsGeocoded;
+    this.iconsUnmatched = iconsUnmatched;
+    this.householdsGeocoded = householdsGeocoded;
+    this.householdsUnmatched = householdsUnmatched;
+  }
+
+  public int getIconsGeocoded() {
+    return iconsGeocoded;
+  }
+
+  public int getIconsUnmatched() {
+    return iconsUnmatched;
+  }
+
+  public int getHouseholdsGeocoded() {
+    return householdsGeocoded;
+  }
+
+  public int getHouseholdsUnmatched() {
+    return householdsUnmatched;
+  }
+}
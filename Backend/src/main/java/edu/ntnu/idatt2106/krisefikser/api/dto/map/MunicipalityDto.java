@@ -0,0 +1,29 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.map;
+
+/**
+ * DTO for a municipality, identified by its official number.
+ */
+public class MunicipalityDto {
+
+  private final String code;
+  private final String name;
+
+  /**
+   * Instantiates a new Municipality dto.
+   *
+   * @param code the municipality number, such as 5001
+   * @param name the name of the municipality
+   */
+  public MunicipalityDto(String code, String name) {
+    this.code = code;
+    this.name = name;
+  }
+
+  public String getCode() {
+    return code;
+  }
+
+  public String getName() {
+    return name;
+  }
+}
@@ -0,0 +1,46 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.mapicon;
+
+import java.util.List;
+
+/**
+ * DTO for the map icons created, updated or deleted after a change sequence number.
+ */
+public class MapIconChangesDto {
+
+  private final List<MapIconResponseDto> changed;
+  private final List<Long> deleted;
+  private final long nextSince;
+  private final boolean hasMore;
+
+  /**
+   * Instantiates a new Map icon changes dto.
+   *
+   * @param changed   the map icons created or updated, in their current state
+   * @param deleted   the ids of the map icons deleted
+   * @param nextSince the sequence number to ask for changes after next time
+   * @param hasMore   whether more changes are waiting, to be fetched right away
+   */
+  public MapIconChangesDto(List<MapIconResponseDto> changed, List<Long> deleted, long nextSince,
+      boolean hasMore) {
+    this.changed = changed;
+    this.deleted = deleted;
+    this.nextSince = nextSince;
+    this.hasMore = hasMore;
+  }
+
+  public List<MapIconResponseDto> getChanged() {
+    return changed;
+  }
+
+  public List<Long> getDeleted() {
+    return deleted;
+  }
+
+  public long getNextSince() {
+    return nextSince;
+  }
+
+  public boolean isHasMore() {
+    return hasMore;
+  }
+}
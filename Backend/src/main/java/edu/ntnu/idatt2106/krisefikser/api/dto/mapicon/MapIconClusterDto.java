@@ -0,0 +1,48 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.mapicon;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import java.util.Map;
+
+/**
+ * DTO for a group of map icons that lie close together at a zoom level, sent in place of the
+ * icons themselves when the map is zoomed out.
+ */
+public class MapIconClusterDto {
+
+  private final double latitude;
+  private final double longitude;
+  private final int count;
+  private final Map<MapIconType, Integer> types;
+
+  /**
+   * Instantiates a new Map icon cluster dto.
+   *
+   * @param latitude  the latitude of the centroid of the icons
+   * @param longitude the longitude of the centroid of the icons
+   * @param count     the number of icons
+   * @param types     the number of icons of each type
+   */
+  public MapIconClusterDto(double latitude, double longitude, int count,
+      Map<MapIconType, Integer> types) {
+    this.latitude = latitude;
+    this.longitude = longitude;
+    this.count = count;
+    this.types = types;
+  }
+
+  public double getLatitude() {
+    return latitude;
+  }
+
+  public double getLongitude() {
+    return longitude;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public Map<MapIconType, Integer> getTypes() {
+    return types;
+  }
+}
@@ -0,0 +1,53 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.mapicon;
+
+import java.util.List;
+
+/**
+ * DTO for the progress or outcome of a bulk map icon import.
+ */
+public class MapIconImportResultDto {
+
+  private final boolean running;
+  private final int rowsRead;
+  private final int imported;
+  private final int rejected;
+  private final List<String> errors;
+
+  /**
+   * Instantiates a new Map icon import result dto.
+   *
+   * @param running  whether the import is still going
+   * @param rowsRead the number of rows read from the file so far
+   * @param imported the number of map icons saved so far
+   * @param rejected the number of rows that failed validation
+   * @param errors   what was wrong with the first rejected rows
+   */
+  public MapIconImportResultDto(boolean running, int rowsRead, int imported, int rejected,
+      List<String> errors) {
+    this.running = running;
+    this.rowsRead = rowsRead;
+    this.imported = imported;
+    this.rejected = rejected;
+    this.errors = errors;
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  public int getRowsRead() {
+    return rowsRead;
+  }
+
+  public int getImported() {
+    return imported;
+  }
+
+  public int getRejected() {
+    return rejected;
+  }
+
+  public List<String> getErrors() {
+    return errors;
+  }
+}
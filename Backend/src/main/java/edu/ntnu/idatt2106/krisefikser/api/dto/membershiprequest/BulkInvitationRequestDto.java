@@ -0,0 +1,34 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for inviting many users to the current user's household at once.
+ */
+public class BulkInvitationRequestDto {
+
+  private List<String> emails;
+
+  /**
+   * Default constructor for BulkInvitationRequestDto.
+   */
+  public BulkInvitationRequestDto() {
+  }
+
+  /**
+   * Constructor for BulkInvitationRequestDto.
+   *
+   * @param emails the emails of the users to invite
+   */
+  public BulkInvitationRequestDto(List<String> emails) {
+    this.emails = emails;
+  }
+
+  public List<String> getEmails() {
+    return emails;
+  }
+
+  public void setEmails(List<String> emails) {
+    this.emails = emails;
+  }
+}
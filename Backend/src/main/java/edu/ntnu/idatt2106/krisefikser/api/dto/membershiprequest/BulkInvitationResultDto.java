@@ -0,0 +1,51 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outcome of a bulk invitation, with every requested email sorted into exactly one list.
+ */
+public class BulkInvitationResultDto {
+
+  private final List<String> invited = new ArrayList<>();
+  private final List<String> alreadyMembers = new ArrayList<>();
+  private final List<String> alreadyInvited = new ArrayList<>();
+  private final List<String> notFound = new ArrayList<>();
+
+  /**
+   * Gets the emails that were sent a new invitation.
+   *
+   * @return the invited emails
+   */
+  public List<String> getInvited() {
+    return invited;
+  }
+
+  /**
+   * Gets the emails of users who already belong to the household.
+   *
+   * @return the emails of existing members
+   */
+  public List<String> getAlreadyMembers() {
+    return alreadyMembers;
+  }
+
+  /**
+   * Gets the emails of users who already have a pending invitation from the household.
+   *
+   * @return the emails with a pending invitation
+   */
+  public List<String> getAlreadyInvited() {
+    return alreadyInvited;
+  }
+
+  /**
+   * Gets the emails that do not belong to any user.
+   *
+   * @return the unknown emails
+   */
+  public List<String> getNotFound() {
+    return notFound;
+  }
+}
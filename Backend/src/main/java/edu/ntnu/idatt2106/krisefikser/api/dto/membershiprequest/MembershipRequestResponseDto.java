@@ -3,6 +3,7 @@ package edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestStatus;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestType;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
 import java.sql.Timestamp;
 
 /**
@@ -38,6 +39,39 @@ public class MembershipRequestResponseDto {
     this.status = status;
   }
 
+  /**
+   * Constructor taking the sender and recipient as flat columns, used by the projection queries
+   * in MembershipRequestRepository.
+   *
+   * @param id                the id of the request
+   * @param householdId       the id of the household
+   * @param householdName     the name of the household
+   * @param senderId          the id of the sender
+   * @param senderEmail       the email of the sender
+   * @param senderFullName    the full name of the sender
+   * @param senderTlf         the phone number of the sender
+   * @param senderRole        the role of the sender
+   * @param recipientId       the id of the recipient
+   * @param recipientEmail    the email of the recipient
+   * @param recipientFullName the full name of the recipient
+   * @param recipientTlf      the phone number of the recipient
+   * @param recipientRole     the role of the recipient
+   * @param requestType       the type of the request
+   * @param status            the status of the request
+   * @param sentAt            when the request was sent
+   */
+  public MembershipRequestResponseDto(Long id, String householdId, String householdName,
+      String senderId, String senderEmail, String senderFullName, String senderTlf,
+      Role senderRole, String recipientId, String recipientEmail, String recipientFullName,
+      String recipientTlf, Role recipientRole, RequestType requestType, RequestStatus status,
+      Timestamp sentAt) {
+    this(id, householdId, householdName,
+        new UserResponseDto(senderId, senderEmail, senderFullName, senderTlf, senderRole),
+        new UserResponseDto(recipientId, recipientEmail, recipientFullName, recipientTlf,
+            recipientRole),
+        requestType, status, sentAt);
+  }
+
   public Timestamp getSentAt() {
     return sentAt;
   }
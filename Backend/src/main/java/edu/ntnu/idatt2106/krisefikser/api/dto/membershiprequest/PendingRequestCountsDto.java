@@ -0,0 +1,50 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest;
+
+/**
+ * The number of pending membership requests that concern a user: invitations they have received,
+ * and the join requests and invitations waiting on their household.
+ */
+public class PendingRequestCountsDto {
+
+  private int receivedInvitations;
+  private int householdJoinRequests;
+  private int householdInvitations;
+
+  /**
+   * Constructor for PendingRequestCountsDto.
+   *
+   * @param receivedInvitations   pending invitations received by the user
+   * @param householdJoinRequests pending join requests to the user's household
+   * @param householdInvitations  pending invitations sent from the user's household
+   */
+  public PendingRequestCountsDto(int receivedInvitations, int householdJoinRequests,
+      int householdInvitations) {
+    this.receivedInvitations = receivedInvitations;
+    this.householdJoinRequests = householdJoinRequests;
+    this.householdInvitations = householdInvitations;
+  }
+
+  public int getReceivedInvitations() {
+    return receivedInvitations;
+  }
+
+  public void setReceivedInvitations(int receivedInvitations) {
+    this.receivedInvitations = receivedInvitations;
+  }
+
+  public int getHouseholdJoinRequests() {
+    return householdJoinRequests;
+  }
+
+  public void setHouseholdJoinRequests(int householdJoinRequests) {
+    this.householdJoinRequests = householdJoinRequests;
+  }
+
+  public int getHouseholdInvitations() {
+    return householdInvitations;
+  }
+
+  public void setHouseholdInvitations(int householdInvitations) {
+    this.householdInvitations = householdInvitations;
+  }
+}
@@ -0,0 +1,36 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.position;
+
+/**
+ * DTO for the last shared position of a user, as numbers.
+ */
+public class UserLocationDto {
+
+  private final String userId;
+  private final double latitude;
+  private final double longitude;
+
+  /**
+   * Instantiates a new User location dto.
+   *
+   * @param userId    the id of the user
+   * @param latitude  the latitude of the shared position
+   * @param longitude the longitude of the shared position
+   */
+  public UserLocationDto(String userId, double latitude, double longitude) {
+    this.userId = userId;
+    this.latitude = latitude;
+    this.longitude = longitude;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public double getLatitude() {
+    return latitude;
+  }
+
+  public double getLongitude() {
+    return longitude;
+  }
+}
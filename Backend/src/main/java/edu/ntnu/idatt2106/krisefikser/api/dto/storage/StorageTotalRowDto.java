@@ -0,0 +1,52 @@
+package edu.ntnu.idatt2106.krisefikser.api.dto.storage;
+
+/**
+ * The total amount of one item in one unit that a household has in storage. Built directly by a
+ * JPQL constructor expression, so no entities are loaded.
+ */
+public class StorageTotalRowDto {
+
+  private final String householdId;
+  private final Long itemId;
+  private final String itemName;
+  private final String unit;
+  private final long amount;
+
+  /**
+   * Constructor for StorageTotalRowDto.
+   *
+   * @param householdId the id of the household
+   * @param itemId      the id of the item
+   * @param itemName    the name of the item
+   * @param unit        the unit the amount is counted in
+   * @param amount      the total amount
+   */
+  public StorageTotalRowDto(String householdId, Long itemId, String itemName, String unit,
+      Long amount) {
+    this.householdId = householdId;
+    this.itemId = itemId;
+    this.itemName = itemName;
+    this.unit = unit;
+    this.amount = amount == null ? 0 : amount;
+  }
+
+  public String getHouseholdId() {
+    return householdId;
+  }
+
+  public Long getItemId() {
+    return itemId;
+  }
+
+  public String getItemName() {
+    return itemName;
+  }
+
+  public String getUnit() {
+    return unit;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+}
@@ -1,7 +1,9 @@
 package edu.ntnu.idatt2106.krisefikser.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -22,4 +24,66 @@ public class AppConfig {
   public RestTemplate restTemplate() {
     return new RestTemplate();
   }
-}
\ No newline at end of file
+
+  /**
+   * Creates the pool that runs password hashing. Hashing is CPU bound, so the pool is sized to the
+   * number of processors and a full queue rejects new work instead of piling up requests.
+   *
+   * @param queueCapacity the number of hashes that may wait for a free thread
+   * @return the password hashing executor
+   */
+  @Bean
+  public ThreadPoolTaskExecutor passwordHashingExecutor(
+      @Value("${app.registration.hashing-queue-capacity:100}") int queueCapacity) {
+    int processors = Runtime.getRuntime().availableProcessors();
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(processors);
+    executor.setMaxPoolSize(processors);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("password-hashing-");
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Creates the pool for the blocking steps of registration, such as the hCaptcha round-trip and
+   * database calls, so they can run side by side without holding the request thread.
+   *
+   * @param threads       the number of threads
+   * @param queueCapacity the number of tasks that may wait for a free thread
+   * @return the registration executor
+   */
+  @Bean
+  public ThreadPoolTaskExecutor registrationExecutor(
+      @Value("${app.registration.io-threads:16}") int threads,
+      @Value("${app.registration.io-queue-capacity:200}") int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("registration-");
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Creates the pool that saves and pushes notifications in the background for operations that
+   * notify many users at once, such as bulk invitations.
+   *
+   * @param threads       the number of threads
+   * @param queueCapacity the number of dispatch tasks that may wait for a free thread
+   * @return the notification executor
+   */
+  @Bean
+  public ThreadPoolTaskExecutor notificationExecutor(
+      @Value("${app.notifications.dispatch-threads:2}") int threads,
+      @Value("${app.notifications.dispatch-queue-capacity:100}") int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("notification-");
+    executor.initialize();
+    return executor;
+  }
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
@@ -17,7 +18,10 @@ import java.util.List;
  * The type Household.
  */
 @Entity
-@Table(name = "household")
+@Table(name = "household", indexes = {
+    // Serves the prefix search on name
+    @Index(name = "idx_household_name", columnList = "name")
+})
 public class Household {
   @Id
   @Column(name = "id", updatable = false, nullable = false, columnDefinition = "CHAR(36)")
@@ -29,6 +33,13 @@ public class Household {
   @Column(nullable = false)
   private String address;
 
+  // Geocoded from the address; null if the address could not be found
+  @Column
+  private Double latitude;
+
+  @Column
+  private Double longitude;
+
   @Column(nullable = false)
   private int numberOfMembers;
 
@@ -112,6 +123,42 @@ public class Household {
     this.address = address;
   }
 
+  /**
+   * Gets latitude.
+   *
+   * @return the latitude, or null if the address has not been geocoded
+   */
+  public Double getLatitude() {
+    return latitude;
+  }
+
+  /**
+   * Sets latitude.
+   *
+   * @param latitude the latitude
+   */
+  public void setLatitude(Double latitude) {
+    this.latitude = latitude;
+  }
+
+  /**
+   * Gets longitude.
+   *
+   * @return the longitude, or null if the address has not been geocoded
+   */
+  public Double getLongitude() {
+    return longitude;
+  }
+
+  /**
+   * Sets longitude.
+   *
+   * @param longitude the longitude
+   */
+  public void setLongitude(Double longitude) {
+    this.longitude = longitude;
+  }
+
   /**
    * Gets number of members.
    *
@@ -0,0 +1,51 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.entity.household;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * The next free block of household IDs. Each node reserves a block by incrementing the counter
+ * and then hands out the IDs inside it from memory.
+ */
+@Entity
+@Table(name = "household_id_block")
+public class HouseholdIdBlock {
+
+  @Id
+  @Column(name = "name", length = 50)
+  private String name;
+
+  @Column(name = "next_block", nullable = false)
+  private long nextBlock;
+
+  /**
+   * Instantiates a new Household id block.
+   */
+  public HouseholdIdBlock() {
+  }
+
+  /**
+   * Instantiates a new Household id block.
+   *
+   * @param name      the name of the sequence
+   * @param nextBlock the next block that has not been handed out
+   */
+  public HouseholdIdBlock(String name, long nextBlock) {
+    this.name = name;
+    this.nextBlock = nextBlock;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getNextBlock() {
+    return nextBlock;
+  }
+
+  public void setNextBlock(long nextBlock) {
+    this.nextBlock = nextBlock;
+  }
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -17,7 +18,11 @@ import java.time.LocalDateTime;
  * The type Incident.
  */
 @Entity
-@Table(name = "incident")
+@Table(name = "incident", indexes = {
+    @Index(name = "idx_incident_municipality_code", columnList = "municipality_code"),
+    // Serves the box around a municipality when listing the incidents centered in it
+    @Index(name = "idx_incident_position", columnList = "latitude, longitude")
+})
 public class Incident {
 
   @Id
@@ -37,6 +42,27 @@ public class Incident {
   @Column
   private Double impactRadius;
 
+  // Alerts everyone inside this municipality as well as inside the radius
+  @Column
+  private String municipalityCode;
+
+  // A GeoJSON Polygon or MultiPolygon, for zones that follow terrain rather than a circle
+  @Column(columnDefinition = "TEXT")
+  private String impactZone;
+
+  // The box around the impact zone, so incidents can be found by area without reading the zone
+  @Column
+  private Double zoneSouth;
+
+  @Column
+  private Double zoneWest;
+
+  @Column
+  private Double zoneNorth;
+
+  @Column
+  private Double zoneEast;
+
   @Enumerated(EnumType.STRING)
   @Column(nullable = false)
   private Severity severity;
@@ -98,6 +124,53 @@ public class Incident {
     this.impactRadius = impactRadius;
   }
 
+  public String getMunicipalityCode() {
+    return municipalityCode;
+  }
+
+  public void setMunicipalityCode(String municipalityCode) {
+    this.municipalityCode = municipalityCode;
+  }
+
+  public String getImpactZone() {
+    return impactZone;
+  }
+
+  public void setImpactZone(String impactZone) {
+    this.impactZone = impactZone;
+  }
+
+  public Double getZoneSouth() {
+    return zoneSouth;
+  }
+
+  public Double getZoneWest() {
+    return zoneWest;
+  }
+
+  public Double getZoneNorth() {
+    return zoneNorth;
+  }
+
+  public Double getZoneEast() {
+    return zoneEast;
+  }
+
+  /**
+   * Sets the box around the impact zone.
+   *
+   * @param south the southern edge, or null if the incident has no zone
+   * @param west  the western edge, or null if the incident has no zone
+   * @param north the northern edge, or null if the incident has no zone
+   * @param east  the eastern edge, or null if the incident has no zone
+   */
+  public void setZoneBounds(Double south, Double west, Double north, Double east) {
+    this.zoneSouth = south;
+    this.zoneWest = west;
+    this.zoneNorth = north;
+    this.zoneEast = east;
+  }
+
   public Severity getSeverity() {
     return severity;
   }
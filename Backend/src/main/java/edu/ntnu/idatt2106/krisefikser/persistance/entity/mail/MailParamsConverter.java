@@ -0,0 +1,43 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.entity.mail;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.util.Map;
+
+/**
+ * Stores the placeholder values of a templated email as a JSON object in a single column.
+ */
+@Converter
+public class MailParamsConverter implements AttributeConverter<Map<String, String>, String> {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final TypeReference<Map<String, String>> TYPE = new TypeReference<>() {
+  };
+
+  @Override
+  public String convertToDatabaseColumn(Map<String, String> params) {
+    if (params == null) {
+      return null;
+    }
+    try {
+      return MAPPER.writeValueAsString(params);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Could not serialize email parameters", e);
+    }
+  }
+
+  @Override
+  public Map<String, String> convertToEntityAttribute(String json) {
+    if (json == null) {
+      return null;
+    }
+    try {
+      return MAPPER.readValue(json, TYPE);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Could not read email parameters", e);
+    }
+  }
+}
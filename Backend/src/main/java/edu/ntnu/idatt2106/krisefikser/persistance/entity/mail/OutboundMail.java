@@ -0,0 +1,373 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.entity.mail;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MailStatus;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MailTemplate;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An email waiting in the outbound mail queue. Rows are written by the request thread and drained
+ * by the mail queue workers, so the queue survives restarts.
+ *
+ * <p>A mail either carries a ready-made HTML body, or a template with its placeholder values that
+ * is rendered when the mail is sent. Both are cleared once the mail is sent or given up on.
+ */
+@Entity
+@Table(name = "outbound_mail", indexes = {
+    @Index(name = "idx_outbound_mail_status_next_attempt", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_outbound_mail_claim_token", columnList = "claim_token")
+})
+public class OutboundMail {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private String recipient;
+
+  @Column(nullable = false)
+  private String subject;
+
+  @Column(columnDefinition = "TEXT")
+  private String body;
+
+  @Enumerated(EnumType.STRING)
+  @Column
+  private MailTemplate template;
+
+  @Column(length = 35)
+  private String locale;
+
+  @Convert(converter = MailParamsConverter.class)
+  @Column(columnDefinition = "TEXT")
+  private Map<String, String> templateParams;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private MailStatus status;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column(name = "next_attempt_at", nullable = false)
+  private LocalDateTime nextAttemptAt;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column
+  private LocalDateTime sentAt;
+
+  @Column(length = 1000)
+  private String lastError;
+
+  @Column(name = "claim_token", length = 36)
+  private String claimToken;
+
+  @Column
+  private LocalDateTime claimedAt;
+
+  /**
+   * Instantiates a new Outbound mail.
+   */
+  public OutboundMail() {
+  }
+
+  /**
+   * Instantiates a new pending Outbound mail that is due immediately.
+   *
+   * @param recipient the recipient's email address
+   * @param subject   the subject
+   * @param body      the HTML body
+   */
+  public OutboundMail(String recipient, String subject, String body) {
+    this.recipient = recipient;
+    this.subject = subject;
+    this.body = body;
+    this.status = MailStatus.PENDING;
+    this.attempts = 0;
+    this.createdAt = LocalDateTime.now();
+    this.nextAttemptAt = this.createdAt;
+  }
+
+  /**
+   * Instantiates a new pending Outbound mail that is rendered from a template when it is sent.
+   *
+   * @param recipient      the recipient's email address
+   * @param subject        the subject
+   * @param template       the template used for the body
+   * @param locale         the locale of the template
+   * @param templateParams the placeholder values
+   */
+  public OutboundMail(String recipient, String subject, MailTemplate template, Locale locale,
+      Map<String, String> templateParams) {
+    this(recipient, subject, null);
+    this.template = template;
+    this.locale = locale.toLanguageTag();
+    this.templateParams = templateParams;
+  }
+
+  /**
+   * Gets id.
+   *
+   * @return the id
+   */
+  public Long getId() {
+    return id;
+  }
+
+  /**
+   * Sets id.
+   *
+   * @param id the id
+   */
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  /**
+   * Gets recipient.
+   *
+   * @return the recipient
+   */
+  public String getRecipient() {
+    return recipient;
+  }
+
+  /**
+   * Sets recipient.
+   *
+   * @param recipient the recipient
+   */
+  public void setRecipient(String recipient) {
+    this.recipient = recipient;
+  }
+
+  /**
+   * Gets subject.
+   *
+   * @return the subject
+   */
+  public String getSubject() {
+    return subject;
+  }
+
+  /**
+   * Sets subject.
+   *
+   * @param subject the subject
+   */
+  public void setSubject(String subject) {
+    this.subject = subject;
+  }
+
+  /**
+   * Gets body.
+   *
+   * @return the body
+   */
+  public String getBody() {
+    return body;
+  }
+
+  /**
+   * Sets body.
+   *
+   * @param body the body
+   */
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  /**
+   * Gets status.
+   *
+   * @return the status
+   */
+  public MailStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * Sets status.
+   *
+   * @param status the status
+   */
+  public void setStatus(MailStatus status) {
+    this.status = status;
+  }
+
+  /**
+   * Gets attempts.
+   *
+   * @return the attempts
+   */
+  public int getAttempts() {
+    return attempts;
+  }
+
+  /**
+   * Sets attempts.
+   *
+   * @param attempts the attempts
+   */
+  public void setAttempts(int attempts) {
+    this.attempts = attempts;
+  }
+
+  /**
+   * Gets next attempt at.
+   *
+   * @return the next attempt at
+   */
+  public LocalDateTime getNextAttemptAt() {
+    return nextAttemptAt;
+  }
+
+  /**
+   * Sets next attempt at.
+   *
+   * @param nextAttemptAt the next attempt at
+   */
+  public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+    this.nextAttemptAt = nextAttemptAt;
+  }
+
+  /**
+   * Gets created at.
+   *
+   * @return the created at
+   */
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  /**
+   * Sets created at.
+   *
+   * @param createdAt the created at
+   */
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  /**
+   * Gets sent at.
+   *
+   * @return the sent at
+   */
+  public LocalDateTime getSentAt() {
+    return sentAt;
+  }
+
+  /**
+   * Sets sent at.
+   *
+   * @param sentAt the sent at
+   */
+  public void setSentAt(LocalDateTime sentAt) {
+    this.sentAt = sentAt;
+  }
+
+  /**
+   * Gets last error.
+   *
+   * @return the last error
+   */
+  public String getLastError() {
+    return lastError;
+  }
+
+  /**
+   * Sets last error.
+   *
+   * @param lastError the last error
+   */
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+
+  /**
+   * Gets the token of the drain round that claimed the mail for sending.
+   *
+   * @return the claim token, or null if the mail was never claimed
+   */
+  public String getClaimToken() {
+    return claimToken;
+  }
+
+  /**
+   * Gets the time the mail was last claimed for sending.
+   *
+   * @return the claim time, or null if the mail was never claimed
+   */
+  public LocalDateTime getClaimedAt() {
+    return claimedAt;
+  }
+
+  /**
+   * Gets the template.
+   *
+   * @return the template, or null if the mail has a ready-made body
+   */
+  public MailTemplate getTemplate() {
+    return template;
+  }
+
+  /**
+   * Sets the template.
+   *
+   * @param template the template
+   */
+  public void setTemplate(MailTemplate template) {
+    this.template = template;
+  }
+
+  /**
+   * Gets the locale as a language tag.
+   *
+   * @return the locale
+   */
+  public String getLocale() {
+    return locale;
+  }
+
+  /**
+   * Sets the locale as a language tag.
+   *
+   * @param locale the locale
+   */
+  public void setLocale(String locale) {
+    this.locale = locale;
+  }
+
+  /**
+   * Gets the template params.
+   *
+   * @return the template params
+   */
+  public Map<String, String> getTemplateParams() {
+    return templateParams;
+  }
+
+  /**
+   * Sets the template params.
+   *
+   * @param templateParams the template params
+   */
+  public void setTemplateParams(Map<String, String> templateParams) {
+    this.templateParams = templateParams;
+  }
+}
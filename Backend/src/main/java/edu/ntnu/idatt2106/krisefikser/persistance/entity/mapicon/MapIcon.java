@@ -8,13 +8,19 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 /**
  * The type Map icon.
  */
 @Entity
-@Table(name = "map_icon")
+@Table(name = "map_icon", indexes = {
+    // Serves the bounding box lookups behind map tiles
+    @Index(name = "idx_map_icon_lat_lon", columnList = "latitude, longitude"),
+    // Serves the delta sync, which reads icons changed after a sequence number
+    @Index(name = "idx_map_icon_change_seq", columnList = "change_seq")
+})
 public class MapIcon {
 
   @Id
@@ -43,6 +49,9 @@ public class MapIcon {
   @Column(length = 255)
   private String contactInfo;
 
+  @Column(name = "change_seq", nullable = false)
+  private long changeSeq;
+
   /**
    * Gets the ID of the map icon.
    *
@@ -186,4 +195,23 @@ public class MapIcon {
   public void setContactInfo(String contactInfo) {
     this.contactInfo = contactInfo;
   }
+
+  /**
+   * Gets the change sequence number of the map icon. It is set from a single increasing counter
+   * every time the icon is created or updated.
+   *
+   * @return the change sequence number, 0 if never set
+   */
+  public long getChangeSeq() {
+    return changeSeq;
+  }
+
+  /**
+   * Sets the change sequence number of the map icon.
+   *
+   * @param changeSeq the change sequence number
+   */
+  public void setChangeSeq(long changeSeq) {
+    this.changeSeq = changeSeq;
+  }
 }
@@ -0,0 +1,50 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * The last change sequence number handed out to a map icon or tombstone. There is a single row,
+ * which every transaction that changes map icons locks by incrementing it.
+ */
+@Entity
+@Table(name = "map_icon_change_counter")
+public class MapIconChangeCounter {
+
+  /**
+   * The id of the only row.
+   */
+  public static final int ID = 1;
+
+  @Id
+  private int id;
+
+  @Column(name = "last_seq", nullable = false)
+  private long lastSeq;
+
+  /**
+   * Instantiates a new Map icon change counter.
+   */
+  public MapIconChangeCounter() {
+  }
+
+  /**
+   * Instantiates a new Map icon change counter.
+   *
+   * @param lastSeq the last sequence number handed out
+   */
+  public MapIconChangeCounter(long lastSeq) {
+    this.id = ID;
+    this.lastSeq = lastSeq;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public long getLastSeq() {
+    return lastSeq;
+  }
+}
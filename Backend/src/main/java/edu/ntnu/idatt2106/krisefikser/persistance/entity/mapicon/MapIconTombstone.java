@@ -0,0 +1,49 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Records that a map icon was deleted, so clients keeping a copy of the map learn to drop it.
+ */
+@Entity
+@Table(name = "map_icon_tombstone", indexes = {
+    @Index(name = "idx_map_icon_tombstone_change_seq", columnList = "change_seq")
+})
+public class MapIconTombstone {
+
+  @Id
+  @Column(name = "map_icon_id")
+  private Long mapIconId;
+
+  @Column(name = "change_seq", nullable = false)
+  private long changeSeq;
+
+  /**
+   * Instantiates a new Map icon tombstone.
+   */
+  public MapIconTombstone() {
+  }
+
+  /**
+   * Instantiates a new Map icon tombstone.
+   *
+   * @param mapIconId the id of the deleted map icon
+   * @param changeSeq the change sequence number of the deletion
+   */
+  public MapIconTombstone(Long mapIconId, long changeSeq) {
+    this.mapIconId = mapIconId;
+    this.changeSeq = changeSeq;
+  }
+
+  public Long getMapIconId() {
+    return mapIconId;
+  }
+
+  public long getChangeSeq() {
+    return changeSeq;
+  }
+}
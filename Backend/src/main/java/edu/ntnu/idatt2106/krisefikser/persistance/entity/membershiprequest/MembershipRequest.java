@@ -11,8 +11,9 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import java.sql.Timestamp;
 
@@ -20,7 +21,12 @@ import java.sql.Timestamp;
  * The type Membership request.
  */
 @Entity
-@Table(name = "membership_request")
+@Table(name = "membership_request", indexes = {
+    @Index(name = "idx_membership_request_household_type_status",
+        columnList = "household_id, type, status"),
+    @Index(name = "idx_membership_request_receiver_type_status",
+        columnList = "receiver_id, type, status")
+})
 public class MembershipRequest {
 
   @Id
@@ -28,15 +34,15 @@ public class MembershipRequest {
   private Long id;
 
   @JoinColumn(name = "household_id")
-  @OneToOne(optional = false)
+  @ManyToOne(optional = false)
   private Household household;
 
   @JoinColumn(name = "sender_id")
-  @OneToOne(optional = false)
+  @ManyToOne(optional = false)
   private User sender;
 
   @JoinColumn(name = "receiver_id")
-  @OneToOne(optional = false)
+  @ManyToOne(optional = false)
   private User receiver;
 
   @Column
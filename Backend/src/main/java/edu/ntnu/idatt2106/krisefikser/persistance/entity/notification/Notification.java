@@ -10,7 +10,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
@@ -32,7 +32,7 @@ public class Notification {
    * The user id.
    */
   @JoinColumn(name = "user_id")
-  @OneToOne(optional = false)
+  @ManyToOne(optional = false)
   private User user;
 
   /**
@@ -0,0 +1,145 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.entity.user;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.RevocationType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+
+/**
+ * A revoked JWT, or a cut-off time for all tokens of a user. Rows are kept until every token they
+ * cover has expired on its own.
+ */
+@Entity
+@Table(name = "revoked_token",
+    uniqueConstraints = @UniqueConstraint(name = "uk_revoked_token_type_value",
+        columnNames = {"type", "token_value"}),
+    indexes = @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at"))
+public class RevokedToken {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 10)
+  private RevocationType type;
+
+  @Column(name = "token_value", nullable = false)
+  private String value;
+
+  @Column(name = "revoked_at", nullable = false)
+  private Instant revokedAt;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+
+  /**
+   * Instantiates a new Revoked token.
+   */
+  public RevokedToken() {
+  }
+
+  /**
+   * Instantiates a new Revoked token.
+   *
+   * @param type      the type of revocation
+   * @param value     the jti of the token, or the username for a user revocation
+   * @param revokedAt the time of revocation
+   * @param expiresAt the time after which the revocation no longer matters
+   */
+  public RevokedToken(RevocationType type, String value, Instant revokedAt, Instant expiresAt) {
+    this.type = type;
+    this.value = value;
+    this.revokedAt = revokedAt;
+    this.expiresAt = expiresAt;
+  }
+
+  /**
+   * Gets id.
+   *
+   * @return the id
+   */
+  public Long getId() {
+    return id;
+  }
+
+  /**
+   * Gets type.
+   *
+   * @return the type
+   */
+  public RevocationType getType() {
+    return type;
+  }
+
+  /**
+   * Sets type.
+   *
+   * @param type the type
+   */
+  public void setType(RevocationType type) {
+    this.type = type;
+  }
+
+  /**
+   * Gets value.
+   *
+   * @return the jti or username
+   */
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * Sets value.
+   *
+   * @param value the jti or username
+   */
+  public void setValue(String value) {
+    this.value = value;
+  }
+
+  /**
+   * Gets revoked at.
+   *
+   * @return the revoked at
+   */
+  public Instant getRevokedAt() {
+    return revokedAt;
+  }
+
+  /**
+   * Sets revoked at.
+   *
+   * @param revokedAt the revoked at
+   */
+  public void setRevokedAt(Instant revokedAt) {
+    this.revokedAt = revokedAt;
+  }
+
+  /**
+   * Gets expires at.
+   *
+   * @return the expires at
+   */
+  public Instant getExpiresAt() {
+    return expiresAt;
+  }
+
+  /**
+   * Sets expires at.
+   *
+   * @param expiresAt the expires at
+   */
+  public void setExpiresAt(Instant expiresAt) {
+    this.expiresAt = expiresAt;
+  }
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -18,7 +19,10 @@ import org.hibernate.annotations.GenericGenerator;
  * The type User.
  */
 @Entity
-@Table(name = "\"user\"")
+@Table(name = "\"user\"", indexes = {
+    // Serves the box around an impact zone or municipality when finding who to alert
+    @Index(name = "idx_user_position", columnList = "position_latitude, position_longitude")
+})
 public class User {
 
   @Id
@@ -73,6 +77,13 @@ public class User {
   @Column(name = "latitude")
   private String latitude;
 
+  // Numeric copies of the shared position, kept by the setters so area queries can use an index
+  @Column(name = "position_latitude")
+  private Double positionLatitude;
+
+  @Column(name = "position_longitude")
+  private Double positionLongitude;
+
 
   /**
    * Instantiates a new User.
@@ -138,6 +149,7 @@ public class User {
    */
   public void setLatitude(String latitude) {
     this.latitude = latitude;
+    this.positionLatitude = parseCoordinate(latitude, 90);
   }
 
   /**
@@ -156,6 +168,34 @@ public class User {
    */
   public void setLongitude(String longitude) {
     this.longitude = longitude;
+    this.positionLongitude = parseCoordinate(longitude, 180);
+  }
+
+  /**
+   * Gets the latitude of the shared position as a number.
+   *
+   * @return the latitude, or null if no valid position is shared
+   */
+  public Double getPositionLatitude() {
+    return positionLatitude;
+  }
+
+  /**
+   * Gets the longitude of the shared position as a number.
+   *
+   * @return the longitude, or null if no valid position is shared
+   */
+  public Double getPositionLongitude() {
+    return positionLongitude;
+  }
+
+  /**
+   * Fills in the numeric copies of the shared position from the stored text, for users saved
+   * before the copies existed.
+   */
+  public void indexPosition() {
+    this.positionLatitude = parseCoordinate(latitude, 90);
+    this.positionLongitude = parseCoordinate(longitude, 180);
   }
 
   /**
@@ -373,4 +413,17 @@ public class User {
   public void setResetPasswordTokenExpiration(Date resetPasswordTokenExpiration) {
     this.resetPasswordTokenExpiration = resetPasswordTokenExpiration;
   }
-}
\ No newline at end of file
+
+  private static Double parseCoordinate(String value, double limit) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      double coordinate = Double.parseDouble(value.trim());
+      // Out of range or NaN positions are left out of area queries rather than stored
+      return Math.abs(coordinate) <= limit ? coordinate : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
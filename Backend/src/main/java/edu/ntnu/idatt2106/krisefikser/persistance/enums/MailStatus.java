@@ -0,0 +1,12 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.enums;
+
+/**
+ * This file defines the MailStatus enum, which is used to track the delivery state of queued
+ * outbound emails.
+ */
+public enum MailStatus {
+  PENDING,
+  SENDING,
+  SENT,
+  FAILED
+}
@@ -0,0 +1,55 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.enums;
+
+import java.util.Locale;
+
+/**
+ * The email templates known to the application. Each template is loaded from
+ * {@code mail-templates/<key>_<locale>.html} on the classpath.
+ */
+public enum MailTemplate {
+  CONFIRMATION("confirmation", Locale.forLanguageTag("nb")),
+  ADMIN_INVITATION("admin-invitation", Locale.ENGLISH),
+  OTP("otp", Locale.ENGLISH),
+  PASSWORD_RESET("password-reset", Locale.forLanguageTag("nb"));
+
+  private final String key;
+  private final Locale defaultLocale;
+
+  MailTemplate(String key, Locale defaultLocale) {
+    this.key = key;
+    this.defaultLocale = defaultLocale;
+  }
+
+  /**
+   * Gets the key used in the template file name.
+   *
+   * @return the key
+   */
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Gets the locale used when no translation exists for the requested locale.
+   *
+   * @return the default locale
+   */
+  public Locale getDefaultLocale() {
+    return defaultLocale;
+  }
+
+  /**
+   * Finds the template with the given file name key.
+   *
+   * @param key the key used in the template file name
+   * @return the matching template, or null if none matches
+   */
+  public static MailTemplate fromKey(String key) {
+    for (MailTemplate template : values()) {
+      if (template.key.equals(key)) {
+        return template;
+      }
+    }
+    return null;
+  }
+}
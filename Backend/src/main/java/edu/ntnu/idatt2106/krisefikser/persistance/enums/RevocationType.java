@@ -0,0 +1,9 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.enums;
+
+/**
+ * The kind of JWT revocation. A TOKEN revocation targets a single token by its {@code jti}, while
+ * a USER revocation invalidates every token issued to a user up to a point in time.
+ */
+public enum RevocationType {
+  TOKEN, USER
+}
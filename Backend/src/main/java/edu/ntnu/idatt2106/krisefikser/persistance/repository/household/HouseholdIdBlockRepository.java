@@ -0,0 +1,43 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.repository.household;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.HouseholdIdBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository for reserving blocks of household IDs.
+ */
+public interface HouseholdIdBlockRepository extends JpaRepository<HouseholdIdBlock, String> {
+
+  /**
+   * Moves a sequence on by one block. The row stays locked until the transaction ends, so
+   * concurrent reservations from other nodes wait and then see the new value.
+   *
+   * @param name the name of the sequence
+   * @return the number of rows updated, 0 if the sequence does not exist yet
+   */
+  @Modifying
+  @Query("UPDATE HouseholdIdBlock b SET b.nextBlock = b.nextBlock + 1 WHERE b.name = :name")
+  int incrementNextBlock(@Param("name") String name);
+
+  /**
+   * Gets the next free block of a sequence.
+   *
+   * @param name the name of the sequence
+   * @return the next free block
+   */
+  @Query("SELECT b.nextBlock FROM HouseholdIdBlock b WHERE b.name = :name")
+  long findNextBlock(@Param("name") String name);
+
+  /**
+   * Creates a sequence whose first block is already taken. Unlike save, this never overwrites a
+   * row another node created in the meantime; it fails on the primary key instead.
+   *
+   * @param name the name of the sequence
+   */
+  @Modifying
+  @Query("INSERT INTO HouseholdIdBlock (name, nextBlock) VALUES (:name, 1)")
+  void insertFirstBlock(@Param("name") String name);
+}
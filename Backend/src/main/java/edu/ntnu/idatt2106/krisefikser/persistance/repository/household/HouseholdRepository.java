@@ -1,7 +1,15 @@
 package edu.ntnu.idatt2106.krisefikser.persistance.repository.household;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdBasicResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdLocationDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdMemberRowDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -16,21 +24,121 @@ import org.springframework.transaction.annotation.Transactional;
 public interface HouseholdRepository extends JpaRepository<Household, String> {
 
   /**
-   * Update the number of members in a household.
+   * Atomically adds one to the number of members in a household. The increment happens in the
+   * database, so concurrent joins cannot overwrite each other's count.
    *
-   * @param id              the household id
-   * @param numberOfMembers the new number of members
+   * @param id the household id
+   * @return the number of updated rows, 0 if the household does not exist
    */
   @Modifying
   @Transactional
-  @Query("UPDATE Household h SET h.numberOfMembers = :numberOfMembers WHERE h.id = :id")
-  void updateNumberOfMembers(@Param("id") String id, @Param("numberOfMembers") int numberOfMembers);
+  @Query("UPDATE Household h SET h.numberOfMembers = h.numberOfMembers + 1 WHERE h.id = :id")
+  int incrementNumberOfMembers(@Param("id") String id);
 
   /**
-   * Find a household by its name.
+   * Atomically subtracts one from the number of members in a household, never going below zero.
    *
-   * @param name the name of the household
-   * @return an Optional containing the Household if found
+   * @param id the household id
+   * @return the number of updated rows, 0 if the household does not exist or has no members
    */
-  Optional<Household> findByName(String name);
-}
\ No newline at end of file
+  @Modifying
+  @Transactional
+  @Query("UPDATE Household h SET h.numberOfMembers = h.numberOfMembers - 1 "
+      + "WHERE h.id = :id AND h.numberOfMembers > 0")
+  int decrementNumberOfMembers(@Param("id") String id);
+
+  /**
+   * Finds the households whose name starts with a prefix, in name order. The prefix is matched
+   * with LIKE without any function around the column, so the name index can be used; use
+   * {@code !} to escape wildcards in it.
+   *
+   * @param prefix   the escaped prefix followed by {@code %}
+   * @param pageable the page to fetch
+   * @return a page of households with their id and name
+   */
+  @Query(value = "SELECT new edu.ntnu.idatt2106.krisefikser.api.dto.household"
+      + ".HouseholdBasicResponseDto(h.id, h.name) FROM Household h "
+      + "WHERE h.name LIKE :prefix ESCAPE '!' ORDER BY h.name, h.id",
+      countQuery = "SELECT COUNT(h) FROM Household h WHERE h.name LIKE :prefix ESCAPE '!'")
+  Page<HouseholdBasicResponseDto> searchByNamePrefix(@Param("prefix") String prefix,
+      Pageable pageable);
+
+  /**
+   * Finds a household and its owner in one query, without loading the entities.
+   *
+   * @param id the household id
+   * @return the household with its owner, if found
+   */
+  @Query("SELECT new edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdResponseDto("
+      + "h.id, h.name, h.address, o.id, o.email, o.fullName, o.tlf, o.role) "
+      + "FROM Household h JOIN h.owner o WHERE h.id = :id")
+  Optional<HouseholdResponseDto> findResponseById(@Param("id") String id);
+
+  /**
+   * Finds the id and name of the given households without loading the entities.
+   *
+   * @param ids the household ids
+   * @return the id and name of each household that exists
+   */
+  @Query("SELECT new edu.ntnu.idatt2106.krisefikser.api.dto.household"
+      + ".HouseholdBasicResponseDto(h.id, h.name) FROM Household h WHERE h.id IN :ids")
+  List<HouseholdBasicResponseDto> findBasicByIdIn(@Param("ids") Collection<String> ids);
+
+  /**
+   * Find the household of the user with the given email, together with its owner and one row per
+   * registered member, in a single query.
+   *
+   * @param email the email of a member of the household
+   * @return the member rows, or an empty list if the user does not exist or has no household
+   */
+  @Query("SELECT new edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdMemberRowDto("
+      + "h.id, h.name, h.address, o.id, o.email, o.fullName, o.tlf, o.role, "
+      + "m.id, m.email, m.fullName, m.tlf, m.role) "
+      + "FROM User u JOIN u.household h LEFT JOIN h.owner o JOIN User m ON m.household = h "
+      + "WHERE u.email = :email")
+  List<HouseholdMemberRowDto> findMemberRowsByMemberEmail(@Param("email") String email);
+
+  /**
+   * Deletes a household row without loading and cascading to its storage items. The caller must
+   * remove everything that references the household first.
+   *
+   * @param id the household id
+   * @return the number of deleted households
+   */
+  @Modifying
+  @Query("DELETE FROM Household h WHERE h.id = :id")
+  int deleteHouseholdById(@Param("id") String id);
+
+  /**
+   * Finds households without coordinates, in id order, starting after a given id.
+   *
+   * @param afterId  the id to start after; an empty string to start from the beginning
+   * @param pageable the number of households to fetch
+   * @return the households without coordinates
+   */
+  @Query("SELECT h FROM Household h WHERE h.id > :afterId "
+      + "AND (h.latitude IS NULL OR h.longitude IS NULL) ORDER BY h.id")
+  List<Household> findUngeocoded(@Param("afterId") String afterId, Pageable pageable);
+
+  /**
+   * Finds the location of every household whose address has been geocoded.
+   *
+   * @return the id and coordinates of each geocoded household
+   */
+  @Query("SELECT new edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdLocationDto("
+      + "h.id, h.latitude, h.longitude) FROM Household h "
+      + "WHERE h.latitude IS NOT NULL AND h.longitude IS NOT NULL")
+  List<HouseholdLocationDto> findLocations();
+
+  /**
+   * Finds the location of a household.
+   *
+   * @param id the household id
+   * @return the id and coordinates, or empty if the household does not exist or has not been
+   *         geocoded
+   */
+  @Query("SELECT new edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdLocationDto("
+      + "h.id, h.latitude, h.longitude) FROM Household h "
+      + "WHERE h.id = :id AND h.latitude IS NOT NULL AND h.longitude IS NOT NULL")
+  Optional<HouseholdLocationDto> findLocationById(@Param("id") String id);
+}
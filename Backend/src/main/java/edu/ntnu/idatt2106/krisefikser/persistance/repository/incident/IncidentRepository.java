@@ -1,7 +1,11 @@
 package edu.ntnu.idatt2106.krisefikser.persistance.repository.incident;
 
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Incident;
+import java.time.LocalDateTime;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -10,4 +14,33 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface IncidentRepository extends JpaRepository<Incident, Long> {
 
+  /**
+   * Finds the incidents that have not ended.
+   *
+   * @param now the current time
+   * @return the incidents without an end time, or ending after now
+   */
+  @Query("SELECT i FROM Incident i WHERE i.endedAt IS NULL OR i.endedAt > :now")
+  List<Incident> findActive(@Param("now") LocalDateTime now);
+
+  /**
+   * Finds the incidents scoped to a municipality, those centered inside a box around it, and
+   * those whose impact zone overlaps the box.
+   *
+   * @param municipalityCode the municipality number
+   * @param south            the southern edge of the box
+   * @param west             the western edge of the box
+   * @param north            the northern edge of the box
+   * @param east             the eastern edge of the box
+   * @return the incidents scoped to the municipality, centered in the box or with a zone
+   *         overlapping it
+   */
+  @Query("SELECT i FROM Incident i WHERE i.municipalityCode = :municipalityCode "
+      + "OR (i.latitude BETWEEN :south AND :north AND i.longitude BETWEEN :west AND :east) "
+      + "OR (i.zoneSouth <= :north AND i.zoneNorth >= :south "
+      + "AND i.zoneWest <= :east AND i.zoneEast >= :west) "
+      + "ORDER BY i.id")
+  List<Incident> findByMunicipalityCodeOrInBox(
+      @Param("municipalityCode") String municipalityCode, @Param("south") double south,
+      @Param("west") double west, @Param("north") double north, @Param("east") double east);
 }
@@ -2,10 +2,13 @@ package edu.ntnu.idatt2106.krisefikser.persistance.repository.item;
 
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.item.Item;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.ItemType;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -33,4 +36,13 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
    * @return a page of items that match the search criteria
    */
   Page<Item> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+  /**
+   * Finds the items whose lower-case name is one of the given names.
+   *
+   * @param names the names, in lower case
+   * @return the matching items
+   */
+  @Query("SELECT i FROM Item i WHERE LOWER(i.name) IN :names")
+  List<Item> findByLowerCaseNameIn(@Param("names") Collection<String> names);
 }
\ No newline at end of file
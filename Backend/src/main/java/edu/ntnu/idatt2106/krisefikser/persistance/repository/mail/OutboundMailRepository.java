@@ -0,0 +1,100 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.repository.mail;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mail.OutboundMail;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MailStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for OutboundMail entities.
+ */
+@Repository
+public interface OutboundMailRepository extends JpaRepository<OutboundMail, Long> {
+
+  /**
+   * Finds the ids of the oldest mails with the given status that are due for a delivery attempt.
+   *
+   * @param status   the status of the mails
+   * @param now      the current time
+   * @param pageable the maximum number of mails to return
+   * @return the ids of the due mails, ordered by their next attempt time
+   */
+  @Query("SELECT m.id FROM OutboundMail m WHERE m.status = :status AND m.nextAttemptAt <= :now "
+      + "ORDER BY m.nextAttemptAt ASC, m.id ASC")
+  List<Long> findDueIds(@Param("status") MailStatus status, @Param("now") LocalDateTime now,
+      Pageable pageable);
+
+  /**
+   * Claims due mails for sending. Only rows still pending are claimed, so when several nodes
+   * drain the queue at once each mail goes to exactly one of them.
+   *
+   * @param ids     the ids of the mails to claim
+   * @param pending the status the mails must still have, {@link MailStatus#PENDING}
+   * @param sending the status that marks them claimed, {@link MailStatus#SENDING}
+   * @param token   the token of this drain round
+   * @param now     the current time
+   * @return the number of mails claimed
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE OutboundMail m SET m.status = :sending, m.claimToken = :token, "
+      + "m.claimedAt = :now WHERE m.id IN :ids AND m.status = :pending "
+      + "AND m.nextAttemptAt <= :now")
+  int claim(@Param("ids") Collection<Long> ids, @Param("pending") MailStatus pending,
+      @Param("sending") MailStatus sending, @Param("token") String token,
+      @Param("now") LocalDateTime now);
+
+  /**
+   * Finds the mails claimed in a drain round.
+   *
+   * @param claimToken the token of the drain round
+   * @return the claimed mails
+   */
+  List<OutboundMail> findByClaimToken(String claimToken);
+
+  /**
+   * Gives up on mails claimed long ago whose outcome was never recorded, because the node
+   * crashed or the status write failed. They may have been delivered, so they are not retried.
+   *
+   * @param sending the status of claimed mails, {@link MailStatus#SENDING}
+   * @param failed  the status to give them, {@link MailStatus#FAILED}
+   * @param cutOff  the claim time before which a claim has expired
+   * @param error   the error to record on them
+   * @return the number of mails given up on
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE OutboundMail m SET m.status = :failed, m.lastError = :error, m.body = NULL, "
+      + "m.templateParams = NULL WHERE m.status = :sending AND m.claimedAt < :cutOff")
+  int expireClaims(@Param("sending") MailStatus sending, @Param("failed") MailStatus failed,
+      @Param("cutOff") LocalDateTime cutOff, @Param("error") String error);
+
+  /**
+   * Deletes finished mails created before a cut-off.
+   *
+   * @param statuses the finished statuses
+   * @param cutOff   the creation time before which finished mails are deleted
+   * @return the number of deleted mails
+   */
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM OutboundMail m WHERE m.status IN :statuses AND m.createdAt < :cutOff")
+  int deleteFinishedBefore(@Param("statuses") Collection<MailStatus> statuses,
+      @Param("cutOff") LocalDateTime cutOff);
+
+  /**
+   * Counts the mails with a given status.
+   *
+   * @param status the status
+   * @return the number of mails with the status
+   */
+  long countByStatus(MailStatus status);
+}
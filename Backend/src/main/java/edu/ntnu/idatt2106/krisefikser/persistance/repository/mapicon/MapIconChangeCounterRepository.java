@@ -0,0 +1,44 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIconChangeCounter;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository for handing out map icon change sequence numbers.
+ */
+public interface MapIconChangeCounterRepository
+    extends JpaRepository<MapIconChangeCounter, Integer> {
+
+  /**
+   * Moves the counter on. The row stays locked until the transaction ends, so transactions that
+   * change map icons commit in the order of their sequence numbers.
+   *
+   * @param count the number of sequence numbers to hand out
+   * @return the number of rows updated, 0 if the counter does not exist yet
+   */
+  @Modifying
+  @Query("UPDATE MapIconChangeCounter c SET c.lastSeq = c.lastSeq + :count "
+      + "WHERE c.id = " + MapIconChangeCounter.ID)
+  int increment(@Param("count") long count);
+
+  /**
+   * Gets the last sequence number handed out.
+   *
+   * @return the last sequence number, or empty if the counter does not exist yet
+   */
+  @Query("SELECT c.lastSeq FROM MapIconChangeCounter c WHERE c.id = " + MapIconChangeCounter.ID)
+  Optional<Long> findLastSeq();
+
+  /**
+   * Creates the counter, starting after the highest sequence number any map icon has. Unlike
+   * save, this fails on the primary key instead of overwriting a counter created concurrently.
+   */
+  @Modifying
+  @Query("INSERT INTO MapIconChangeCounter (id, lastSeq) "
+      + "SELECT " + MapIconChangeCounter.ID + ", COALESCE(MAX(m.changeSeq), 0) FROM MapIcon m")
+  void insertCounter();
+}
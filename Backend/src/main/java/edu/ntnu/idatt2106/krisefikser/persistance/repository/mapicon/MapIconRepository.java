@@ -2,8 +2,16 @@ package edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon;
 
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -19,4 +27,67 @@ public interface MapIconRepository extends JpaRepository<MapIcon, Long> {
    * @return a list of map icons
    */
   List<MapIcon> findByType(MapIconType type);
+
+  /**
+   * Finds all map icons inside a bounding box.
+   *
+   * @param south the southern edge of the box
+   * @param west  the western edge of the box
+   * @param north the northern edge of the box
+   * @param east  the eastern edge of the box
+   * @return the map icons in the box
+   */
+  @Query("SELECT m FROM MapIcon m WHERE m.latitude BETWEEN :south AND :north "
+      + "AND m.longitude BETWEEN :west AND :east")
+  List<MapIcon> findInBox(@Param("south") double south, @Param("west") double west,
+      @Param("north") double north, @Param("east") double east);
+
+  /**
+   * Finds map icons with an address but no coordinates, in id order, starting after a given id.
+   *
+   * @param afterId  the id to start after; 0 to start from the beginning
+   * @param pageable the number of icons to fetch
+   * @return the map icons without coordinates
+   */
+  @Query("SELECT m FROM MapIcon m WHERE m.id > :afterId "
+      + "AND (m.latitude IS NULL OR m.longitude IS NULL) AND m.address IS NOT NULL ORDER BY m.id")
+  List<MapIcon> findUngeocoded(@Param("afterId") Long afterId, Pageable pageable);
+
+  /**
+   * Streams every map icon in id order, for exports too large to hold in memory. Must be called
+   * in a transaction, and the stream closed when done. The icons are loaded read-only and should
+   * be detached once used. MySQL only fetches rows in batches if the connection URL sets
+   * {@code useCursorFetch=true}; otherwise the driver buffers the rows, but not the entities.
+   *
+   * @return the map icons
+   */
+  @Query("SELECT m FROM MapIcon m ORDER BY m.id")
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<MapIcon> streamAll();
+
+  /**
+   * Finds the map icons whose last change has a sequence number in a range, in sequence order.
+   *
+   * @param afterSeq the sequence number to start after
+   * @param upToSeq  the last sequence number to include
+   * @param pageable the number of icons to fetch
+   * @return the changed map icons
+   */
+  @Query("SELECT m FROM MapIcon m WHERE m.changeSeq > :afterSeq AND m.changeSeq <= :upToSeq "
+      + "ORDER BY m.changeSeq")
+  List<MapIcon> findChanged(@Param("afterSeq") long afterSeq, @Param("upToSeq") long upToSeq,
+      Pageable pageable);
+
+  /**
+   * Gives map icons stored before change sequence numbers existed a number of their own. Their
+   * id is used, which is unique and lower than any number the counter will hand out.
+   *
+   * @return the number of icons updated
+   */
+  @Modifying
+  @Query("UPDATE MapIcon m SET m.changeSeq = m.id WHERE m.changeSeq = 0")
+  int sequenceUnsequenced();
 }
@@ -0,0 +1,27 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIconTombstone;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository for the records of deleted map icons.
+ */
+public interface MapIconTombstoneRepository extends JpaRepository<MapIconTombstone, Long> {
+
+  /**
+   * Finds the deletions with a sequence number in a range, in sequence order.
+   *
+   * @param afterSeq the sequence number to start after
+   * @param upToSeq  the last sequence number to include
+   * @param pageable the number of deletions to fetch
+   * @return the tombstones
+   */
+  @Query("SELECT t FROM MapIconTombstone t WHERE t.changeSeq > :afterSeq "
+      + "AND t.changeSeq <= :upToSeq ORDER BY t.changeSeq")
+  List<MapIconTombstone> findDeleted(@Param("afterSeq") long afterSeq,
+      @Param("upToSeq") long upToSeq, Pageable pageable);
+}
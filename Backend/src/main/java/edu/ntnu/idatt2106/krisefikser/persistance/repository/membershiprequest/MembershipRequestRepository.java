@@ -1,13 +1,16 @@
 package edu.ntnu.idatt2106.krisefikser.persistance.repository.membershiprequest;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.MembershipRequestResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.membershiprequest.MembershipRequest;
-import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestStatus;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestType;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -26,16 +29,28 @@ public interface MembershipRequestRepository extends JpaRepository<MembershipReq
   @Query("UPDATE MembershipRequest m SET m.status = :status WHERE m.id = :id")
   void updateStatusById(Long id, RequestStatus status);
 
+  /**
+   * Select clause shared by the listing queries. It builds the response DTO directly, so the
+   * household, sender and receiver entities are never loaded.
+   */
+  String RESPONSE_SELECT = "SELECT new edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest"
+      + ".MembershipRequestResponseDto(m.id, h.id, h.name, "
+      + "s.id, s.email, s.fullName, s.tlf, s.role, "
+      + "r.id, r.email, r.fullName, r.tlf, r.role, m.type, m.status, m.createdAt) "
+      + "FROM MembershipRequest m JOIN m.household h JOIN m.sender s JOIN m.receiver r ";
+
   /**
    * Finds all MembershipRequests by the given receiver, type, and status.
    *
-   * @param receiver the receiver of the request
-   * @param type     the type of the request
-   * @param status   the status of the request
-   * @return a list of MembershipRequests matching the criteria
+   * @param receiverId the ID of the receiver of the request
+   * @param type       the type of the request
+   * @param status     the status of the request
+   * @return the matching requests as response DTOs
    */
-  List<MembershipRequest> findAllByReceiverAndTypeAndStatus(User receiver, RequestType type,
-      RequestStatus status);
+  @Query(RESPONSE_SELECT + "WHERE r.id = :receiverId AND m.type = :type AND m.status = :status")
+  List<MembershipRequestResponseDto> findResponsesByReceiverIdAndTypeAndStatus(
+      @Param("receiverId") String receiverId, @Param("type") RequestType type,
+      @Param("status") RequestStatus status);
 
   /**
    * Finds all MembershipRequests by the given household, type, and status.
@@ -43,10 +58,12 @@ public interface MembershipRequestRepository extends JpaRepository<MembershipReq
    * @param householdId the ID of the household
    * @param type        the type of the request
    * @param status      the status of the request
-   * @return a list of MembershipRequests matching the criteria
+   * @return the matching requests as response DTOs
    */
-  List<MembershipRequest> findAllByHouseholdIdAndTypeAndStatus(
-      String householdId, RequestType type, RequestStatus status);
+  @Query(RESPONSE_SELECT + "WHERE h.id = :householdId AND m.type = :type AND m.status = :status")
+  List<MembershipRequestResponseDto> findResponsesByHouseholdIdAndTypeAndStatus(
+      @Param("householdId") String householdId, @Param("type") RequestType type,
+      @Param("status") RequestStatus status);
 
   /**
    * Finds all MembershipRequests by the given household, type, and list of statuses.
@@ -54,11 +71,69 @@ public interface MembershipRequestRepository extends JpaRepository<MembershipReq
    * @param householdId the ID of the household
    * @param type        the type of the request
    * @param statuses    the list of statuses of the request
-   * @return a list of MembershipRequests matching the criteria
+   * @return the matching requests as response DTOs
+   */
+  @Query(RESPONSE_SELECT
+      + "WHERE h.id = :householdId AND m.type = :type AND m.status IN :statuses")
+  List<MembershipRequestResponseDto> findResponsesByHouseholdIdAndTypeAndStatusIn(
+      @Param("householdId") String householdId, @Param("type") RequestType type,
+      @Param("statuses") List<RequestStatus> statuses);
+
+  /**
+   * Counts the MembershipRequests sent to a receiver with the given type and status.
+   *
+   * @param receiverId the ID of the receiver of the request
+   * @param type       the type of the request
+   * @param status     the status of the request
+   * @return the number of matching requests
    */
-  List<MembershipRequest> findAllByHouseholdIdAndTypeAndStatusIn(
-      String householdId, RequestType type, List<RequestStatus> statuses
-  );
+  long countByReceiverIdAndTypeAndStatus(String receiverId, RequestType type,
+      RequestStatus status);
+
+  /**
+   * Counts the MembershipRequests for a household with the given type and status.
+   *
+   * @param householdId the ID of the household
+   * @param type        the type of the request
+   * @param status      the status of the request
+   * @return the number of matching requests
+   */
+  long countByHouseholdIdAndTypeAndStatus(String householdId, RequestType type,
+      RequestStatus status);
+
+  /**
+   * Finds which of the given users already have a pending invitation from a household.
+   *
+   * @param householdId the ID of the household
+   * @param receiverIds the IDs of the users to check
+   * @return the IDs of the users with a pending invitation
+   */
+  @Query("SELECT m.receiver.id FROM MembershipRequest m WHERE m.household.id = :householdId "
+      + "AND m.type = edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestType.INVITATION "
+      + "AND m.status = edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestStatus.PENDING "
+      + "AND m.receiver.id IN :receiverIds")
+  List<String> findPendingInvitationReceiverIds(@Param("householdId") String householdId,
+      @Param("receiverIds") Collection<String> receiverIds);
+
+  /**
+   * Inserts a pending invitation from a household to each of the given users in one statement.
+   * The household owner is recorded as the sender.
+   *
+   * @param householdId the ID of the household
+   * @param receiverIds the IDs of the users to invite
+   * @param createdAt   the creation time of the invitations
+   * @return the number of invitations inserted
+   */
+  @Transactional
+  @Modifying
+  @Query("INSERT INTO MembershipRequest (household, sender, receiver, type, status, createdAt) "
+      + "SELECT h, h.owner, u, "
+      + "edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestType.INVITATION, "
+      + "edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestStatus.PENDING, :createdAt "
+      + "FROM Household h, User u WHERE h.id = :householdId AND u.id IN :receiverIds")
+  int insertInvitations(@Param("householdId") String householdId,
+      @Param("receiverIds") Collection<String> receiverIds,
+      @Param("createdAt") Timestamp createdAt);
 
   /**
    * Deletes all MembershipRequests associated with the given household ID.
@@ -68,4 +143,4 @@ public interface MembershipRequestRepository extends JpaRepository<MembershipReq
   @Modifying
   @Query("DELETE FROM MembershipRequest m WHERE m.household.id = :householdId")
   void deleteAllByHouseholdId(String householdId);
-}
\ No newline at end of file
+}
@@ -1,10 +1,13 @@
 package edu.ntnu.idatt2106.krisefikser.persistance.repository.storage;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.storage.StorageTotalRowDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.storage.StorageItem;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.ItemType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -57,4 +60,30 @@ public interface StorageItemRepository extends JpaRepository<StorageItem, Long>
       @Param("startDate") LocalDateTime startDate,
       @Param("endDate") LocalDateTime endDate
   );
-}
\ No newline at end of file
+
+  /**
+   * Sums the unexpired storage of the given households per item and unit.
+   *
+   * @param householdIds the household ids
+   * @param now          the current time; items that expired before it are left out
+   * @return one row per household, item and unit
+   */
+  @Query("SELECT new edu.ntnu.idatt2106.krisefikser.api.dto.storage.StorageTotalRowDto("
+      + "s.household.id, i.id, i.name, s.unit, SUM(s.amount)) "
+      + "FROM StorageItem s JOIN s.item i "
+      + "WHERE s.household.id IN :householdIds "
+      + "AND (s.expirationDate IS NULL OR s.expirationDate > :now) "
+      + "GROUP BY s.household.id, i.id, i.name, s.unit")
+  List<StorageTotalRowDto> sumUnexpiredByHouseholdIds(
+      @Param("householdIds") Collection<String> householdIds, @Param("now") LocalDateTime now);
+
+  /**
+   * Deletes all storage items of a household in a single statement.
+   *
+   * @param householdId the household id
+   * @return the number of deleted storage items
+   */
+  @Modifying
+  @Query("DELETE FROM StorageItem s WHERE s.household.id = :householdId")
+  int deleteAllByHouseholdId(@Param("householdId") String householdId);
+}
@@ -1,10 +1,14 @@
 package edu.ntnu.idatt2106.krisefikser.persistance.repository.unregisteredhouseholdmember;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.unregisteredmembers.UnregisteredMemberResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.unregisteredhouseholdmember.UnregisteredHouseholdMember;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -30,4 +34,26 @@ public interface UnregisteredHouseholdMemberRepository
    */
   List<UnregisteredHouseholdMember> findUnregisteredHouseholdMembersByHousehold(
       Household household);
+
+  /**
+   * Find the unregistered members of a household as response DTOs, without loading the entities.
+   *
+   * @param householdId the id of the household
+   * @return the list of unregistered members
+   */
+  @Query("SELECT new edu.ntnu.idatt2106.krisefikser.api.dto.unregisteredmembers"
+      + ".UnregisteredMemberResponseDto(m.id, m.fullName) "
+      + "FROM UnregisteredHouseholdMember m WHERE m.household.id = :householdId")
+  List<UnregisteredMemberResponseDto> findResponsesByHouseholdId(
+      @Param("householdId") String householdId);
+
+  /**
+   * Deletes all unregistered members of a household in a single statement.
+   *
+   * @param householdId the id of the household
+   * @return the number of deleted members
+   */
+  @Modifying
+  @Query("DELETE FROM UnregisteredHouseholdMember m WHERE m.household.id = :householdId")
+  int deleteAllByHouseholdId(@Param("householdId") String householdId);
 }
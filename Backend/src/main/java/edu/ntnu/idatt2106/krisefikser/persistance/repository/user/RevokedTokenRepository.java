@@ -0,0 +1,56 @@
+package edu.ntnu.idatt2106.krisefikser.persistance.repository.user;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.RevokedToken;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.RevocationType;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for RevokedToken entities.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+  /**
+   * Find a revocation by its type and value.
+   *
+   * @param type  the type of revocation
+   * @param value the jti or username
+   * @return an Optional containing the revocation if found
+   */
+  Optional<RevokedToken> findByTypeAndValue(RevocationType type, String value);
+
+  /**
+   * Find all revocations that still cover unexpired tokens.
+   *
+   * @param now the current time
+   * @return the active revocations
+   */
+  List<RevokedToken> findAllByExpiresAtAfter(Instant now);
+
+  /**
+   * Find all revocations made or moved forward after a point in time.
+   *
+   * @param since the point in time
+   * @return the revocations made after it
+   */
+  List<RevokedToken> findAllByRevokedAtAfter(Instant since);
+
+  /**
+   * Delete all revocations whose tokens have expired.
+   *
+   * @param now the current time
+   * @return the number of deleted rows
+   */
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+  int deleteExpired(@Param("now") Instant now);
+}
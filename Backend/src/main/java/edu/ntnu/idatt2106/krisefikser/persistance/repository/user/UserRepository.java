@@ -1,9 +1,12 @@
 package edu.ntnu.idatt2106.krisefikser.persistance.repository.user;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.position.UserLocationDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -25,6 +28,15 @@ public interface UserRepository extends JpaRepository<User, String> {
    */
   Optional<User> findByEmail(String email);
 
+  /**
+   * Find the id of the household of the user with the given email, without loading the user.
+   *
+   * @param email the email of the user
+   * @return the household id, or empty if the user does not exist or has no household
+   */
+  @Query("SELECT u.household.id FROM User u WHERE u.email = :email")
+  Optional<String> findHouseholdIdByEmail(@Param("email") String email);
+
   /**
    * Check if a user exists by their email address.
    *
@@ -52,6 +64,23 @@ public interface UserRepository extends JpaRepository<User, String> {
   @Query("UPDATE User u SET u.household.id = :householdId WHERE u.id = :userId")
   void updateHouseholdId(@Param("userId") String userId, @Param("householdId") String householdId);
 
+  /**
+   * Moves a user to another household, but only if they are still in the household they were
+   * read in. Concurrent moves of the same user therefore change the row only once.
+   *
+   * @param userId         the user id
+   * @param oldHouseholdId the household the user is expected to be in, or null for none
+   * @param newHouseholdId the household to move the user to, or null for none
+   * @return the number of updated users, 0 if the user was no longer in the old household
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE User u SET u.household.id = :newHouseholdId WHERE u.id = :userId AND "
+      + "((:oldHouseholdId IS NULL AND u.household IS NULL) OR u.household.id = :oldHouseholdId)")
+  int moveToHousehold(@Param("userId") String userId,
+      @Param("oldHouseholdId") String oldHouseholdId,
+      @Param("newHouseholdId") String newHouseholdId);
+
   /**
    * Find a user by their reset password token.
    *
@@ -100,4 +129,79 @@ public interface UserRepository extends JpaRepository<User, String> {
   List<User> findUsersWithinRadius(@Param("latitude") double latitude,
       @Param("longitude") double longitude,
       @Param("radius") double radius);
-}
\ No newline at end of file
+
+  /**
+   * Find the households that have at least one member within a certain radius of a given latitude
+   * and longitude.
+   *
+   * @param latitude  the latitude
+   * @param longitude the longitude
+   * @param radius    the radius in kilometers
+   * @return the ids of the households, each once
+   */
+  @Query(value = "SELECT DISTINCT u.household_id FROM user u WHERE u.household_id IS NOT NULL "
+      + "AND (6371 * acos(cos(radians(:latitude)) * cos(radians(u.latitude)) * "
+      + "cos(radians(u.longitude) - radians(:longitude)) + "
+      + "sin(radians(:latitude)) * sin(radians(u.latitude)))) <= :radius",
+      nativeQuery = true)
+  List<String> findHouseholdIdsWithinRadius(@Param("latitude") double latitude,
+      @Param("longitude") double longitude,
+      @Param("radius") double radius);
+
+  /**
+   * Removes every member from a household in a single statement.
+   *
+   * @param householdId the household id
+   * @return the number of detached users
+   */
+  @Modifying
+  @Query("UPDATE User u SET u.household = null WHERE u.household.id = :householdId")
+  int detachAllFromHousehold(@Param("householdId") String householdId);
+
+  /**
+   * Finds the users with any of the given emails, with their households fetched in the same
+   * statement.
+   *
+   * @param emails the emails to look up
+   * @return the users found
+   */
+  @Query("SELECT u FROM User u LEFT JOIN FETCH u.household WHERE u.email IN :emails")
+  List<User> findAllWithHouseholdByEmailIn(@Param("emails") Collection<String> emails);
+
+  /**
+   * Finds the ids of the members of the given households.
+   *
+   * @param householdIds the household ids
+   * @return the ids of the users belonging to any of the households
+   */
+  @Query("SELECT u.id FROM User u WHERE u.household.id IN :householdIds")
+  List<String> findIdsByHouseholdIdIn(@Param("householdIds") Collection<String> householdIds);
+
+  /**
+   * Finds the last shared position of every user inside a box.
+   *
+   * @param south the southern edge of the box
+   * @param west  the western edge of the box
+   * @param north the northern edge of the box
+   * @param east  the eastern edge of the box
+   * @return the id and position of each user in the box
+   */
+  @Query("SELECT new edu.ntnu.idatt2106.krisefikser.api.dto.position.UserLocationDto("
+      + "u.id, u.positionLatitude, u.positionLongitude) FROM User u "
+      + "WHERE u.positionLatitude BETWEEN :south AND :north "
+      + "AND u.positionLongitude BETWEEN :west AND :east")
+  List<UserLocationDto> findLocationsInBox(@Param("south") double south,
+      @Param("west") double west, @Param("north") double north, @Param("east") double east);
+
+  /**
+   * Finds users with a shared position but without its numeric copy, in id order.
+   *
+   * @param afterId  the id to continue after, empty to start from the beginning
+   * @param pageable the batch size
+   * @return the next batch of users
+   */
+  @Query("SELECT u FROM User u WHERE u.latitude IS NOT NULL AND u.longitude IS NOT NULL "
+      + "AND (u.positionLatitude IS NULL OR u.positionLongitude IS NULL) "
+      + "AND u.id > :afterId ORDER BY u.id")
+  List<User> findUnindexedPositions(@Param("afterId") String afterId, Pageable pageable);
+}
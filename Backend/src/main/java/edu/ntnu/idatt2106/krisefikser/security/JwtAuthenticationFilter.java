@@ -1,5 +1,6 @@
 package edu.ntnu.idatt2106.krisefikser.security;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -36,9 +37,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       throws ServletException, IOException {
     // Get JWT from request
     String token = tokenProvider.resolveToken(request);
-    if (token != null && tokenProvider.validateToken(token)) {
+    // Verify the token once and reuse the decoded claims
+    DecodedJWT decoded = token == null ? null : tokenProvider.getValidatedToken(token);
+    if (decoded != null) {
       // Get username from JWT
-      String username = tokenProvider.getUsernameFromToken(token);
+      String username = decoded.getSubject();
 
       // Load user details from database or in-memory
       UserDetails userDetails = userDetailsService.loadUserByUsername(username);
@@ -5,10 +5,12 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import edu.ntnu.idatt2106.krisefikser.service.auth.TokenRevocationService;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -29,11 +31,27 @@ public class JwtTokenProvider {
   @Value("${app.jwt.expiration-ms}")
   private long jwtExpirationMs;
 
+  @Value("${app.jwt.cache.max-size:10000}")
+  private int cacheMaxSize;
+
+  private final TokenRevocationService tokenRevocationService;
+
   private Algorithm algorithm;
   private JWTVerifier verifier;
+  private VerifiedTokenCache verifiedTokenCache;
+
+  /**
+   * Constructor for JwtTokenProvider.
+   *
+   * @param tokenRevocationService the service checking tokens against revocations
+   */
+  public JwtTokenProvider(TokenRevocationService tokenRevocationService) {
+    this.tokenRevocationService = tokenRevocationService;
+  }
 
   /**
-   * Initializes the JwtTokenProvider by creating the HMAC256 algorithm and JWT verifier.
+   * Initializes the JwtTokenProvider by creating the HMAC256 algorithm, JWT verifier and the cache
+   * of verified tokens.
    */
 
   @PostConstruct
@@ -41,6 +59,7 @@ public class JwtTokenProvider {
     // Create HMAC256 algorithm for token signing and verification
     algorithm = Algorithm.HMAC256(jwtSecret.getBytes(StandardCharsets.UTF_8));
     verifier = JWT.require(algorithm).build();
+    verifiedTokenCache = new VerifiedTokenCache(cacheMaxSize);
   }
 
   /**
@@ -55,6 +74,7 @@ public class JwtTokenProvider {
     Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
     return JWT.create()
+        .withJWTId(UUID.randomUUID().toString())
         .withSubject(username)
         .withIssuedAt(now)
         .withExpiresAt(expiryDate)
@@ -69,27 +89,58 @@ public class JwtTokenProvider {
    * @throws JWTVerificationException if the token is invalid or expired
    */
   public String getUsernameFromToken(String token) {
+    return decodeToken(token).getSubject();
+  }
+
+  /**
+   * Verify the JWT token and return its decoded claims. A token that has been verified before is
+   * served from the cache until it expires.
+   *
+   * @param token the JWT token to decode
+   * @return the decoded token
+   * @throws JWTVerificationException if the token is invalid or expired
+   */
+  public DecodedJWT decodeToken(String token) {
+    DecodedJWT cached = verifiedTokenCache.get(token);
+    if (cached != null) {
+      return cached;
+    }
     DecodedJWT decoded = verifier.verify(token);
-    return decoded.getSubject();
+    verifiedTokenCache.put(token, decoded);
+    return decoded;
   }
 
   /**
-   * Validate the JWT token.
+   * Get the decoded claims of a valid token. A token is valid if its signature and expiry check
+   * out and it has not been revoked.
    *
    * @param token the JWT token to validate
-   * @return true if the token is valid, false otherwise
-   * @throws JWTVerificationException if the token is invalid or expired
+   * @return the decoded token, or null if the token is not valid
    */
-  public boolean validateToken(String token) {
+  public DecodedJWT getValidatedToken(String token) {
     try {
-      verifier.verify(token);
-      return true;
+      DecodedJWT decoded = decodeToken(token);
+      if (tokenRevocationService.isRevoked(decoded.getId(), decoded.getSubject(),
+          decoded.getIssuedAtAsInstant())) {
+        return null;
+      }
+      return decoded;
     } catch (JWTVerificationException ex) {
       // Log the exception details here if needed
-      return false;
+      return null;
     }
   }
 
+  /**
+   * Validate the JWT token.
+   *
+   * @param token the JWT token to validate
+   * @return true if the token is valid, false otherwise
+   */
+  public boolean validateToken(String token) {
+    return getValidatedToken(token) != null;
+  }
+
   /**
    * Resolve token from Authorization header.
    *
@@ -74,6 +74,7 @@ public class SecurityConfig {
             .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
             .requestMatchers("/ws/**").permitAll()
             .requestMatchers("/api/news/get/").permitAll()
+            .requestMatchers(HttpMethod.GET, "/api/scenarios/*/gap").authenticated()
             .requestMatchers(HttpMethod.GET, "/api/scenarios/**").permitAll()
             .requestMatchers("/api/auth/**").permitAll()
             .requestMatchers("/api/admin/setup").permitAll()
@@ -82,6 +83,9 @@ public class SecurityConfig {
             .requestMatchers("/api/admin/**").hasAuthority("ROLE_SUPERADMIN")
             .requestMatchers(HttpMethod.GET, "/api/incidents/**").permitAll()
             .requestMatchers(HttpMethod.GET, "/api/map-icons/**").permitAll()
+            .requestMatchers(HttpMethod.GET, "/api/map/tiles/**").permitAll()
+            .requestMatchers(HttpMethod.GET, "/api/municipalities", "/api/municipalities/lookup")
+            .permitAll()
             .anyRequest().authenticated()
         )
         .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
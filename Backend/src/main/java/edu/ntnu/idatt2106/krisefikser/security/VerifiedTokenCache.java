@@ -0,0 +1,119 @@
+package edu.ntnu.idatt2106.krisefikser.security;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded cache of JWTs whose signature has already been verified, so clients that poll with
+ * the same token do not pay for HMAC verification and JSON parsing on every request.
+ *
+ * <p>Entries are keyed by a SHA-256 hash of the token, so raw tokens are never kept in memory, and
+ * are only returned until the token's own expiry. When the cache is full, expired entries are
+ * dropped first and then arbitrary ones. Revocation is not cached and must still be checked by the
+ * caller.
+ */
+public class VerifiedTokenCache {
+
+  private final int maxSize;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a cache holding at most the given number of tokens.
+   *
+   * @param maxSize the maximum number of cached tokens, or 0 to disable caching
+   */
+  public VerifiedTokenCache(int maxSize) {
+    this.maxSize = Math.max(0, maxSize);
+  }
+
+  /**
+   * Gets the decoded claims of a previously verified token.
+   *
+   * @param token the raw JWT
+   * @return the decoded token, or null if it is not cached or has expired
+   */
+  public DecodedJWT get(String token) {
+    if (maxSize == 0) {
+      return null;
+    }
+    String key = hash(token);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+      entries.remove(key, entry);
+      return null;
+    }
+    return entry.decoded;
+  }
+
+  /**
+   * Stores a token that has just been verified.
+   *
+   * @param token   the raw JWT
+   * @param decoded the decoded and verified token
+   */
+  public void put(String token, DecodedJWT decoded) {
+    if (maxSize == 0 || decoded.getExpiresAt() == null) {
+      return;
+    }
+    if (entries.size() >= maxSize) {
+      evict();
+    }
+    entries.put(hash(token), new Entry(decoded, decoded.getExpiresAt().getTime()));
+  }
+
+  /**
+   * Gets the number of cached tokens.
+   *
+   * @return the number of cached tokens
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  private void evict() {
+    long now = System.currentTimeMillis();
+    entries.values().removeIf(entry -> entry.expiresAtMillis <= now);
+    if (entries.size() < maxSize) {
+      return;
+    }
+
+    // Still full: drop about a tenth of the entries rather than one per insert
+    Iterator<String> keys = entries.keySet().iterator();
+    int toRemove = Math.max(1, maxSize / 10);
+    while (toRemove-- > 0 && keys.hasNext()) {
+      keys.next();
+      keys.remove();
+    }
+  }
+
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(token.getBytes(StandardCharsets.US_ASCII));
+      return Base64.getEncoder().withoutPadding().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class Entry {
+
+    private final DecodedJWT decoded;
+    private final long expiresAtMillis;
+
+    private Entry(DecodedJWT decoded, long expiresAtMillis) {
+      this.decoded = decoded;
+      this.expiresAtMillis = expiresAtMillis;
+    }
+  }
+}
@@ -4,6 +4,7 @@ import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
 import edu.ntnu.idatt2106.krisefikser.service.auth.EmailService;
+import edu.ntnu.idatt2106.krisefikser.service.auth.TokenRevocationService;
 import jakarta.transaction.Transactional;
 import java.util.Calendar;
 import java.util.Date;
@@ -27,21 +28,25 @@ public class AdminInvitationService {
   private final UserRepository userRepository;
   private final EmailService emailService;
   private final PasswordEncoder passwordEncoder;
+  private final TokenRevocationService tokenRevocationService;
 
   /**
    * Constructor for AdminInvitationService.
    *
-   * @param userRepository  The repository for user-related operations.
-   * @param emailService    The service for sending emails.
-   * @param passwordEncoder The password encoder for hashing passwords.
+   * @param userRepository         The repository for user-related operations.
+   * @param emailService           The service for sending emails.
+   * @param passwordEncoder        The password encoder for hashing passwords.
+   * @param tokenRevocationService The service for revoking issued tokens.
    */
   @Autowired
   public AdminInvitationService(UserRepository userRepository,
       EmailService emailService,
-      PasswordEncoder passwordEncoder) {
+      PasswordEncoder passwordEncoder,
+      TokenRevocationService tokenRevocationService) {
     this.userRepository = userRepository;
     this.emailService = emailService;
     this.passwordEncoder = passwordEncoder;
+    this.tokenRevocationService = tokenRevocationService;
     logger.info("AdminInvitationService initialized");
   }
 
@@ -200,6 +205,7 @@ public class AdminInvitationService {
     }
 
     userRepository.delete(admin);
+    tokenRevocationService.revokeAllForUser(admin.getEmail());
     logger.info("Admin user deleted successfully. ID: {}, Email: {}", adminId, admin.getEmail());
   }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package edu.ntnu.idatt2106.krisefikser.service.auth;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import edu.ntnu.idatt2106.krisefikser.api.dto.auth.LoginRequest;
 import edu.ntnu.idatt2106.krisefikser.api.dto.auth.LoginResponse;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.RegisterRequestDto;
@@ -13,9 +15,13 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -43,24 +49,32 @@ public class AuthService {
   private final JwtTokenProvider tokenProvider;
   private final EmailService emailService;
   private final CaptchaService captchaService;
+  private final TokenRevocationService tokenRevocationService;
+  private final Executor registrationExecutor;
+  private final Executor passwordHashingExecutor;
 
 
   /**
    * Constructor for AuthService.
    *
-   * @param userRepository        The repository for user-related operations.
-   * @param passwordEncoder       The password encoder for hashing passwords.
-   * @param emailService          The service for sending emails.
-   * @param authenticationManager The authentication manager for handling authentication.
-   * @param tokenProvider         The JWT token provider for generating and validating tokens.
-   * @param loginAttemptService   The service for handling login attempts and blocking accounts.
-   * @param twoFactorService      The service for handling two-factor authentication.
+   * @param userRepository          The repository for user-related operations.
+   * @param passwordEncoder         The password encoder for hashing passwords.
+   * @param emailService            The service for sending emails.
+   * @param authenticationManager   The authentication manager for handling authentication.
+   * @param tokenProvider           The JWT token provider for generating and validating tokens.
+   * @param loginAttemptService     The service for handling login attempts and blocking accounts.
+   * @param twoFactorService        The service for handling two-factor authentication.
+   * @param tokenRevocationService  The service for revoking issued tokens.
+   * @param registrationExecutor    The pool running the blocking steps of registration.
+   * @param passwordHashingExecutor The pool running password hashing.
    */
   public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder,
       EmailService emailService,
       AuthenticationManager authenticationManager, JwtTokenProvider tokenProvider,
       CaptchaService captchaService, LoginAttemptService loginAttemptService,
-      TwoFactorService twoFactorService) {
+      TwoFactorService twoFactorService, TokenRevocationService tokenRevocationService,
+      @Qualifier("registrationExecutor") Executor registrationExecutor,
+      @Qualifier("passwordHashingExecutor") Executor passwordHashingExecutor) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
     this.emailService = emailService;
@@ -69,6 +83,9 @@ public class AuthService {
     this.captchaService = captchaService;
     this.loginAttemptService = loginAttemptService;
     this.twoFactorService = twoFactorService;
+    this.tokenRevocationService = tokenRevocationService;
+    this.registrationExecutor = registrationExecutor;
+    this.passwordHashingExecutor = passwordHashingExecutor;
     logger.info("AuthService initialized");
   }
 
@@ -85,29 +102,46 @@ public class AuthService {
   }
 
   /**
-   * Registers a new user.
+   * Registers a new user as a staged pipeline. The hCaptcha check and the email availability check
+   * run concurrently, the password is hashed on the password hashing pool once both have passed,
+   * and the confirmation email is placed on the mail queue after the user has been saved.
    *
    * @param request the user to register
+   * @return a future that completes when the user has been saved, or fails with an
+   *         IllegalArgumentException if the registration is rejected
    */
-  public void registerUser(RegisterRequestDto request) {
+  public CompletableFuture<Void> registerUser(RegisterRequestDto request) {
     logger.info("Processing user registration for email: {}", request.getEmail());
 
-    if (!captchaService.verifyToken(request.gethCaptchaToken())) {
-      logger.warn("hCaptcha validation failed for email: {}", request.getEmail());
-      throw new IllegalArgumentException("hCaptcha verification failed. Please try again.");
-    }
-    logger.debug("hCaptcha validation successful for email: {}", request.getEmail());
-
-    if (userRepository.existsByEmail(request.getEmail())) {
-      logger.warn("Email already in use: {}", request.getEmail());
-      throw new IllegalArgumentException("Email already in use");
-    }
-    logger.debug("Email availability check passed for: {}", request.getEmail());
+    CompletableFuture<Boolean> captchaValid = CompletableFuture.supplyAsync(
+        () -> captchaService.verifyToken(request.gethCaptchaToken()), registrationExecutor);
+    CompletableFuture<Boolean> emailInUse = CompletableFuture.supplyAsync(
+        () -> userRepository.existsByEmail(request.getEmail()), registrationExecutor);
+
+    return captchaValid.thenCombine(emailInUse, (validCaptcha, inUse) -> {
+          if (!validCaptcha) {
+            logger.warn("hCaptcha validation failed for email: {}", request.getEmail());
+            throw new IllegalArgumentException(
+                "hCaptcha verification failed. Please try again.");
+          }
+          logger.debug("hCaptcha validation successful for email: {}", request.getEmail());
+
+          if (inUse) {
+            logger.warn("Email already in use: {}", request.getEmail());
+            throw new IllegalArgumentException("Email already in use");
+          }
+          logger.debug("Email availability check passed for: {}", request.getEmail());
+          return request.getPassword();
+        })
+        .thenApplyAsync(passwordEncoder::encode, passwordHashingExecutor)
+        .thenAcceptAsync(hash -> saveNewUser(request, hash), registrationExecutor);
+  }
 
+  private void saveNewUser(RegisterRequestDto request, String passwordHash) {
     User user = new User();
     user.setFullName(request.getFullName());
     user.setEmail(request.getEmail());
-    user.setPassword(passwordEncoder.encode(request.getPassword()));
+    user.setPassword(passwordHash);
     user.setRole(Role.USER);
     user.setTlf(request.getTlf());
 
@@ -116,14 +150,21 @@ public class AuthService {
     user.setConfirmed(false);
 
     logger.debug("Created user entity with confirmation token for email: {}", request.getEmail());
-    userRepository.save(user);
+    try {
+      userRepository.save(user);
+    } catch (DataIntegrityViolationException e) {
+      // Another registration for the same email got in between the check and the save
+      logger.warn("Email already in use: {}", request.getEmail());
+      throw new IllegalArgumentException("Email already in use");
+    }
     logger.info("User registered successfully: {}", user.getEmail());
 
     try {
       emailService.sendConfirmationEmail(user.getEmail(), token);
-      logger.info("Confirmation email sent to: {}", user.getEmail());
+      logger.info("Confirmation email queued for: {}", user.getEmail());
     } catch (Exception e) {
-      logger.error("Failed to send confirmation email to {}: {}", user.getEmail(), e.getMessage());
+      logger.error("Failed to queue confirmation email to {}: {}", user.getEmail(),
+          e.getMessage());
     }
   }
 
@@ -391,6 +432,32 @@ public class AuthService {
     user.setResetPasswordTokenExpiration(null);
 
     userRepository.save(user);
+    tokenRevocationService.revokeAllForUser(user.getEmail());
     logger.info("Password successfully reset for user: {}", user.getEmail());
   }
+
+  /**
+   * Logs out by revoking the given token, so it can no longer be used even though it has not
+   * expired yet.
+   *
+   * @param token the JWT token to revoke
+   * @throws IllegalArgumentException if the token is invalid or expired
+   */
+  public void logout(String token) {
+    DecodedJWT decoded;
+    try {
+      decoded = tokenProvider.decodeToken(token);
+    } catch (JWTVerificationException e) {
+      logger.warn("Logout attempted with invalid token: {}", e.getMessage());
+      throw new IllegalArgumentException("Invalid token");
+    }
+
+    if (decoded.getId() == null) {
+      // Tokens issued before token ids were introduced can only be revoked per user
+      tokenRevocationService.revokeAllForUser(decoded.getSubject());
+    } else {
+      tokenRevocationService.revokeToken(decoded.getId(), decoded.getExpiresAtAsInstant());
+    }
+    logger.info("User logged out: {}", decoded.getSubject());
+  }
 }
\ No newline at end of file
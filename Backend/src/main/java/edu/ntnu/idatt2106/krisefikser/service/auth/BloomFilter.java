@@ -0,0 +1,111 @@
+package edu.ntnu.idatt2106.krisefikser.service.auth;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size Bloom filter over strings. Lookups never return false negatives, and are safe to
+ * run concurrently with inserts without locking.
+ *
+ * <p>Entries cannot be removed, so the owner rebuilds the filter when entries expire or when the
+ * number of entries grows past the capacity it was sized for.
+ */
+public final class BloomFilter {
+
+  private final AtomicLongArray words;
+  private final int numBits;
+  private final int numHashes;
+  private final int capacity;
+
+  /**
+   * Creates a Bloom filter sized for the expected number of entries.
+   *
+   * @param capacity          the number of entries the filter is sized for
+   * @param falsePositiveRate the wanted false positive rate at full capacity, between 0 and 1
+   * @throws IllegalArgumentException if the capacity or false positive rate is out of range
+   */
+  public BloomFilter(int capacity, double falsePositiveRate) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+    }
+    long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate)
+        / (Math.log(2) * Math.log(2)));
+    this.numBits = (int) Math.min(Math.max(bits, 64), Integer.MAX_VALUE - 63);
+    this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+    this.capacity = capacity;
+    this.words = new AtomicLongArray((numBits + 63) >>> 6);
+  }
+
+  /**
+   * Adds a key to the filter.
+   *
+   * @param key the key
+   */
+  public void put(String key) {
+    long hash = hash(key);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= numHashes; i++) {
+      int bit = index(h1 + i * h2);
+      long mask = 1L << bit;
+      int word = bit >>> 6;
+      long current;
+      do {
+        current = words.get(word);
+        if ((current & mask) != 0) {
+          break;
+        }
+      } while (!words.compareAndSet(word, current, current | mask));
+    }
+  }
+
+  /**
+   * Checks whether a key may have been added.
+   *
+   * @param key the key
+   * @return false if the key has definitely not been added, true if it might have been
+   */
+  public boolean mightContain(String key) {
+    long hash = hash(key);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= numHashes; i++) {
+      int bit = index(h1 + i * h2);
+      if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the number of entries the filter was sized for.
+   *
+   * @return the capacity
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  private int index(int combinedHash) {
+    return (combinedHash & Integer.MAX_VALUE) % numBits;
+  }
+
+  // 64-bit FNV-1a over the UTF-16 code units, finished with the MurmurHash3 fmix64 step so both
+  // halves of the result are well mixed
+  private static long hash(String key) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      h ^= key.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,237 @@
+package edu.ntnu.idatt2106.krisefikser.service.auth;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.RevokedToken;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.RevocationType;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps track of revoked JWTs without touching the database on every request.
+ *
+ * <p>Revocations are persisted and mirrored in memory: a Bloom filter answers the common case
+ * (token not revoked) with a few bit lookups, and the exact maps behind it rule out false
+ * positives. Both are rebuilt from the database on startup and whenever expired revocations are
+ * purged, and revocations made on other nodes are read in on a short schedule.
+ *
+ * <p>A revocation only takes effect in memory once the transaction storing it has committed, so
+ * a rolled back logout or password reset leaves the tokens valid on every node alike.
+ */
+@Service
+@EnableScheduling
+public class TokenRevocationService {
+
+  private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+  private static final String TOKEN_PREFIX = "jti:";
+  private static final String USER_PREFIX = "user:";
+  // Rows are stamped before their transaction commits, so each refresh looks back far enough to
+  // catch revocations committed after the previous one ran
+  private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+  private final RevokedTokenRepository revokedTokenRepository;
+  private final long jwtExpirationMs;
+  private final int expectedEntries;
+  private final double falsePositiveRate;
+
+  private volatile State state;
+  private Instant lastRefresh = Instant.EPOCH;
+
+  /**
+   * Constructor for TokenRevocationService.
+   *
+   * @param revokedTokenRepository the repository holding the persisted revocations
+   * @param jwtExpirationMs        the lifetime of issued tokens
+   * @param expectedEntries        the initial capacity of the Bloom filter
+   * @param falsePositiveRate      the wanted false positive rate of the Bloom filter
+   */
+  public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+      @Value("${app.jwt.expiration-ms}") long jwtExpirationMs,
+      @Value("${app.jwt.revocation.expected-entries:10000}") int expectedEntries,
+      @Value("${app.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+    this.revokedTokenRepository = revokedTokenRepository;
+    this.jwtExpirationMs = jwtExpirationMs;
+    this.expectedEntries = expectedEntries;
+    this.falsePositiveRate = falsePositiveRate;
+    this.state = new State(new BloomFilter(expectedEntries, falsePositiveRate));
+  }
+
+  /**
+   * Reloads all active revocations from the database and rebuilds the Bloom filter.
+   */
+  @PostConstruct
+  public synchronized void rebuild() {
+    lastRefresh = Instant.now();
+    List<RevokedToken> active = revokedTokenRepository.findAllByExpiresAtAfter(Instant.now());
+    State rebuilt = new State(newFilter(active.size()));
+    for (RevokedToken revoked : active) {
+      rebuilt.add(revoked.getType(), revoked.getValue(), revoked.getRevokedAt());
+    }
+    state = rebuilt;
+    logger.info("Token revocation filter rebuilt with {} active revocations", active.size());
+  }
+
+  /**
+   * Reads in the revocations stored since the last refresh, including those made on other nodes.
+   */
+  @Scheduled(fixedDelayString = "${app.jwt.revocation.refresh-interval-ms:5000}",
+      initialDelayString = "${app.jwt.revocation.refresh-interval-ms:5000}")
+  public synchronized void refresh() {
+    Instant since = lastRefresh.minus(REFRESH_OVERLAP);
+    lastRefresh = Instant.now();
+    List<RevokedToken> recent = revokedTokenRepository.findAllByRevokedAtAfter(since);
+    for (RevokedToken revoked : recent) {
+      record(revoked.getType(), revoked.getValue(), revoked.getRevokedAt());
+    }
+    logger.debug("Read {} token revocations stored after {}", recent.size(), since);
+  }
+
+  /**
+   * Revokes a single token.
+   *
+   * @param jti       the id of the token
+   * @param expiresAt the expiry of the token
+   * @throws IllegalArgumentException if the token has no id
+   */
+  public synchronized void revokeToken(String jti, Instant expiresAt) {
+    if (jti == null || jti.isBlank()) {
+      throw new IllegalArgumentException("Token has no id and cannot be revoked");
+    }
+    Instant now = Instant.now();
+    if (revokedTokenRepository.findByTypeAndValue(RevocationType.TOKEN, jti).isEmpty()) {
+      revokedTokenRepository.save(new RevokedToken(RevocationType.TOKEN, jti, now, expiresAt));
+    }
+    recordAfterCommit(RevocationType.TOKEN, jti, now);
+    logger.info("Revoked token with jti {}", jti);
+  }
+
+  /**
+   * Revokes every token issued to a user up to now, including the whole current second. Tokens
+   * issued in later seconds are not affected.
+   *
+   * @param username the username (email) the tokens were issued to
+   */
+  public synchronized void revokeAllForUser(String username) {
+    // Token issue times only have second precision, so the cut-off does too. Tokens issued in the
+    // same second are rejected with the rest, as they may have been issued before the revocation
+    Instant revokedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    Instant expiresAt = revokedAt.plusMillis(jwtExpirationMs).plusSeconds(1);
+
+    RevokedToken revoked = revokedTokenRepository
+        .findByTypeAndValue(RevocationType.USER, username)
+        .orElseGet(() -> new RevokedToken(RevocationType.USER, username, revokedAt, expiresAt));
+    revoked.setRevokedAt(revokedAt);
+    revoked.setExpiresAt(expiresAt);
+    revokedTokenRepository.save(revoked);
+
+    recordAfterCommit(RevocationType.USER, username, revokedAt);
+    logger.info("Revoked all tokens issued to {} up to {}", username, revokedAt);
+  }
+
+  /**
+   * Checks whether a token has been revoked, either on its own or through its user.
+   *
+   * @param jti      the id of the token, or null for tokens issued without one
+   * @param username the subject of the token
+   * @param issuedAt the issue time of the token
+   * @return true if the token has been revoked
+   */
+  public boolean isRevoked(String jti, String username, Instant issuedAt) {
+    State current = state;
+    if (jti != null && current.filter.mightContain(TOKEN_PREFIX + jti)
+        && current.revokedTokens.containsKey(jti)) {
+      return true;
+    }
+    if (username != null && current.filter.mightContain(USER_PREFIX + username)) {
+      Instant cutOff = current.revokedUsers.get(username);
+      return cutOff != null && (issuedAt == null || !issuedAt.isAfter(cutOff));
+    }
+    return false;
+  }
+
+  /**
+   * Periodically deletes revocations whose tokens have all expired, and rebuilds the filter so
+   * it no longer carries them.
+   */
+  @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-interval-ms:3600000}",
+      initialDelayString = "${app.jwt.revocation.purge-interval-ms:3600000}")
+  public void purgeExpired() {
+    int deleted = revokedTokenRepository.deleteExpired(Instant.now());
+    if (deleted > 0) {
+      logger.info("Purged {} expired token revocations", deleted);
+      rebuild();
+    }
+  }
+
+  private void recordAfterCommit(RevocationType type, String value, Instant revokedAt) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          record(type, value, revokedAt);
+        }
+      });
+    } else {
+      record(type, value, revokedAt);
+    }
+  }
+
+  private synchronized void record(RevocationType type, String value, Instant revokedAt) {
+    State current = state;
+    current.add(type, value, revokedAt);
+    if (current.size() > current.filter.getCapacity()) {
+      // Past its capacity the filter lets through more false positives, so size it up
+      State grown = new State(newFilter(current.size()));
+      current.revokedTokens.forEach((jti, at) -> grown.add(RevocationType.TOKEN, jti, at));
+      current.revokedUsers.forEach((user, at) -> grown.add(RevocationType.USER, user, at));
+      state = grown;
+    }
+  }
+
+  private BloomFilter newFilter(int entries) {
+    return new BloomFilter(Math.max(expectedEntries, entries * 2), falsePositiveRate);
+  }
+
+  /**
+   * The Bloom filter together with the exact revocations it was built from. Swapped as a whole
+   * on rebuild, so readers always see a filter that covers the maps next to it.
+   */
+  private static final class State {
+
+    private final BloomFilter filter;
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Instant> revokedUsers = new ConcurrentHashMap<>();
+
+    private State(BloomFilter filter) {
+      this.filter = filter;
+    }
+
+    private void add(RevocationType type, String value, Instant revokedAt) {
+      // The exact entry goes in first, so a filter hit is always backed by the map
+      if (type == RevocationType.TOKEN) {
+        revokedTokens.put(value, revokedAt);
+        filter.put(TOKEN_PREFIX + value);
+      } else {
+        // A refresh may read a row just before it is moved forward, so keep the latest cut-off
+        revokedUsers.merge(value, revokedAt, (held, read) -> held.isAfter(read) ? held : read);
+        filter.put(USER_PREFIX + value);
+      }
+    }
+
+    private int size() {
+      return revokedTokens.size() + revokedUsers.size();
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package edu.ntnu.idatt2106.krisefikser.service.household;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdCacheStatsDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdResponseDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdRepository;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A bounded cache of household name, address and owner, which are read on most screens but
+ * rarely change.
+ *
+ * <p>Entries are dropped when a {@link HouseholdChangedEvent} is published, after the
+ * transaction that published it commits. A read that misses first puts a placeholder in the
+ * cache and only replaces it with what it loaded if the placeholder is still there, so a load
+ * that raced with a change never stores the old value. Entries also expire after a while, which
+ * bounds how long writes that bypass the events can go unnoticed.</p>
+ *
+ * <p>The events only reach the cache on the node that made the change. Other nodes keep serving
+ * the old name, address or owner until their entry expires, so {@code app.household-cache.ttl-ms}
+ * (one minute by default) is the most a read on another node can lag behind a change.</p>
+ */
+@Component
+public class HouseholdCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(HouseholdCache.class);
+
+  private final HouseholdRepository householdRepository;
+  private final int maxSize;
+  private final long ttlMs;
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  /**
+   * Constructor for HouseholdCache.
+   *
+   * @param householdRepository the household repository
+   * @param maxSize             the most households to keep, or 0 to disable caching
+   * @param ttlMs               how long a household is kept before it is read again, which is
+   *                            also how stale a read can be after a change on another node
+   */
+  public HouseholdCache(HouseholdRepository householdRepository,
+      @Value("${app.household-cache.max-size:10000}") int maxSize,
+      @Value("${app.household-cache.ttl-ms:60000}") long ttlMs) {
+    this.householdRepository = householdRepository;
+    this.maxSize = Math.max(0, maxSize);
+    this.ttlMs = ttlMs;
+    logger.info("HouseholdCache initialized with max size {} and ttl {} ms", this.maxSize, ttlMs);
+  }
+
+  /**
+   * Gets a household with its owner.
+   *
+   * @param householdId the id of the household
+   * @return the household, or empty if it does not exist
+   */
+  public Optional<HouseholdResponseDto> get(String householdId) {
+    long now = System.currentTimeMillis();
+    Entry entry = entries.get(householdId);
+    if (entry != null && entry.value != null && entry.expiresAtMillis > now) {
+      hits.increment();
+      return Optional.of(entry.value);
+    }
+    misses.increment();
+
+    Entry placeholder = new Entry(null, 0);
+    boolean reserved = cacheable() && (entry == null
+        ? entries.putIfAbsent(householdId, placeholder) == null
+        // An expired entry is swapped out; a placeholder means another read is already loading
+        : entry.value != null && entries.replace(householdId, entry, placeholder));
+
+    Optional<HouseholdResponseDto> household;
+    try {
+      household = householdRepository.findResponseById(householdId);
+    } catch (RuntimeException e) {
+      if (reserved) {
+        entries.remove(householdId, placeholder);
+      }
+      throw e;
+    }
+
+    if (reserved) {
+      if (household.isPresent() && entries.replace(householdId, placeholder,
+          new Entry(household.get(), now + ttlMs))) {
+        evictIfFull();
+      } else {
+        entries.remove(householdId, placeholder);
+      }
+    }
+    return household;
+  }
+
+  /**
+   * Drops a household from the cache.
+   *
+   * @param householdId the id of the household
+   */
+  public void invalidate(String householdId) {
+    if (entries.remove(householdId) != null) {
+      invalidations.increment();
+    }
+  }
+
+  /**
+   * Drops a household that changed. Runs after the change commits, or straight away if it was
+   * made outside a transaction.
+   *
+   * @param event the change
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onHouseholdChanged(HouseholdChangedEvent event) {
+    logger.debug("Household {} changed ({}), dropping it from the cache",
+        event.getHouseholdId(), event.getChange());
+    invalidate(event.getHouseholdId());
+  }
+
+  /**
+   * Gets hit rate and size statistics for the cache.
+   *
+   * @return the statistics
+   */
+  public HouseholdCacheStatsDto getStats() {
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    long total = hitCount + missCount;
+    return new HouseholdCacheStatsDto(entries.size(), maxSize, hitCount, missCount,
+        total == 0 ? 0 : (double) hitCount / total, evictions.sum(), invalidations.sum());
+  }
+
+  private boolean cacheable() {
+    // A read-write transaction may see its own changes, which are not committed yet and may
+    // still be rolled back
+    return maxSize > 0 && (!TransactionSynchronizationManager.isActualTransactionActive()
+        || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+  }
+
+  private void evictIfFull() {
+    if (entries.size() <= maxSize) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    entries.values().removeIf(entry -> {
+      boolean expired = entry.value != null && entry.expiresAtMillis <= now;
+      if (expired) {
+        evictions.increment();
+      }
+      return expired;
+    });
+    if (entries.size() <= maxSize) {
+      return;
+    }
+
+    // Still full: drop about a tenth of the entries rather than one per insert
+    Iterator<Entry> values = entries.values().iterator();
+    int toRemove = Math.max(1, maxSize / 10);
+    while (toRemove > 0 && values.hasNext()) {
+      if (values.next().value != null) {
+        values.remove();
+        evictions.increment();
+        toRemove--;
+      }
+    }
+  }
+
+  /**
+   * A cached household, or a placeholder while a read is loading it.
+   */
+  private static final class Entry {
+
+    private final HouseholdResponseDto value;
+    private final long expiresAtMillis;
+
+    private Entry(HouseholdResponseDto value, long expiresAtMillis) {
+      this.value = value;
+      this.expiresAtMillis = expiresAtMillis;
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package edu.ntnu.idatt2106.krisefikser.service.household;
+
+/**
+ * Published when data shown for a household changes, so copies of it held in memory can be
+ * dropped.
+ */
+public class HouseholdChangedEvent {
+
+  /**
+   * What changed about the household.
+   */
+  public enum Change {
+    CREATED,
+    EDITED,
+    OWNER_CHANGED,
+    MEMBERS_CHANGED,
+    DELETED
+  }
+
+  private final String householdId;
+  private final Change change;
+
+  /**
+   * Constructor for HouseholdChangedEvent.
+   *
+   * @param householdId the id of the household
+   * @param change      what changed
+   */
+  public HouseholdChangedEvent(String householdId, Change change) {
+    this.householdId = householdId;
+    this.change = change;
+  }
+
+  /**
+   * Gets the id of the household that changed.
+   *
+   * @return the id of the household
+   */
+  public String getHouseholdId() {
+    return householdId;
+  }
+
+  /**
+   * Gets what changed about the household.
+   *
+   * @return what changed
+   */
+  public Change getChange() {
+    return change;
+  }
+}
@@ -0,0 +1,159 @@
+package edu.ntnu.idatt2106.krisefikser.service.household;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdIdBlockRepository;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out short household codes such as {@code 7KQ2-M9XD} that are unique across nodes.
+ *
+ * <p>IDs are allocated hi/lo style: a node reserves a block of numbers with one database update
+ * and then serves the numbers in that block from memory, so only one household in
+ * {@code blockSize} costs a round trip. Each number is scrambled with a bijection on 40 bits, so
+ * consecutive households do not get guessable neighbouring codes, and written as eight Crockford
+ * base32 characters, which leave out I, L, O and U so codes are easy to read aloud and type.</p>
+ *
+ * <p>Older households have eight hex characters without a dash, so they never clash with these
+ * codes.</p>
+ */
+@Component
+public class HouseholdIdAllocator {
+
+  private static final Logger logger = LoggerFactory.getLogger(HouseholdIdAllocator.class);
+
+  static final String SEQUENCE = "household";
+  private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+  private static final int CODE_LENGTH = 8;
+  private static final long CODE_SPACE = 1L << (5 * CODE_LENGTH);
+  private static final long CODE_MASK = CODE_SPACE - 1;
+  // Odd, so multiplying by it modulo 2^40 is a bijection
+  private static final long MULTIPLIER = 0x5DEECE66DL;
+  private static final long XOR_MASK = 0x8F3A5C71E2L & CODE_MASK;
+  private static final int MAX_RESERVE_ATTEMPTS = 3;
+  private static final Pattern LEGACY_ID = Pattern.compile("[0-9A-F]{8}");
+  private static final Pattern SEPARATORS = Pattern.compile("[\\s-]+");
+
+  private final HouseholdIdBlockRepository blockRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final int blockSize;
+
+  private long next;
+  private long limit;
+
+  /**
+   * Constructor for HouseholdIdAllocator.
+   *
+   * @param blockRepository    the repository holding the block counter
+   * @param transactionManager the transaction manager, used to commit each reservation on its own
+   * @param blockSize          the number of IDs reserved per database round trip
+   */
+  public HouseholdIdAllocator(HouseholdIdBlockRepository blockRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.household-id.block-size:1000}") int blockSize) {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("Block size must be positive");
+    }
+    this.blockRepository = blockRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(
+        TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.blockSize = blockSize;
+    logger.info("HouseholdIdAllocator initialized with block size {}", blockSize);
+  }
+
+  /**
+   * Gets the next household ID.
+   *
+   * @return a household ID that has not been handed out before
+   * @throws IllegalStateException if no block could be reserved, or the code space is used up
+   */
+  public synchronized String next() {
+    if (next == limit) {
+      long block = reserveBlock();
+      long start = block * blockSize;
+      if (start + blockSize > CODE_SPACE) {
+        throw new IllegalStateException("Household ID space is exhausted");
+      }
+      next = start;
+      limit = start + blockSize;
+      logger.debug("Reserved household ID block {}", block);
+    }
+    return encode(next++);
+  }
+
+  /**
+   * Turns a household code typed by a user into the stored form: upper case, with the letters
+   * that are easily mistaken for digits read as those digits, and with spaces and dashes dropped
+   * and the dash put back in the middle of an eight character code. Eight hex characters typed
+   * without a space or dash are taken for an older ID and only change case.
+   *
+   * @param code the code as typed
+   * @return the normalized code, or null if the code is null
+   */
+  public static String normalize(String code) {
+    if (code == null) {
+      return null;
+    }
+    String trimmed = code.trim().toUpperCase(Locale.ROOT);
+    if (LEGACY_ID.matcher(trimmed).matches()) {
+      return trimmed;
+    }
+    String compact = SEPARATORS.matcher(trimmed).replaceAll("")
+        .replace('O', '0')
+        .replace('I', '1')
+        .replace('L', '1');
+    if (compact.length() != CODE_LENGTH) {
+      return compact;
+    }
+    return compact.substring(0, CODE_LENGTH / 2) + '-' + compact.substring(CODE_LENGTH / 2);
+  }
+
+  /**
+   * Encodes a number below 2^40 as a household code.
+   *
+   * @param value the number
+   * @return the code
+   */
+  static String encode(long value) {
+    long scrambled = ((value ^ XOR_MASK) * MULTIPLIER) & CODE_MASK;
+    char[] code = new char[CODE_LENGTH + 1];
+    for (int i = CODE_LENGTH; i >= 0; i--) {
+      if (i == CODE_LENGTH / 2) {
+        code[i] = '-';
+        continue;
+      }
+      code[i] = ALPHABET[(int) (scrambled & 31)];
+      scrambled >>>= 5;
+    }
+    return new String(code);
+  }
+
+  private long reserveBlock() {
+    for (int attempt = 1; attempt <= MAX_RESERVE_ATTEMPTS; attempt++) {
+      try {
+        Long block = transactionTemplate.execute(status -> {
+          if (blockRepository.incrementNextBlock(SEQUENCE) == 0) {
+            blockRepository.insertFirstBlock(SEQUENCE);
+            return 0L;
+          }
+          return blockRepository.findNextBlock(SEQUENCE) - 1;
+        });
+        if (block != null) {
+          return block;
+        }
+      } catch (DataIntegrityViolationException e) {
+        // Another node created the counter row first; the update succeeds on the next try
+        logger.debug("Household ID counter was created concurrently, retrying");
+      }
+    }
+    throw new IllegalStateException("Could not reserve a block of household IDs");
+  }
+}
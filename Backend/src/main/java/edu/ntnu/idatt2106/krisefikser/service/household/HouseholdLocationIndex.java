@@ -0,0 +1,199 @@
+package edu.ntnu.idatt2106.krisefikser.service.household;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdLocationDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.CellGrid;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoArea;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoBounds;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoOrigin;
+import edu.ntnu.idatt2106.krisefikser.service.map.ReloadableIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the geocoded home of every household in a grid, so the households inside an area can be
+ * found without reading them all from the database.
+ *
+ * <p>The grid is the {@link CellGrid} degree grid. A radius search only looks at the cells its
+ * bounding box covers and checks the distance to each household in them. Each cell keeps its
+ * coordinates in plain arrays, so checking a household reads two doubles rather than looking it
+ * up by id. A household that is created, edited or deleted is read again once its change
+ * commits.</p>
+ *
+ * <p>Change events only reach the node that made the change, and households have no change log
+ * to poll, so the whole index is also read again on a schedule. A household created, moved or
+ * geocoded on another node is therefore found by incident alerts on this node within
+ * {@code app.household-locations.refresh-interval-ms}.</p>
+ */
+@Component
+public class HouseholdLocationIndex extends ReloadableIndex<String, HouseholdLocationDto> {
+
+  private final HouseholdRepository householdRepository;
+  private final Map<Long, Cell> cells = new HashMap<>();
+  private final Map<String, HouseholdLocationDto> locations = new HashMap<>();
+
+  /**
+   * Constructor for HouseholdLocationIndex.
+   *
+   * @param householdRepository the repository for accessing household data
+   */
+  public HouseholdLocationIndex(HouseholdRepository householdRepository) {
+    this.householdRepository = householdRepository;
+  }
+
+  /**
+   * Finds the households whose home lies within a distance of a point.
+   *
+   * @param latitude  the latitude of the point
+   * @param longitude the longitude of the point
+   * @param radiusKm  the distance in kilometers
+   * @return the ids of the households, each once
+   */
+  public List<String> findWithinRadius(double latitude, double longitude, double radiusKm) {
+    return find(CellGrid.around(latitude, longitude, radiusKm),
+        new GeoOrigin(latitude, longitude).within(radiusKm));
+  }
+
+  /**
+   * Finds the households whose home lies inside a box and inside an area within it.
+   *
+   * @param bounds the box
+   * @param area   the area, such as a polygon the box was drawn around
+   * @return the ids of the households, each once
+   */
+  public List<String> findWithinBounds(GeoBounds bounds, GeoArea area) {
+    return find(bounds, (latitude, longitude) -> bounds.contains(latitude, longitude)
+        && area.contains(latitude, longitude));
+  }
+
+  private List<String> find(GeoBounds box, GeoArea test) {
+    ensureBuilt();
+    List<String> households = new ArrayList<>();
+    readLock().lock();
+    try {
+      CellGrid.forEach(cells, box, cell -> cell.addMatching(test, households));
+    } finally {
+      readLock().unlock();
+    }
+    return households;
+  }
+
+  /**
+   * Moves a household that changed to its new cell. Runs after the change commits, or straight
+   * away if it was made outside a transaction.
+   *
+   * @param event the change
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onHouseholdChanged(HouseholdChangedEvent event) {
+    if (event.getChange() == HouseholdChangedEvent.Change.MEMBERS_CHANGED
+        || event.getChange() == HouseholdChangedEvent.Change.OWNER_CHANGED) {
+      return;
+    }
+    reload(List.of(event.getHouseholdId()));
+  }
+
+  /**
+   * Reads the whole index again, picking up changes made on other nodes.
+   */
+  @Scheduled(fixedDelayString = "${app.household-locations.refresh-interval-ms:60000}",
+      initialDelayString = "${app.household-locations.refresh-interval-ms:60000}")
+  public void refresh() {
+    rebuild();
+  }
+
+  @Override
+  protected List<HouseholdLocationDto> loadAll() {
+    return householdRepository.findLocations();
+  }
+
+  @Override
+  protected Optional<HouseholdLocationDto> load(String id) {
+    return householdRepository.findLocationById(id);
+  }
+
+  @Override
+  protected void clear() {
+    cells.clear();
+    locations.clear();
+  }
+
+  @Override
+  protected void add(HouseholdLocationDto location) {
+    // The id column is CHAR, which some databases return padded with spaces
+    String id = location.getId().strip();
+    locations.put(id, location);
+    cells.computeIfAbsent(key(location), key -> new Cell())
+        .add(id, location.getLatitude(), location.getLongitude());
+  }
+
+  @Override
+  protected void remove(String id) {
+    HouseholdLocationDto location = locations.remove(id.strip());
+    if (location == null) {
+      return;
+    }
+    long key = key(location);
+    Cell cell = cells.get(key);
+    if (cell != null && cell.remove(id.strip()) && cell.size == 0) {
+      cells.remove(key);
+    }
+  }
+
+  private static long key(HouseholdLocationDto location) {
+    return CellGrid.cellOf(location.getLatitude(), location.getLongitude());
+  }
+
+  /**
+   * The households in one grid cell, in no particular order.
+   */
+  private static final class Cell {
+
+    private String[] ids = new String[4];
+    private double[] latitudes = new double[4];
+    private double[] longitudes = new double[4];
+    private int size;
+
+    private void add(String id, double latitude, double longitude) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+        latitudes = Arrays.copyOf(latitudes, size * 2);
+        longitudes = Arrays.copyOf(longitudes, size * 2);
+      }
+      ids[size] = id;
+      latitudes[size] = latitude;
+      longitudes[size] = longitude;
+      size++;
+    }
+
+    private boolean remove(String id) {
+      for (int i = 0; i < size; i++) {
+        if (ids[i].equals(id)) {
+          // Move the last household into the gap
+          size--;
+          ids[i] = ids[size];
+          latitudes[i] = latitudes[size];
+          longitudes[i] = longitudes[size];
+          ids[size] = null;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void addMatching(GeoArea test, List<String> households) {
+      for (int i = 0; i < size; i++) {
+        if (test.contains(latitudes[i], longitudes[i])) {
+          households.add(ids[i]);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package edu.ntnu.idatt2106.krisefikser.service.household;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits how many household searches each user may run per minute, so the search cannot be used
+ * to walk through every household code or name.
+ *
+ * <p>Counts are kept per user in fixed one-minute windows. Windows from earlier minutes are
+ * removed on a schedule.</p>
+ */
+@Component
+@EnableScheduling
+public class HouseholdSearchRateLimiter {
+
+  private static final Logger logger = LoggerFactory.getLogger(HouseholdSearchRateLimiter.class);
+  private static final long WINDOW_MS = 60_000;
+
+  private final int maxPerMinute;
+  private final Clock clock;
+  private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor for HouseholdSearchRateLimiter.
+   *
+   * @param maxPerMinute the number of searches a user may run per minute
+   */
+  @Autowired
+  public HouseholdSearchRateLimiter(
+      @Value("${app.household-search.max-per-minute:30}") int maxPerMinute) {
+    this(maxPerMinute, Clock.systemUTC());
+  }
+
+  /**
+   * Constructor for HouseholdSearchRateLimiter with a given clock.
+   *
+   * @param maxPerMinute the number of searches a user may run per minute
+   * @param clock        the clock that decides the current window
+   */
+  public HouseholdSearchRateLimiter(int maxPerMinute, Clock clock) {
+    this.maxPerMinute = maxPerMinute;
+    this.clock = clock;
+    logger.info("HouseholdSearchRateLimiter initialized with {} searches per minute",
+        maxPerMinute);
+  }
+
+  /**
+   * Records a search for a user if they are still within their limit.
+   *
+   * @param key the user, usually their email
+   * @return true if the search may run, false if the user has used up the current minute
+   */
+  public boolean tryAcquire(String key) {
+    long window = clock.millis() / WINDOW_MS;
+    Window current = windows.compute(key, (k, existing) -> {
+      if (existing == null || existing.window != window) {
+        return new Window(window, 1);
+      }
+      return new Window(window, existing.count + 1);
+    });
+    boolean allowed = current.count <= maxPerMinute;
+    if (!allowed) {
+      logger.warn("Household search limit reached for {}", key);
+    }
+    return allowed;
+  }
+
+  /**
+   * Removes the windows of earlier minutes.
+   */
+  @Scheduled(fixedDelay = WINDOW_MS, initialDelay = WINDOW_MS)
+  public void purgeExpired() {
+    long window = clock.millis() / WINDOW_MS;
+    windows.values().removeIf(existing -> existing.window < window);
+  }
+
+  /**
+   * The number of searches a user has run in one minute.
+   */
+  private static final class Window {
+
+    private final long window;
+    private final int count;
+
+    private Window(long window, int count) {
+      this.window = window;
+      this.count = count;
+    }
+  }
+}
@@ -4,6 +4,8 @@ import edu.ntnu.idatt2106.krisefikser.api.dto.position.PositionResponseDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.household.CreateHouseholdRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.household.EditHouseholdRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdBasicResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdDetailsResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdMemberRowDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdResponseDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.notification.NotificationDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.unregisteredmembers.EditMemberDto;
@@ -17,18 +19,23 @@ import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.NotificationType;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdRepository;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.membershiprequest.MembershipRequestRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.storage.StorageItemRepository;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.unregisteredhouseholdmember.UnregisteredHouseholdMemberRepository;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoPoint;
+import edu.ntnu.idatt2106.krisefikser.service.map.OfflineGeocoder;
 import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -72,6 +79,41 @@ public class HouseholdService {
    */
   private final UnregisteredHouseholdMemberRepository unregisteredHouseholdMemberRepository;
 
+  /**
+   * Repository for storage item entity operations.
+   */
+  private final StorageItemRepository storageItemRepository;
+
+  /**
+   * Allocator for new household IDs.
+   */
+  private final HouseholdIdAllocator householdIdAllocator;
+
+  /**
+   * Per-user limit on household searches.
+   */
+  private final HouseholdSearchRateLimiter searchRateLimiter;
+
+  /**
+   * Cache of household name, address and owner.
+   */
+  private final HouseholdCache householdCache;
+
+  /**
+   * Publisher for household change events.
+   */
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Geocoder for household addresses.
+   */
+  private final OfflineGeocoder geocoder;
+
+  /**
+   * Largest page the household search returns.
+   */
+  private static final int MAX_SEARCH_PAGE_SIZE = 50;
+
   /**
    * Constructs a new HouseholdService with required repositories.
    *
@@ -81,16 +123,32 @@ public class HouseholdService {
    * @param unregisteredHouseholdMemberRepository Repository for unregistered household member
    *                                              <p>
    *                                              operations.
+   * @param storageItemRepository                 Repository for storage item operations.
+   * @param householdIdAllocator                  Allocator for new household IDs.
+   * @param searchRateLimiter                     Per-user limit on household searches.
+   * @param householdCache                        Cache of household name, address and owner.
+   * @param eventPublisher                        Publisher for household change events.
+   * @param geocoder                              Geocoder for household addresses.
    */
   public HouseholdService(HouseholdRepository householdRepository,
       NotificationService notificationService,
       MembershipRequestRepository membershipRequestRepository, UserRepository userRepository,
-      UnregisteredHouseholdMemberRepository unregisteredHouseholdMemberRepository) {
+      UnregisteredHouseholdMemberRepository unregisteredHouseholdMemberRepository,
+      StorageItemRepository storageItemRepository,
+      HouseholdIdAllocator householdIdAllocator,
+      HouseholdSearchRateLimiter searchRateLimiter, HouseholdCache householdCache,
+      ApplicationEventPublisher eventPublisher, OfflineGeocoder geocoder) {
     this.householdRepository = householdRepository;
     this.notificationService = notificationService;
     this.membershipRequestRepository = membershipRequestRepository;
     this.userRepository = userRepository;
     this.unregisteredHouseholdMemberRepository = unregisteredHouseholdMemberRepository;
+    this.storageItemRepository = storageItemRepository;
+    this.householdIdAllocator = householdIdAllocator;
+    this.searchRateLimiter = searchRateLimiter;
+    this.householdCache = householdCache;
+    this.eventPublisher = eventPublisher;
+    this.geocoder = geocoder;
     logger.info("HouseholdService initialized");
   }
 
@@ -105,15 +163,6 @@ public class HouseholdService {
   public void createHousehold(CreateHouseholdRequestDto request) {
     logger.info("Creating household with name: {}", request.getName());
 
-    String householdId = generateHouseholdId();
-    logger.debug("Generated household ID: {}", householdId);
-
-    Household household = new Household();
-    household.setId(householdId);  // Add this line to set the ID
-    household.setName(request.getName());
-    household.setAddress(request.getAddress());
-    household.setNumberOfMembers(1);
-
     // Find current user
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
     String email = authentication.getName();
@@ -124,6 +173,15 @@ public class HouseholdService {
           return new IllegalArgumentException("User not found");
         });
 
+    String householdId = householdIdAllocator.next();
+    logger.debug("Allocated household ID: {}", householdId);
+
+    Household household = new Household();
+    household.setId(householdId);
+    household.setName(request.getName());
+    household.setAddress(request.getAddress());
+    geocode(household);
+    household.setNumberOfMembers(1);
     household.setOwner(owner);
 
     householdRepository.save(household);
@@ -133,8 +191,8 @@ public class HouseholdService {
 
     logger.debug("User {} associated with household {}", owner.getEmail(), household.getId());
 
-    logger.info("Household created successfully: {}",
-        householdRepository.findByName(request.getName()));
+    logger.info("Household created successfully: {}", household.getId());
+    publishChange(household.getId(), HouseholdChangedEvent.Change.CREATED);
 
     NotificationDto notification = new NotificationDto();
     notification.setMessage("Household created successfully");
@@ -148,17 +206,6 @@ public class HouseholdService {
     logger.debug("Notification sent to household owner");
   }
 
-  /**
-   * Generates a unique household ID.
-   *
-   * @return a unique id.
-   */
-  private static String generateHouseholdId() {
-    String id = UUID.randomUUID().toString().replaceAll("-", "").substring(0, 8).toUpperCase();
-    logger.debug("Generated household ID: {}", id);
-    return id;
-  }
-
   /**
    * Adds a registered member to a household.
    *
@@ -166,7 +213,9 @@ public class HouseholdService {
    * @throws IllegalArgumentException if the user is not found.
    * @throws IllegalArgumentException if the household is not found.
    * @throws IllegalArgumentException if the user is already a member of the specified household.
+   * @throws IllegalArgumentException if the user changed household while being added.
    */
+  @Transactional
   public void addUserToHousehold(UserHouseholdAssignmentRequestDto request) {
     logger.info("Adding user with ID {} to current household",
         request.getUserId());
@@ -193,18 +242,18 @@ public class HouseholdService {
       throw new IllegalArgumentException("User is already a member of this household");
     }
 
-    if (user.getHousehold() != null) {
-      logger.debug("User is leaving previous household: {}",
-          user.getHousehold().getId());
-      householdRepository.updateNumberOfMembers(user.getHousehold().getId(),
-          user.getHousehold().getNumberOfMembers() - 1);
+    String previousHouseholdId = user.getHousehold() == null ? null : user.getHousehold().getId();
+    moveUser(user, previousHouseholdId, household.getId());
+
+    if (previousHouseholdId != null) {
+      logger.debug("User is leaving previous household: {}", previousHouseholdId);
+      householdRepository.decrementNumberOfMembers(previousHouseholdId);
+      publishChange(previousHouseholdId, HouseholdChangedEvent.Change.MEMBERS_CHANGED);
     }
 
-    userRepository.updateHouseholdId(user.getId(), household.getId());
-    householdRepository.updateNumberOfMembers(household.getId(),
-        household.getNumberOfMembers() + 1);
-    logger.debug("Updated household member count to: {}",
-        household.getNumberOfMembers() + 1);
+    householdRepository.incrementNumberOfMembers(household.getId());
+    logger.debug("Incremented member count of household {}", household.getId());
+    publishChange(household.getId(), HouseholdChangedEvent.Change.MEMBERS_CHANGED);
 
     NotificationDto notification =
         new NotificationDto(NotificationType.HOUSEHOLD,
@@ -228,6 +277,7 @@ public class HouseholdService {
    * @throws IllegalArgumentException if the user with a specified id is not found.
    * @throws IllegalArgumentException if the user is not a member of any household.
    */
+  @Transactional
   public void removeUserFromHousehold(String userId) {
     logger.info("Removing user with ID {} from household", userId);
 
@@ -263,11 +313,10 @@ public class HouseholdService {
       throw new IllegalArgumentException("User is not a member of this household");
     }
 
-    householdRepository.updateNumberOfMembers(user.getHousehold().getId(),
-        user.getHousehold().getNumberOfMembers() - 1);
-    userRepository.updateHouseholdId(user.getId(), null);
-    logger.debug("Updated household member count to: {}",
-        user.getHousehold().getNumberOfMembers() - 1);
+    moveUser(user, household.getId(), null);
+    householdRepository.decrementNumberOfMembers(household.getId());
+    logger.debug("Decremented member count of household {}", household.getId());
+    publishChange(household.getId(), HouseholdChangedEvent.Change.MEMBERS_CHANGED);
 
     NotificationDto notification =
         new NotificationDto(NotificationType.HOUSEHOLD, null, LocalDateTime.now(), false,
@@ -282,6 +331,7 @@ public class HouseholdService {
    *
    * @throws IllegalArgumentException if the user is not found or is not a member of any household.
    */
+  @Transactional
   public void leaveCurrentUserFromHousehold() {
     Authentication auth = SecurityContextHolder.getContext().getAuthentication();
     UserDetails userDetails = (UserDetails) auth.getPrincipal();
@@ -312,10 +362,10 @@ public class HouseholdService {
 
     String householdId = user.getHousehold().getId();
 
-    householdRepository.updateNumberOfMembers(householdId,
-        user.getHousehold().getNumberOfMembers() - 1);
-    userRepository.updateHouseholdId(user.getId(), null);
+    moveUser(user, householdId, null);
+    householdRepository.decrementNumberOfMembers(householdId);
     logger.info("User {} has been removed from the household", user.getFullName());
+    publishChange(householdId, HouseholdChangedEvent.Change.MEMBERS_CHANGED);
 
     String ownerId = user.getHousehold().getOwner().getId();
 
@@ -365,8 +415,8 @@ public class HouseholdService {
     unregisteredHouseholdMemberRepository.save(member);
     logger.debug("Unregistered member saved to database");
 
-    householdRepository.updateNumberOfMembers(user.getHousehold().getId(),
-        user.getHousehold().getNumberOfMembers() + 1);
+    householdRepository.incrementNumberOfMembers(user.getHousehold().getId());
+    publishChange(household.getId(), HouseholdChangedEvent.Change.MEMBERS_CHANGED);
 
     logger.info("Unregistered member {} added to household {}",
         request.getFullName(), user.getHousehold().getName());
@@ -413,9 +463,9 @@ public class HouseholdService {
     unregisteredHouseholdMemberRepository.delete(member);
     logger.debug("Unregistered member deleted from database");
 
-    householdRepository.updateNumberOfMembers(householdId,
-        member.getHousehold().getNumberOfMembers() - 1);
+    householdRepository.decrementNumberOfMembers(householdId);
     logger.debug("Updated household member count");
+    publishChange(householdId, HouseholdChangedEvent.Change.MEMBERS_CHANGED);
 
     String memberName = member.getFullName();
 
@@ -423,77 +473,49 @@ public class HouseholdService {
   }
 
   /**
-   * Gets the details of the current user's household.
+   * Gets the details of the current user's household. The household, its owner and the registered
+   * users are read in one query and the unregistered members in a second, both straight into DTOs.
    *
-   * @return A map containing household details, registered users, and unregistered members.
+   * @return the household details, registered users, and unregistered members.
    * @throws IllegalArgumentException if the user is not found or does not belong to a household
    */
-  public Map<String, Object> getHouseholdDetails() {
+  @Transactional(readOnly = true)
+  public HouseholdDetailsResponseDto getHouseholdDetails() {
     logger.info("Getting household details for current user");
 
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
     String email = authentication.getName();
 
-    User user = userRepository.findByEmail(email)
-        .orElseThrow(() -> {
-          logger.warn("Cannot get household details: No user logged in with email: {}", email);
-          return new IllegalArgumentException("User not found");
-        });
-
-    Household household = user.getHousehold();
+    List<HouseholdMemberRowDto> rows = householdRepository.findMemberRowsByMemberEmail(email);
 
-    if (household == null) {
-      logger.warn("User {} does not belong to a household", user.getFullName());
+    if (rows.isEmpty()) {
+      // Only on the error path: tell a missing user apart from a user without a household
+      if (!userRepository.existsByEmail(email)) {
+        logger.warn("Cannot get household details: No user logged in with email: {}", email);
+        throw new IllegalArgumentException("User not found");
+      }
+      logger.warn("User {} does not belong to a household", email);
       throw new IllegalArgumentException("User does not belong to a household");
     }
 
-    Map<String, Object> resultMap = new HashMap<>();
-
-    // Create owner DTO only if owner exists
-    UserResponseDto ownerDto = null;
-    if (household.getOwner() != null) {
-      User owner = household.getOwner();
-      ownerDto = new UserResponseDto(
-          owner.getId(),
-          owner.getEmail(),
-          owner.getFullName(),
-          owner.getTlf(),
-          owner.getRole()
-      );
-    }
+    HouseholdMemberRowDto first = rows.get(0);
+    HouseholdResponseDto household = new HouseholdResponseDto(
+        first.getHouseholdId(),
+        first.getHouseholdName(),
+        first.getHouseholdAddress(),
+        first.getOwner());
 
-    resultMap.put("household",
-        new HouseholdResponseDto(
-            household.getId(),
-            household.getName(),
-            household.getAddress(),
-            ownerDto));  // This can now be null safely
-
-    List<UserResponseDto> userResponseDtos = userRepository.getUsersByHousehold(household).stream()
-        .map(u -> new UserResponseDto(
-            u.getId(),
-            u.getEmail(),
-            u.getFullName(),
-            u.getTlf(),
-            u.getRole()))
+    List<UserResponseDto> users = rows.stream()
+        .map(HouseholdMemberRowDto::getMember)
         .collect(Collectors.toList());
-    logger.debug("Found {} registered users in household", userResponseDtos.size());
+    logger.debug("Found {} registered users in household", users.size());
 
-    List<UnregisteredMemberResponseDto> unregisteredMemberResponseDtos =
-        unregisteredHouseholdMemberRepository.findUnregisteredHouseholdMembersByHousehold(household)
-            .stream()
-            .map(unregisteredMember -> new UnregisteredMemberResponseDto(
-                unregisteredMember.getId(),
-                unregisteredMember.getFullName()))
-            .collect(Collectors.toList());
-    logger.debug("Found {} unregistered members in household",
-        unregisteredMemberResponseDtos.size());
-
-    resultMap.put("users", userResponseDtos);
-    resultMap.put("unregisteredMembers", unregisteredMemberResponseDtos);
+    List<UnregisteredMemberResponseDto> unregisteredMembers =
+        unregisteredHouseholdMemberRepository.findResponsesByHouseholdId(household.getId());
+    logger.debug("Found {} unregistered members in household", unregisteredMembers.size());
 
     logger.info("Successfully retrieved household details for {}", household.getName());
-    return resultMap;
+    return new HouseholdDetailsResponseDto(household, users, unregisteredMembers);
   }
 
   /**
@@ -586,6 +608,7 @@ public class HouseholdService {
     household.setOwner(newOwner);
     householdRepository.save(household);
     logger.info("Household owner changed to {}", newOwner.getFullName());
+    publishChange(household.getId(), HouseholdChangedEvent.Change.OWNER_CHANGED);
 
     NotificationDto notification =
         new NotificationDto(NotificationType.HOUSEHOLD, newOwner.getId(), LocalDateTime.now(),
@@ -603,15 +626,105 @@ public class HouseholdService {
    */
   public HouseholdBasicResponseDto searchHouseholdById(String householdId) {
     logger.info("Searching for household with ID {}", householdId);
+    checkSearchLimit();
 
-    Household household = householdRepository.findById(householdId)
+    HouseholdBasicResponseDto household = householdCache.get(
+            HouseholdIdAllocator.normalize(householdId))
+        .map(found -> new HouseholdBasicResponseDto(found.getId(), found.getName()))
         .orElseThrow(() -> {
           logger.warn("Cannot find household with ID: {}", householdId);
           return new IllegalArgumentException("Household not found");
         });
 
     logger.info("Found household: {}", household.getName());
-    return new HouseholdBasicResponseDto(household.getId(), household.getName());
+    return household;
+  }
+
+  /**
+   * Searches for households, either by exact ID or by the start of their name. An ID takes
+   * precedence when both are given.
+   *
+   * @param name the start of the household name
+   * @param id   the household ID
+   * @param page the page number
+   * @param size the page size, at most 50
+   * @return a page of matching households
+   * @throws IllegalArgumentException   if neither name nor ID is given, or the page is invalid
+   * @throws RateLimitExceededException if the user has searched too often in the last minute
+   */
+  public Page<HouseholdBasicResponseDto> searchHouseholds(String name, String id, int page,
+      int size) {
+    logger.info("Searching households: name={}, id={}, page={}, size={}", name, id, page, size);
+    if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+      throw new IllegalArgumentException(
+          "Page must be 0 or more and size between 1 and " + MAX_SEARCH_PAGE_SIZE);
+    }
+    boolean byId = id != null && !id.isBlank();
+    if (!byId && (name == null || name.isBlank())) {
+      throw new IllegalArgumentException("A household name or ID is required");
+    }
+    checkSearchLimit();
+
+    Pageable pageable = PageRequest.of(page, size);
+    if (byId) {
+      List<HouseholdBasicResponseDto> match = householdCache
+          .get(HouseholdIdAllocator.normalize(id))
+          .map(found -> List.of(new HouseholdBasicResponseDto(found.getId(), found.getName())))
+          .orElse(List.of());
+      return new PageImpl<>(page == 0 ? match : List.of(), pageable, match.size());
+    }
+
+    String prefix = name.trim()
+        .replace("!", "!!")
+        .replace("%", "!%")
+        .replace("_", "!_") + "%";
+    Page<HouseholdBasicResponseDto> result =
+        householdRepository.searchByNamePrefix(prefix, pageable);
+    logger.debug("Found {} households starting with '{}'", result.getTotalElements(), name);
+    return result;
+  }
+
+  private void publishChange(String householdId, HouseholdChangedEvent.Change change) {
+    eventPublisher.publishEvent(new HouseholdChangedEvent(householdId, change));
+  }
+
+  /**
+   * Moves a user between households with a conditional update, so the member counts are only
+   * adjusted by the one request that actually moved the user.
+   *
+   * @param user          the user
+   * @param fromHousehold the household the user was read in, or null for none
+   * @param toHousehold   the household to move the user to, or null for none
+   * @throws IllegalArgumentException if the user has changed household since being read
+   */
+  private void moveUser(User user, String fromHousehold, String toHousehold) {
+    if (userRepository.moveToHousehold(user.getId(), fromHousehold, toHousehold) == 0) {
+      logger.warn("User {} changed household concurrently, expected household {}",
+          user.getId(), fromHousehold);
+      throw new IllegalArgumentException("User has changed household, please try again");
+    }
+  }
+
+  /**
+   * Sets the coordinates of a household from its address, or clears them if the address is not
+   * found, so they never point at an old address.
+   *
+   * @param household the household
+   */
+  private void geocode(Household household) {
+    GeoPoint point = geocoder.geocode(household.getAddress()).orElse(null);
+    if (point == null) {
+      logger.debug("Could not geocode household address {}", household.getAddress());
+    }
+    household.setLatitude(point == null ? null : point.getLatitude());
+    household.setLongitude(point == null ? null : point.getLongitude());
+  }
+
+  private void checkSearchLimit() {
+    String email = SecurityContextHolder.getContext().getAuthentication().getName();
+    if (!searchRateLimiter.tryAcquire(email)) {
+      throw new RateLimitExceededException("Too many household searches, try again in a minute");
+    }
   }
 
   /**
@@ -649,10 +762,12 @@ public class HouseholdService {
       logger.debug("Changing household address from {} to {}", household.getAddress(),
           request.getAddress());
       household.setAddress(request.getAddress());
+      geocode(household);
     }
 
     householdRepository.save(household);
     logger.info("Household {} updated successfully", household.getName());
+    publishChange(household.getId(), HouseholdChangedEvent.Change.EDITED);
 
     NotificationDto notification =
         new NotificationDto(NotificationType.HOUSEHOLD, household.getOwner().getId(),
@@ -696,35 +811,27 @@ public class HouseholdService {
       throw new IllegalArgumentException("Only the owner can delete the household");
     }
 
-    membershipRequestRepository.deleteAllByHouseholdId(household.getId());
-    logger.debug("Deleted membership requests for household {}", household.getId());
-
-    // Moving all registered users from the household
-    List<User> users = userRepository.getUsersByHousehold(household);
-    logger.debug("Removing {} registered users from household", users.size());
-    for (User u : users) {
-      u.setHousehold(null);
-      userRepository.save(u);
-    }
-
-    // Deleting all unregistered members from the household
-    List<UnregisteredHouseholdMember> unregistered =
-        unregisteredHouseholdMemberRepository.findUnregisteredHouseholdMembersByHousehold(
-            household);
-    logger.debug("Removing {} unregistered members from household", unregistered.size());
-    unregisteredHouseholdMemberRepository.deleteAll(unregistered);
-
+    String householdId = household.getId();
     String householdName = household.getName();
 
+    // Notify while the members are still attached, otherwise there is nobody to notify
     NotificationDto notification =
         new NotificationDto(NotificationType.HOUSEHOLD, household.getOwner().getId(),
             LocalDateTime.now(), false, "Household " + householdName + " has been deleted.");
+    notificationService.saveHouseholdNotification(notification, householdId);
+    logger.debug("Household deletion notification sent");
 
-    householdRepository.delete(household);
-    logger.info("Household {} deleted successfully", householdName);
+    // One statement per table, regardless of the size of the household
+    membershipRequestRepository.deleteAllByHouseholdId(householdId);
+    int storageItems = storageItemRepository.deleteAllByHouseholdId(householdId);
+    int unregistered = unregisteredHouseholdMemberRepository.deleteAllByHouseholdId(householdId);
+    int users = userRepository.detachAllFromHousehold(householdId);
+    logger.debug("Removed {} users, {} unregistered members and {} storage items from household",
+        users, unregistered, storageItems);
 
-    notificationService.saveHouseholdNotification(notification, household.getId());
-    logger.debug("Household deletion notification sent");
+    householdRepository.deleteHouseholdById(householdId);
+    logger.info("Household {} deleted successfully", householdName);
+    publishChange(householdId, HouseholdChangedEvent.Change.DELETED);
   }
 
   /**
@@ -736,17 +843,14 @@ public class HouseholdService {
   public HouseholdResponseDto getHousehold(String householdId) {
     logger.info("Getting household with ID {}", householdId);
 
-    Household household = householdRepository.findById(householdId)
+    HouseholdResponseDto household = householdCache.get(householdId)
         .orElseThrow(() -> {
           logger.warn("Cannot get household: Household not found with ID: {}", householdId);
           return new IllegalArgumentException("Household not found");
         });
 
     logger.info("Successfully retrieved household: {}", household.getName());
-    return new HouseholdResponseDto(household.getId(), household.getName(), household.getAddress(),
-        new UserResponseDto(household.getOwner().getId(), household.getOwner().getEmail(),
-            household.getOwner().getFullName(), household.getOwner().getTlf(),
-            household.getOwner().getRole()));
+    return household;
   }
 
   /**
@@ -0,0 +1,16 @@
+package edu.ntnu.idatt2106.krisefikser.service.household;
+
+/**
+ * Thrown when a user has used up the number of household searches allowed per minute.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+  /**
+   * Constructor for RateLimitExceededException.
+   *
+   * @param message the message telling the user when to try again
+   */
+  public RateLimitExceededException(String message) {
+    super(message);
+  }
+}
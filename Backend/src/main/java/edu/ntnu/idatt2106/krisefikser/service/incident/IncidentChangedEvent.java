@@ -0,0 +1,23 @@
+package edu.ntnu.idatt2106.krisefikser.service.incident;
+
+/**
+ * Published when an incident is created, updated or deleted, so views of the map built in memory
+ * can be brought up to date.
+ */
+public class IncidentChangedEvent {
+
+  private final Long incidentId;
+
+  /**
+   * Constructor for IncidentChangedEvent.
+   *
+   * @param incidentId the id of the incident
+   */
+  public IncidentChangedEvent(Long incidentId) {
+    this.incidentId = incidentId;
+  }
+
+  public Long getIncidentId() {
+    return incidentId;
+  }
+}
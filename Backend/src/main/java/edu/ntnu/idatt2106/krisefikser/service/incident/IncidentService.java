@@ -8,10 +8,15 @@ import edu.ntnu.idatt2106.krisefikser.persistance.enums.Severity;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.incident.IncidentRepository;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.incident.ScenarioRepository;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoBounds;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoJsonPolygons;
+import edu.ntnu.idatt2106.krisefikser.service.map.MunicipalityIndex;
+import edu.ntnu.idatt2106.krisefikser.service.map.PreparedPolygon;
 import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 /**
@@ -25,6 +30,8 @@ public class IncidentService {
   private final ScenarioRepository scenarioRepository;
   private final NotificationService notificationService;
   private final UserRepository userRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final MunicipalityIndex municipalityIndex;
 
   /**
    * Constructor for IncidentService.
@@ -32,14 +39,19 @@ public class IncidentService {
    * @param incidentRepository  The repository for incident-related operations.
    * @param scenarioRepository  The repository for scenario-related operations.
    * @param notificationService the notification service
+   * @param eventPublisher      the publisher used to announce changed incidents
+   * @param municipalityIndex   the municipality boundaries incidents may be scoped to
    */
   public IncidentService(IncidentRepository incidentRepository,
       ScenarioRepository scenarioRepository,
-      NotificationService notificationService, UserRepository userRepository) {
+      NotificationService notificationService, UserRepository userRepository,
+      ApplicationEventPublisher eventPublisher, MunicipalityIndex municipalityIndex) {
     this.incidentRepository = incidentRepository;
     this.scenarioRepository = scenarioRepository;
     this.notificationService = notificationService;
     this.userRepository = userRepository;
+    this.eventPublisher = eventPublisher;
+    this.municipalityIndex = municipalityIndex;
     logger.info("IncidentService initialized");
   }
 
@@ -62,6 +74,10 @@ public class IncidentService {
       throw new IllegalArgumentException("Scenario ID is required for creating an incident.");
     }
 
+    validateMunicipality(request.getMunicipalityCode());
+    PreparedPolygon zone = readImpactZone(request.getImpactZoneJson());
+    validateImpactArea(request);
+
     Long scenarioId = request.getScenarioId();
     logger.debug("Looking up scenario with ID: {}", scenarioId);
 
@@ -73,9 +89,11 @@ public class IncidentService {
     logger.debug("Found scenario: {}", scenario.getName());
 
     Incident incident = request.toEntity(scenario);
+    setZoneBounds(incident, zone);
     logger.debug("Converting request to incident entity");
 
     incidentRepository.save(incident);
+    eventPublisher.publishEvent(new IncidentChangedEvent(incident.getId()));
     logger.debug("Incident saved to database with ID: {}", incident.getId());
 
     logger.debug("Sending notification for incident: {}", incident.getName());
@@ -108,6 +126,10 @@ public class IncidentService {
       throw new IllegalArgumentException("Scenario ID is required when updating an incident.");
     }
 
+    validateMunicipality(request.getMunicipalityCode());
+    PreparedPolygon zone = readImpactZone(request.getImpactZoneJson());
+    validateImpactArea(request);
+
     logger.debug("Looking up scenario with ID: {}", request.getScenarioId());
     Scenario scenario = scenarioRepository.findById(request.getScenarioId())
         .orElseThrow(() -> {
@@ -123,12 +145,16 @@ public class IncidentService {
     incident.setLatitude(request.getLatitude());
     incident.setLongitude(request.getLongitude());
     incident.setImpactRadius(request.getImpactRadius());
+    incident.setMunicipalityCode(request.getMunicipalityCode());
+    incident.setImpactZone(request.getImpactZoneJson());
+    setZoneBounds(incident, zone);
     incident.setSeverity(Severity.valueOf(request.getSeverity().toUpperCase()));
     incident.setStartedAt(request.getStartedAt());
     incident.setEndedAt(request.getEndedAt());
     incident.setScenario(scenario);
 
     incidentRepository.save(incident);
+    eventPublisher.publishEvent(new IncidentChangedEvent(id));
     logger.debug("Incident saved to database after update");
     logger.info("Incident with ID {} updated successfully", id);
 
@@ -161,6 +187,7 @@ public class IncidentService {
     logger.debug("Verified incident exists with ID: {}", id);
 
     incidentRepository.deleteById(id);
+    eventPublisher.publishEvent(new IncidentChangedEvent(id));
     logger.info("Incident with ID {} deleted successfully", id);
   }
 
@@ -183,4 +210,99 @@ public class IncidentService {
     logger.info("Returning {} incidents", dtos.size());
     return dtos;
   }
-}
\ No newline at end of file
+
+  /**
+   * Gets the incidents that concern a municipality, either because they are scoped to it,
+   * because they are centered inside it, or because the box around their impact zone overlaps
+   * the box around it.
+   *
+   * @param municipalityCode the municipality number
+   * @return the incidents
+   * @throws IllegalArgumentException if the municipality is unknown
+   */
+  public List<IncidentResponseDto> getIncidentsInMunicipality(String municipalityCode) {
+    logger.info("Fetching incidents in municipality {}", municipalityCode);
+    GeoBounds bounds = municipalityIndex.getBounds(municipalityCode).orElse(null);
+    if (bounds == null) {
+      logger.warn("Unknown municipality: {}", municipalityCode);
+      throw new IllegalArgumentException("Unknown municipality: " + municipalityCode);
+    }
+
+    // The box only narrows down the candidates; the boundary itself decides for the centre,
+    // while a zone counts when its own box overlaps that of the municipality
+    List<IncidentResponseDto> dtos = incidentRepository.findByMunicipalityCodeOrInBox(
+            municipalityCode, bounds.getSouth(), bounds.getWest(), bounds.getNorth(),
+            bounds.getEast()).stream()
+        .filter(incident -> municipalityCode.equals(incident.getMunicipalityCode())
+            || incident.getLatitude() != null && incident.getLongitude() != null
+            && municipalityIndex.contains(municipalityCode, incident.getLatitude(),
+            incident.getLongitude())
+            || zoneOverlaps(incident, bounds))
+        .map(IncidentResponseDto::fromEntity)
+        .toList();
+
+    logger.info("Returning {} incidents in municipality {}", dtos.size(), municipalityCode);
+    return dtos;
+  }
+
+  private void validateMunicipality(String municipalityCode) {
+    if (municipalityCode != null && municipalityIndex.get(municipalityCode).isEmpty()) {
+      logger.error("Unknown municipality: {}", municipalityCode);
+      throw new IllegalArgumentException("Unknown municipality: " + municipalityCode);
+    }
+  }
+
+  /**
+   * Checks that an incident has an area to alert, either a circle or a zone, and that a circle
+   * is given in full.
+   */
+  private void validateImpactArea(IncidentRequestDto request) {
+    boolean anyCircleField = request.getLatitude() != null || request.getLongitude() != null
+        || request.getImpactRadius() != null;
+    if (anyCircleField && !request.hasImpactCircle()) {
+      logger.error("Incomplete impact circle for incident {}", request.getName());
+      throw new IllegalArgumentException(
+          "Latitude, longitude and impact radius must be given together");
+    }
+    if (!request.hasImpactCircle() && request.getImpactZoneJson() == null) {
+      logger.error("Incident {} has neither an impact circle nor an impact zone",
+          request.getName());
+      throw new IllegalArgumentException(
+          "An incident needs an impact circle or an impact zone");
+    }
+    if (request.hasImpactCircle() && request.getImpactRadius() < 0) {
+      logger.error("Negative impact radius for incident {}", request.getName());
+      throw new IllegalArgumentException("Impact radius cannot be negative");
+    }
+  }
+
+  private PreparedPolygon readImpactZone(String impactZone) {
+    if (impactZone == null) {
+      return null;
+    }
+    try {
+      return GeoJsonPolygons.prepare(impactZone);
+    } catch (IllegalArgumentException e) {
+      logger.error("Invalid impact zone: {}", e.getMessage());
+      throw new IllegalArgumentException("Invalid impact zone: " + e.getMessage());
+    }
+  }
+
+  private static boolean zoneOverlaps(Incident incident, GeoBounds bounds) {
+    return incident.getZoneSouth() != null
+        && incident.getZoneSouth() <= bounds.getNorth()
+        && incident.getZoneNorth() >= bounds.getSouth()
+        && incident.getZoneWest() <= bounds.getEast()
+        && incident.getZoneEast() >= bounds.getWest();
+  }
+
+  private static void setZoneBounds(Incident incident, PreparedPolygon zone) {
+    if (zone == null) {
+      incident.setZoneBounds(null, null, null, null);
+    } else {
+      GeoBounds bounds = zone.getBounds();
+      incident.setZoneBounds(bounds.getSouth(), bounds.getWest(), bounds.getNorth(),
+          bounds.getEast());
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package edu.ntnu.idatt2106.krisefikser.service.incident;
+
+/**
+ * One line of a parsed scenario packing list, such as "9 l vann", optionally tied to an item in
+ * the item catalog.
+ */
+public class PackingListEntry {
+
+  private final String name;
+  private final String key;
+  private final double quantity;
+  private final String unit;
+  private final Long itemId;
+
+  /**
+   * Constructor for PackingListEntry.
+   *
+   * @param name     the name as written in the packing list
+   * @param key      the normalized name, used to match storage items
+   * @param quantity the quantity to keep, 1 if the list does not say
+   * @param unit     the unit of the quantity, or null if none was given
+   * @param itemId   the id of the matching catalog item, or null if there is none
+   */
+  public PackingListEntry(String name, String key, double quantity, String unit, Long itemId) {
+    this.name = name;
+    this.key = key;
+    this.quantity = quantity;
+    this.unit = unit;
+    this.itemId = itemId;
+  }
+
+  /**
+   * Gets a copy of this entry tied to a catalog item.
+   *
+   * @param itemId the id of the catalog item
+   * @return the entry with the item id set
+   */
+  public PackingListEntry withItemId(Long itemId) {
+    return new PackingListEntry(name, key, quantity, unit, itemId);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public double getQuantity() {
+    return quantity;
+  }
+
+  public String getUnit() {
+    return unit;
+  }
+
+  public Long getItemId() {
+    return itemId;
+  }
+}
@@ -0,0 +1,158 @@
+package edu.ntnu.idatt2106.krisefikser.service.incident;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the free-text packing list of a scenario into entries with a name, quantity and unit.
+ *
+ * <p>Entries are separated by line breaks, semicolons or commas; a comma between two digits is
+ * read as a decimal comma. Bullets and list numbers are dropped. A quantity may lead the entry
+ * ("9 l vann", "2 stk lommelykt") or trail it ("batterier x 4", "stearinlys (10)"). Units are
+ * brought to one unit per measure, so "5 dl" is read as 0.5 l and "500 g" as 0.5 kg. Entries with
+ * the same name and unit are merged.</p>
+ */
+public final class PackingListParser {
+
+  private static final Pattern SEPARATOR = Pattern.compile("\\r?\\n|;|(?<!\\d),|,(?!\\d)");
+  private static final Pattern BULLET = Pattern.compile("^(?:[-*•]|\\d+[.)])\\s+");
+  private static final String NUMBER = "(\\d+(?:[.,]\\d+)?)";
+  private static final Pattern LEADING_QUANTITY =
+      Pattern.compile("^" + NUMBER + "\\s*(?:([\\p{L}]+\\.?)\\s+)?(.+)$");
+  private static final Pattern TRAILING_QUANTITY =
+      Pattern.compile("^(.+?)\\s*(?:[x×]\\s*" + NUMBER + "|\\(\\s*" + NUMBER
+          + "\\s*([\\p{L}]+)?\\s*\\))$", Pattern.CASE_INSENSITIVE);
+  private static final Map<String, String> UNITS = Map.ofEntries(
+      Map.entry("l", "l"), Map.entry("liter", "l"), Map.entry("liters", "l"),
+      Map.entry("litre", "l"), Map.entry("dl", "l"), Map.entry("ml", "l"),
+      Map.entry("kg", "kg"), Map.entry("kilo", "kg"), Map.entry("kilogram", "kg"),
+      Map.entry("kilograms", "kg"), Map.entry("g", "kg"), Map.entry("gram", "kg"),
+      Map.entry("grams", "kg"), Map.entry("stk", "stk"), Map.entry("pcs", "stk"),
+      Map.entry("stykk", "stk"), Map.entry("stykker", "stk"), Map.entry("pk", "pk"),
+      Map.entry("pakke", "pk"), Map.entry("pakker", "pk"), Map.entry("boks", "boks"),
+      Map.entry("bokser", "boks"), Map.entry("flaske", "flaske"), Map.entry("flasker", "flaske"),
+      Map.entry("rull", "rull"), Map.entry("ruller", "rull"), Map.entry("par", "par"));
+  private static final Map<String, Double> UNIT_FACTORS = Map.of("dl", 0.1, "ml", 0.001,
+      "g", 0.001, "gram", 0.001, "grams", 0.001);
+
+  private PackingListParser() {
+  }
+
+  /**
+   * Parses a packing list.
+   *
+   * @param packingList the packing list text, may be null
+   * @return the entries in the order they first appear
+   */
+  public static List<PackingListEntry> parse(String packingList) {
+    if (packingList == null || packingList.isBlank()) {
+      return List.of();
+    }
+    Map<String, PackingListEntry> entries = new LinkedHashMap<>();
+    for (String part : SEPARATOR.split(packingList)) {
+      PackingListEntry entry = parseEntry(part);
+      if (entry == null) {
+        continue;
+      }
+      entries.merge(entry.getKey() + "|" + entry.getUnit(), entry,
+          (first, second) -> new PackingListEntry(first.getName(), first.getKey(),
+              first.getQuantity() + second.getQuantity(), first.getUnit(), null));
+    }
+    return new ArrayList<>(entries.values());
+  }
+
+  /**
+   * Normalizes an item name so packing list entries and storage items can be matched.
+   *
+   * @param name the name
+   * @return the name in lower case with single spaces
+   */
+  public static String normalize(String name) {
+    return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Brings a unit to the one used for its measure, so amounts counted in "liter", "dl" and "L"
+   * can be added up.
+   *
+   * @param unit the unit as written, may be null
+   * @return the unit of its measure, the unit in lower case if it is not known, or null
+   */
+  public static String normalizeUnit(String unit) {
+    if (unit == null || unit.isBlank()) {
+      return null;
+    }
+    String key = unitKey(unit.trim());
+    return UNITS.getOrDefault(key, key);
+  }
+
+  /**
+   * Gets what an amount in a unit is multiplied by to count it in {@link #normalizeUnit}'s unit.
+   *
+   * @param unit the unit as written, may be null
+   * @return the factor, 1 for units that need no conversion
+   */
+  public static double unitFactor(String unit) {
+    if (unit == null) {
+      return 1;
+    }
+    return UNIT_FACTORS.getOrDefault(unitKey(unit.trim()), 1.0);
+  }
+
+  private static PackingListEntry parseEntry(String part) {
+    String text = BULLET.matcher(part.trim()).replaceFirst("").trim();
+    text = text.replaceAll("[.:]+$", "").trim();
+    if (text.isEmpty()) {
+      return null;
+    }
+
+    double quantity = 1;
+    String unit = null;
+    String name = text;
+    Matcher leading = LEADING_QUANTITY.matcher(text);
+    Matcher trailing = TRAILING_QUANTITY.matcher(text);
+    if (leading.matches()) {
+      quantity = parseNumber(leading.group(1));
+      String word = leading.group(2);
+      if (word != null && UNITS.containsKey(unitKey(word))) {
+        unit = word;
+        name = leading.group(3);
+      } else {
+        // The word after the number is part of the name, as in "2 lommelykter"
+        name = word == null ? leading.group(3) : word + " " + leading.group(3);
+      }
+    } else if (trailing.matches()) {
+      name = trailing.group(1);
+      String number = trailing.group(2) != null ? trailing.group(2) : trailing.group(3);
+      quantity = parseNumber(number);
+      String word = trailing.group(4);
+      if (word != null && UNITS.containsKey(unitKey(word))) {
+        unit = word;
+      }
+    }
+    if (unit != null) {
+      // Rounded so converted amounts such as 3 dl do not show floating point noise
+      quantity = Math.round(quantity * unitFactor(unit) * 1000) / 1000.0;
+      unit = normalizeUnit(unit);
+    }
+
+    name = name.trim();
+    if (name.isEmpty() || quantity <= 0) {
+      return null;
+    }
+    return new PackingListEntry(name, normalize(name), quantity, unit, null);
+  }
+
+  private static String unitKey(String word) {
+    return word.replace(".", "").toLowerCase(Locale.ROOT);
+  }
+
+  private static double parseNumber(String number) {
+    return Double.parseDouble(number.replace(',', '.'));
+  }
+}
@@ -0,0 +1,326 @@
+package edu.ntnu.idatt2106.krisefikser.service.incident;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdBasicResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.GapItemDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.HouseholdGapDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.PackingListItemDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.storage.StorageTotalRowDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Incident;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Scenario;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.item.Item;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.incident.IncidentRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.incident.ScenarioRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.item.ItemRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.storage.StorageItemRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdCache;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdLocationIndex;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoJsonPolygons;
+import edu.ntnu.idatt2106.krisefikser.service.map.PreparedPolygon;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Works out what households are missing from the packing list of a scenario.
+ *
+ * <p>Packing lists are parsed with {@link PackingListParser} once per version of the text, and
+ * tied to catalog items each time they are used, so catalog changes show up at once. A gap is
+ * computed as a hash join: the storage of all households in question is summed per item in one
+ * query and put in a map, and each packing list entry is then looked up in it.</p>
+ */
+@Service
+public class ScenarioGapService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ScenarioGapService.class);
+
+  /**
+   * Most scenarios whose parsed packing list is kept at once.
+   */
+  private static final int MAX_CACHED_SCENARIOS = 256;
+
+  /**
+   * Most household ids sent in one IN list.
+   */
+  private static final int HOUSEHOLD_BATCH_SIZE = 500;
+
+  /**
+   * Margin on the incident radius, matching the one used when incident notifications are sent, so
+   * the same households are covered.
+   */
+  private static final double INCIDENT_RADIUS_MARGIN = 1.4;
+
+  /**
+   * The unit amounts without a unit are counted in.
+   */
+  private static final String PIECES = "stk";
+
+  private final ScenarioRepository scenarioRepository;
+  private final IncidentRepository incidentRepository;
+  private final ItemRepository itemRepository;
+  private final StorageItemRepository storageItemRepository;
+  private final UserRepository userRepository;
+  private final HouseholdRepository householdRepository;
+  private final HouseholdCache householdCache;
+  private final HouseholdLocationIndex householdLocationIndex;
+
+  private final ConcurrentHashMap<Long, ParsedPackingList> packingLists =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Constructor for ScenarioGapService.
+   *
+   * @param scenarioRepository     the scenario repository
+   * @param incidentRepository     the incident repository
+   * @param itemRepository         the item repository
+   * @param storageItemRepository  the storage item repository
+   * @param userRepository         the user repository
+   * @param householdRepository    the household repository
+   * @param householdCache         the cache of household name, address and owner
+   * @param householdLocationIndex the index of where households live
+   */
+  public ScenarioGapService(ScenarioRepository scenarioRepository,
+      IncidentRepository incidentRepository, ItemRepository itemRepository,
+      StorageItemRepository storageItemRepository, UserRepository userRepository,
+      HouseholdRepository householdRepository, HouseholdCache householdCache,
+      HouseholdLocationIndex householdLocationIndex) {
+    this.scenarioRepository = scenarioRepository;
+    this.incidentRepository = incidentRepository;
+    this.itemRepository = itemRepository;
+    this.storageItemRepository = storageItemRepository;
+    this.userRepository = userRepository;
+    this.householdRepository = householdRepository;
+    this.householdCache = householdCache;
+    this.householdLocationIndex = householdLocationIndex;
+    logger.info("ScenarioGapService initialized");
+  }
+
+  /**
+   * Gets the parsed packing list of a scenario.
+   *
+   * @param scenarioId the id of the scenario
+   * @return the packing list entries
+   * @throws IllegalArgumentException if the scenario does not exist
+   */
+  public List<PackingListItemDto> getPackingList(Long scenarioId) {
+    return packingListOf(findScenario(scenarioId)).stream()
+        .map(entry -> new PackingListItemDto(entry.getName(), entry.getItemId(),
+            entry.getQuantity(), entry.getUnit()))
+        .toList();
+  }
+
+  /**
+   * Gets what the current user's household is missing from a scenario's packing list.
+   *
+   * @param scenarioId the id of the scenario
+   * @return the gap of the household
+   * @throws IllegalArgumentException if the scenario does not exist, or the user has no household
+   */
+  public HouseholdGapDto getHouseholdGap(Long scenarioId) {
+    String email = SecurityContextHolder.getContext().getAuthentication().getName();
+    List<PackingListEntry> entries = packingListOf(findScenario(scenarioId));
+
+    String householdId = userRepository.findHouseholdIdByEmail(email)
+        .orElseThrow(() -> {
+          logger.warn("User {} has no household to compare with scenario {}", email, scenarioId);
+          return new IllegalArgumentException("User does not belong to a household");
+        });
+    HouseholdResponseDto household = householdCache.get(householdId)
+        .orElseThrow(() -> new IllegalArgumentException("Household not found"));
+
+    return computeGaps(scenarioId, entries,
+        List.of(new HouseholdBasicResponseDto(household.getId(), household.getName()))).get(0);
+  }
+
+  /**
+   * Gets what every household with a member or its home inside an incident's radius, or its home
+   * inside the incident's impact zone, is missing from the packing list of the incident's
+   * scenario. Households missing the most come first.
+   *
+   * @param incidentId the id of the incident
+   * @return the gap of each household
+   * @throws IllegalArgumentException if the incident does not exist, has no scenario or has no
+   *                                  location
+   */
+  public List<HouseholdGapDto> getIncidentGaps(Long incidentId) {
+    Incident incident = incidentRepository.findById(incidentId)
+        .orElseThrow(() -> {
+          logger.warn("Incident not found with ID: {}", incidentId);
+          return new IllegalArgumentException("Incident not found with ID: " + incidentId);
+        });
+    if (incident.getScenario() == null) {
+      throw new IllegalArgumentException("Incident has no scenario");
+    }
+    boolean hasCircle = incident.getLatitude() != null && incident.getLongitude() != null
+        && incident.getImpactRadius() != null;
+    if (!hasCircle && incident.getImpactZone() == null) {
+      throw new IllegalArgumentException("Incident has no location");
+    }
+
+    List<PackingListEntry> entries = packingListOf(incident.getScenario());
+    Set<String> nearby = new LinkedHashSet<>();
+    if (hasCircle) {
+      double radius = incident.getImpactRadius() * INCIDENT_RADIUS_MARGIN;
+      nearby.addAll(userRepository.findHouseholdIdsWithinRadius(
+          incident.getLatitude(), incident.getLongitude(), radius));
+      nearby.addAll(householdLocationIndex.findWithinRadius(incident.getLatitude(),
+          incident.getLongitude(), radius));
+    }
+    if (incident.getImpactZone() != null) {
+      PreparedPolygon zone = GeoJsonPolygons.prepare(incident.getImpactZone());
+      nearby.addAll(householdLocationIndex.findWithinBounds(zone.getBounds(), zone));
+    }
+    List<String> householdIds = List.copyOf(nearby);
+    logger.info("Computing scenario gaps for {} households near incident {}",
+        householdIds.size(), incidentId);
+
+    List<HouseholdBasicResponseDto> households = new ArrayList<>(householdIds.size());
+    for (List<String> batch : batches(householdIds)) {
+      households.addAll(householdRepository.findBasicByIdIn(batch));
+    }
+
+    List<HouseholdGapDto> gaps = computeGaps(incident.getScenario().getId(), entries, households);
+    gaps.sort(Comparator.comparingInt((HouseholdGapDto gap) -> gap.getMissing().size())
+        .reversed()
+        .thenComparing(HouseholdGapDto::getHouseholdName,
+            Comparator.nullsLast(Comparator.naturalOrder())));
+    return gaps;
+  }
+
+  private Scenario findScenario(Long scenarioId) {
+    return scenarioRepository.findById(scenarioId)
+        .orElseThrow(() -> {
+          logger.warn("Scenario not found with ID: {}", scenarioId);
+          return new IllegalArgumentException("Scenario not found with ID: " + scenarioId);
+        });
+  }
+
+  /**
+   * Gets the packing list of a scenario tied to the current catalog, parsing it only if its text
+   * changed since it was last parsed.
+   */
+  private List<PackingListEntry> packingListOf(Scenario scenario) {
+    ParsedPackingList cached = packingLists.get(scenario.getId());
+    if (cached != null && Objects.equals(cached.source, scenario.getPackingList())) {
+      return resolveItems(cached.entries);
+    }
+
+    List<PackingListEntry> entries = PackingListParser.parse(scenario.getPackingList());
+    if (packingLists.size() >= MAX_CACHED_SCENARIOS) {
+      packingLists.clear();
+    }
+    packingLists.put(scenario.getId(), new ParsedPackingList(scenario.getPackingList(), entries));
+    logger.debug("Parsed packing list of scenario {} into {} entries", scenario.getId(),
+        entries.size());
+    return resolveItems(entries);
+  }
+
+  private List<PackingListEntry> resolveItems(List<PackingListEntry> entries) {
+    if (entries.isEmpty()) {
+      return entries;
+    }
+    Map<String, Long> itemIds = new HashMap<>();
+    for (Item item : itemRepository.findByLowerCaseNameIn(
+        entries.stream().map(PackingListEntry::getKey).collect(Collectors.toSet()))) {
+      itemIds.putIfAbsent(PackingListParser.normalize(item.getName()), item.getId());
+    }
+    return entries.stream()
+        .map(entry -> entry.withItemId(itemIds.get(entry.getKey())))
+        .toList();
+  }
+
+  private List<HouseholdGapDto> computeGaps(Long scenarioId, List<PackingListEntry> entries,
+      List<HouseholdBasicResponseDto> households) {
+    // Build side: storage totals per household and item
+    Map<String, Map<Long, List<StorageTotalRowDto>>> storage = new HashMap<>();
+    LocalDateTime now = LocalDateTime.now();
+    List<String> householdIds = households.stream().map(HouseholdBasicResponseDto::getId)
+        .toList();
+    for (List<String> batch : batches(householdIds)) {
+      for (StorageTotalRowDto row : storageItemRepository.sumUnexpiredByHouseholdIds(batch, now)) {
+        storage.computeIfAbsent(row.getHouseholdId(), id -> new HashMap<>())
+            .computeIfAbsent(row.getItemId(), id -> new ArrayList<>())
+            .add(row);
+      }
+    }
+
+    // Probe side: look up every packing list entry for every household
+    List<HouseholdGapDto> gaps = new ArrayList<>(households.size());
+    for (HouseholdBasicResponseDto household : households) {
+      Map<Long, List<StorageTotalRowDto>> items =
+          storage.getOrDefault(household.getId(), Map.of());
+      List<GapItemDto> missing = new ArrayList<>();
+      for (PackingListEntry entry : entries) {
+        double available = available(entry, items);
+        if (available < entry.getQuantity()) {
+          missing.add(new GapItemDto(entry.getName(), entry.getItemId(), entry.getUnit(),
+              entry.getQuantity(), available, entry.getQuantity() - available));
+        }
+      }
+      gaps.add(new HouseholdGapDto(household.getId(), household.getName(), scenarioId,
+          entries.size(), entries.size() - missing.size(), missing));
+    }
+    return gaps;
+  }
+
+  private static double available(PackingListEntry entry,
+      Map<Long, List<StorageTotalRowDto>> items) {
+    if (entry.getItemId() == null) {
+      // Storage always refers to a catalog item, so an entry without one can never be covered
+      return 0;
+    }
+    double available = 0;
+    String unit = countedUnit(entry.getUnit());
+    for (StorageTotalRowDto row : items.getOrDefault(entry.getItemId(), List.of())) {
+      // Entry units are already normalized by the parser, storage units are as typed
+      if (unit.equals(countedUnit(PackingListParser.normalizeUnit(row.getUnit())))) {
+        available += row.getAmount() * PackingListParser.unitFactor(row.getUnit());
+      }
+    }
+    return available;
+  }
+
+  /**
+   * Gets the unit an amount is counted in. An amount without a unit is a number of pieces, so
+   * it only adds up with other piece counts and never with litres or kilograms.
+   */
+  private static String countedUnit(String normalizedUnit) {
+    return normalizedUnit == null ? PIECES : normalizedUnit;
+  }
+
+  private static List<List<String>> batches(List<String> ids) {
+    List<List<String>> batches = new ArrayList<>();
+    for (int from = 0; from < ids.size(); from += HOUSEHOLD_BATCH_SIZE) {
+      batches.add(ids.subList(from, Math.min(ids.size(), from + HOUSEHOLD_BATCH_SIZE)));
+    }
+    return batches;
+  }
+
+  /**
+   * A parsed packing list, not yet tied to catalog items, and the text it was parsed from.
+   */
+  private static final class ParsedPackingList {
+
+    private final String source;
+    private final List<PackingListEntry> entries;
+
+    private ParsedPackingList(String source, List<PackingListEntry> entries) {
+      this.source = source;
+      this.entries = entries;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package edu.ntnu.idatt2106.krisefikser.service.mail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An email template that has been split into literal segments and placeholders once, so rendering
+ * is a single pass that appends each segment to the output without any searching or intermediate
+ * strings.
+ *
+ * <p>Placeholders are written as {@code {{name}}}. Values are HTML-escaped while they are written.
+ * The subject is taken from the {@code <title>} element of the template.
+ */
+public final class CompiledMailTemplate {
+
+  private static final String OPEN = "{{";
+  private static final String CLOSE = "}}";
+
+  private final String subject;
+  private final Locale locale;
+  private final String[] literals;
+  private final String[] placeholders;
+  private final int literalLength;
+
+  private CompiledMailTemplate(String subject, Locale locale, String[] literals,
+      String[] placeholders) {
+    this.subject = subject;
+    this.locale = locale;
+    this.literals = literals;
+    this.placeholders = placeholders;
+    int length = 0;
+    for (String literal : literals) {
+      length += literal.length();
+    }
+    this.literalLength = length;
+  }
+
+  /**
+   * Parses a template source into a compiled template.
+   *
+   * @param source the template source
+   * @param locale the locale of the template
+   * @return the compiled template
+   * @throws IllegalArgumentException if a placeholder is unterminated or empty, or if the
+   *                                  template has no title
+   */
+  public static CompiledMailTemplate compile(String source, Locale locale) {
+    List<String> literals = new ArrayList<>();
+    List<String> placeholders = new ArrayList<>();
+
+    int position = 0;
+    int open;
+    while ((open = source.indexOf(OPEN, position)) >= 0) {
+      int close = source.indexOf(CLOSE, open + OPEN.length());
+      if (close < 0) {
+        throw new IllegalArgumentException("Unterminated placeholder at index " + open);
+      }
+      String name = source.substring(open + OPEN.length(), close).trim();
+      if (name.isEmpty()) {
+        throw new IllegalArgumentException("Empty placeholder at index " + open);
+      }
+      literals.add(source.substring(position, open));
+      placeholders.add(name);
+      position = close + CLOSE.length();
+    }
+    literals.add(source.substring(position));
+
+    return new CompiledMailTemplate(extractSubject(source), locale,
+        literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+  }
+
+  private static String extractSubject(String source) {
+    int start = source.indexOf("<title>");
+    int end = source.indexOf("</title>");
+    if (start < 0 || end < start) {
+      throw new IllegalArgumentException("Template is missing a <title> element");
+    }
+    String subject = source.substring(start + "<title>".length(), end).trim();
+    if (subject.contains(OPEN)) {
+      throw new IllegalArgumentException("Placeholders are not supported in the subject");
+    }
+    return subject;
+  }
+
+  /**
+   * Renders the template into the given output.
+   *
+   * @param out    the output to write to
+   * @param params the placeholder values
+   * @throws IOException              if writing to the output fails
+   * @throws IllegalArgumentException if a placeholder has no value
+   */
+  public void renderTo(Appendable out, Map<String, String> params) throws IOException {
+    for (int i = 0; i < placeholders.length; i++) {
+      out.append(literals[i]);
+      String value = params.get(placeholders[i]);
+      if (value == null) {
+        throw new IllegalArgumentException("Missing value for placeholder: " + placeholders[i]);
+      }
+      appendEscaped(out, value);
+    }
+    out.append(literals[placeholders.length]);
+  }
+
+  /**
+   * Renders the template into a string builder sized for the output up front.
+   *
+   * @param params the placeholder values
+   * @return the rendered HTML
+   * @throws IllegalArgumentException if a placeholder has no value
+   */
+  public String render(Map<String, String> params) {
+    StringBuilder builder = new StringBuilder(estimateLength(params));
+    try {
+      renderTo(builder, params);
+    } catch (IOException e) {
+      // StringBuilder never throws IOException
+      throw new IllegalStateException(e);
+    }
+    return builder.toString();
+  }
+
+  private int estimateLength(Map<String, String> params) {
+    int length = literalLength;
+    for (String placeholder : placeholders) {
+      String value = params.get(placeholder);
+      if (value != null) {
+        length += value.length();
+      }
+    }
+    return length;
+  }
+
+  private static void appendEscaped(Appendable out, String value) throws IOException {
+    int start = 0;
+    for (int i = 0; i < value.length(); i++) {
+      String replacement = switch (value.charAt(i)) {
+        case '<' -> "&lt;";
+        case '>' -> "&gt;";
+        case '&' -> "&amp;";
+        case '"' -> "&quot;";
+        case '\'' -> "&#39;";
+        default -> null;
+      };
+      if (replacement != null) {
+        out.append(value, start, i).append(replacement);
+        start = i + 1;
+      }
+    }
+    out.append(value, start, value.length());
+  }
+
+  /**
+   * Gets the subject.
+   *
+   * @return the subject
+   */
+  public String getSubject() {
+    return subject;
+  }
+
+  /**
+   * Gets the locale.
+   *
+   * @return the locale
+   */
+  public Locale getLocale() {
+    return locale;
+  }
+}
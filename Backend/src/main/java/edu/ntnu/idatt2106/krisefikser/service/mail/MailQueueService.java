@@ -0,0 +1,445 @@
+package edu.ntnu.idatt2106.krisefikser.service.mail;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.mail.MailQueueStatsDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mail.OutboundMail;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MailStatus;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MailTemplate;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mail.OutboundMailRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Persistent outbound mail queue. Emails are stored in the database on the request thread and
+ * delivered in the background by a small worker pool.
+ *
+ * <p>Each worker sends its share of a batch through a single call to
+ * {@link JavaMailSender#send(MimeMessage...)}, which reuses one SMTP connection for the whole
+ * chunk instead of opening a new one per email. Failed deliveries are retried with exponential
+ * backoff until the maximum number of attempts is reached.
+ *
+ * <p>Every node polls the same table, so a drain round first claims its mails by moving them from
+ * PENDING to SENDING with a conditional update, and only sends the ones it got. The outcome is
+ * written in a separate step after sending. If that write fails the mails stay SENDING, which is
+ * never picked up again, rather than going out twice; such claims are marked FAILED once they
+ * expire. Finished mails lose their body and template values as soon as they finish, and are
+ * deleted once past the retention period.
+ */
+@Service
+@EnableScheduling
+public class MailQueueService {
+
+  private static final Logger logger = LoggerFactory.getLogger(MailQueueService.class);
+  private static final int MAX_ERROR_LENGTH = 1000;
+  private static final List<MailStatus> FINISHED = List.of(MailStatus.SENT, MailStatus.FAILED);
+
+  private final OutboundMailRepository outboundMailRepository;
+  private final JavaMailSender mailSender;
+  private final MailTemplateService mailTemplateService;
+  private final boolean enabled;
+  private final int batchSize;
+  private final int workerCount;
+  private final int maxAttempts;
+  private final long retryBaseDelayMs;
+  private final long retryMaxDelayMs;
+  private final long claimTimeoutMs;
+  private final long retentionMs;
+
+  private final ExecutorService dispatcher;
+  private final ExecutorService workers;
+  private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+  private final AtomicLong sentTotal = new AtomicLong();
+  private final AtomicLong failedAttemptsTotal = new AtomicLong();
+  private final AtomicLong batchesTotal = new AtomicLong();
+  private final AtomicLong batchLatencyTotalMs = new AtomicLong();
+  private final AtomicLong lastBatchLatencyMs = new AtomicLong();
+
+  /**
+   * Constructor for MailQueueService.
+   *
+   * @param outboundMailRepository the repository holding the queued mails
+   * @param mailSender             the JavaMailSender used for delivery
+   * @param mailTemplateService    the service holding the compiled email templates
+   * @param enabled                whether queued mails should be delivered at all
+   * @param batchSize              the maximum number of mails fetched per drain round
+   * @param workerCount            the number of worker threads sending in parallel
+   * @param maxAttempts            the number of attempts before a mail is marked as failed
+   * @param retryBaseDelayMs       the delay before the first retry, doubled on each attempt
+   * @param retryMaxDelayMs        the upper bound for the retry delay
+   * @param claimTimeoutMs         how long a claimed mail may go without a recorded outcome
+   * @param retentionMs            how long sent and failed mails are kept
+   */
+  public MailQueueService(OutboundMailRepository outboundMailRepository,
+      JavaMailSender mailSender,
+      MailTemplateService mailTemplateService,
+      @Value("${app.email.enabled:true}") boolean enabled,
+      @Value("${app.mail.queue.batch-size:50}") int batchSize,
+      @Value("${app.mail.queue.workers:2}") int workerCount,
+      @Value("${app.mail.queue.max-attempts:5}") int maxAttempts,
+      @Value("${app.mail.queue.retry-base-delay-ms:30000}") long retryBaseDelayMs,
+      @Value("${app.mail.queue.retry-max-delay-ms:3600000}") long retryMaxDelayMs,
+      @Value("${app.mail.queue.claim-timeout-ms:600000}") long claimTimeoutMs,
+      @Value("${app.mail.queue.retention-ms:604800000}") long retentionMs) {
+    this.outboundMailRepository = outboundMailRepository;
+    this.mailSender = mailSender;
+    this.mailTemplateService = mailTemplateService;
+    this.enabled = enabled;
+    this.batchSize = batchSize;
+    this.workerCount = workerCount;
+    this.maxAttempts = maxAttempts;
+    this.retryBaseDelayMs = retryBaseDelayMs;
+    this.retryMaxDelayMs = retryMaxDelayMs;
+    this.claimTimeoutMs = claimTimeoutMs;
+    this.retentionMs = retentionMs;
+    this.dispatcher = Executors.newSingleThreadExecutor(namedThreads("mail-dispatcher"));
+    this.workers = Executors.newFixedThreadPool(workerCount, namedThreads("mail-worker"));
+    logger.info("MailQueueService initialized: enabled={}, batchSize={}, workers={}, "
+        + "maxAttempts={}", enabled, batchSize, workerCount, maxAttempts);
+  }
+
+  /**
+   * Adds an email to the outbound queue and wakes up the dispatcher.
+   *
+   * @param toEmail the recipient's email address
+   * @param subject the subject of the email
+   * @param body    the HTML body of the email
+   */
+  public void enqueue(String toEmail, String subject, String body) {
+    save(new OutboundMail(toEmail, subject, body));
+  }
+
+  /**
+   * Adds a templated email to the outbound queue. Only the placeholder values are stored; the body
+   * is rendered when the mail is sent.
+   *
+   * @param toEmail  the recipient's email address
+   * @param template the template used for the body
+   * @param locale   the preferred locale, or null for the template's default locale
+   * @param params   the placeholder values
+   */
+  public void enqueue(String toEmail, MailTemplate template, Locale locale,
+      Map<String, String> params) {
+    CompiledMailTemplate compiled = mailTemplateService.getTemplate(template, locale);
+    save(new OutboundMail(toEmail, compiled.getSubject(), template, compiled.getLocale(),
+        params));
+  }
+
+  private void save(OutboundMail outboundMail) {
+    OutboundMail mail = outboundMailRepository.save(outboundMail);
+    logger.debug("Queued email with ID {} to: {}", mail.getId(), mail.getRecipient());
+
+    // Inside a transaction the row is only visible to the workers once it has been committed
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          wakeUp();
+        }
+      });
+    } else {
+      wakeUp();
+    }
+  }
+
+  /**
+   * Schedules a drain of the queue unless one is already waiting to run.
+   */
+  public void wakeUp() {
+    if (!enabled) {
+      logger.trace("Email delivery disabled, leaving mails in queue");
+      return;
+    }
+    if (drainScheduled.compareAndSet(false, true)) {
+      dispatcher.execute(() -> {
+        drainScheduled.set(false);
+        drain();
+      });
+    }
+  }
+
+  /**
+   * Periodically picks up mails that are due for a retry or were queued before a restart.
+   */
+  @Scheduled(fixedDelayString = "${app.mail.queue.poll-interval-ms:5000}")
+  public void poll() {
+    wakeUp();
+  }
+
+  /**
+   * Periodically gives up on expired claims and deletes finished mails past the retention period.
+   */
+  @Scheduled(fixedDelayString = "${app.mail.queue.purge-interval-ms:3600000}",
+      initialDelayString = "${app.mail.queue.purge-interval-ms:3600000}")
+  public void purge() {
+    LocalDateTime now = LocalDateTime.now();
+    int expired = outboundMailRepository.expireClaims(MailStatus.SENDING, MailStatus.FAILED,
+        now.minusNanos(claimTimeoutMs * 1_000_000),
+        "Delivery outcome unknown, the claim expired before it was recorded");
+    if (expired > 0) {
+      logger.warn("Marked {} emails with an unrecorded delivery outcome as failed", expired);
+    }
+    int deleted = outboundMailRepository.deleteFinishedBefore(FINISHED,
+        now.minusNanos(retentionMs * 1_000_000));
+    if (deleted > 0) {
+      logger.info("Purged {} finished emails from the outbound queue", deleted);
+    }
+  }
+
+  /**
+   * Gets a snapshot of the queue depth and delivery statistics.
+   *
+   * @return the current mail queue statistics
+   */
+  public MailQueueStatsDto getStats() {
+    long batches = batchesTotal.get();
+    double averageLatency = batches == 0 ? 0 : (double) batchLatencyTotalMs.get() / batches;
+    return new MailQueueStatsDto(
+        outboundMailRepository.countByStatus(MailStatus.PENDING),
+        outboundMailRepository.countByStatus(MailStatus.FAILED),
+        sentTotal.get(),
+        failedAttemptsTotal.get(),
+        batches,
+        averageLatency,
+        lastBatchLatencyMs.get());
+  }
+
+  /**
+   * Stops the dispatcher and worker threads.
+   */
+  @PreDestroy
+  public void shutdown() {
+    dispatcher.shutdown();
+    workers.shutdown();
+    try {
+      if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+        logger.warn("Mail workers did not finish within 10 seconds, remaining mails stay queued");
+        workers.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      workers.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void drain() {
+    List<Long> due;
+    do {
+      List<OutboundMail> batch;
+      try {
+        LocalDateTime now = LocalDateTime.now();
+        due = outboundMailRepository.findDueIds(MailStatus.PENDING, now,
+            PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+          return;
+        }
+        String token = UUID.randomUUID().toString();
+        outboundMailRepository.claim(due, MailStatus.PENDING, MailStatus.SENDING, token, now);
+        batch = outboundMailRepository.findByClaimToken(token);
+      } catch (Exception e) {
+        logger.error("Failed to claim mails from the outbound queue: {}", e.getMessage(), e);
+        return;
+      }
+      if (batch.isEmpty()) {
+        // Another node claimed them first
+        continue;
+      }
+      logger.debug("Draining {} queued emails", batch.size());
+
+      List<Callable<Void>> tasks = new ArrayList<>();
+      for (List<OutboundMail> chunk : partition(batch)) {
+        tasks.add(() -> {
+          sendChunk(chunk);
+          return null;
+        });
+      }
+      try {
+        workers.invokeAll(tasks);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    } while (due.size() == batchSize);
+  }
+
+  private List<List<OutboundMail>> partition(List<OutboundMail> batch) {
+    int chunkSize = Math.max(1, (batch.size() + workerCount - 1) / workerCount);
+    List<List<OutboundMail>> chunks = new ArrayList<>();
+    for (int i = 0; i < batch.size(); i += chunkSize) {
+      chunks.add(batch.subList(i, Math.min(i + chunkSize, batch.size())));
+    }
+    return chunks;
+  }
+
+  private void sendChunk(List<OutboundMail> chunk) {
+    try {
+      Map<MimeMessage, OutboundMail> messages = new IdentityHashMap<>();
+      for (OutboundMail mail : chunk) {
+        try {
+          messages.put(toMimeMessage(mail), mail);
+        } catch (MessagingException | IllegalArgumentException e) {
+          logger.error("Could not build email with ID {}: {}", mail.getId(), e.getMessage());
+          markFailed(mail, e);
+        }
+      }
+
+      if (messages.isEmpty()) {
+        recordOutcome(chunk);
+        return;
+      }
+
+      Map<Object, Exception> failures = new IdentityHashMap<>();
+      long start = System.nanoTime();
+      try {
+        mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+      } catch (MailSendException e) {
+        failures.putAll(e.getFailedMessages());
+        if (failures.isEmpty()) {
+          messages.keySet().forEach(message -> failures.put(message, e));
+        }
+      } catch (MailException e) {
+        messages.keySet().forEach(message -> failures.put(message, e));
+      }
+      recordBatch((System.nanoTime() - start) / 1_000_000);
+
+      messages.forEach((message, mail) -> {
+        Exception failure = failures.get(message);
+        if (failure == null) {
+          markSent(mail);
+        } else {
+          scheduleRetry(mail, failure);
+        }
+      });
+    } catch (Exception e) {
+      logger.error("Unexpected error while sending queued emails: {}", e.getMessage(), e);
+      return;
+    }
+    recordOutcome(chunk);
+  }
+
+  private void recordOutcome(List<OutboundMail> chunk) {
+    try {
+      outboundMailRepository.saveAll(chunk);
+    } catch (Exception e) {
+      // The mails stay claimed, so they are not sent again; the purge marks them failed
+      logger.error("Could not record the delivery outcome of {} emails: {}", chunk.size(),
+          e.getMessage(), e);
+    }
+  }
+
+  private MimeMessage toMimeMessage(OutboundMail mail) throws MessagingException {
+    MimeMessage message = mailSender.createMimeMessage();
+    MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+    helper.setTo(mail.getRecipient());
+    helper.setSubject(mail.getSubject());
+    helper.setText(renderBody(mail), true);
+    return message;
+  }
+
+  private String renderBody(OutboundMail mail) {
+    if (mail.getTemplate() == null) {
+      return mail.getBody();
+    }
+    Locale locale = mail.getLocale() == null ? null : Locale.forLanguageTag(mail.getLocale());
+    return mailTemplateService.getTemplate(mail.getTemplate(), locale)
+        .render(mail.getTemplateParams());
+  }
+
+  private void markSent(OutboundMail mail) {
+    mail.setStatus(MailStatus.SENT);
+    mail.setAttempts(mail.getAttempts() + 1);
+    mail.setSentAt(LocalDateTime.now());
+    mail.setLastError(null);
+    clearContent(mail);
+    sentTotal.incrementAndGet();
+    logger.info("Email with ID {} sent successfully to: {}", mail.getId(), mail.getRecipient());
+  }
+
+  private void scheduleRetry(OutboundMail mail, Exception cause) {
+    failedAttemptsTotal.incrementAndGet();
+    mail.setAttempts(mail.getAttempts() + 1);
+    mail.setLastError(truncate(cause.getMessage()));
+
+    if (mail.getAttempts() >= maxAttempts) {
+      mail.setStatus(MailStatus.FAILED);
+      clearContent(mail);
+      logger.error("Giving up on email with ID {} to {} after {} attempts: {}",
+          mail.getId(), mail.getRecipient(), mail.getAttempts(), cause.getMessage());
+      return;
+    }
+
+    mail.setStatus(MailStatus.PENDING);
+    long delay = retryBaseDelayMs << Math.min(mail.getAttempts() - 1, 20);
+    delay = Math.min(delay, retryMaxDelayMs);
+    mail.setNextAttemptAt(LocalDateTime.now().plusNanos(delay * 1_000_000));
+    logger.warn("Failed to send email with ID {} to {} (attempt {}), retrying in {} ms: {}",
+        mail.getId(), mail.getRecipient(), mail.getAttempts(), delay, cause.getMessage());
+  }
+
+  private void markFailed(OutboundMail mail, Exception cause) {
+    failedAttemptsTotal.incrementAndGet();
+    mail.setAttempts(mail.getAttempts() + 1);
+    mail.setStatus(MailStatus.FAILED);
+    clearContent(mail);
+    mail.setLastError(truncate(cause.getMessage()));
+  }
+
+  /**
+   * Drops the body and template values of a finished mail. Both can hold one-time codes and
+   * reset or confirmation links, which should not outlive the delivery.
+   */
+  private static void clearContent(OutboundMail mail) {
+    mail.setBody(null);
+    mail.setTemplateParams(null);
+  }
+
+  private void recordBatch(long latencyMs) {
+    batchesTotal.incrementAndGet();
+    batchLatencyTotalMs.addAndGet(latencyMs);
+    lastBatchLatencyMs.set(latencyMs);
+  }
+
+  private static String truncate(String message) {
+    if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+      return message;
+    }
+    return message.substring(0, MAX_ERROR_LENGTH);
+  }
+
+  private static ThreadFactory namedThreads(String prefix) {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -0,0 +1,103 @@
+package edu.ntnu.idatt2106.krisefikser.service.mail;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MailTemplate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loads and compiles all email templates once at startup and keeps them in memory.
+ *
+ * <p>Template files are named {@code <key>_<locale>.html}. A request for a locale without a
+ * translation falls back to the default locale of the template.
+ */
+@Service
+public class MailTemplateService {
+
+  private static final Logger logger = LoggerFactory.getLogger(MailTemplateService.class);
+  private static final String TEMPLATE_PATTERN = "classpath*:mail-templates/*.html";
+
+  private final Map<MailTemplate, Map<Locale, CompiledMailTemplate>> templates =
+      new EnumMap<>(MailTemplate.class);
+
+  /**
+   * Constructor for MailTemplateService. Compiles every template found on the classpath.
+   *
+   * @throws IOException           if the templates cannot be read
+   * @throws IllegalStateException if a template is missing for its default locale
+   */
+  public MailTemplateService() throws IOException {
+    Resource[] resources = new PathMatchingResourcePatternResolver().getResources(
+        TEMPLATE_PATTERN);
+    for (Resource resource : resources) {
+      load(resource);
+    }
+
+    for (MailTemplate template : MailTemplate.values()) {
+      Map<Locale, CompiledMailTemplate> byLocale = templates.get(template);
+      if (byLocale == null || !byLocale.containsKey(template.getDefaultLocale())) {
+        throw new IllegalStateException("Missing email template " + template.getKey()
+            + " for default locale " + template.getDefaultLocale());
+      }
+    }
+    logger.info("MailTemplateService initialized with {} templates", resources.length);
+  }
+
+  private void load(Resource resource) throws IOException {
+    String filename = resource.getFilename();
+    if (filename == null) {
+      return;
+    }
+    String name = filename.substring(0, filename.length() - ".html".length());
+    int separator = name.lastIndexOf('_');
+    if (separator < 0) {
+      logger.warn("Ignoring email template without locale: {}", filename);
+      return;
+    }
+
+    MailTemplate template = MailTemplate.fromKey(name.substring(0, separator));
+    if (template == null) {
+      logger.warn("Ignoring unknown email template: {}", filename);
+      return;
+    }
+    Locale locale = Locale.forLanguageTag(name.substring(separator + 1).replace('_', '-'));
+
+    String source;
+    try (InputStream in = resource.getInputStream()) {
+      source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    templates.computeIfAbsent(template, key -> new HashMap<>())
+        .put(locale, CompiledMailTemplate.compile(source, locale));
+    logger.debug("Compiled email template {} for locale {}", template, locale);
+  }
+
+  /**
+   * Gets the compiled template for a locale, falling back to the template's default locale.
+   *
+   * @param template the template
+   * @param locale   the preferred locale, or null for the default locale
+   * @return the compiled template
+   */
+  public CompiledMailTemplate getTemplate(MailTemplate template, Locale locale) {
+    Map<Locale, CompiledMailTemplate> byLocale = templates.get(template);
+    if (locale != null) {
+      CompiledMailTemplate compiled = byLocale.get(locale);
+      if (compiled == null) {
+        compiled = byLocale.get(Locale.forLanguageTag(locale.getLanguage()));
+      }
+      if (compiled != null) {
+        return compiled;
+      }
+    }
+    return byLocale.get(template.getDefaultLocale());
+  }
+}
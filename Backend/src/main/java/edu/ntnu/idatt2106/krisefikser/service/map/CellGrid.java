@@ -0,0 +1,123 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Walks the populated cells of a sparse grid, as kept by the in-memory map indexes: only cells
+ * that hold something are stored, in a map under {@link #key(long, long)} of their row and
+ * column.
+ *
+ * <p>Also places coordinates in a grid of {@link #CELL_DEGREES} degree cells, about 11 km north
+ * to south, for the indexes that search around points rather than by map tile.</p>
+ */
+public final class CellGrid {
+
+  /**
+   * Size of a cell in the degree grid.
+   */
+  public static final double CELL_DEGREES = 0.1;
+
+  private static final int ROWS = (int) Math.round(180 / CELL_DEGREES);
+  private static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+
+  private CellGrid() {
+  }
+
+  /**
+   * Gets the key a cell is stored under.
+   *
+   * @param row    the row, at most 32 bits
+   * @param column the column, at most 32 bits
+   * @return the key
+   */
+  public static long key(long row, long column) {
+    return (row << 32) | column;
+  }
+
+  /**
+   * Gets the key of the degree grid cell a point lies in.
+   *
+   * @param latitude  the latitude of the point
+   * @param longitude the longitude of the point
+   * @return the key
+   */
+  public static long cellOf(double latitude, double longitude) {
+    return key(row(latitude), column(longitude));
+  }
+
+  /**
+   * Gets a box around a circle, widened to every longitude when the circle reaches a pole.
+   *
+   * @param latitude  the latitude of the center
+   * @param longitude the longitude of the center
+   * @param radiusKm  the radius in kilometers
+   * @return the box
+   */
+  public static GeoBounds around(double latitude, double longitude, double radiusKm) {
+    double latitudeSpan = radiusKm / GeoDistance.KM_PER_DEGREE_LATITUDE;
+    double cos = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + latitudeSpan)));
+    double longitudeSpan = cos <= 0 ? 360 : latitudeSpan / cos;
+    if (longitudeSpan >= 180) {
+      return new GeoBounds(latitude - latitudeSpan, -180, latitude + latitudeSpan, 180);
+    }
+    return new GeoBounds(latitude - latitudeSpan, longitude - longitudeSpan,
+        latitude + latitudeSpan, longitude + longitudeSpan);
+  }
+
+  /**
+   * Passes each populated degree grid cell that overlaps a box to an action.
+   *
+   * @param cells  the populated cells by key
+   * @param bounds the box
+   * @param action the action
+   * @param <T>    the type of the cells
+   */
+  public static <T> void forEach(Map<Long, T> cells, GeoBounds bounds, Consumer<T> action) {
+    forEach(cells, row(bounds.getSouth()), row(bounds.getNorth()), column(bounds.getWest()),
+        column(bounds.getEast()), action);
+  }
+
+  /**
+   * Passes each populated cell in a range of rows and columns to an action. Looks up each cell in
+   * the range, or goes through the populated cells when there are fewer of those.
+   *
+   * @param cells     the populated cells by key
+   * @param minRow    the first row
+   * @param maxRow    the last row
+   * @param minColumn the first column
+   * @param maxColumn the last column
+   * @param action    the action
+   * @param <T>       the type of the cells
+   */
+  public static <T> void forEach(Map<Long, T> cells, long minRow, long maxRow, long minColumn,
+      long maxColumn, Consumer<T> action) {
+    long span = (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+    if (span <= cells.size()) {
+      for (long row = minRow; row <= maxRow; row++) {
+        for (long column = minColumn; column <= maxColumn; column++) {
+          T cell = cells.get(key(row, column));
+          if (cell != null) {
+            action.accept(cell);
+          }
+        }
+      }
+      return;
+    }
+    for (Map.Entry<Long, T> entry : cells.entrySet()) {
+      long row = entry.getKey() >>> 32;
+      long column = entry.getKey() & 0xFFFFFFFFL;
+      if (row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn) {
+        action.accept(entry.getValue());
+      }
+    }
+  }
+
+  private static int row(double latitude) {
+    return Math.min(ROWS - 1, Math.max(0, (int) Math.floor((latitude + 90) / CELL_DEGREES)));
+  }
+
+  private static int column(double longitude) {
+    return Math.min(COLUMNS - 1, Math.max(0, (int) Math.floor((longitude + 180) / CELL_DEGREES)));
+  }
+}
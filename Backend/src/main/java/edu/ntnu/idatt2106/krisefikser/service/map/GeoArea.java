@@ -0,0 +1,17 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+/**
+ * An area on the map that can tell whether a point lies inside it.
+ */
+@FunctionalInterface
+public interface GeoArea {
+
+  /**
+   * Checks whether a point lies inside the area.
+   *
+   * @param latitude  the latitude of the point
+   * @param longitude the longitude of the point
+   * @return true if the point is inside
+   */
+  boolean contains(double latitude, double longitude);
+}
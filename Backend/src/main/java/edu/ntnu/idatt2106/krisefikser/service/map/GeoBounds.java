@@ -0,0 +1,59 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+/**
+ * A box given by its southern, western, northern and eastern edges in degrees.
+ */
+public final class GeoBounds {
+
+  private final double south;
+  private final double west;
+  private final double north;
+  private final double east;
+
+  /**
+   * Constructor for GeoBounds.
+   *
+   * @param south the southern edge
+   * @param west  the western edge
+   * @param north the northern edge
+   * @param east  the eastern edge
+   */
+  public GeoBounds(double south, double west, double north, double east) {
+    this.south = south;
+    this.west = west;
+    this.north = north;
+    this.east = east;
+  }
+
+  public double getSouth() {
+    return south;
+  }
+
+  public double getWest() {
+    return west;
+  }
+
+  public double getNorth() {
+    return north;
+  }
+
+  public double getEast() {
+    return east;
+  }
+
+  /**
+   * Checks whether a point lies inside the box, edges included.
+   *
+   * @param latitude  the latitude of the point
+   * @param longitude the longitude of the point
+   * @return true if the point is inside
+   */
+  public boolean contains(double latitude, double longitude) {
+    return latitude >= south && latitude <= north && longitude >= west && longitude <= east;
+  }
+
+  @Override
+  public String toString() {
+    return "[" + south + ", " + west + ", " + north + ", " + east + "]";
+  }
+}
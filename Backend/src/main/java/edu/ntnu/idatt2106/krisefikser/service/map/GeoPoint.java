@@ -0,0 +1,34 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+/**
+ * A position given by latitude and longitude in degrees.
+ */
+public final class GeoPoint {
+
+  private final double latitude;
+  private final double longitude;
+
+  /**
+   * Constructor for GeoPoint.
+   *
+   * @param latitude  the latitude
+   * @param longitude the longitude
+   */
+  public GeoPoint(double latitude, double longitude) {
+    this.latitude = latitude;
+    this.longitude = longitude;
+  }
+
+  public double getLatitude() {
+    return latitude;
+  }
+
+  public double getLongitude() {
+    return longitude;
+  }
+
+  @Override
+  public String toString() {
+    return "(" + latitude + ", " + longitude + ")";
+  }
+}
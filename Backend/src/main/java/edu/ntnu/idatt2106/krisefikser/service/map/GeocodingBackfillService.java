@@ -0,0 +1,147 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.map.GeocodingBackfillResultDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdChangedEvent;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconChangeLog;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconChangedEvent;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Gives coordinates to the map icons and households stored before their address was geocoded, or
+ * whose address was not in the dataset at the time.
+ *
+ * <p>Rows are read in id order, a batch at a time, and each batch is saved in its own
+ * transaction, so a large backfill neither holds one long transaction nor starts over if it
+ * fails halfway. Only one backfill runs at a time.</p>
+ */
+@Service
+public class GeocodingBackfillService {
+
+  private static final Logger logger = LoggerFactory.getLogger(GeocodingBackfillService.class);
+
+  /**
+   * Rows read and saved per transaction.
+   */
+  private static final int BATCH_SIZE = 500;
+
+  private final MapIconRepository mapIconRepository;
+  private final HouseholdRepository householdRepository;
+  private final OfflineGeocoder geocoder;
+  private final ApplicationEventPublisher eventPublisher;
+  private final MapIconChangeLog changeLog;
+  private final TransactionTemplate transactionTemplate;
+  private final AtomicBoolean running = new AtomicBoolean(false);
+
+  /**
+   * Constructor for GeocodingBackfillService.
+   *
+   * @param mapIconRepository   the map icon repository
+   * @param householdRepository the household repository
+   * @param geocoder            the geocoder
+   * @param eventPublisher      the publisher used to announce rows that got coordinates
+   * @param changeLog           the numbering of map icon changes, so synced clients get the
+   *                            new coordinates
+   * @param transactionManager  the transaction manager, used to commit each batch on its own
+   */
+  public GeocodingBackfillService(MapIconRepository mapIconRepository,
+      HouseholdRepository householdRepository, OfflineGeocoder geocoder,
+      ApplicationEventPublisher eventPublisher, MapIconChangeLog changeLog,
+      PlatformTransactionManager transactionManager) {
+    this.mapIconRepository = mapIconRepository;
+    this.householdRepository = householdRepository;
+    this.geocoder = geocoder;
+    this.eventPublisher = eventPublisher;
+    this.changeLog = changeLog;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Geocodes every map icon and household that has no coordinates.
+   *
+   * @return the number of rows geocoded and not found
+   * @throws IllegalStateException if a backfill is already running
+   */
+  public GeocodingBackfillResultDto backfill() {
+    if (!running.compareAndSet(false, true)) {
+      throw new IllegalStateException("A geocoding backfill is already running");
+    }
+    try {
+      logger.info("Starting geocoding backfill with {} known addresses", geocoder.size());
+      int[] icons = backfillIcons();
+      int[] households = backfillHouseholds();
+      logger.info("Geocoding backfill done: {} icons geocoded, {} not found; "
+          + "{} households geocoded, {} not found", icons[0], icons[1], households[0],
+          households[1]);
+      return new GeocodingBackfillResultDto(icons[0], icons[1], households[0], households[1]);
+    } finally {
+      running.set(false);
+    }
+  }
+
+  private int[] backfillIcons() {
+    int[] counts = new int[2];
+    Long afterId = 0L;
+    while (afterId != null) {
+      Long lastId = afterId;
+      afterId = transactionTemplate.execute(status -> {
+        List<MapIcon> batch = mapIconRepository.findUngeocoded(lastId,
+            PageRequest.of(0, BATCH_SIZE));
+        for (MapIcon icon : batch) {
+          Optional<GeoPoint> point = geocoder.geocode(icon.getAddress());
+          if (point.isPresent()) {
+            icon.setLatitude(point.get().getLatitude());
+            icon.setLongitude(point.get().getLongitude());
+            changeLog.stamp(icon);
+            mapIconRepository.save(icon);
+            eventPublisher.publishEvent(new MapIconChangedEvent(icon.getId()));
+            counts[0]++;
+          } else {
+            counts[1]++;
+          }
+        }
+        return batch.size() < BATCH_SIZE ? null : batch.get(batch.size() - 1).getId();
+      });
+    }
+    return counts;
+  }
+
+  private int[] backfillHouseholds() {
+    int[] counts = new int[2];
+    String afterId = "";
+    while (afterId != null) {
+      String lastId = afterId;
+      afterId = transactionTemplate.execute(status -> {
+        List<Household> batch = householdRepository.findUngeocoded(lastId,
+            PageRequest.of(0, BATCH_SIZE));
+        for (Household household : batch) {
+          Optional<GeoPoint> point = geocoder.geocode(household.getAddress());
+          if (point.isPresent()) {
+            household.setLatitude(point.get().getLatitude());
+            household.setLongitude(point.get().getLongitude());
+            householdRepository.save(household);
+            eventPublisher.publishEvent(new HouseholdChangedEvent(household.getId(),
+                HouseholdChangedEvent.Change.EDITED));
+            counts[0]++;
+          } else {
+            counts[1]++;
+          }
+        }
+        return batch.size() < BATCH_SIZE ? null : batch.get(batch.size() - 1).getId();
+      });
+    }
+    return counts;
+  }
+}
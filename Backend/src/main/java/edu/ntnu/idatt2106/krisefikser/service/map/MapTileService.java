@@ -0,0 +1,669 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Incident;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.incident.IncidentRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.service.incident.IncidentChangedEvent;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconChangedEvent;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Serves map icons and active incidents as vector tiles addressed by zoom level and tile column
+ * and row, so the map client only loads what is on screen.
+ *
+ * <p>Encoded tiles are kept in memory. Each cached tile remembers which icons and incidents it
+ * shows, so when one of them changes only the tiles that show it, and the tiles covering where it
+ * is now, are dropped. A tile that was being built while a change was published is not stored,
+ * since it may have read the data from before the change. A tile showing an incident with an end
+ * time is dropped when the incident ends.</p>
+ *
+ * <p>An incident is drawn as the circle around its impact radius, as its impact zone, or as both
+ * when it has both, each as a feature with the id of the incident. A zone is read once and kept
+ * until its text changes or the incident is no longer active.</p>
+ *
+ * <p>Change events only reach the node that made the change. Map icons changed on other nodes are
+ * passed in by the {@link edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconIndexRefresher},
+ * and the active incidents are read again on a short schedule and compared with what was read
+ * last time, so tiles on every node follow a change within one refresh interval.</p>
+ */
+@Service
+public class MapTileService {
+
+  private static final Logger logger = LoggerFactory.getLogger(MapTileService.class);
+
+  /**
+   * Deepest zoom level tiles are served for.
+   */
+  public static final int MAX_ZOOM = 18;
+
+  static final String ICON_LAYER = "map_icons";
+  static final String INCIDENT_LAYER = "incidents";
+
+  // Features this far outside a tile, as a share of its width, are drawn in it too, so icons
+  // cut by the tile edge show up on both sides
+  private static final double BUFFER = 64.0 / VectorTileEncoder.EXTENT;
+  private static final int CIRCLE_VERTICES = 32;
+  private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+  private static final byte[] EMPTY = new byte[0];
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final MapIconRepository mapIconRepository;
+  private final IncidentRepository incidentRepository;
+  private final int maxSize;
+  private final long ttlMs;
+  private final ConcurrentHashMap<Long, Tile> tiles = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Long, Zone> zones = new ConcurrentHashMap<>();
+
+  // Guarded by this: the cached tiles showing each icon and incident, and a counter bumped on
+  // every change
+  private final Map<Long, Set<Long>> iconTiles = new HashMap<>();
+  private final Map<Long, Set<Long>> incidentTiles = new HashMap<>();
+  private long generation;
+  // Guarded by this: what each active incident looked like at the last incident refresh, or null
+  // before the first one
+  private Map<Long, List<Object>> seenIncidents;
+
+  /**
+   * Constructor for MapTileService.
+   *
+   * @param mapIconRepository  the repository for accessing map icon data
+   * @param incidentRepository the repository for accessing incident data
+   * @param maxSize            the most tiles to keep, or 0 to disable caching
+   * @param ttlMs              how long a tile is kept before it is built again
+   */
+  public MapTileService(MapIconRepository mapIconRepository,
+      IncidentRepository incidentRepository,
+      @Value("${app.map-tiles.cache-size:20000}") int maxSize,
+      @Value("${app.map-tiles.ttl-ms:3600000}") long ttlMs) {
+    this.mapIconRepository = mapIconRepository;
+    this.incidentRepository = incidentRepository;
+    this.maxSize = Math.max(0, maxSize);
+    this.ttlMs = ttlMs;
+    logger.info("MapTileService initialized with cache size {} and ttl {} ms", this.maxSize,
+        ttlMs);
+  }
+
+  /**
+   * Gets a tile.
+   *
+   * @param zoom the zoom level
+   * @param x    the tile column, counted from the west
+   * @param y    the tile row, counted from the north
+   * @return the encoded tile, empty if nothing is in it
+   * @throws IllegalArgumentException if the tile does not exist
+   */
+  public byte[] getTile(int zoom, int x, int y) {
+    if (zoom < 0 || zoom > MAX_ZOOM) {
+      throw new IllegalArgumentException("Zoom level must be between 0 and " + MAX_ZOOM);
+    }
+    if (x < 0 || y < 0 || x >= 1 << zoom || y >= 1 << zoom) {
+      throw new IllegalArgumentException("Tile is outside the map at zoom level " + zoom);
+    }
+
+    long key = key(zoom, x, y);
+    long now = System.currentTimeMillis();
+    Tile cached = tiles.get(key);
+    if (cached != null && cached.expiresAtMillis > now) {
+      return cached.data;
+    }
+
+    long startGeneration;
+    synchronized (this) {
+      startGeneration = generation;
+    }
+    Tile tile = build(zoom, x, y, now);
+    if (maxSize > 0) {
+      store(key, tile, startGeneration);
+    }
+    return tile.data;
+  }
+
+  /**
+   * Drops the tiles a changed map icon was or is shown in. Runs after the change commits, or
+   * straight away if it was made outside a transaction.
+   *
+   * @param event the change
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMapIconChanged(MapIconChangedEvent event) {
+    onMapIconsChanged(List.of(event.getMapIconId()));
+  }
+
+  /**
+   * Drops the tiles changed map icons were or are shown in, such as icons changed on other nodes.
+   *
+   * @param mapIconIds the ids of the changed map icons
+   */
+  public void onMapIconsChanged(Collection<Long> mapIconIds) {
+    int dropped = 0;
+    for (Long id : mapIconIds) {
+      Optional<MapIcon> icon = mapIconRepository.findById(id);
+      synchronized (this) {
+        generation++;
+        dropped += removeAll(iconTiles.get(id));
+        if (icon.isPresent() && icon.get().getLatitude() != null
+            && icon.get().getLongitude() != null) {
+          double latitude = icon.get().getLatitude();
+          double longitude = icon.get().getLongitude();
+          dropped += removeArea(new GeoBounds(latitude, longitude, latitude, longitude));
+        }
+      }
+    }
+    logger.debug("{} map icons changed, dropped {} tiles", mapIconIds.size(), dropped);
+  }
+
+  /**
+   * Drops every cached tile, such as when changes may have been missed.
+   */
+  public synchronized void clear() {
+    generation++;
+    tiles.clear();
+    iconTiles.clear();
+    incidentTiles.clear();
+    logger.debug("Dropped all cached tiles");
+  }
+
+  /**
+   * Drops the tiles a changed incident was or is shown in. Runs after the change commits, or
+   * straight away if it was made outside a transaction.
+   *
+   * @param event the change
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onIncidentChanged(IncidentChangedEvent event) {
+    Optional<Incident> incident = incidentRepository.findById(event.getIncidentId());
+    List<GeoBounds> areas = incident.map(this::areas).orElse(List.of());
+    int dropped;
+    synchronized (this) {
+      generation++;
+      dropped = removeAll(incidentTiles.get(event.getIncidentId()));
+      for (GeoBounds area : areas) {
+        dropped += removeArea(area);
+      }
+    }
+    logger.debug("Incident {} changed, dropped {} tiles", event.getIncidentId(), dropped);
+  }
+
+  /**
+   * Reads the active incidents and drops the tiles of every incident that was added, changed,
+   * ended or deleted since the last run, including changes made on other nodes. The first run
+   * has nothing to compare with, so it drops the tiles of every active incident.
+   */
+  @Scheduled(fixedDelayString = "${app.map-tiles.incident-refresh-interval-ms:30000}",
+      initialDelayString = "${app.map-tiles.incident-refresh-interval-ms:30000}")
+  public void refreshIncidents() {
+    Map<Long, Incident> active = new HashMap<>();
+    Map<Long, List<Object>> seen = new HashMap<>();
+    for (Incident incident : incidentRepository.findActive(
+        toLocalDateTime(System.currentTimeMillis()))) {
+      active.put(incident.getId(), incident);
+      seen.put(incident.getId(), drawnState(incident));
+    }
+
+    zones.keySet().retainAll(active.keySet());
+    int changed = 0;
+    int dropped = 0;
+    synchronized (this) {
+      // Incidents that are shown but no longer active, and those that are new or changed
+      Set<Long> ids = new HashSet<>(incidentTiles.keySet());
+      ids.removeAll(active.keySet());
+      seen.forEach((id, state) -> {
+        if (seenIncidents == null || !state.equals(seenIncidents.get(id))) {
+          ids.add(id);
+        }
+      });
+      if (!ids.isEmpty()) {
+        generation++;
+      }
+      for (Long id : ids) {
+        dropped += removeAll(incidentTiles.get(id));
+        Incident incident = active.get(id);
+        if (incident != null) {
+          for (GeoBounds area : areas(incident)) {
+            dropped += removeArea(area);
+          }
+        }
+      }
+      changed = ids.size();
+      seenIncidents = seen;
+    }
+    if (changed > 0) {
+      logger.debug("{} incidents changed since the last refresh, dropped {} tiles", changed,
+          dropped);
+    }
+  }
+
+  /**
+   * Gets what a tile shows of an incident, so a refresh can tell whether it changed.
+   */
+  private static List<Object> drawnState(Incident incident) {
+    return Arrays.asList(incident.getName(), incident.getSeverity(), incident.getLatitude(),
+        incident.getLongitude(), incident.getImpactRadius(), incident.getImpactZone(),
+        incident.getEndedAt());
+  }
+
+  private Tile build(int zoom, int x, int y, long now) {
+    double west = WebMercator.longitude(x - BUFFER, zoom);
+    double east = WebMercator.longitude(x + 1 + BUFFER, zoom);
+    double north = WebMercator.latitude(y - BUFFER, zoom);
+    double south = WebMercator.latitude(y + 1 + BUFFER, zoom);
+
+    VectorTileEncoder encoder = new VectorTileEncoder();
+    List<Long> iconIds = new ArrayList<>();
+    for (MapIcon icon : mapIconRepository.findInBox(south, west, north, east)) {
+      Map<String, Object> properties = new LinkedHashMap<>();
+      properties.put("type", icon.getType().name());
+      properties.put("address", icon.getAddress());
+      properties.put("description", icon.getDescription());
+      properties.put("opening_hours", icon.getOpeningHours());
+      properties.put("contact_info", icon.getContactInfo());
+      encoder.addPoint(ICON_LAYER, icon.getId(), properties,
+          toTile(WebMercator.tileX(icon.getLongitude(), zoom), x),
+          toTile(WebMercator.tileY(icon.getLatitude(), zoom), y));
+      iconIds.add(icon.getId());
+    }
+
+    long expiresAt = now + ttlMs;
+    List<Long> incidentIds = new ArrayList<>();
+    for (Incident incident : incidentRepository.findActive(toLocalDateTime(now))) {
+      boolean drawn = false;
+      if (hasArea(incident) && overlaps(circleBounds(incident), south, west, north, east)) {
+        addIncident(encoder, incident, zoom, x, y);
+        drawn = true;
+      }
+      Zone zone = zone(incident);
+      if (zone != null && overlaps(zone.bounds, south, west, north, east)) {
+        addZone(encoder, incident, zone, zoom, x, y);
+        drawn = true;
+      }
+      if (!drawn) {
+        continue;
+      }
+      incidentIds.add(incident.getId());
+      if (incident.getEndedAt() != null) {
+        expiresAt = Math.min(expiresAt,
+            incident.getEndedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+      }
+    }
+
+    return new Tile(encoder.isEmpty() ? EMPTY : encoder.encode(), expiresAt,
+        iconIds, incidentIds);
+  }
+
+  /**
+   * Adds an incident as a polygon around its impact radius, or as a point if the circle is too
+   * small to see at this zoom level.
+   */
+  private static void addIncident(VectorTileEncoder encoder, Incident incident, int zoom, int x,
+      int y) {
+    Map<String, Object> properties = new LinkedHashMap<>();
+    properties.put("name", incident.getName());
+    properties.put("severity", incident.getSeverity() == null ? null
+        : incident.getSeverity().name());
+    properties.put("radius_km", incident.getImpactRadius());
+
+    double latitudeDelta = incident.getImpactRadius() / KM_PER_DEGREE_LATITUDE;
+    double longitudeDelta = longitudeDelta(incident.getLatitude(), incident.getImpactRadius());
+    List<int[]> ring = new ArrayList<>(CIRCLE_VERTICES);
+    // From north towards east, which is clockwise on screen
+    for (int i = 0; i < CIRCLE_VERTICES; i++) {
+      double angle = 2 * Math.PI * i / CIRCLE_VERTICES;
+      int[] vertex = {
+          toTile(WebMercator.tileX(incident.getLongitude() + longitudeDelta * Math.sin(angle),
+              zoom), x),
+          toTile(WebMercator.tileY(incident.getLatitude() + latitudeDelta * Math.cos(angle),
+              zoom), y)};
+      int[] previous = ring.isEmpty() ? null : ring.get(ring.size() - 1);
+      if (previous == null || previous[0] != vertex[0] || previous[1] != vertex[1]) {
+        ring.add(vertex);
+      }
+    }
+    if (ring.size() > 1 && ring.get(0)[0] == ring.get(ring.size() - 1)[0]
+        && ring.get(0)[1] == ring.get(ring.size() - 1)[1]) {
+      ring.remove(ring.size() - 1);
+    }
+
+    if (ring.size() < 3) {
+      encoder.addPoint(INCIDENT_LAYER, incident.getId(), properties,
+          toTile(WebMercator.tileX(incident.getLongitude(), zoom), x),
+          toTile(WebMercator.tileY(incident.getLatitude(), zoom), y));
+      return;
+    }
+    int[] xs = new int[ring.size()];
+    int[] ys = new int[ring.size()];
+    for (int i = 0; i < ring.size(); i++) {
+      xs[i] = ring.get(i)[0];
+      ys[i] = ring.get(i)[1];
+    }
+    encoder.addPolygon(INCIDENT_LAYER, incident.getId(), properties, xs, ys);
+  }
+
+  /**
+   * Adds the impact zone of an incident as a polygon, or as a point at the middle of the zone if
+   * it is too small to see at this zoom level. Rings that shrink below three vertices at this
+   * zoom level are left out.
+   */
+  private static void addZone(VectorTileEncoder encoder, Incident incident, Zone zone, int zoom,
+      int x, int y) {
+    Map<String, Object> properties = new LinkedHashMap<>();
+    properties.put("name", incident.getName());
+    properties.put("severity", incident.getSeverity() == null ? null
+        : incident.getSeverity().name());
+
+    List<int[]> xs = new ArrayList<>();
+    List<int[]> ys = new ArrayList<>();
+    for (List<double[]> polygon : zone.polygons) {
+      for (int r = 0; r < polygon.size(); r++) {
+        List<int[]> ring = toTileRing(polygon.get(r), zoom, x, y);
+        if (ring.size() < 3) {
+          if (r == 0) {
+            // Without its outer ring the holes of a part have nothing to cut
+            break;
+          }
+          continue;
+        }
+        // Outer rings run clockwise on screen and holes the other way, whatever the file says
+        if ((signedArea(ring) > 0) != (r == 0)) {
+          Collections.reverse(ring);
+        }
+        int[] ringXs = new int[ring.size()];
+        int[] ringYs = new int[ring.size()];
+        for (int i = 0; i < ring.size(); i++) {
+          ringXs[i] = ring.get(i)[0];
+          ringYs[i] = ring.get(i)[1];
+        }
+        xs.add(ringXs);
+        ys.add(ringYs);
+      }
+    }
+
+    if (xs.isEmpty()) {
+      GeoBounds bounds = zone.bounds;
+      encoder.addPoint(INCIDENT_LAYER, incident.getId(), properties,
+          toTile(WebMercator.tileX((bounds.getWest() + bounds.getEast()) / 2, zoom), x),
+          toTile(WebMercator.tileY((bounds.getSouth() + bounds.getNorth()) / 2, zoom), y));
+      return;
+    }
+    encoder.addPolygon(INCIDENT_LAYER, incident.getId(), properties, xs, ys);
+  }
+
+  /**
+   * Converts a ring of longitude and latitude pairs to tile units, leaving out vertices that fall
+   * on the same unit as the one before and a closing vertex that repeats the first.
+   */
+  private static List<int[]> toTileRing(double[] vertices, int zoom, int x, int y) {
+    List<int[]> ring = new ArrayList<>(vertices.length / 2);
+    for (int i = 0; i < vertices.length; i += 2) {
+      int[] vertex = {
+          toTile(WebMercator.tileX(vertices[i], zoom), x),
+          toTile(WebMercator.tileY(vertices[i + 1], zoom), y)};
+      int[] previous = ring.isEmpty() ? null : ring.get(ring.size() - 1);
+      if (previous == null || previous[0] != vertex[0] || previous[1] != vertex[1]) {
+        ring.add(vertex);
+      }
+    }
+    if (ring.size() > 1 && ring.get(0)[0] == ring.get(ring.size() - 1)[0]
+        && ring.get(0)[1] == ring.get(ring.size() - 1)[1]) {
+      ring.remove(ring.size() - 1);
+    }
+    return ring;
+  }
+
+  /**
+   * Gets twice the area of a ring in tile units, positive when it runs clockwise on screen.
+   */
+  private static long signedArea(List<int[]> ring) {
+    long area = 0;
+    for (int i = 0; i < ring.size(); i++) {
+      int[] a = ring.get(i);
+      int[] b = ring.get((i + 1) % ring.size());
+      area += (long) a[0] * b[1] - (long) b[0] * a[1];
+    }
+    return area;
+  }
+
+  /**
+   * Gets the impact zone of an incident, read once per version of its text.
+   *
+   * @return the zone, or null if the incident has none or it cannot be read
+   */
+  private Zone zone(Incident incident) {
+    String geometry = incident.getImpactZone();
+    if (geometry == null) {
+      return null;
+    }
+    Zone cached = zones.get(incident.getId());
+    if (cached != null && cached.geometry.equals(geometry)) {
+      return cached;
+    }
+    try {
+      Zone zone = new Zone(geometry, GeoJsonPolygons.prepare(geometry).getBounds(),
+          GeoJsonPolygons.read(MAPPER.readTree(geometry)));
+      if (incident.getId() != null) {
+        zones.put(incident.getId(), zone);
+      }
+      return zone;
+    } catch (IllegalArgumentException | JsonProcessingException e) {
+      logger.error("Could not read impact zone of incident {}: {}", incident.getId(),
+          e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Gets the boxes around the circle and the zone of an incident, for those it has.
+   */
+  private List<GeoBounds> areas(Incident incident) {
+    List<GeoBounds> areas = new ArrayList<>(2);
+    if (hasArea(incident)) {
+      areas.add(circleBounds(incident));
+    }
+    Zone zone = zone(incident);
+    if (zone != null) {
+      areas.add(zone.bounds);
+    }
+    return areas;
+  }
+
+  private static GeoBounds circleBounds(Incident incident) {
+    double latitudeDelta = incident.getImpactRadius() / KM_PER_DEGREE_LATITUDE;
+    double longitudeDelta = longitudeDelta(incident.getLatitude(), incident.getImpactRadius());
+    return new GeoBounds(incident.getLatitude() - latitudeDelta,
+        incident.getLongitude() - longitudeDelta, incident.getLatitude() + latitudeDelta,
+        incident.getLongitude() + longitudeDelta);
+  }
+
+  private static boolean overlaps(GeoBounds bounds, double south, double west, double north,
+      double east) {
+    return bounds.getSouth() <= north && bounds.getNorth() >= south
+        && bounds.getWest() <= east && bounds.getEast() >= west;
+  }
+
+  private synchronized void store(long key, Tile tile, long startGeneration) {
+    if (generation != startGeneration) {
+      // Something changed while the tile was built; the next read builds it again
+      return;
+    }
+    removeTile(key);
+    tiles.put(key, tile);
+    for (Long id : tile.iconIds) {
+      iconTiles.computeIfAbsent(id, k -> new HashSet<>()).add(key);
+    }
+    for (Long id : tile.incidentIds) {
+      incidentTiles.computeIfAbsent(id, k -> new HashSet<>()).add(key);
+    }
+    evictIfFull();
+  }
+
+  /**
+   * Drops the cached tiles that show anything inside a box, at every zoom level. Called with the
+   * lock held.
+   */
+  private int removeArea(GeoBounds area) {
+    int dropped = 0;
+    for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+      long last = (1L << zoom) - 1;
+      long minX = Math.max(0, (long) Math.floor(
+          WebMercator.tileX(area.getWest(), zoom) - BUFFER));
+      long maxX = Math.min(last, (long) Math.floor(
+          WebMercator.tileX(area.getEast(), zoom) + BUFFER));
+      long minY = Math.max(0, (long) Math.floor(
+          WebMercator.tileY(area.getNorth(), zoom) - BUFFER));
+      long maxY = Math.min(last, (long) Math.floor(
+          WebMercator.tileY(area.getSouth(), zoom) + BUFFER));
+
+      if ((maxX - minX + 1) * (maxY - minY + 1) <= tiles.size()) {
+        for (long x = minX; x <= maxX; x++) {
+          for (long y = minY; y <= maxY; y++) {
+            dropped += removeTile(key(zoom, x, y)) ? 1 : 0;
+          }
+        }
+      } else {
+        // The area covers more tiles than are cached, so look through the cache instead
+        for (Long key : new ArrayList<>(tiles.keySet())) {
+          long x = (key >>> 29) & 0x1FFFFFFFL;
+          long y = key & 0x1FFFFFFFL;
+          if (key >>> 58 == zoom && x >= minX && x <= maxX && y >= minY && y <= maxY) {
+            dropped += removeTile(key) ? 1 : 0;
+          }
+        }
+      }
+    }
+    return dropped;
+  }
+
+  private int removeAll(Set<Long> keys) {
+    if (keys == null) {
+      return 0;
+    }
+    int dropped = 0;
+    for (Long key : new ArrayList<>(keys)) {
+      dropped += removeTile(key) ? 1 : 0;
+    }
+    return dropped;
+  }
+
+  /**
+   * Drops a cached tile and forgets which features it showed. Called with the lock held.
+   */
+  private boolean removeTile(long key) {
+    Tile tile = tiles.remove(key);
+    if (tile == null) {
+      return false;
+    }
+    forget(iconTiles, tile.iconIds, key);
+    forget(incidentTiles, tile.incidentIds, key);
+    return true;
+  }
+
+  private static void forget(Map<Long, Set<Long>> index, List<Long> ids, long key) {
+    for (Long id : ids) {
+      Set<Long> keys = index.get(id);
+      if (keys != null && keys.remove(key) && keys.isEmpty()) {
+        index.remove(id);
+      }
+    }
+  }
+
+  /**
+   * Makes room when the cache is full. Called with the lock held.
+   */
+  private void evictIfFull() {
+    if (tiles.size() <= maxSize) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    for (Map.Entry<Long, Tile> entry : new ArrayList<>(tiles.entrySet())) {
+      if (entry.getValue().expiresAtMillis <= now) {
+        removeTile(entry.getKey());
+      }
+    }
+    // Still full: drop about a tenth of the tiles rather than one per insert
+    Iterator<Long> keys = new ArrayList<>(tiles.keySet()).iterator();
+    int toRemove = Math.max(1, maxSize / 10);
+    while (tiles.size() > maxSize - toRemove && keys.hasNext()) {
+      removeTile(keys.next());
+    }
+  }
+
+  private static boolean hasArea(Incident incident) {
+    return incident.getLatitude() != null && incident.getLongitude() != null
+        && incident.getImpactRadius() != null;
+  }
+
+  private static double longitudeDelta(double latitude, double radiusKm) {
+    double cosLatitude = Math.cos(Math.toRadians(latitude));
+    return cosLatitude <= 0 ? 180
+        : Math.min(180, radiusKm / (KM_PER_DEGREE_LATITUDE * cosLatitude));
+  }
+
+  private static int toTile(double position, int tile) {
+    return (int) Math.round((position - tile) * VectorTileEncoder.EXTENT);
+  }
+
+  private static LocalDateTime toLocalDateTime(long millis) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+  }
+
+  private static long key(long zoom, long x, long y) {
+    return (zoom << 58) | (x << 29) | y;
+  }
+
+  /**
+   * An impact zone read from its GeoJSON text, kept together with the text.
+   */
+  private static final class Zone {
+
+    private final String geometry;
+    private final GeoBounds bounds;
+    private final List<List<double[]>> polygons;
+
+    private Zone(String geometry, GeoBounds bounds, List<List<double[]>> polygons) {
+      this.geometry = geometry;
+      this.bounds = bounds;
+      this.polygons = polygons;
+    }
+  }
+
+  /**
+   * An encoded tile and the features it shows.
+   */
+  private static final class Tile {
+
+    private final byte[] data;
+    private final long expiresAtMillis;
+    private final List<Long> iconIds;
+    private final List<Long> incidentIds;
+
+    private Tile(byte[] data, long expiresAtMillis, List<Long> iconIds, List<Long> incidentIds) {
+      this.data = data;
+      this.expiresAtMillis = expiresAtMillis;
+      this.iconIds = iconIds;
+      this.incidentIds = incidentIds;
+    }
+  }
+}
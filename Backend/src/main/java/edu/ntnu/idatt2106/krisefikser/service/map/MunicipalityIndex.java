@@ -0,0 +1,218 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ntnu.idatt2106.krisefikser.api.dto.map.MunicipalityDto;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds the municipality a position lies in, using boundaries read from a GeoJSON file at
+ * startup.
+ *
+ * <p>The file is a FeatureCollection of Polygon or MultiPolygon features, with the municipality
+ * number in the {@code kommunenummer} or {@code code} property and its name in
+ * {@code kommunenavn} or {@code name}. A municipality may be split over several features. The
+ * bounding boxes of all parts are packed into an {@link StrTree}, and each part is kept as a
+ * {@link PreparedPolygon}, so a lookup visits a few tree nodes and checks a few edges. Reloading
+ * swaps the whole index at once, so lookups never see a half-loaded file.</p>
+ */
+@Component
+public class MunicipalityIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(MunicipalityIndex.class);
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private volatile Snapshot snapshot = new Snapshot(List.of(), List.of());
+
+  /**
+   * Constructor for MunicipalityIndex. Loads the configured boundaries, if any.
+   *
+   * @param resourceLoader the loader used to open the boundary file
+   * @param dataset        the location of the file, such as {@code file:/data/kommuner.geojson};
+   *                       blank to leave the index empty
+   */
+  public MunicipalityIndex(ResourceLoader resourceLoader,
+      @Value("${app.municipalities.dataset:}") String dataset) {
+    if (dataset == null || dataset.isBlank()) {
+      logger.info("No municipality boundaries configured, municipality lookup is disabled");
+      return;
+    }
+    try (Reader reader = new InputStreamReader(
+        resourceLoader.getResource(dataset).getInputStream(), StandardCharsets.UTF_8)) {
+      load(reader);
+    } catch (IOException | IllegalArgumentException e) {
+      logger.error("Could not read municipality boundaries {}: {}", dataset, e.getMessage());
+    }
+  }
+
+  /**
+   * Replaces the loaded boundaries with the ones in a GeoJSON FeatureCollection.
+   *
+   * @param reader the GeoJSON
+   * @return the number of municipalities loaded
+   * @throws IOException              if the file could not be read or is not JSON
+   * @throws IllegalArgumentException if the file is not a FeatureCollection
+   */
+  public int load(Reader reader) throws IOException {
+    JsonNode features = MAPPER.readTree(reader).path("features");
+    if (!features.isArray()) {
+      throw new IllegalArgumentException("Expected a GeoJSON FeatureCollection");
+    }
+    List<MunicipalityDto> parts = new ArrayList<>();
+    List<PreparedPolygon> polygons = new ArrayList<>();
+    int skipped = 0;
+    for (JsonNode feature : features) {
+      JsonNode properties = feature.path("properties");
+      String code = text(properties, "kommunenummer", "code");
+      String name = text(properties, "kommunenavn", "name");
+      try {
+        if (code == null) {
+          throw new IllegalArgumentException("Missing municipality number");
+        }
+        for (List<double[]> polygon : GeoJsonPolygons.read(feature.path("geometry"))) {
+          polygons.add(new PreparedPolygon(polygon));
+          parts.add(new MunicipalityDto(code, name == null ? code : name));
+        }
+      } catch (IllegalArgumentException e) {
+        logger.warn("Skipping municipality feature {}: {}", code, e.getMessage());
+        skipped++;
+      }
+    }
+    Snapshot loaded = new Snapshot(parts, polygons);
+    snapshot = loaded;
+    logger.info("Loaded {} municipalities in {} parts, skipped {} features",
+        loaded.municipalities.size(), polygons.size(), skipped);
+    return loaded.municipalities.size();
+  }
+
+  /**
+   * Finds the municipality a position lies in.
+   *
+   * @param latitude  the latitude
+   * @param longitude the longitude
+   * @return the municipality, or empty if the position is outside all of them
+   */
+  public Optional<MunicipalityDto> lookup(double latitude, double longitude) {
+    Snapshot current = snapshot;
+    int part = current.tree.findFirst(longitude, latitude,
+        candidate -> current.polygons[candidate].contains(latitude, longitude));
+    return part < 0 ? Optional.empty() : Optional.of(current.parts[part]);
+  }
+
+  /**
+   * Checks whether a position lies in a given municipality.
+   *
+   * @param code      the municipality number
+   * @param latitude  the latitude
+   * @param longitude the longitude
+   * @return true if the position is inside the municipality
+   */
+  public boolean contains(String code, double latitude, double longitude) {
+    Snapshot current = snapshot;
+    for (int part : current.partsByCode.getOrDefault(code, new int[0])) {
+      if (current.polygons[part].contains(latitude, longitude)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets a municipality by its number.
+   *
+   * @param code the municipality number
+   * @return the municipality, or empty if it is not loaded
+   */
+  public Optional<MunicipalityDto> get(String code) {
+    return Optional.ofNullable(code == null ? null : snapshot.municipalities.get(code));
+  }
+
+  /**
+   * Gets the smallest box around a municipality.
+   *
+   * @param code the municipality number
+   * @return the box, or empty if the municipality is not loaded
+   */
+  public Optional<GeoBounds> getBounds(String code) {
+    return Optional.ofNullable(code == null ? null : snapshot.bounds.get(code));
+  }
+
+  /**
+   * Gets every loaded municipality, ordered by number.
+   *
+   * @return the municipalities
+   */
+  public List<MunicipalityDto> getAll() {
+    return snapshot.sorted;
+  }
+
+  private static String text(JsonNode properties, String... names) {
+    for (String name : names) {
+      JsonNode value = properties.path(name);
+      if (value.isValueNode() && !value.asText().isBlank()) {
+        return value.asText().strip();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The loaded boundaries. Never changed once built, so lookups need no locking.
+   */
+  private static final class Snapshot {
+
+    private final MunicipalityDto[] parts;
+    private final PreparedPolygon[] polygons;
+    private final StrTree tree;
+    private final Map<String, int[]> partsByCode = new HashMap<>();
+    private final Map<String, MunicipalityDto> municipalities = new LinkedHashMap<>();
+    private final Map<String, GeoBounds> bounds = new HashMap<>();
+    private final List<MunicipalityDto> sorted;
+
+    private Snapshot(List<MunicipalityDto> parts, List<PreparedPolygon> polygons) {
+      this.parts = parts.toArray(new MunicipalityDto[0]);
+      this.polygons = polygons.toArray(new PreparedPolygon[0]);
+      int count = this.polygons.length;
+      double[] minX = new double[count];
+      double[] minY = new double[count];
+      double[] maxX = new double[count];
+      double[] maxY = new double[count];
+      Map<String, List<Integer>> indexes = new HashMap<>();
+      for (int i = 0; i < count; i++) {
+        GeoBounds box = this.polygons[i].getBounds();
+        minX[i] = box.getWest();
+        minY[i] = box.getSouth();
+        maxX[i] = box.getEast();
+        maxY[i] = box.getNorth();
+        String code = this.parts[i].getCode();
+        municipalities.putIfAbsent(code, this.parts[i]);
+        indexes.computeIfAbsent(code, key -> new ArrayList<>()).add(i);
+        bounds.merge(code, box, (a, b) -> new GeoBounds(Math.min(a.getSouth(), b.getSouth()),
+            Math.min(a.getWest(), b.getWest()), Math.max(a.getNorth(), b.getNorth()),
+            Math.max(a.getEast(), b.getEast())));
+      }
+      indexes.forEach((code, list) ->
+          partsByCode.put(code, list.stream().mapToInt(Integer::intValue).toArray()));
+      this.tree = new StrTree(minX, minY, maxX, maxY);
+      this.sorted = municipalities.values().stream()
+          .sorted(Comparator.comparing(MunicipalityDto::getCode))
+          .toList();
+    }
+  }
+}
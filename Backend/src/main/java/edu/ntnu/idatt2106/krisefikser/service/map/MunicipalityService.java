@@ -0,0 +1,75 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdLocationDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.map.MunicipalityDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdRepository;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for looking up the municipality of positions and households.
+ */
+@Service
+public class MunicipalityService {
+
+  private static final Logger logger = LoggerFactory.getLogger(MunicipalityService.class);
+
+  private final MunicipalityIndex municipalityIndex;
+  private final HouseholdRepository householdRepository;
+
+  /**
+   * Constructor for MunicipalityService.
+   *
+   * @param municipalityIndex   the municipality boundaries
+   * @param householdRepository the household repository
+   */
+  public MunicipalityService(MunicipalityIndex municipalityIndex,
+      HouseholdRepository householdRepository) {
+    this.municipalityIndex = municipalityIndex;
+    this.householdRepository = householdRepository;
+  }
+
+  /**
+   * Gets every known municipality.
+   *
+   * @return the municipalities, ordered by number
+   */
+  public List<MunicipalityDto> getMunicipalities() {
+    return municipalityIndex.getAll();
+  }
+
+  /**
+   * Finds the municipality a position lies in.
+   *
+   * @param latitude  the latitude
+   * @param longitude the longitude
+   * @return the municipality, or empty if the position is outside all known municipalities
+   * @throws IllegalArgumentException if the coordinates are out of range
+   */
+  public Optional<MunicipalityDto> lookup(double latitude, double longitude) {
+    if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+      throw new IllegalArgumentException("Coordinates are out of range");
+    }
+    return municipalityIndex.lookup(latitude, longitude);
+  }
+
+  /**
+   * Finds the municipality a household lives in.
+   *
+   * @param householdId the id of the household
+   * @return the municipality, or empty if the home is outside all known municipalities
+   * @throws IllegalArgumentException if the household does not exist or its address has not been
+   *                                  geocoded
+   */
+  public Optional<MunicipalityDto> lookupHousehold(String householdId) {
+    HouseholdLocationDto location = householdRepository.findLocationById(householdId)
+        .orElseThrow(() -> {
+          logger.warn("No location for household {}", householdId);
+          return new IllegalArgumentException("Household not found or has no known location");
+        });
+    return municipalityIndex.lookup(location.getLatitude(), location.getLongitude());
+  }
+}
@@ -0,0 +1,353 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns addresses into coordinates without calling an external service, using an address dataset
+ * that is read into memory at startup.
+ *
+ * <p>The dataset is a UTF-8 file with one address per line in the form
+ * {@code street;number;letter;postcode;city;latitude;longitude}. Lines starting with {@code #} and
+ * a header line starting with {@code street} are ignored. Addresses are grouped by street in a
+ * hash map keyed on a normalized street name, so "Kongens gate", "Kongensgata" and "Kongens gt."
+ * share a key. Each street keeps its houses in parallel int arrays, with coordinates stored in
+ * millionths of a degree (about 0.1 m), which keeps a country-sized dataset at a few dozen bytes
+ * per address.</p>
+ *
+ * <p>A lookup parses the street, house number, letter, postcode and city out of the address and
+ * narrows the houses of the street down in that order. When the house number is missing or
+ * unknown, the middle of the street is used, but only if the street is short enough for that to
+ * be meaningful. Addresses that match houses far apart are left unresolved rather than guessed.
+ * </p>
+ */
+@Component
+public class OfflineGeocoder {
+
+  private static final Logger logger = LoggerFactory.getLogger(OfflineGeocoder.class);
+
+  /**
+   * Widest spread, in degrees, of the houses an address may match. Roughly 1 km.
+   */
+  private static final double MAX_HOUSE_SPREAD = 0.01;
+
+  /**
+   * Widest spread, in degrees, of a street whose middle may stand in for a house. Roughly 5 km.
+   */
+  private static final double MAX_STREET_SPREAD = 0.05;
+
+  private static final double MICRO_DEGREES = 1_000_000.0;
+
+  private static final Pattern ADDRESS = Pattern.compile(
+      "^(?<street>.*?\\D)\\s*(?<number>\\d{1,4})(?:\\s*(?<letter>\\p{L})(?!\\p{L}))?"
+          + "(?:\\s+(?<rest>.*))?$");
+  private static final Pattern POSTCODE = Pattern.compile("\\b(\\d{4})\\b");
+  private static final Pattern GATE_SUFFIX = Pattern.compile("(gata|gate|gt)$");
+  private static final Pattern VEI_SUFFIX = Pattern.compile("(veien|vegen|veg|vei|vn)$");
+
+  private volatile Index index = new Index();
+
+  /**
+   * Constructor for OfflineGeocoder. Loads the configured dataset, if any.
+   *
+   * @param resourceLoader the loader used to open the dataset
+   * @param dataset        the location of the dataset, such as {@code file:/data/addresses.csv};
+   *                       blank to disable geocoding
+   */
+  public OfflineGeocoder(ResourceLoader resourceLoader,
+      @Value("${app.geocoder.dataset:}") String dataset) {
+    if (dataset == null || dataset.isBlank()) {
+      logger.info("No address dataset configured, geocoding is disabled");
+      return;
+    }
+    try (Reader reader = new InputStreamReader(
+        resourceLoader.getResource(dataset).getInputStream(), StandardCharsets.UTF_8)) {
+      load(reader);
+    } catch (IOException e) {
+      logger.error("Could not read address dataset {}: {}", dataset, e.getMessage());
+    }
+  }
+
+  /**
+   * Replaces the loaded addresses with the ones read from a dataset.
+   *
+   * @param reader the dataset
+   * @return the number of addresses loaded
+   * @throws IOException if the dataset could not be read
+   */
+  public int load(Reader reader) throws IOException {
+    Index loaded = new Index();
+    int skipped = 0;
+    BufferedReader lines = new BufferedReader(reader);
+    String line;
+    while ((line = lines.readLine()) != null) {
+      String trimmed = line.strip();
+      if (trimmed.isEmpty() || trimmed.startsWith("#")
+          || trimmed.regionMatches(true, 0, "street;", 0, 7)) {
+        continue;
+      }
+      if (!loaded.add(trimmed.split(";", -1))) {
+        skipped++;
+      }
+    }
+    loaded.streets.values().forEach(Street::trim);
+    index = loaded;
+    logger.info("Loaded {} addresses on {} streets, skipped {} malformed lines", loaded.size,
+        loaded.streets.size(), skipped);
+    return loaded.size;
+  }
+
+  /**
+   * Gets the number of addresses loaded.
+   *
+   * @return the number of addresses
+   */
+  public int size() {
+    return index.size;
+  }
+
+  /**
+   * Finds the coordinates of an address such as "Kongens gate 12B, 7011 Trondheim". The postcode
+   * and city are optional, but narrow the search down when a street name is used in more than
+   * one place.
+   *
+   * @param address the address
+   * @return the coordinates, or empty if the address is unknown or ambiguous
+   */
+  public Optional<GeoPoint> geocode(String address) {
+    if (address == null || address.isBlank()) {
+      return Optional.empty();
+    }
+    Index current = index;
+    Query query = Query.parse(address);
+    Street street = current.streets.get(streetKey(query.street));
+    if (street == null) {
+      return Optional.empty();
+    }
+
+    int city = -1;
+    String cityKey = cityKey(query.city);
+    if (query.postcode < 0 && !cityKey.isEmpty()) {
+      Integer id = current.cityIds.get(cityKey);
+      if (id == null) {
+        return Optional.empty();
+      }
+      city = id;
+    }
+
+    if (query.number > 0) {
+      int house = house(query.number, query.letter);
+      Match exact = street.match(query.postcode, city, house, -1);
+      if (exact.count > 0) {
+        return exact.center(MAX_HOUSE_SPREAD);
+      }
+      Match anyLetter = street.match(query.postcode, city, -1, query.number);
+      if (anyLetter.count > 0) {
+        return anyLetter.center(MAX_HOUSE_SPREAD);
+      }
+    }
+    return street.match(query.postcode, city, -1, -1).center(MAX_STREET_SPREAD);
+  }
+
+  /**
+   * Normalizes a street name, so spelling variants of the same street get the same key.
+   */
+  static String streetKey(String street) {
+    String key = lettersAndDigits(street);
+    key = GATE_SUFFIX.matcher(key).replaceFirst("gt");
+    return VEI_SUFFIX.matcher(key).replaceFirst("vn");
+  }
+
+  private static String cityKey(String city) {
+    return lettersAndDigits(city);
+  }
+
+  private static String lettersAndDigits(String value) {
+    StringBuilder key = new StringBuilder(value.length());
+    value.toLowerCase(Locale.ROOT).codePoints()
+        .filter(Character::isLetterOrDigit)
+        .forEach(key::appendCodePoint);
+    return key.toString();
+  }
+
+  private static int house(int number, char letter) {
+    return (number << 8) | (Character.toLowerCase(letter) & 0xFF);
+  }
+
+  /**
+   * All loaded addresses. Never changed once loaded, so lookups need no locking.
+   */
+  private static final class Index {
+
+    private final Map<String, Street> streets = new HashMap<>();
+    private final Map<String, Integer> cityIds = new HashMap<>();
+    private int size;
+
+    private boolean add(String[] fields) {
+      if (fields.length != 7) {
+        return false;
+      }
+      try {
+        String key = streetKey(fields[0]);
+        int number = Integer.parseInt(fields[1].strip());
+        String letter = fields[2].strip();
+        String postcode = fields[3].strip();
+        double latitude = Double.parseDouble(fields[5].strip());
+        double longitude = Double.parseDouble(fields[6].strip());
+        if (key.isEmpty() || number <= 0 || number > 9999 || letter.length() > 1
+            || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+          return false;
+        }
+        int city = cityIds.computeIfAbsent(cityKey(fields[4]), name -> cityIds.size());
+        streets.computeIfAbsent(key, name -> new Street()).add(
+            house(number, letter.isEmpty() ? 0 : letter.charAt(0)),
+            postcode.isEmpty() ? -1 : Integer.parseInt(postcode), city,
+            (int) Math.round(latitude * MICRO_DEGREES),
+            (int) Math.round(longitude * MICRO_DEGREES));
+        size++;
+        return true;
+      } catch (NumberFormatException e) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * The houses of one street name, across every place the name is used.
+   */
+  private static final class Street {
+
+    private int size;
+    private int[] houses = new int[4];
+    private int[] postcodes = new int[4];
+    private int[] cities = new int[4];
+    private int[] latitudes = new int[4];
+    private int[] longitudes = new int[4];
+
+    private void add(int house, int postcode, int city, int latitude, int longitude) {
+      if (size == houses.length) {
+        resize(size * 2);
+      }
+      houses[size] = house;
+      postcodes[size] = postcode;
+      cities[size] = city;
+      latitudes[size] = latitude;
+      longitudes[size] = longitude;
+      size++;
+    }
+
+    private void trim() {
+      resize(size);
+    }
+
+    private void resize(int capacity) {
+      houses = Arrays.copyOf(houses, capacity);
+      postcodes = Arrays.copyOf(postcodes, capacity);
+      cities = Arrays.copyOf(cities, capacity);
+      latitudes = Arrays.copyOf(latitudes, capacity);
+      longitudes = Arrays.copyOf(longitudes, capacity);
+    }
+
+    /**
+     * Gathers the houses matching the given filters; a negative filter matches anything.
+     */
+    private Match match(int postcode, int city, int house, int number) {
+      Match match = new Match();
+      for (int i = 0; i < size; i++) {
+        if ((postcode < 0 || postcodes[i] == postcode) && (city < 0 || cities[i] == city)
+            && (house < 0 || houses[i] == house) && (number < 0 || houses[i] >>> 8 == number)) {
+          match.add(latitudes[i], longitudes[i]);
+        }
+      }
+      return match;
+    }
+  }
+
+  /**
+   * The bounds and center of the houses an address matched.
+   */
+  private static final class Match {
+
+    private int count;
+    private long latitudeSum;
+    private long longitudeSum;
+    private int minLatitude = Integer.MAX_VALUE;
+    private int maxLatitude = Integer.MIN_VALUE;
+    private int minLongitude = Integer.MAX_VALUE;
+    private int maxLongitude = Integer.MIN_VALUE;
+
+    private void add(int latitude, int longitude) {
+      count++;
+      latitudeSum += latitude;
+      longitudeSum += longitude;
+      minLatitude = Math.min(minLatitude, latitude);
+      maxLatitude = Math.max(maxLatitude, latitude);
+      minLongitude = Math.min(minLongitude, longitude);
+      maxLongitude = Math.max(maxLongitude, longitude);
+    }
+
+    private Optional<GeoPoint> center(double maxSpread) {
+      if (count == 0 || (maxLatitude - minLatitude) / MICRO_DEGREES > maxSpread
+          || (maxLongitude - minLongitude) / MICRO_DEGREES > maxSpread) {
+        return Optional.empty();
+      }
+      return Optional.of(new GeoPoint(latitudeSum / (count * MICRO_DEGREES),
+          longitudeSum / (count * MICRO_DEGREES)));
+    }
+  }
+
+  /**
+   * The parts of an address being looked up.
+   */
+  private static final class Query {
+
+    private String street;
+    private int number = -1;
+    private char letter;
+    private int postcode = -1;
+    private String city = "";
+
+    private static Query parse(String address) {
+      Query query = new Query();
+      String rest;
+      Matcher matcher = ADDRESS.matcher(address.replace(',', ' ').strip());
+      if (matcher.matches()) {
+        query.street = matcher.group("street");
+        query.number = Integer.parseInt(matcher.group("number"));
+        String letter = matcher.group("letter");
+        query.letter = letter == null ? 0 : letter.charAt(0);
+        rest = matcher.group("rest");
+      } else {
+        // No house number, so only a comma can tell the street from the place
+        int comma = address.indexOf(',');
+        query.street = comma < 0 ? address : address.substring(0, comma);
+        rest = comma < 0 ? null : address.substring(comma + 1);
+      }
+
+      if (rest != null) {
+        Matcher postcode = POSTCODE.matcher(rest);
+        if (postcode.find()) {
+          query.postcode = Integer.parseInt(postcode.group(1));
+          rest = rest.substring(0, postcode.start()) + rest.substring(postcode.end());
+        }
+        query.city = rest.strip();
+      }
+      return query;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+import java.util.List;
+
+/**
+ * A polygon, possibly with holes or several parts, prepared for fast point-in-polygon tests.
+ *
+ * <p>A point is inside if a ray from it crosses the rings an odd number of times. Rather than
+ * checking every edge, the edges are sorted into horizontal bands when the polygon is built, and
+ * a test only checks the edges of the band the point lies in. For a municipality boundary with
+ * thousands of vertices, a test then looks at a handful of edges.</p>
+ */
+public final class PreparedPolygon implements GeoArea {
+
+  /**
+   * Edges per band the band count is chosen for.
+   */
+  private static final int EDGES_PER_BAND = 4;
+
+  private static final int MAX_BANDS = 4096;
+
+  private final GeoBounds bounds;
+  private final double[] x1;
+  private final double[] y1;
+  private final double[] x2;
+  private final double[] y2;
+  private final int[] bandStart;
+  private final int[] bandEdges;
+  private final double bandScale;
+
+  /**
+   * Prepares a polygon from its rings. Outer rings and holes are given the same way, and the
+   * direction of a ring does not matter.
+   *
+   * @param rings the rings, each as longitude and latitude pairs one after the other; a ring may
+   *              or may not repeat its first vertex at the end
+   * @throws IllegalArgumentException if there are no rings, or a ring has fewer than three
+   *                                  vertices
+   */
+  public PreparedPolygon(List<double[]> rings) {
+    int edges = 0;
+    for (double[] ring : rings) {
+      if (ring.length < 6 || ring.length % 2 != 0) {
+        throw new IllegalArgumentException("A ring needs at least three vertices");
+      }
+      edges += ring.length / 2;
+    }
+    if (edges == 0) {
+      throw new IllegalArgumentException("A polygon needs at least one ring");
+    }
+
+    x1 = new double[edges];
+    y1 = new double[edges];
+    x2 = new double[edges];
+    y2 = new double[edges];
+    double south = Double.POSITIVE_INFINITY;
+    double west = Double.POSITIVE_INFINITY;
+    double north = Double.NEGATIVE_INFINITY;
+    double east = Double.NEGATIVE_INFINITY;
+    int edge = 0;
+    for (double[] ring : rings) {
+      int vertices = ring.length / 2;
+      for (int v = 0; v < vertices; v++) {
+        int next = (v + 1) % vertices;
+        x1[edge] = ring[2 * v];
+        y1[edge] = ring[2 * v + 1];
+        x2[edge] = ring[2 * next];
+        y2[edge] = ring[2 * next + 1];
+        west = Math.min(west, x1[edge]);
+        east = Math.max(east, x1[edge]);
+        south = Math.min(south, y1[edge]);
+        north = Math.max(north, y1[edge]);
+        edge++;
+      }
+    }
+    bounds = new GeoBounds(south, west, north, east);
+
+    int bands = Math.max(1, Math.min(MAX_BANDS, edges / EDGES_PER_BAND));
+    bandScale = north > south ? bands / (north - south) : 0;
+    bandStart = new int[bands + 1];
+    for (int e = 0; e < edges; e++) {
+      for (int band = band(Math.min(y1[e], y2[e])); band <= band(Math.max(y1[e], y2[e]));
+          band++) {
+        bandStart[band + 1]++;
+      }
+    }
+    for (int band = 0; band < bands; band++) {
+      bandStart[band + 1] += bandStart[band];
+    }
+    bandEdges = new int[bandStart[bands]];
+    int[] filled = new int[bands];
+    for (int e = 0; e < edges; e++) {
+      for (int band = band(Math.min(y1[e], y2[e])); band <= band(Math.max(y1[e], y2[e]));
+          band++) {
+        bandEdges[bandStart[band] + filled[band]++] = e;
+      }
+    }
+  }
+
+  /**
+   * Gets the smallest box around the polygon.
+   *
+   * @return the bounds
+   */
+  public GeoBounds getBounds() {
+    return bounds;
+  }
+
+  /**
+   * Checks whether a point lies inside the polygon. Points exactly on an edge may be counted as
+   * either inside or outside.
+   *
+   * @param latitude  the latitude of the point
+   * @param longitude the longitude of the point
+   * @return true if the point is inside
+   */
+  @Override
+  public boolean contains(double latitude, double longitude) {
+    if (!bounds.contains(latitude, longitude)) {
+      return false;
+    }
+    int band = band(latitude);
+    boolean inside = false;
+    for (int i = bandStart[band], end = bandStart[band + 1]; i < end; i++) {
+      int e = bandEdges[i];
+      if ((y1[e] > latitude) != (y2[e] > latitude)
+          && longitude < x1[e] + (latitude - y1[e]) * (x2[e] - x1[e]) / (y2[e] - y1[e])) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+
+  private int band(double latitude) {
+    int band = (int) ((latitude - bounds.getSouth()) * bandScale);
+    return Math.max(0, Math.min(bandStart.length - 2, band));
+  }
+}
@@ -0,0 +1,140 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base for the views of database rows kept in memory. A view is loaded in full the first time it
+ * is read; after that, the rows it is told have changed are read again and replace what it held.
+ *
+ * <p>Searches hold {@link #readLock()}. Loading takes the write lock only to apply what it read,
+ * not while it queries the database. Loads run one at a time, so when two reads of the same row
+ * race, the one that read last is applied last. Changes reported before the first load are
+ * ignored, since that load reads every row as it then is.</p>
+ *
+ * @param <K> the type of the row ids
+ * @param <V> the type of the rows read
+ */
+public abstract class ReloadableIndex<K, V> {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReloadableIndex.class);
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object loadLock = new Object();
+  private volatile boolean built;
+
+  /**
+   * Reads every row to index.
+   *
+   * @return the rows
+   */
+  protected abstract List<V> loadAll();
+
+  /**
+   * Reads one row again.
+   *
+   * @param id the id of the row
+   * @return the row, or empty if it is gone
+   */
+  protected abstract Optional<V> load(K id);
+
+  /**
+   * Empties the view. Called with the write lock held.
+   */
+  protected abstract void clear();
+
+  /**
+   * Adds a row to the view. Called with the write lock held.
+   *
+   * @param row the row
+   */
+  protected abstract void add(V row);
+
+  /**
+   * Takes a row out of the view, if it is there. Called with the write lock held.
+   *
+   * @param id the id of the row
+   */
+  protected abstract void remove(K id);
+
+  /**
+   * Loads the view if it has not been loaded yet. Call before taking {@link #readLock()}.
+   */
+  protected final void ensureBuilt() {
+    if (built) {
+      return;
+    }
+    synchronized (loadLock) {
+      if (!built) {
+        build();
+        built = true;
+      }
+    }
+  }
+
+  /**
+   * Gets the lock to hold while reading the view.
+   *
+   * @return the read lock
+   */
+  protected final Lock readLock() {
+    return lock.readLock();
+  }
+
+  /**
+   * Reads rows that changed again and applies them, dropping those that are gone.
+   *
+   * @param ids the ids of the rows
+   */
+  public void reload(Collection<K> ids) {
+    synchronized (loadLock) {
+      if (!built) {
+        return;
+      }
+      Map<K, Optional<V>> rows = new LinkedHashMap<>();
+      for (K id : ids) {
+        rows.put(id, load(id));
+      }
+      lock.writeLock().lock();
+      try {
+        rows.forEach((id, row) -> {
+          remove(id);
+          row.ifPresent(this::add);
+        });
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+    logger.debug("Reloaded {} rows of {}", ids.size(), getClass().getSimpleName());
+  }
+
+  /**
+   * Loads the whole view again if it has been loaded, for changes that were not reported.
+   */
+  public void rebuild() {
+    synchronized (loadLock) {
+      if (built) {
+        build();
+      }
+    }
+  }
+
+  private void build() {
+    List<V> rows = loadAll();
+    lock.writeLock().lock();
+    try {
+      clear();
+      rows.forEach(this::add);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    logger.info("Loaded {} from {} rows", getClass().getSimpleName(), rows.size());
+  }
+}
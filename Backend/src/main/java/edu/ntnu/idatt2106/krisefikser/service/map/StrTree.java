@@ -0,0 +1,207 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * A read-only R-tree over boxes, packed with the Sort-Tile-Recursive algorithm.
+ *
+ * <p>The boxes are sorted into vertical slices by the x of their center, and each slice by y,
+ * before being grouped into leaves of {@link #NODE_CAPACITY}. The leaves are then packed the same
+ * way into the level above, until one node is left. Nodes of a level are kept in plain arrays,
+ * so a search touches no objects and the tree takes little more memory than the boxes.</p>
+ */
+public final class StrTree {
+
+  /**
+   * Most children of a node.
+   */
+  static final int NODE_CAPACITY = 16;
+
+  private final int[] itemIds;
+  private final double[] itemMinX;
+  private final double[] itemMinY;
+  private final double[] itemMaxX;
+  private final double[] itemMaxY;
+  // levels[0] holds the leaves, the last level the root
+  private final Level[] levels;
+
+  /**
+   * Builds the tree. Item {@code i} is the box from ({@code minX[i]}, {@code minY[i]}) to
+   * ({@code maxX[i]}, {@code maxY[i]}).
+   *
+   * @param minX the smallest x of each box
+   * @param minY the smallest y of each box
+   * @param maxX the largest x of each box
+   * @param maxY the largest y of each box
+   */
+  public StrTree(double[] minX, double[] minY, double[] maxX, double[] maxY) {
+    int[] order = sortTileRecursive(minX, minY, maxX, maxY);
+    itemIds = order;
+    itemMinX = permute(minX, order);
+    itemMinY = permute(minY, order);
+    itemMaxX = permute(maxX, order);
+    itemMaxY = permute(maxY, order);
+
+    List<Level> built = new ArrayList<>();
+    if (order.length > 0) {
+      Level level = Level.group(itemMinX, itemMinY, itemMaxX, itemMaxY);
+      built.add(level);
+      while (level.size() > 1) {
+        level.sort(sortTileRecursive(level.minX, level.minY, level.maxX, level.maxY));
+        level = Level.group(level.minX, level.minY, level.maxX, level.maxY);
+        built.add(level);
+      }
+    }
+    levels = built.toArray(new Level[0]);
+  }
+
+  /**
+   * Gets the number of items in the tree.
+   *
+   * @return the number of items
+   */
+  public int size() {
+    return itemIds.length;
+  }
+
+  /**
+   * Finds the first item whose box contains a point and that passes a further test.
+   *
+   * @param x    the x of the point
+   * @param y    the y of the point
+   * @param test the further test, given the index of the item
+   * @return the index of the item, or -1 if none was found
+   */
+  public int findFirst(double x, double y, IntPredicate test) {
+    if (levels.length == 0) {
+      return -1;
+    }
+    return search(levels.length - 1, 0, x, y, test);
+  }
+
+  private int search(int depth, int node, double x, double y, IntPredicate test) {
+    Level level = levels[depth];
+    if (x < level.minX[node] || x > level.maxX[node] || y < level.minY[node]
+        || y > level.maxY[node]) {
+      return -1;
+    }
+    if (depth == 0) {
+      for (int i = level.start[node], end = level.end[node]; i < end; i++) {
+        if (x >= itemMinX[i] && x <= itemMaxX[i] && y >= itemMinY[i] && y <= itemMaxY[i]
+            && test.test(itemIds[i])) {
+          return itemIds[i];
+        }
+      }
+      return -1;
+    }
+    for (int child = level.start[node], end = level.end[node]; child < end; child++) {
+      int found = search(depth - 1, child, x, y, test);
+      if (found >= 0) {
+        return found;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Orders boxes so that consecutive runs of {@link #NODE_CAPACITY} lie close together.
+   */
+  private static int[] sortTileRecursive(double[] minX, double[] minY, double[] maxX,
+      double[] maxY) {
+    int count = minX.length;
+    Integer[] order = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingDouble(i -> minX[i] + maxX[i]));
+    int nodes = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    int sliceSize = (int) Math.ceil(Math.sqrt(nodes)) * NODE_CAPACITY;
+    for (int from = 0; from < count; from += sliceSize) {
+      Arrays.sort(order, from, Math.min(count, from + sliceSize),
+          Comparator.comparingDouble(i -> minY[i] + maxY[i]));
+    }
+    return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+  }
+
+  private static double[] permute(double[] values, int[] order) {
+    double[] permuted = new double[order.length];
+    for (int i = 0; i < order.length; i++) {
+      permuted[i] = values[order[i]];
+    }
+    return permuted;
+  }
+
+  private static int[] permute(int[] values, int[] order) {
+    int[] permuted = new int[order.length];
+    for (int i = 0; i < order.length; i++) {
+      permuted[i] = values[order[i]];
+    }
+    return permuted;
+  }
+
+  /**
+   * The nodes at one depth of the tree. Node {@code n} covers the children from
+   * {@code start[n]} up to but not including {@code end[n]} on the level below, or the items if
+   * this is the leaf level.
+   */
+  private static final class Level {
+
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+    private int[] start;
+    private int[] end;
+
+    private int size() {
+      return start.length;
+    }
+
+    /**
+     * Groups consecutive runs of boxes into nodes.
+     */
+    private static Level group(double[] minX, double[] minY, double[] maxX, double[] maxY) {
+      int count = (minX.length + NODE_CAPACITY - 1) / NODE_CAPACITY;
+      Level level = new Level();
+      level.minX = new double[count];
+      level.minY = new double[count];
+      level.maxX = new double[count];
+      level.maxY = new double[count];
+      level.start = new int[count];
+      level.end = new int[count];
+      for (int node = 0; node < count; node++) {
+        int from = node * NODE_CAPACITY;
+        int to = Math.min(minX.length, from + NODE_CAPACITY);
+        level.start[node] = from;
+        level.end[node] = to;
+        level.minX[node] = Double.POSITIVE_INFINITY;
+        level.minY[node] = Double.POSITIVE_INFINITY;
+        level.maxX[node] = Double.NEGATIVE_INFINITY;
+        level.maxY[node] = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+          level.minX[node] = Math.min(level.minX[node], minX[i]);
+          level.minY[node] = Math.min(level.minY[node], minY[i]);
+          level.maxX[node] = Math.max(level.maxX[node], maxX[i]);
+          level.maxY[node] = Math.max(level.maxY[node], maxY[i]);
+        }
+      }
+      return level;
+    }
+
+    /**
+     * Reorders the nodes, keeping each node's children.
+     */
+    private void sort(int[] order) {
+      minX = permute(minX, order);
+      minY = permute(minY, order);
+      maxX = permute(maxX, order);
+      maxY = permute(maxY, order);
+      start = permute(start, order);
+      end = permute(end, order);
+    }
+  }
+}
@@ -0,0 +1,284 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes map tiles in the Mapbox Vector Tile format (version 2.1), which map clients such as
+ * MapLibre and OpenLayers read directly.
+ *
+ * <p>The format is a small Protocol Buffers message, so it is written by hand here rather than
+ * through generated classes. Coordinates are given in tile units, from 0 to {@link #EXTENT}
+ * across the tile, and may lie outside it for geometry that crosses the edge. Property keys and
+ * values are shared by all features in a layer.</p>
+ */
+public final class VectorTileEncoder {
+
+  /**
+   * Number of units across a tile.
+   */
+  public static final int EXTENT = 4096;
+
+  private static final int VERSION = 2;
+  private static final int POINT = 1;
+  private static final int POLYGON = 3;
+  private static final int MOVE_TO = 1;
+  private static final int LINE_TO = 2;
+  private static final int CLOSE_PATH = 7;
+
+  private final Map<String, Layer> layers = new LinkedHashMap<>();
+
+  /**
+   * Adds a point.
+   *
+   * @param layer      the name of the layer
+   * @param id         the id of the feature
+   * @param properties the properties of the feature; strings, numbers and booleans
+   * @param x          the horizontal position in tile units
+   * @param y          the vertical position in tile units, counted from the top
+   */
+  public void addPoint(String layer, long id, Map<String, Object> properties, int x, int y) {
+    layer(layer).features.add(new Feature(id, tags(layer(layer), properties), POINT,
+        new int[] {command(MOVE_TO, 1), zigZag(x), zigZag(y)}));
+  }
+
+  /**
+   * Adds a polygon with a single ring. The ring must run clockwise as seen on screen and must not
+   * repeat its first vertex at the end.
+   *
+   * @param layer      the name of the layer
+   * @param id         the id of the feature
+   * @param properties the properties of the feature; strings, numbers and booleans
+   * @param xs         the horizontal position of each vertex in tile units
+   * @param ys         the vertical position of each vertex in tile units
+   * @throws IllegalArgumentException if the ring has fewer than three vertices
+   */
+  public void addPolygon(String layer, long id, Map<String, Object> properties, int[] xs,
+      int[] ys) {
+    addPolygon(layer, id, properties, List.of(xs), List.of(ys));
+  }
+
+  /**
+   * Adds a polygon with several rings, such as one with holes or several parts. Each outer ring
+   * must run clockwise as seen on screen and be followed by its holes, which run anticlockwise.
+   * No ring may repeat its first vertex at the end.
+   *
+   * @param layer      the name of the layer
+   * @param id         the id of the feature
+   * @param properties the properties of the feature; strings, numbers and booleans
+   * @param xs         the horizontal position of each vertex in tile units, per ring
+   * @param ys         the vertical position of each vertex in tile units, per ring
+   * @throws IllegalArgumentException if there are no rings, or a ring has fewer than three
+   *                                  vertices
+   */
+  public void addPolygon(String layer, long id, Map<String, Object> properties, List<int[]> xs,
+      List<int[]> ys) {
+    if (xs.isEmpty() || xs.size() != ys.size()) {
+      throw new IllegalArgumentException("A polygon needs at least one ring");
+    }
+    int length = 0;
+    for (int r = 0; r < xs.size(); r++) {
+      if (xs.get(r).length < 3 || xs.get(r).length != ys.get(r).length) {
+        throw new IllegalArgumentException("A polygon needs at least three vertices");
+      }
+      length += xs.get(r).length * 2 + 3;
+    }
+    int[] geometry = new int[length];
+    int i = 0;
+    // Positions are relative to the end of the previous command, across rings too
+    int cursorX = 0;
+    int cursorY = 0;
+    for (int r = 0; r < xs.size(); r++) {
+      int[] ringXs = xs.get(r);
+      int[] ringYs = ys.get(r);
+      geometry[i++] = command(MOVE_TO, 1);
+      geometry[i++] = zigZag(ringXs[0] - cursorX);
+      geometry[i++] = zigZag(ringYs[0] - cursorY);
+      geometry[i++] = command(LINE_TO, ringXs.length - 1);
+      for (int v = 1; v < ringXs.length; v++) {
+        geometry[i++] = zigZag(ringXs[v] - ringXs[v - 1]);
+        geometry[i++] = zigZag(ringYs[v] - ringYs[v - 1]);
+      }
+      geometry[i++] = command(CLOSE_PATH, 1);
+      cursorX = ringXs[ringXs.length - 1];
+      cursorY = ringYs[ringYs.length - 1];
+    }
+    layer(layer).features.add(new Feature(id, tags(layer(layer), properties), POLYGON, geometry));
+  }
+
+  /**
+   * Checks whether any features have been added.
+   *
+   * @return true if the tile has no features
+   */
+  public boolean isEmpty() {
+    return layers.values().stream().allMatch(layer -> layer.features.isEmpty());
+  }
+
+  /**
+   * Writes the tile.
+   *
+   * @return the encoded tile
+   */
+  public byte[] encode() {
+    ProtoWriter tile = new ProtoWriter();
+    for (Map.Entry<String, Layer> entry : layers.entrySet()) {
+      tile.writeMessage(3, encodeLayer(entry.getKey(), entry.getValue()));
+    }
+    return tile.toByteArray();
+  }
+
+  private static byte[] encodeLayer(String name, Layer layer) {
+    ProtoWriter out = new ProtoWriter();
+    out.writeVarintField(15, VERSION);
+    out.writeString(1, name);
+    for (Feature feature : layer.features) {
+      ProtoWriter encoded = new ProtoWriter();
+      encoded.writeVarintField(1, feature.id);
+      encoded.writePacked(2, feature.tags);
+      encoded.writeVarintField(3, feature.type);
+      encoded.writePacked(4, feature.geometry);
+      out.writeMessage(2, encoded.toByteArray());
+    }
+    for (String key : layer.keys.keySet()) {
+      out.writeString(3, key);
+    }
+    for (Object value : layer.values.keySet()) {
+      out.writeMessage(4, encodeValue(value));
+    }
+    out.writeVarintField(5, EXTENT);
+    return out.toByteArray();
+  }
+
+  private static byte[] encodeValue(Object value) {
+    ProtoWriter out = new ProtoWriter();
+    if (value instanceof Boolean bool) {
+      out.writeVarintField(7, bool ? 1 : 0);
+    } else if (value instanceof Double || value instanceof Float) {
+      out.writeDouble(3, ((Number) value).doubleValue());
+    } else if (value instanceof Number number) {
+      out.writeVarintField(6, zigZag64(number.longValue()));
+    } else {
+      out.writeString(1, String.valueOf(value));
+    }
+    return out.toByteArray();
+  }
+
+  private Layer layer(String name) {
+    return layers.computeIfAbsent(name, key -> new Layer());
+  }
+
+  private static int[] tags(Layer layer, Map<String, Object> properties) {
+    List<Integer> tags = new ArrayList<>(properties.size() * 2);
+    for (Map.Entry<String, Object> property : properties.entrySet()) {
+      if (property.getValue() == null) {
+        continue;
+      }
+      tags.add(layer.keys.computeIfAbsent(property.getKey(), key -> layer.keys.size()));
+      tags.add(layer.values.computeIfAbsent(property.getValue(), key -> layer.values.size()));
+    }
+    return tags.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static int command(int id, int count) {
+    return (id & 7) | (count << 3);
+  }
+
+  private static int zigZag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  private static long zigZag64(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  /**
+   * The features of one layer and the property keys and values they share.
+   */
+  private static final class Layer {
+
+    private final List<Feature> features = new ArrayList<>();
+    private final Map<String, Integer> keys = new LinkedHashMap<>();
+    private final Map<Object, Integer> values = new LinkedHashMap<>();
+  }
+
+  /**
+   * A feature with its encoded tags and geometry.
+   */
+  private static final class Feature {
+
+    private final long id;
+    private final int[] tags;
+    private final int type;
+    private final int[] geometry;
+
+    private Feature(long id, int[] tags, int type, int[] geometry) {
+      this.id = id;
+      this.tags = tags;
+      this.type = type;
+      this.geometry = geometry;
+    }
+  }
+
+  /**
+   * Writes Protocol Buffers fields.
+   */
+  private static final class ProtoWriter {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private void writeVarintField(int field, long value) {
+      writeVarint(((long) field << 3));
+      writeVarint(value);
+    }
+
+    private void writeDouble(int field, double value) {
+      writeVarint(((long) field << 3) | 1);
+      long bits = Double.doubleToLongBits(value);
+      for (int i = 0; i < 8; i++) {
+        out.write((int) (bits >>> (8 * i)) & 0xFF);
+      }
+    }
+
+    private void writeString(int field, String value) {
+      writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeMessage(int field, byte[] message) {
+      writeBytes(field, message);
+    }
+
+    private void writePacked(int field, int[] values) {
+      if (values.length == 0) {
+        return;
+      }
+      ProtoWriter packed = new ProtoWriter();
+      for (int value : values) {
+        packed.writeVarint(value & 0xFFFFFFFFL);
+      }
+      writeBytes(field, packed.toByteArray());
+    }
+
+    private void writeBytes(int field, byte[] bytes) {
+      writeVarint(((long) field << 3) | 2);
+      writeVarint(bytes.length);
+      out.write(bytes, 0, bytes.length);
+    }
+
+    private void writeVarint(long value) {
+      while ((value & ~0x7FL) != 0) {
+        out.write((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      out.write((int) value);
+    }
+
+    private byte[] toByteArray() {
+      return out.toByteArray();
+    }
+  }
+}
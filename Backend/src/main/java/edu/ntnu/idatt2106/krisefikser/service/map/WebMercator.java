@@ -0,0 +1,65 @@
+package edu.ntnu.idatt2106.krisefikser.service.map;
+
+/**
+ * Converts coordinates to the Web Mercator tile grid used by the map client, where zoom level
+ * {@code z} splits the world into 2^z x 2^z tiles counted from the north-west corner.
+ */
+public final class WebMercator {
+
+  /**
+   * Furthest latitude from the equator the projection can show. Coordinates beyond it are
+   * clamped.
+   */
+  public static final double MAX_LATITUDE = 85.05112878;
+
+  private WebMercator() {
+  }
+
+  /**
+   * Gets the horizontal position of a longitude, in tiles from the western edge.
+   *
+   * @param longitude the longitude
+   * @param zoom      the zoom level
+   * @return the position, between 0 and 2^zoom
+   */
+  public static double tileX(double longitude, int zoom) {
+    double clamped = Math.max(-180, Math.min(180, longitude));
+    return (clamped + 180) / 360 * (1L << zoom);
+  }
+
+  /**
+   * Gets the vertical position of a latitude, in tiles from the northern edge.
+   *
+   * @param latitude the latitude
+   * @param zoom     the zoom level
+   * @return the position, between 0 and 2^zoom
+   */
+  public static double tileY(double latitude, int zoom) {
+    double radians = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+    return (1 - Math.log(Math.tan(radians) + 1 / Math.cos(radians)) / Math.PI) / 2
+        * (1L << zoom);
+  }
+
+  /**
+   * Gets the longitude of a horizontal tile position.
+   *
+   * @param x    the position in tiles from the western edge
+   * @param zoom the zoom level
+   * @return the longitude
+   */
+  public static double longitude(double x, int zoom) {
+    return x / (1L << zoom) * 360 - 180;
+  }
+
+  /**
+   * Gets the latitude of a vertical tile position.
+   *
+   * @param y    the position in tiles from the northern edge
+   * @param zoom the zoom level
+   * @return the latitude
+   */
+  public static double latitude(double y, int zoom) {
+    double n = Math.PI * (1 - 2 * y / (1L << zoom));
+    return Math.toDegrees(Math.atan(Math.sinh(n)));
+  }
+}
@@ -0,0 +1,181 @@
+package edu.ntnu.idatt2106.krisefikser.service.mapicon;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconChangesDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconResponseDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIconTombstone;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconChangeCounterRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconTombstoneRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Numbers every change to the map icons, so clients keeping their own copy of the map can fetch
+ * only what changed since they last synced.
+ *
+ * <p>Each created or updated icon is given the next number from a counter, and each deleted icon
+ * leaves a tombstone with one. The counter row is locked from the increment until the
+ * transaction commits, so changes become visible in number order: once a number is committed,
+ * every lower number is too. Readers only look up to the last committed number, which makes the
+ * number they continue from safe to skip past. Map icon writes are rare admin actions, so
+ * serializing them costs little.</p>
+ */
+@Component
+public class MapIconChangeLog {
+
+  private static final Logger logger = LoggerFactory.getLogger(MapIconChangeLog.class);
+
+  private final MapIconRepository mapIconRepository;
+  private final MapIconTombstoneRepository tombstoneRepository;
+  private final MapIconChangeCounterRepository counterRepository;
+  private final TransactionTemplate createTemplate;
+
+  /**
+   * Constructor for MapIconChangeLog.
+   *
+   * @param mapIconRepository   the map icon repository
+   * @param tombstoneRepository the repository for the records of deleted icons
+   * @param counterRepository   the repository holding the sequence counter
+   * @param transactionManager  the transaction manager, used to create the counter on its own
+   */
+  public MapIconChangeLog(MapIconRepository mapIconRepository,
+      MapIconTombstoneRepository tombstoneRepository,
+      MapIconChangeCounterRepository counterRepository,
+      PlatformTransactionManager transactionManager) {
+    this.mapIconRepository = mapIconRepository;
+    this.tombstoneRepository = tombstoneRepository;
+    this.counterRepository = counterRepository;
+    this.createTemplate = new TransactionTemplate(transactionManager);
+    this.createTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Gives a map icon the next change sequence number. Call before saving it, in the transaction
+   * that saves it.
+   *
+   * @param mapIcon the created or updated map icon
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void stamp(MapIcon mapIcon) {
+    mapIcon.setChangeSeq(reserve(1));
+  }
+
+  /**
+   * Gives map icons consecutive change sequence numbers with one counter update.
+   *
+   * @param mapIcons the created or updated map icons
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void stampAll(List<MapIcon> mapIcons) {
+    if (mapIcons.isEmpty()) {
+      return;
+    }
+    long seq = reserve(mapIcons.size());
+    for (MapIcon mapIcon : mapIcons) {
+      mapIcon.setChangeSeq(seq++);
+    }
+  }
+
+  /**
+   * Leaves a tombstone for a deleted map icon, in the transaction that deletes it.
+   *
+   * @param mapIconId the id of the deleted map icon
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordDeletion(Long mapIconId) {
+    tombstoneRepository.save(new MapIconTombstone(mapIconId, reserve(1)));
+  }
+
+  /**
+   * Gets the map icons changed and deleted after a change sequence number, oldest change first.
+   * An icon changed several times is returned once, in its current state.
+   *
+   * @param since the last sequence number the client has seen, 0 for every icon
+   * @param limit the most changes to return
+   * @return the changes, and the sequence number to continue from
+   */
+  @Transactional(readOnly = true)
+  public MapIconChangesDto changesSince(long since, int limit) {
+    // Everything up to the committed counter value is committed too, so read no further
+    long latest = counterRepository.findLastSeq().orElse(0L);
+    if (since >= latest) {
+      return new MapIconChangesDto(List.of(), List.of(), since, false);
+    }
+    PageRequest page = PageRequest.of(0, limit + 1);
+    List<MapIcon> icons = mapIconRepository.findChanged(since, latest, page);
+    List<MapIconTombstone> tombstones = tombstoneRepository.findDeleted(since, latest, page);
+
+    List<MapIconResponseDto> changed = new ArrayList<>();
+    List<Long> deleted = new ArrayList<>();
+    int i = 0;
+    int j = 0;
+    long lastSeq = since;
+    while (changed.size() + deleted.size() < limit
+        && (i < icons.size() || j < tombstones.size())) {
+      if (j == tombstones.size()
+          || (i < icons.size() && icons.get(i).getChangeSeq() < tombstones.get(j).getChangeSeq())) {
+        MapIcon icon = icons.get(i++);
+        changed.add(MapIconResponseDto.fromEntity(icon));
+        lastSeq = icon.getChangeSeq();
+      } else {
+        MapIconTombstone tombstone = tombstones.get(j++);
+        deleted.add(tombstone.getMapIconId());
+        lastSeq = tombstone.getChangeSeq();
+      }
+    }
+    // Each list is complete unless the two together hold more than the limit
+    boolean hasMore = icons.size() + tombstones.size() > limit;
+    long nextSince = hasMore ? lastSeq : latest;
+    logger.debug("Map icon changes after {}: {} changed, {} deleted, next {}", since,
+        changed.size(), deleted.size(), nextSince);
+    return new MapIconChangesDto(changed, deleted, nextSince, hasMore);
+  }
+
+  /**
+   * Gets the sequence number of the latest committed change.
+   *
+   * @return the number, 0 if no icon has changed yet
+   */
+  @Transactional(readOnly = true)
+  public long latestSeq() {
+    return counterRepository.findLastSeq().orElse(0L);
+  }
+
+  private long reserve(int count) {
+    if (counterRepository.increment(count) == 0) {
+      createCounter();
+      if (counterRepository.increment(count) == 0) {
+        throw new IllegalStateException("Could not create the map icon change counter");
+      }
+    }
+    return counterRepository.findLastSeq().orElseThrow() - count + 1;
+  }
+
+  /**
+   * Creates the counter the first time a map icon changes. Icons stored before then are
+   * numbered first, so the next full sync includes them.
+   */
+  private void createCounter() {
+    try {
+      createTemplate.executeWithoutResult(status -> {
+        int sequenced = mapIconRepository.sequenceUnsequenced();
+        counterRepository.insertCounter();
+        logger.info("Created map icon change counter, numbered {} existing icons", sequenced);
+      });
+    } catch (DataIntegrityViolationException e) {
+      // Another node created the counter first
+      logger.debug("Map icon change counter was created concurrently");
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package edu.ntnu.idatt2106.krisefikser.service.mapicon;
+
+/**
+ * Published when a map icon is created, updated or deleted, so views of the map built in memory
+ * can be brought up to date.
+ */
+public class MapIconChangedEvent {
+
+  private final Long mapIconId;
+
+  /**
+   * Constructor for MapIconChangedEvent.
+   *
+   * @param mapIconId the id of the map icon
+   */
+  public MapIconChangedEvent(Long mapIconId) {
+    this.mapIconId = mapIconId;
+  }
+
+  public Long getMapIconId() {
+    return mapIconId;
+  }
+}
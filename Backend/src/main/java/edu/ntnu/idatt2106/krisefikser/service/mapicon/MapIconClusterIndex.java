@@ -0,0 +1,223 @@
+package edu.ntnu.idatt2106.krisefikser.service.mapicon;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconClusterDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.CellGrid;
+import edu.ntnu.idatt2106.krisefikser.service.map.ReloadableIndex;
+import edu.ntnu.idatt2106.krisefikser.service.map.WebMercator;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps map icons grouped into grid cells for every zoom level, so a zoomed out map can be sent a
+ * few clusters instead of every icon.
+ *
+ * <p>The grid follows the Web Mercator tiles used by the map client: at zoom level {@code z} each
+ * tile is split into 4 x 4 cells, so a cluster covers roughly 64 x 64 pixels on screen. Each cell
+ * keeps its icon count, the sums of their coordinates for the centroid, and a count per type.
+ * An icon that changes is read again and moved between cells on every level.</p>
+ */
+@Component
+public class MapIconClusterIndex extends ReloadableIndex<Long, MapIcon> {
+
+  /**
+   * Deepest zoom level clusters are kept for. Deeper levels are served from this one.
+   */
+  public static final int MAX_ZOOM = 16;
+
+  /**
+   * Cells per tile side, as a power of two.
+   */
+  static final int CELL_BITS = 2;
+
+  private static final MapIconType[] TYPES = MapIconType.values();
+
+  private final MapIconRepository mapIconRepository;
+  private final List<Map<Long, Cell>> levels = new ArrayList<>(MAX_ZOOM + 1);
+  private final Map<Long, Position> positions = new HashMap<>();
+
+  /**
+   * Constructor for MapIconClusterIndex.
+   *
+   * @param mapIconRepository the repository for accessing map icon data
+   */
+  public MapIconClusterIndex(MapIconRepository mapIconRepository) {
+    this.mapIconRepository = mapIconRepository;
+    for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+      levels.add(new HashMap<>());
+    }
+  }
+
+  /**
+   * Gets the clusters at a zoom level whose cells overlap a bounding box.
+   *
+   * @param zoom  the zoom level, clamped to {@link #MAX_ZOOM}
+   * @param south the southern edge of the box
+   * @param west  the western edge of the box
+   * @param north the northern edge of the box
+   * @param east  the eastern edge of the box
+   * @return the clusters in the box
+   */
+  public List<MapIconClusterDto> getClusters(int zoom, double south, double west, double north,
+      double east) {
+    ensureBuilt();
+    int level = Math.min(Math.max(zoom, 0), MAX_ZOOM);
+    return getCells(level, gridX(west, level), gridY(north, level), gridX(east, level),
+        gridY(south, level));
+  }
+
+  /**
+   * Gets the clusters in a range of cells at a zoom level.
+   *
+   * @param level the zoom level
+   * @param minX  the westernmost cell column
+   * @param minY  the northernmost cell row
+   * @param maxX  the easternmost cell column
+   * @param maxY  the southernmost cell row
+   * @return the clusters in the range
+   */
+  private List<MapIconClusterDto> getCells(int level, long minX, long minY, long maxX,
+      long maxY) {
+    List<MapIconClusterDto> clusters = new ArrayList<>();
+    readLock().lock();
+    try {
+      CellGrid.forEach(levels.get(level), minY, maxY, minX, maxX,
+          cell -> clusters.add(cell.toDto()));
+    } finally {
+      readLock().unlock();
+    }
+    return clusters;
+  }
+
+  /**
+   * Moves a map icon that changed to its new cells. Runs after the change commits, or straight
+   * away if it was made outside a transaction.
+   *
+   * @param event the change
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMapIconChanged(MapIconChangedEvent event) {
+    reload(List.of(event.getMapIconId()));
+  }
+
+  @Override
+  protected List<MapIcon> loadAll() {
+    return mapIconRepository.findAll();
+  }
+
+  @Override
+  protected Optional<MapIcon> load(Long id) {
+    return mapIconRepository.findById(id);
+  }
+
+  @Override
+  protected void clear() {
+    levels.forEach(Map::clear);
+    positions.clear();
+  }
+
+  @Override
+  protected void add(MapIcon icon) {
+    if (icon.getLatitude() == null || icon.getLongitude() == null || icon.getType() == null) {
+      return;
+    }
+    Position position = new Position(icon.getType(), icon.getLatitude(), icon.getLongitude());
+    positions.put(icon.getId(), position);
+    for (int level = 0; level <= MAX_ZOOM; level++) {
+      levels.get(level).computeIfAbsent(position.key(level), key -> new Cell())
+          .add(position, 1);
+    }
+  }
+
+  @Override
+  protected void remove(Long id) {
+    Position position = positions.remove(id);
+    if (position == null) {
+      return;
+    }
+    for (int level = 0; level <= MAX_ZOOM; level++) {
+      Map<Long, Cell> cells = levels.get(level);
+      long key = position.key(level);
+      Cell cell = cells.get(key);
+      if (cell != null && cell.add(position, -1) == 0) {
+        cells.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Gets the cell column of a longitude at a zoom level.
+   */
+  static long gridX(double longitude, int level) {
+    return toCell(WebMercator.tileX(longitude, level + CELL_BITS), level);
+  }
+
+  /**
+   * Gets the cell row of a latitude at a zoom level, counted from the north.
+   */
+  static long gridY(double latitude, int level) {
+    return toCell(WebMercator.tileY(latitude, level + CELL_BITS), level);
+  }
+
+  private static long toCell(double position, int level) {
+    long last = (1L << (level + CELL_BITS)) - 1;
+    return Math.min(last, Math.max(0, (long) Math.floor(position)));
+  }
+
+  /**
+   * Where an indexed icon is, so it can be taken out of its cells again.
+   */
+  private static final class Position {
+
+    private final MapIconType type;
+    private final double latitude;
+    private final double longitude;
+
+    private Position(MapIconType type, double latitude, double longitude) {
+      this.type = type;
+      this.latitude = latitude;
+      this.longitude = longitude;
+    }
+
+    private long key(int level) {
+      return CellGrid.key(gridY(latitude, level), gridX(longitude, level));
+    }
+  }
+
+  /**
+   * The icons in one grid cell.
+   */
+  private static final class Cell {
+
+    private int count;
+    private double latitudeSum;
+    private double longitudeSum;
+    private final int[] typeCounts = new int[TYPES.length];
+
+    private int add(Position position, int sign) {
+      count += sign;
+      latitudeSum += sign * position.latitude;
+      longitudeSum += sign * position.longitude;
+      typeCounts[position.type.ordinal()] += sign;
+      return count;
+    }
+
+    private MapIconClusterDto toDto() {
+      Map<MapIconType, Integer> types = new EnumMap<>(MapIconType.class);
+      for (MapIconType type : TYPES) {
+        if (typeCounts[type.ordinal()] > 0) {
+          types.put(type, typeCounts[type.ordinal()]);
+        }
+      }
+      return new MapIconClusterDto(latitudeSum / count, longitudeSum / count, count, types);
+    }
+  }
+}
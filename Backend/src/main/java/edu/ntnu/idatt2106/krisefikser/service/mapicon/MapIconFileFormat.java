@@ -0,0 +1,61 @@
+package edu.ntnu.idatt2106.krisefikser.service.mapicon;
+
+import java.util.Locale;
+
+/**
+ * The file formats map icons can be imported from and exported to.
+ */
+public enum MapIconFileFormat {
+
+  /**
+   * A GeoJSON FeatureCollection of Point features, with the other fields as properties.
+   */
+  GEOJSON("application/geo+json", "geojson"),
+
+  /**
+   * Comma or semicolon separated values with a header row naming the columns.
+   */
+  CSV("text/csv", "csv");
+
+  private final String contentType;
+  private final String extension;
+
+  MapIconFileFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  /**
+   * Gets the media type of files in this format.
+   *
+   * @return the media type
+   */
+  public String getContentType() {
+    return contentType;
+  }
+
+  /**
+   * Gets the file name extension of files in this format.
+   *
+   * @return the extension, without the dot
+   */
+  public String getExtension() {
+    return extension;
+  }
+
+  /**
+   * Finds a format by name, ignoring case.
+   *
+   * @param name the name, such as {@code geojson} or {@code csv}
+   * @return the format
+   * @throws IllegalArgumentException if no format has that name
+   */
+  public static MapIconFileFormat fromName(String name) {
+    for (MapIconFileFormat format : values()) {
+      if (format.name().equals(name == null ? null : name.strip().toUpperCase(Locale.ROOT))) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported format: " + name);
+  }
+}
@@ -0,0 +1,84 @@
+package edu.ntnu.idatt2106.krisefikser.service.mapicon;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconChangesDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconResponseDto;
+import edu.ntnu.idatt2106.krisefikser.service.map.MapTileService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings the map icon indexes and cached map tiles up to date with changes made on other nodes.
+ * Each node only hears of its own changes, so it periodically asks the {@link MapIconChangeLog}
+ * for every change after the last one it has applied, reloads those icons and drops the tiles
+ * showing them.
+ *
+ * <p>The first run notes the latest change, reloads the indexes in full and drops every cached
+ * tile, so changes from before it need not be replayed. Reloading an icon is idempotent, so the
+ * node's own changes being applied a second time does no harm.</p>
+ */
+@Component
+public class MapIconIndexRefresher {
+
+  private static final Logger logger = LoggerFactory.getLogger(MapIconIndexRefresher.class);
+
+  /**
+   * Most changes read per query.
+   */
+  public static final int BATCH_SIZE = 500;
+
+  private final MapIconChangeLog changeLog;
+  private final MapIconClusterIndex clusterIndex;
+  private final MapIconSearchIndex searchIndex;
+  private final MapTileService mapTileService;
+  private long since = -1;
+
+  /**
+   * Constructor for MapIconIndexRefresher.
+   *
+   * @param changeLog      the numbered map icon changes
+   * @param clusterIndex   the map icons grouped by zoom level
+   * @param searchIndex    the map icons indexed by text and position
+   * @param mapTileService the service caching map tiles
+   */
+  public MapIconIndexRefresher(MapIconChangeLog changeLog, MapIconClusterIndex clusterIndex,
+      MapIconSearchIndex searchIndex, MapTileService mapTileService) {
+    this.changeLog = changeLog;
+    this.clusterIndex = clusterIndex;
+    this.searchIndex = searchIndex;
+    this.mapTileService = mapTileService;
+  }
+
+  /**
+   * Reloads the map icons that changed since the last refresh.
+   */
+  @Scheduled(fixedDelayString = "${app.map-icons.refresh-interval-ms:30000}",
+      initialDelayString = "${app.map-icons.refresh-interval-ms:30000}")
+  public synchronized void refresh() {
+    if (since < 0) {
+      since = changeLog.latestSeq();
+      clusterIndex.rebuild();
+      searchIndex.rebuild();
+      mapTileService.clear();
+      return;
+    }
+    Set<Long> ids = new LinkedHashSet<>();
+    MapIconChangesDto changes;
+    do {
+      changes = changeLog.changesSince(since, BATCH_SIZE);
+      changes.getChanged().stream().map(MapIconResponseDto::getId).forEach(ids::add);
+      ids.addAll(changes.getDeleted());
+      since = changes.getNextSince();
+    } while (changes.isHasMore());
+    if (ids.isEmpty()) {
+      return;
+    }
+    clusterIndex.reload(ids);
+    searchIndex.reload(ids);
+    mapTileService.onMapIconsChanged(ids);
+    logger.debug("Reloaded {} changed map icons, up to change {}", ids.size(), since);
+  }
+}
@@ -0,0 +1,359 @@
+package edu.ntnu.idatt2106.krisefikser.service.mapicon;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconResponseDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.CellGrid;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoArea;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoBounds;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoOrigin;
+import edu.ntnu.idatt2106.krisefikser.service.map.ReloadableIndex;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the map icons that have coordinates in memory, indexed both by the words in their
+ * description, address and contact info and by where they are, so a map search touches only the
+ * icons that can match.
+ *
+ * <p>Text is normalized to NFKC and lower case, so composed and decomposed forms of æ, ø and å
+ * are the same letter, and split into tokens of letters and digits. Every substring of up to
+ * {@link #GRAM_LENGTH} characters of each token is an n-gram with a sorted list of the icons that
+ * have it. A query is split the same way; an icon can only contain the query if it has every
+ * n-gram of the query's tokens, so the lists of those n-grams are intersected and the few icons
+ * left are checked with {@link String#contains}. Positions are kept in the {@link CellGrid}
+ * degree grid. A search starts from whichever of the text hits and the
+ * icons in the grid cells around the circle is smaller, and checks the other condition on each.
+ * </p>
+ *
+ * <p>An icon that changes is read again and indexed anew.</p>
+ */
+@Component
+public class MapIconSearchIndex extends ReloadableIndex<Long, MapIcon> {
+
+  /**
+   * Longest n-gram kept for each token.
+   */
+  static final int GRAM_LENGTH = 3;
+
+  private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final MapIconRepository mapIconRepository;
+  private final Map<Long, Integer> slots = new HashMap<>();
+  private final Map<String, IntList> postings = new HashMap<>();
+  private final Map<Long, IntList> cells = new HashMap<>();
+  // Icons by slot. Slots are handed out in increasing order, which keeps every list sorted
+  private Entry[] entries = new Entry[16];
+  private int nextSlot;
+
+  /**
+   * Constructor for MapIconSearchIndex.
+   *
+   * @param mapIconRepository the repository for accessing map icon data
+   */
+  public MapIconSearchIndex(MapIconRepository mapIconRepository) {
+    this.mapIconRepository = mapIconRepository;
+  }
+
+  /**
+   * Finds the map icons within a distance of a point whose description, address or contact info
+   * contains a query, ignoring case.
+   *
+   * @param latitude  the latitude of the point
+   * @param longitude the longitude of the point
+   * @param radiusKm  the distance in kilometers
+   * @param query     the text to look for; null or blank to match every icon
+   * @return the matching icons, ordered by id
+   */
+  public List<MapIconResponseDto> search(double latitude, double longitude, double radiusKm,
+      String query) {
+    ensureBuilt();
+    String text = normalize(query);
+    GeoArea circle = new GeoOrigin(latitude, longitude).within(radiusKm);
+    GeoBounds box = CellGrid.around(latitude, longitude, radiusKm);
+
+    List<MapIconResponseDto> found = new ArrayList<>();
+    readLock().lock();
+    try {
+      IntList textHits = text.isEmpty() ? null : textCandidates(text);
+      List<IntList> nearby = new ArrayList<>();
+      CellGrid.forEach(cells, box, nearby::add);
+      int nearbyCount = nearby.stream().mapToInt(list -> list.size).sum();
+      if (textHits != null && textHits.size < nearbyCount) {
+        for (int i = 0; i < textHits.size; i++) {
+          Entry entry = entries[textHits.values[i]];
+          if (circle.contains(entry.latitude, entry.longitude) && entry.contains(text)) {
+            found.add(entry.icon);
+          }
+        }
+      } else {
+        for (IntList cell : nearby) {
+          for (int i = 0; i < cell.size; i++) {
+            int slot = cell.values[i];
+            Entry entry = entries[slot];
+            if (circle.contains(entry.latitude, entry.longitude) && (text.isEmpty()
+                || ((textHits == null || textHits.contains(slot)) && entry.contains(text)))) {
+              found.add(entry.icon);
+            }
+          }
+        }
+      }
+    } finally {
+      readLock().unlock();
+    }
+    found.sort(Comparator.comparing(MapIconResponseDto::getId));
+    return found;
+  }
+
+  /**
+   * Reindexes a map icon that changed. Runs after the change commits, or straight away if it was
+   * made outside a transaction.
+   *
+   * @param event the change
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMapIconChanged(MapIconChangedEvent event) {
+    reload(List.of(event.getMapIconId()));
+  }
+
+  /**
+   * Normalizes text for matching: NFKC, lower case and single spaces.
+   */
+  static String normalize(String text) {
+    if (text == null) {
+      return "";
+    }
+    String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    return WHITESPACE.matcher(normalized).replaceAll(" ").strip();
+  }
+
+  /**
+   * Gets the n-grams of the tokens in normalized text. A query and the text it is found in share
+   * all of the query's n-grams, since each query token lies inside a token of the text.
+   */
+  static Set<String> grams(String normalized) {
+    Set<String> grams = new LinkedHashSet<>();
+    for (String token : TOKEN_SEPARATOR.split(normalized)) {
+      for (int start = 0; start < token.length(); start++) {
+        for (int end = start + 1; end <= Math.min(token.length(), start + GRAM_LENGTH); end++) {
+          grams.add(token.substring(start, end));
+        }
+      }
+    }
+    return grams;
+  }
+
+  /**
+   * Gets the icons that have every n-gram of a query, or null if the query has none, such as
+   * when it is only punctuation.
+   */
+  private IntList textCandidates(String text) {
+    List<IntList> lists = new ArrayList<>();
+    for (String token : TOKEN_SEPARATOR.split(text)) {
+      if (token.isEmpty()) {
+        continue;
+      }
+      // The longest n-grams of a token imply its shorter ones
+      int length = Math.min(GRAM_LENGTH, token.length());
+      for (int start = 0; start + length <= token.length(); start++) {
+        IntList list = postings.get(token.substring(start, start + length));
+        if (list == null) {
+          return new IntList();
+        }
+        lists.add(list);
+      }
+    }
+    if (lists.isEmpty()) {
+      return null;
+    }
+    lists.sort(Comparator.comparingInt(list -> list.size));
+    IntList hits = lists.get(0).copy();
+    for (int i = 1; i < lists.size() && hits.size > 0; i++) {
+      hits.retainAll(lists.get(i));
+    }
+    return hits;
+  }
+
+  @Override
+  protected List<MapIcon> loadAll() {
+    return mapIconRepository.findAll();
+  }
+
+  @Override
+  protected Optional<MapIcon> load(Long id) {
+    return mapIconRepository.findById(id);
+  }
+
+  @Override
+  protected void clear() {
+    slots.clear();
+    postings.clear();
+    cells.clear();
+    entries = new Entry[16];
+    nextSlot = 0;
+  }
+
+  @Override
+  protected void add(MapIcon icon) {
+    if (icon.getLatitude() == null || icon.getLongitude() == null) {
+      return;
+    }
+    add(new Entry(icon));
+  }
+
+  private void add(Entry entry) {
+    if (nextSlot == entries.length && slots.size() < entries.length / 2) {
+      compact();
+    }
+    if (nextSlot == entries.length) {
+      entries = Arrays.copyOf(entries, entries.length * 2);
+    }
+    int slot = nextSlot++;
+    entries[slot] = entry;
+    slots.put(entry.icon.getId(), slot);
+    for (String gram : entry.grams()) {
+      postings.computeIfAbsent(gram, key -> new IntList()).add(slot);
+    }
+    cells.computeIfAbsent(entry.cell, key -> new IntList()).add(slot);
+  }
+
+  @Override
+  protected void remove(Long id) {
+    Integer slot = slots.remove(id);
+    if (slot == null) {
+      return;
+    }
+    Entry entry = entries[slot];
+    entries[slot] = null;
+    for (String gram : entry.grams()) {
+      IntList list = postings.get(gram);
+      if (list != null && list.remove(slot) && list.size == 0) {
+        postings.remove(gram);
+      }
+    }
+    IntList cell = cells.get(entry.cell);
+    if (cell != null && cell.remove(slot) && cell.size == 0) {
+      cells.remove(entry.cell);
+    }
+  }
+
+  /**
+   * Hands the icons new slots from zero, once removed icons have left most slots empty.
+   */
+  private void compact() {
+    List<Entry> live = new ArrayList<>(slots.size());
+    for (int slot = 0; slot < nextSlot; slot++) {
+      if (entries[slot] != null) {
+        live.add(entries[slot]);
+      }
+    }
+    clear();
+    live.forEach(this::add);
+  }
+
+  /**
+   * An indexed icon with its searchable text already normalized.
+   */
+  private static final class Entry {
+
+    // Handed out to every search that finds the icon, so it must not be changed
+    private final MapIconResponseDto icon;
+    private final double latitude;
+    private final double longitude;
+    private final long cell;
+    private final String[] texts;
+
+    private Entry(MapIcon icon) {
+      this.icon = MapIconResponseDto.fromEntity(icon);
+      this.latitude = icon.getLatitude();
+      this.longitude = icon.getLongitude();
+      this.cell = CellGrid.cellOf(latitude, longitude);
+      this.texts = new String[] {normalize(icon.getDescription()), normalize(icon.getAddress()),
+          normalize(icon.getContactInfo())};
+    }
+
+    private boolean contains(String text) {
+      for (String field : texts) {
+        if (field.contains(text)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private Set<String> grams() {
+      Set<String> grams = new LinkedHashSet<>();
+      for (String field : texts) {
+        grams.addAll(MapIconSearchIndex.grams(field));
+      }
+      return grams;
+    }
+  }
+
+  /**
+   * A growable list of slots in increasing order.
+   */
+  private static final class IntList {
+
+    private int[] values = new int[4];
+    private int size;
+
+    private void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    private boolean remove(int value) {
+      int index = Arrays.binarySearch(values, 0, size, value);
+      if (index < 0) {
+        return false;
+      }
+      System.arraycopy(values, index + 1, values, index, size - index - 1);
+      size--;
+      return true;
+    }
+
+    private boolean contains(int value) {
+      return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    private IntList copy() {
+      IntList copy = new IntList();
+      copy.values = Arrays.copyOf(values, Math.max(1, size));
+      copy.size = size;
+      return copy;
+    }
+
+    /**
+     * Keeps only the values also in another list, walking both in step.
+     */
+    private void retainAll(IntList other) {
+      int kept = 0;
+      int j = 0;
+      for (int i = 0; i < size; i++) {
+        while (j < other.size && other.values[j] < values[i]) {
+          j++;
+        }
+        if (j < other.size && other.values[j] == values[i]) {
+          values[kept++] = values[i];
+        }
+      }
+      size = kept;
+    }
+  }
+}
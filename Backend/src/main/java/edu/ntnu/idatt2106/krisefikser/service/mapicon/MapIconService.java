@@ -1,16 +1,24 @@
 package edu.ntnu.idatt2106.krisefikser.service.mapicon;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconChangesDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconClusterDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoArea;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoDistance;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoOrigin;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoPoint;
+import edu.ntnu.idatt2106.krisefikser.service.map.OfflineGeocoder;
 import jakarta.transaction.Transactional;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 /**
@@ -21,16 +29,35 @@ import org.springframework.stereotype.Service;
 public class MapIconService {
 
   private static final Logger logger = LoggerFactory.getLogger(MapIconService.class);
+  private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+  private static final int MAX_CHANGES_PER_PAGE = 5000;
   private final MapIconRepository mapIconRepository;
+  private final MapIconClusterIndex clusterIndex;
+  private final ApplicationEventPublisher eventPublisher;
+  private final OfflineGeocoder geocoder;
+  private final MapIconSearchIndex searchIndex;
+  private final MapIconChangeLog changeLog;
 
   /**
    * Constructor for MapIconService.
    *
    * @param mapIconRepository the repository for accessing map icon data
+   * @param clusterIndex      the map icons grouped by zoom level
+   * @param eventPublisher    the publisher used to announce changed map icons
+   * @param geocoder          the geocoder used for icons given only an address
+   * @param searchIndex       the map icons indexed by text and position
+   * @param changeLog         the numbering of changes, for clients that sync a copy of the map
    */
   
-  public MapIconService(MapIconRepository mapIconRepository) {
+  public MapIconService(MapIconRepository mapIconRepository, MapIconClusterIndex clusterIndex,
+      ApplicationEventPublisher eventPublisher, OfflineGeocoder geocoder,
+      MapIconSearchIndex searchIndex, MapIconChangeLog changeLog) {
     this.mapIconRepository = mapIconRepository;
+    this.clusterIndex = clusterIndex;
+    this.eventPublisher = eventPublisher;
+    this.geocoder = geocoder;
+    this.searchIndex = searchIndex;
+    this.changeLog = changeLog;
     logger.info("MapIconService initialized");
   }
 
@@ -59,9 +86,12 @@ public class MapIconService {
     mapIcon.setDescription(request.getDescription());
     mapIcon.setOpeningHours(request.getOpeningHours());
     mapIcon.setContactInfo(request.getContactInfo());
+    geocodeIfMissing(mapIcon);
+    changeLog.stamp(mapIcon);
 
     logger.debug("Saving map icon to database");
     mapIconRepository.save(mapIcon);
+    eventPublisher.publishEvent(new MapIconChangedEvent(mapIcon.getId()));
     logger.info("Map icon created successfully with ID: {}", mapIcon.getId());
   }
 
@@ -93,12 +123,36 @@ public class MapIconService {
     mapIcon.setDescription(request.getDescription());
     mapIcon.setOpeningHours(request.getOpeningHours());
     mapIcon.setContactInfo(request.getContactInfo());
+    geocodeIfMissing(mapIcon);
+    changeLog.stamp(mapIcon);
 
     logger.debug("Saving updated map icon");
     mapIconRepository.save(mapIcon);
+    eventPublisher.publishEvent(new MapIconChangedEvent(id));
     logger.info("Map icon with ID {} updated successfully", id);
   }
 
+  /**
+   * Fills in the coordinates of a map icon from its address if they were not given. The icon is
+   * left without coordinates if the address is not found.
+   *
+   * @param mapIcon the map icon
+   */
+  private void geocodeIfMissing(MapIcon mapIcon) {
+    if ((mapIcon.getLatitude() != null && mapIcon.getLongitude() != null)
+        || mapIcon.getAddress() == null || mapIcon.getAddress().isBlank()) {
+      return;
+    }
+    Optional<GeoPoint> point = geocoder.geocode(mapIcon.getAddress());
+    if (point.isPresent()) {
+      mapIcon.setLatitude(point.get().getLatitude());
+      mapIcon.setLongitude(point.get().getLongitude());
+      logger.debug("Geocoded address '{}' to {}", mapIcon.getAddress(), point.get());
+    } else {
+      logger.warn("Could not geocode map icon address '{}'", mapIcon.getAddress());
+    }
+  }
+
   /**
    * Deletes a map icon.
    *
@@ -115,88 +169,94 @@ public class MapIconService {
 
     logger.debug("Map icon exists, proceeding with deletion");
     mapIconRepository.deleteById(id);
+    changeLog.recordDeletion(id);
+    eventPublisher.publishEvent(new MapIconChangedEvent(id));
     logger.info("Map icon with ID {} deleted successfully", id);
   }
 
   /**
-   * Retrieves all map icons, filtered by radius and search words.
+   * Retrieves all map icons, filtered by radius and search words. An icon matches the search
+   * words if its description, address or contact info contains them, ignoring case.
    *
    * @param latitude  the latitude of the base point
    * @param longitude the longitude of the base point
    * @param radiusKm  the radius in kilometers
-   * @return the list of map icons
+   * @param query     the search words, or null to include every icon
+   * @return the list of map icons, ordered by id
    */
-  @Transactional
   public List<MapIconResponseDto> getMapIcons(double latitude, double longitude, double radiusKm,
       String query) {
     logger.info("Fetching map icons within {}km of coordinates ({}, {}), query: '{}'",
         radiusKm, latitude, longitude, query);
 
-    List<MapIcon> allIcons = mapIconRepository.findAll();
-    logger.debug("Retrieved {} map icons from database before filtering", allIcons.size());
-
-    Stream<MapIcon> filtered = allIcons.stream()
-        .filter(icon -> icon.getLatitude() != null && icon.getLongitude() != null)
-        .filter(icon -> isWithinRadius(latitude, longitude, icon.getLatitude(), icon.getLongitude(),
-            radiusKm));
-
-    if (query != null && !query.isBlank()) {
-      logger.debug("Applying search query filter: '{}'", query);
-      filtered = filtered.filter(icon -> matchesQuery(icon, query));
-    }
-
-    List<MapIconResponseDto> result = filtered
-        .map(MapIconResponseDto::fromEntity)
-        .collect(Collectors.toList());
+    List<MapIconResponseDto> result = searchIndex.search(latitude, longitude, radiusKm, query);
 
     logger.info("Returning {} map icons after filtering", result.size());
-    logger.debug("Filter reduced results from {} to {} icons", allIcons.size(), result.size());
     return result;
   }
 
   /**
-   * Checks if two geographical coordinates are within a specified radius.
+   * Retrieves the map icons created, updated or deleted after a change sequence number, for
+   * clients that keep a copy of the map. Clients start from 0, apply the changes, and pass the
+   * returned next number on the next call, at once if more changes are waiting.
    *
-   * @param lat1     the latitude of the first point
-   * @param lon1     the longitude of the first point
-   * @param lat2     the latitude of the second point
-   * @param lon2     the longitude of the second point
-   * @param radiusKm the radius in kilometers
-   * @return true if within radius, false otherwise
+   * @param since the last change sequence number the client has seen, 0 for every icon
+   * @param limit the most changes to return
+   * @return the changes
+   * @throws IllegalArgumentException if the sequence number is negative or the limit is out of
+   *                                  range
    */
-  private boolean isWithinRadius(double lat1, double lon1,
-      double lat2, double lon2,
-      double radiusKm) {
-    double distance = calculateDistance(lat1, lon1, lat2, lon2);
-    return distance <= radiusKm;
+  public MapIconChangesDto getMapIconChanges(long since, int limit) {
+    if (since < 0) {
+      throw new IllegalArgumentException("Sequence number cannot be negative");
+    }
+    if (limit <= 0 || limit > MAX_CHANGES_PER_PAGE) {
+      throw new IllegalArgumentException(
+          "Limit must be between 1 and " + MAX_CHANGES_PER_PAGE);
+    }
+    logger.info("Fetching up to {} map icon changes after {}", limit, since);
+    MapIconChangesDto changes = changeLog.changesSince(since, limit);
+    logger.info("Returning {} changed and {} deleted map icons", changes.getChanged().size(),
+        changes.getDeleted().size());
+    return changes;
   }
 
-
   /**
-   * Checks if a map icon matches the search query.
+   * Retrieves map icons within a radius grouped into clusters for a zoom level. A cluster is
+   * included if its centroid lies within the radius.
    *
-   * @param icon  the map icon
-   * @param query the search query
-   * @return true if matches, false otherwise
+   * @param latitude  the latitude of the base point
+   * @param longitude the longitude of the base point
+   * @param radiusKm  the radius in kilometers
+   * @param zoom      the zoom level of the map
+   * @return the clusters
+   * @throws IllegalArgumentException if the radius is not positive or the zoom level is negative
    */
-  private boolean matchesQuery(MapIcon icon, String query) {
-    logger.trace("Checking if icon {} matches query: '{}'", icon.getId(), query);
-
-    if (query == null || query.isBlank()) {
-      logger.trace("Empty query, returning match by default");
-      return true;
+  public List<MapIconClusterDto> getMapIconClusters(double latitude, double longitude,
+      double radiusKm, int zoom) {
+    if (radiusKm <= 0) {
+      throw new IllegalArgumentException("Radius must be positive");
     }
-    String lowerQuery = query.toLowerCase();
-
-    boolean matches =
-        (icon.getDescription() != null && icon.getDescription().toLowerCase().contains(lowerQuery))
-            || (icon.getAddress() != null && icon.getAddress().toLowerCase().contains(lowerQuery))
-            || (icon.getContactInfo() != null && icon.getContactInfo().toLowerCase()
-            .contains(lowerQuery));
+    if (zoom < 0) {
+      throw new IllegalArgumentException("Zoom level cannot be negative");
+    }
+    logger.info("Fetching map icon clusters within {}km of coordinates ({}, {}) at zoom {}",
+        radiusKm, latitude, longitude, zoom);
+
+    double latitudeDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+    double cosLatitude = Math.cos(Math.toRadians(latitude));
+    double longitudeDelta = cosLatitude <= 0 ? 180
+        : Math.min(180, radiusKm / (KM_PER_DEGREE_LATITUDE * cosLatitude));
+
+    GeoArea circle = new GeoOrigin(latitude, longitude).within(radiusKm);
+    List<MapIconClusterDto> result = clusterIndex.getClusters(zoom,
+            latitude - latitudeDelta, longitude - longitudeDelta,
+            latitude + latitudeDelta, longitude + longitudeDelta).stream()
+        .filter(cluster -> circle.contains(cluster.getLatitude(), cluster.getLongitude()))
+        .collect(Collectors.toList());
 
-    logger.trace("Icon {} {} query '{}'", icon.getId(), matches ? "matches" : "does not match",
-        query);
-    return matches;
+    logger.info("Returning {} map icon clusters", result.size());
+    return result;
   }
 
   /**
@@ -209,19 +269,7 @@ public class MapIconService {
    * @return the distance in kilometers
    */
   public double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-    logger.trace("Calculating distance between ({}, {}) and ({}, {})", lat1, lon1, lat2, lon2);
-
-    final int earthRadiusKm = 6371;
-    double dlat = Math.toRadians(lat2 - lat1);
-    double dlon = Math.toRadians(lon2 - lon1);
-    double a = Math.sin(dlat / 2) * Math.sin(dlat / 2)
-        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-        * Math.sin(dlon / 2) * Math.sin(dlon / 2);
-    double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-    double distance = earthRadiusKm * c;
-
-    logger.trace("Distance calculated: {}km", distance);
-    return distance;
+    return GeoDistance.haversineKm(lat1, lon1, lat2, lon2);
   }
 
   /**
@@ -255,32 +303,25 @@ public class MapIconService {
 
     logger.debug("Retrieved {} icons to search for closest", allIcons.size());
 
-    // Find the closest icon
+    // Find the closest icon, comparing squared angles rather than distances
+    GeoOrigin origin = new GeoOrigin(latitude, longitude);
     MapIcon closest = null;
-    double minDistance = Double.MAX_VALUE;
+    double minSquaredAngle = Double.MAX_VALUE;
 
     for (MapIcon icon : allIcons) {
       if (icon.getLatitude() != null && icon.getLongitude() != null) {
-        double distance = calculateDistance(
-            latitude, longitude,
-            icon.getLatitude(), icon.getLongitude()
-        );
-
-        logger.trace("Icon ID: {}, distance: {}km", icon.getId(), distance);
-
-        if (distance < minDistance) {
-          minDistance = distance;
+        double squaredAngle = origin.squaredAngle(icon.getLatitude(), icon.getLongitude());
+        if (squaredAngle < minSquaredAngle) {
+          minSquaredAngle = squaredAngle;
           closest = icon;
-          logger.trace("New closest icon found: ID={}, distance={}km", icon.getId(), distance);
         }
-      } else {
-        logger.trace("Skipping icon ID: {} - missing coordinates", icon.getId());
       }
     }
 
     if (closest != null) {
       logger.info("Found closest map icon: ID={}, type={}, distance={}km",
-          closest.getId(), closest.getType(), minDistance);
+          closest.getId(), closest.getType(),
+          GeoDistance.EARTH_RADIUS_KM * Math.sqrt(minSquaredAngle));
       return MapIconResponseDto.fromEntity(closest);
     } else {
       logger.info("No suitable map icons found with coordinates");
@@ -0,0 +1,592 @@
+package edu.ntnu.idatt2106.krisefikser.service.mapicon;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconImportResultDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoPoint;
+import edu.ntnu.idatt2106.krisefikser.service.map.OfflineGeocoder;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports and exports map icons in bulk, as GeoJSON or CSV.
+ *
+ * <p>Both directions stream. An import reads one feature or CSV row at a time, validates it and
+ * collects the valid icons into chunks of {@link #CHUNK_SIZE}, each saved in its own
+ * transaction, so memory use does not grow with the file and a failure keeps the chunks already
+ * saved. Invalid rows are counted and skipped; a file that cannot be read on, such as malformed
+ * JSON, stops the import. Only one import runs at a time on each node, and its progress can be
+ * read while it runs. Both the guard and the progress live in memory on the node running the
+ * import: with several nodes, another node may start an import of its own at the same time and
+ * reports only its own imports, so imports should be sent to one node. An export walks the icons
+ * with a database cursor and writes each one straight to the output.</p>
+ *
+ * <p>The CSV header names the columns, in any order: {@code type}, {@code address},
+ * {@code latitude}, {@code longitude}, {@code description}, {@code openingHours} and
+ * {@code contactInfo}. Files separated by semicolons, as spreadsheets in Norwegian locales save
+ * them, may use decimal commas. Exported text starting with {@code =}, {@code +}, {@code -} or
+ * {@code @} is prefixed with an apostrophe so spreadsheets show it as text rather than run it as
+ * a formula; the apostrophe is dropped again when such a file is imported.</p>
+ */
+@Service
+public class MapIconTransferService {
+
+  private static final Logger logger = LoggerFactory.getLogger(MapIconTransferService.class);
+
+  /**
+   * Map icons saved per transaction.
+   */
+  static final int CHUNK_SIZE = 500;
+
+  /**
+   * Most row errors kept for the result.
+   */
+  static final int MAX_ERRORS = 100;
+
+  /**
+   * Longest CSV field read, so an unclosed quote cannot buffer the rest of the upload.
+   */
+  private static final int MAX_FIELD_LENGTH = 10_000;
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final String[] COLUMNS = {"id", "type", "address", "latitude", "longitude",
+      "description", "openingHours", "contactInfo"};
+
+  private final MapIconRepository mapIconRepository;
+  private final OfflineGeocoder geocoder;
+  private final ApplicationEventPublisher eventPublisher;
+  private final MapIconChangeLog changeLog;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate readOnlyTransactionTemplate;
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private volatile Progress progress = new Progress(false);
+
+  /**
+   * Constructor for MapIconTransferService.
+   *
+   * @param mapIconRepository  the repository for accessing map icon data
+   * @param geocoder           the geocoder used for rows given only an address
+   * @param eventPublisher     the publisher used to announce imported map icons
+   * @param changeLog          the numbering of changes, stamped on each imported chunk
+   * @param entityManager      the entity manager, used to let go of exported icons
+   * @param transactionManager the transaction manager, used to commit each chunk on its own
+   */
+  public MapIconTransferService(MapIconRepository mapIconRepository, OfflineGeocoder geocoder,
+      ApplicationEventPublisher eventPublisher, MapIconChangeLog changeLog,
+      EntityManager entityManager, PlatformTransactionManager transactionManager) {
+    this.mapIconRepository = mapIconRepository;
+    this.geocoder = geocoder;
+    this.eventPublisher = eventPublisher;
+    this.changeLog = changeLog;
+    this.entityManager = entityManager;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate.setReadOnly(true);
+  }
+
+  /**
+   * Imports the map icons in a file. Icons are always created, never matched to existing ones.
+   *
+   * @param reader the file
+   * @param format the format of the file
+   * @return the number of rows read, imported and rejected, and the first errors
+   * @throws IOException              if the file could not be read
+   * @throws IllegalArgumentException if the file is malformed
+   * @throws IllegalStateException    if an import is already running on this node
+   */
+  public MapIconImportResultDto importIcons(Reader reader, MapIconFileFormat format)
+      throws IOException {
+    if (!running.compareAndSet(false, true)) {
+      throw new IllegalStateException("A map icon import is already running");
+    }
+    Progress current = new Progress(true);
+    progress = current;
+    try {
+      logger.info("Starting {} map icon import", format);
+      PushbackReader source = new PushbackReader(reader);
+      int first = source.read();
+      if (first != -1 && first != '\uFEFF') {
+        source.unread(first);
+      }
+      Chunk chunk = new Chunk(current);
+      if (format == MapIconFileFormat.GEOJSON) {
+        readGeoJson(source, chunk);
+      } else {
+        readCsv(source, chunk);
+      }
+      chunk.save();
+      current.running = false;
+      logger.info("Map icon import done: {} rows read, {} imported, {} rejected",
+          current.rowsRead.get(), current.imported.get(), current.rejected.get());
+      return current.toDto();
+    } finally {
+      current.running = false;
+      running.set(false);
+    }
+  }
+
+  /**
+   * Gets the progress of the import running on this node, or the outcome of the last one
+   * imported here.
+   *
+   * @return the number of rows read, imported and rejected so far, and the first errors
+   */
+  public MapIconImportResultDto getImportStatus() {
+    return progress.toDto();
+  }
+
+  /**
+   * Writes every map icon to an output, in id order.
+   *
+   * @param format the format to write
+   * @param output the output; flushed but left open
+   * @throws IOException if the output could not be written
+   */
+  public void exportIcons(MapIconFileFormat format, OutputStream output) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    Integer count;
+    try {
+      count = readOnlyTransactionTemplate.execute(status -> {
+        try (Stream<MapIcon> icons = mapIconRepository.streamAll()) {
+          return format == MapIconFileFormat.GEOJSON
+              ? writeGeoJson(icons.iterator(), writer) : writeCsv(icons.iterator(), writer);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.flush();
+    logger.info("Exported {} map icons as {}", count, format);
+  }
+
+  private void readGeoJson(Reader reader, Chunk chunk) throws IOException {
+    try (JsonParser parser = MAPPER.createParser(reader)) {
+      boolean features = false;
+      if (parser.nextToken() == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.currentName();
+          if (parser.nextToken() == JsonToken.START_ARRAY && "features".equals(field)) {
+            features = true;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+              JsonNode feature = MAPPER.readTree(parser);
+              chunk.add(() -> fromFeature(feature));
+            }
+          } else {
+            parser.skipChildren();
+          }
+        }
+      }
+      if (!features) {
+        throw new IllegalArgumentException("Expected a GeoJSON FeatureCollection");
+      }
+    } catch (JsonProcessingException e) {
+      String line = e.getLocation() == null ? "" : " at line " + e.getLocation().getLineNr();
+      throw new IllegalArgumentException("Malformed GeoJSON" + line + " after "
+          + chunk.progress.rowsRead.get() + " rows");
+    }
+  }
+
+  private MapIcon fromFeature(JsonNode feature) {
+    if (!feature.isObject()) {
+      throw new IllegalArgumentException("Expected a Feature");
+    }
+    Double latitude = null;
+    Double longitude = null;
+    JsonNode geometry = feature.path("geometry");
+    if (!geometry.isMissingNode() && !geometry.isNull()) {
+      JsonNode coordinates = geometry.path("coordinates");
+      if (!"Point".equals(geometry.path("type").asText())) {
+        throw new IllegalArgumentException("Geometry must be a Point");
+      }
+      if (coordinates.size() < 2 || !coordinates.get(0).isNumber()
+          || !coordinates.get(1).isNumber()) {
+        throw new IllegalArgumentException("A Point needs a longitude and latitude");
+      }
+      longitude = coordinates.get(0).asDouble();
+      latitude = coordinates.get(1).asDouble();
+    }
+    JsonNode properties = feature.path("properties");
+    return toIcon(text(properties, "type"), text(properties, "address"), latitude, longitude,
+        text(properties, "description"), text(properties, "openingHours"),
+        text(properties, "contactInfo"));
+  }
+
+  private static String text(JsonNode properties, String name) {
+    JsonNode value = properties.path(name);
+    return value.isValueNode() && !value.isNull() ? blankToNull(value.asText()) : null;
+  }
+
+  private void readCsv(Reader reader, Chunk chunk) throws IOException {
+    CsvReader csv = new CsvReader(reader);
+    List<String> header = csv.readRecord();
+    if (header == null) {
+      throw new IllegalArgumentException("The file is empty");
+    }
+    Map<String, Integer> columns = new HashMap<>();
+    for (int i = 0; i < header.size(); i++) {
+      columns.put(header.get(i).strip().toLowerCase(Locale.ROOT), i);
+    }
+    if (!columns.containsKey("type")) {
+      throw new IllegalArgumentException("Missing column: type");
+    }
+    boolean decimalComma = csv.delimiter == ';';
+    List<String> record;
+    while ((record = csv.readRecord()) != null) {
+      if (record.size() == 1 && record.get(0).isBlank()) {
+        continue;
+      }
+      List<String> fields = record;
+      chunk.add(() -> toIcon(field(fields, columns, "type"), field(fields, columns, "address"),
+          coordinate(field(fields, columns, "latitude"), "latitude", decimalComma),
+          coordinate(field(fields, columns, "longitude"), "longitude", decimalComma),
+          field(fields, columns, "description"), field(fields, columns, "openinghours"),
+          field(fields, columns, "contactinfo")));
+    }
+  }
+
+  private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+    Integer index = columns.get(name);
+    if (index == null || index >= fields.size()) {
+      return null;
+    }
+    String value = blankToNull(fields.get(index));
+    // Undo the apostrophe an export put in front of formula-like text
+    return value != null && value.startsWith("'") && isFormula(value, 1)
+        ? value.substring(1) : value;
+  }
+
+  private static Double coordinate(String value, String name, boolean decimalComma) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Double.parseDouble(decimalComma ? value.replace(',', '.') : value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid " + name + ": " + value);
+    }
+  }
+
+  private static String blankToNull(String value) {
+    return value == null || value.isBlank() ? null : value.strip();
+  }
+
+  /**
+   * Builds a map icon from the fields of a row, checking them as the database and
+   * {@link MapIconService#createMapIcon} would.
+   */
+  private MapIcon toIcon(String type, String address, Double latitude, Double longitude,
+      String description, String openingHours, String contactInfo) {
+    if (type == null) {
+      throw new IllegalArgumentException("Missing type");
+    }
+    MapIcon icon = new MapIcon();
+    try {
+      icon.setType(MapIconType.valueOf(type.toUpperCase(Locale.ROOT)));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown type: " + type);
+    }
+    if ((latitude == null) != (longitude == null)) {
+      throw new IllegalArgumentException("Latitude and longitude must be given together");
+    }
+    if (latitude == null && address == null) {
+      throw new IllegalArgumentException("Either coordinates or address must be provided.");
+    }
+    if (latitude != null && !(Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180)) {
+      throw new IllegalArgumentException("Coordinates are out of range");
+    }
+    checkLength("address", address, 255);
+    checkLength("description", description, 1000);
+    checkLength("openingHours", openingHours, 255);
+    checkLength("contactInfo", contactInfo, 255);
+    icon.setAddress(address);
+    icon.setLatitude(latitude);
+    icon.setLongitude(longitude);
+    icon.setDescription(description);
+    icon.setOpeningHours(openingHours);
+    icon.setContactInfo(contactInfo);
+
+    if (latitude == null) {
+      Optional<GeoPoint> point = geocoder.geocode(address);
+      if (point.isPresent()) {
+        icon.setLatitude(point.get().getLatitude());
+        icon.setLongitude(point.get().getLongitude());
+      }
+    }
+    return icon;
+  }
+
+  private static void checkLength(String name, String value, int max) {
+    if (value != null && value.length() > max) {
+      throw new IllegalArgumentException(name + " is longer than " + max + " characters");
+    }
+  }
+
+  private int writeGeoJson(Iterator<MapIcon> icons, Writer writer) throws IOException {
+    int count = 0;
+    JsonGenerator json = MAPPER.getFactory().createGenerator(writer);
+    json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    json.writeStartObject();
+    json.writeStringField("type", "FeatureCollection");
+    json.writeArrayFieldStart("features");
+    while (icons.hasNext()) {
+      MapIcon icon = icons.next();
+      json.writeStartObject();
+      json.writeStringField("type", "Feature");
+      json.writeNumberField("id", icon.getId());
+      json.writeFieldName("geometry");
+      if (icon.getLatitude() != null && icon.getLongitude() != null) {
+        json.writeStartObject();
+        json.writeStringField("type", "Point");
+        json.writeArrayFieldStart("coordinates");
+        json.writeNumber(icon.getLongitude());
+        json.writeNumber(icon.getLatitude());
+        json.writeEndArray();
+        json.writeEndObject();
+      } else {
+        json.writeNull();
+      }
+      json.writeObjectFieldStart("properties");
+      json.writeStringField("type", icon.getType().name());
+      writeIfPresent(json, "address", icon.getAddress());
+      writeIfPresent(json, "description", icon.getDescription());
+      writeIfPresent(json, "openingHours", icon.getOpeningHours());
+      writeIfPresent(json, "contactInfo", icon.getContactInfo());
+      json.writeEndObject();
+      json.writeEndObject();
+      entityManager.detach(icon);
+      count++;
+    }
+    json.writeEndArray();
+    json.writeEndObject();
+    json.close();
+    return count;
+  }
+
+  private static void writeIfPresent(JsonGenerator json, String name, String value)
+      throws IOException {
+    if (value != null) {
+      json.writeStringField(name, value);
+    }
+  }
+
+  private int writeCsv(Iterator<MapIcon> icons, Writer writer) throws IOException {
+    int count = 0;
+    writer.write(String.join(",", COLUMNS));
+    writer.write("\r\n");
+    while (icons.hasNext()) {
+      MapIcon icon = icons.next();
+      Object[] values = {icon.getId(), icon.getType(), icon.getAddress(), icon.getLatitude(),
+          icon.getLongitude(), icon.getDescription(), icon.getOpeningHours(),
+          icon.getContactInfo()};
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        Object value = values[i];
+        writer.write(quote(value == null ? ""
+            : value instanceof String text ? guardFormula(text) : value.toString()));
+      }
+      writer.write("\r\n");
+      entityManager.detach(icon);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Prefixes text that a spreadsheet would read as a formula with an apostrophe, so an exported
+   * file cannot run formulas written into a description or contact field. Only text is guarded;
+   * numbers such as negative coordinates are written as they are.
+   */
+  private static String guardFormula(String value) {
+    return isFormula(value, 0) ? "'" + value : value;
+  }
+
+  private static boolean isFormula(String value, int index) {
+    if (value.length() <= index) {
+      return false;
+    }
+    char first = value.charAt(index);
+    return first == '=' || first == '+' || first == '-' || first == '@';
+  }
+
+  private static String quote(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  /**
+   * The icons read but not yet saved in a running import.
+   */
+  private final class Chunk {
+
+    private final Progress progress;
+    private final List<MapIcon> icons = new ArrayList<>(CHUNK_SIZE);
+
+    private Chunk(Progress progress) {
+      this.progress = progress;
+    }
+
+    private void add(Supplier<MapIcon> row) {
+      int number = progress.rowsRead.incrementAndGet();
+      try {
+        icons.add(row.get());
+      } catch (IllegalArgumentException e) {
+        progress.reject(number, e.getMessage());
+        return;
+      }
+      if (icons.size() == CHUNK_SIZE) {
+        save();
+      }
+    }
+
+    private void save() {
+      if (icons.isEmpty()) {
+        return;
+      }
+      transactionTemplate.executeWithoutResult(status -> {
+        changeLog.stampAll(icons);
+        mapIconRepository.saveAll(icons);
+        icons.forEach(icon -> eventPublisher.publishEvent(new MapIconChangedEvent(icon.getId())));
+      });
+      progress.imported.addAndGet(icons.size());
+      icons.clear();
+      logger.info("Map icon import: {} rows read, {} imported, {} rejected",
+          progress.rowsRead.get(), progress.imported.get(), progress.rejected.get());
+    }
+  }
+
+  /**
+   * The counts of an import, read by other threads while it runs.
+   */
+  private static final class Progress {
+
+    private final AtomicInteger rowsRead = new AtomicInteger();
+    private final AtomicInteger imported = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    private Progress(boolean running) {
+      this.running = running;
+    }
+
+    private void reject(int row, String message) {
+      if (rejected.incrementAndGet() <= MAX_ERRORS) {
+        errors.add("Row " + row + ": " + message);
+      }
+    }
+
+    private MapIconImportResultDto toDto() {
+      return new MapIconImportResultDto(running, rowsRead.get(), imported.get(), rejected.get(),
+          List.copyOf(errors));
+    }
+  }
+
+  /**
+   * Reads CSV records one at a time, with fields optionally quoted as in RFC 4180.
+   */
+  private static final class CsvReader {
+
+    private final BufferedReader reader;
+    private final char delimiter;
+
+    private CsvReader(Reader source) throws IOException {
+      reader = new BufferedReader(source);
+      // The header decides the delimiter
+      reader.mark(MAX_FIELD_LENGTH);
+      String header = reader.readLine();
+      reader.reset();
+      delimiter = header != null && count(header, ';') > count(header, ',') ? ';' : ',';
+    }
+
+    private static long count(String text, char character) {
+      return text.chars().filter(c -> c == character).count();
+    }
+
+    /**
+     * Reads the next record, or returns null at the end of the file.
+     */
+    private List<String> readRecord() throws IOException {
+      int c = reader.read();
+      if (c == -1) {
+        return null;
+      }
+      List<String> fields = new ArrayList<>();
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+      while (quoted || (c != '\n' && c != -1)) {
+        if (quoted) {
+          if (c == -1) {
+            throw new IllegalArgumentException("Unclosed quote in CSV");
+          }
+          if (c == '"') {
+            reader.mark(1);
+            if (reader.read() == '"') {
+              field.append('"');
+            } else {
+              quoted = false;
+              reader.reset();
+            }
+          } else {
+            field.append((char) c);
+          }
+        } else if (c == '"' && field.length() == 0) {
+          quoted = true;
+        } else if (c == delimiter) {
+          fields.add(field.toString());
+          field.setLength(0);
+        } else if (c != '\r') {
+          field.append((char) c);
+        }
+        if (field.length() > MAX_FIELD_LENGTH) {
+          throw new IllegalArgumentException(
+              "CSV field longer than " + MAX_FIELD_LENGTH + " characters");
+        }
+        c = reader.read();
+      }
+      fields.add(field.toString());
+      return fields;
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package edu.ntnu.idatt2106.krisefikser.service.membershiprequests;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.PendingRequestCountsDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.membershiprequest.MembershipRequest;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestStatus;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestType;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.membershiprequest.MembershipRequestRepository;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the number of pending invitations and join requests per user and per household in
+ * memory, so badge counts can be served without querying the requests table.
+ *
+ * <p>A counter is loaded with a COUNT query the first time it is read and is then moved up and
+ * down as requests are created and resolved, once the transaction making the change has
+ * committed. Counters that were never read are not tracked, and
+ * all of them are dropped periodically so any drift from writes outside this service is
+ * bounded.</p>
+ *
+ * <p>The counters are approximate rather than exact: they live on one node and are only moved
+ * by writes made on that node. A request created or resolved on another node is not seen until
+ * the next resync, so a badge count can be off for up to
+ * {@code app.membership-requests.counter-resync-ms} (five minutes by default). The request
+ * listings themselves always read the database.</p>
+ */
+@Service
+@EnableScheduling
+public class MembershipRequestCounterService {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(MembershipRequestCounterService.class);
+  private static final String COUNTS_DESTINATION = "/queue/request-counts";
+
+  private final MembershipRequestRepository membershipRequestRepository;
+  private final SimpMessagingTemplate messagingTemplate;
+  private final boolean pushCounts;
+
+  private final ConcurrentHashMap<String, Integer> receivedInvitations = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Integer> householdJoinRequests =
+      new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Integer> householdInvitations =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Constructor for MembershipRequestCounterService.
+   *
+   * @param membershipRequestRepository the membership request repository
+   * @param messagingTemplate           the template used to push counts over STOMP
+   * @param pushCounts                  whether changed counts are pushed to the affected users
+   */
+  public MembershipRequestCounterService(MembershipRequestRepository membershipRequestRepository,
+      SimpMessagingTemplate messagingTemplate,
+      @Value("${app.membership-requests.push-counts:true}") boolean pushCounts) {
+    this.membershipRequestRepository = membershipRequestRepository;
+    this.messagingTemplate = messagingTemplate;
+    this.pushCounts = pushCounts;
+    logger.info("MembershipRequestCounterService initialized, push counts: {}", pushCounts);
+  }
+
+  /**
+   * Gets the pending request counts for a user.
+   *
+   * @param user the user
+   * @return the counts for the user and their household
+   */
+  public PendingRequestCountsDto getCounts(User user) {
+    int invitations = receivedInvitations.computeIfAbsent(user.getId(),
+        id -> (int) membershipRequestRepository.countByReceiverIdAndTypeAndStatus(
+            id, RequestType.INVITATION, RequestStatus.PENDING));
+
+    Household household = user.getHousehold();
+    if (household == null) {
+      return new PendingRequestCountsDto(invitations, 0, 0);
+    }
+    int joinRequests = householdJoinRequests.computeIfAbsent(household.getId(),
+        id -> (int) membershipRequestRepository.countByHouseholdIdAndTypeAndStatus(
+            id, RequestType.JOIN_REQUEST, RequestStatus.PENDING));
+    int sentInvitations = householdInvitations.computeIfAbsent(household.getId(),
+        id -> (int) membershipRequestRepository.countByHouseholdIdAndTypeAndStatus(
+            id, RequestType.INVITATION, RequestStatus.PENDING));
+    return new PendingRequestCountsDto(invitations, joinRequests, sentInvitations);
+  }
+
+  /**
+   * Records a newly saved pending request.
+   *
+   * @param request the request
+   */
+  public void onCreated(MembershipRequest request) {
+    afterCommit(() -> adjust(request, 1));
+  }
+
+  /**
+   * Records that a pending request was accepted, declined or cancelled.
+   *
+   * @param request the request
+   */
+  public void onResolved(MembershipRequest request) {
+    afterCommit(() -> adjust(request, -1));
+  }
+
+  /**
+   * Records pending invitations that were inserted in bulk from one household.
+   *
+   * @param household the inviting household
+   * @param receivers the invited users
+   */
+  public void onInvitationsCreated(Household household, List<User> receivers) {
+    afterCommit(() -> addInvitations(household, receivers));
+  }
+
+  /**
+   * Drops all counters, so they are reloaded from the database the next time they are read.
+   */
+  @Scheduled(fixedDelayString = "${app.membership-requests.counter-resync-ms:300000}",
+      initialDelayString = "${app.membership-requests.counter-resync-ms:300000}")
+  public void resync() {
+    receivedInvitations.clear();
+    householdJoinRequests.clear();
+    householdInvitations.clear();
+    logger.debug("Cleared pending request counters");
+  }
+
+  /**
+   * Runs a counter change once the surrounding transaction has committed, so a rolled back
+   * request never moves a counter. Runs it at once outside a transaction.
+   */
+  private void afterCommit(Runnable change) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          change.run();
+        }
+      });
+    } else {
+      change.run();
+    }
+  }
+
+  private void addInvitations(Household household, List<User> receivers) {
+    receivers.forEach(receiver -> add(receivedInvitations, receiver.getId(), 1));
+    add(householdInvitations, household.getId(), receivers.size());
+
+    if (pushCounts) {
+      // Counting for every invitee would cost a query each, so only those already tracked get
+      // a push; the rest read fresh counts when their client next asks
+      receivers.stream()
+          .filter(receiver -> receivedInvitations.containsKey(receiver.getId()))
+          .forEach(this::push);
+      if (household.getOwner() != null) {
+        push(household.getOwner());
+      }
+    }
+  }
+
+  private void adjust(MembershipRequest request, int delta) {
+    String householdId = request.getHousehold().getId();
+    if (request.getType() == RequestType.INVITATION) {
+      add(receivedInvitations, request.getReceiver().getId(), delta);
+      add(householdInvitations, householdId, delta);
+    } else {
+      add(householdJoinRequests, householdId, delta);
+    }
+
+    if (!pushCounts) {
+      return;
+    }
+    // The receiver is the invitee or, for join requests, the owner of the household
+    Map<String, User> recipients = new LinkedHashMap<>();
+    recipients.put(request.getReceiver().getId(), request.getReceiver());
+    User owner = request.getHousehold().getOwner();
+    if (owner != null) {
+      recipients.putIfAbsent(owner.getId(), owner);
+    }
+    recipients.values().forEach(this::push);
+  }
+
+  private static void add(ConcurrentHashMap<String, Integer> counters, String key, int delta) {
+    // Only counters already loaded are moved; the rest are counted on first read
+    counters.computeIfPresent(key, (k, count) -> Math.max(0, count + delta));
+  }
+
+  private void push(User user) {
+    try {
+      messagingTemplate.convertAndSendToUser(user.getId(), COUNTS_DESTINATION, getCounts(user));
+    } catch (Exception e) {
+      logger.error("Failed to push request counts to user {}: {}", user.getId(), e.getMessage());
+    }
+  }
+}
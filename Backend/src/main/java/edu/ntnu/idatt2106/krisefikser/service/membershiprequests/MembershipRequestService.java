@@ -1,9 +1,10 @@
 package edu.ntnu.idatt2106.krisefikser.service.membershiprequests;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.BulkInvitationResultDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.MembershipRequestResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.PendingRequestCountsDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.notification.NotificationDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserHouseholdAssignmentRequestDto;
-import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.membershiprequest.MembershipRequest;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
@@ -17,12 +18,24 @@ import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
 import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdService;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * The type Membership request service.
@@ -31,11 +44,14 @@ import org.springframework.stereotype.Service;
 public class MembershipRequestService {
 
   private static final Logger logger = LoggerFactory.getLogger(MembershipRequestService.class);
+  private static final int MAX_BULK_INVITATIONS = 500;
   private final MembershipRequestRepository membershipRequestRepository;
   private final HouseholdRepository householdRepository;
   private final HouseholdService householdService;
   private final UserRepository userRepository;
   private final NotificationService notificationService;
+  private final MembershipRequestCounterService counterService;
+  private final Executor notificationExecutor;
 
   /**
    * Instantiates a new Membership request service.
@@ -45,17 +61,23 @@ public class MembershipRequestService {
    * @param userRepository              the user repository
    * @param notificationService         the notification service
    * @param householdService            the household service
+   * @param counterService              the pending request counter service
+   * @param notificationExecutor        the pool that sends bulk notifications
    */
   public MembershipRequestService(MembershipRequestRepository membershipRequestRepository,
       HouseholdRepository householdRepository,
       UserRepository userRepository,
       NotificationService notificationService,
-      HouseholdService householdService) {
+      HouseholdService householdService,
+      MembershipRequestCounterService counterService,
+      @Qualifier("notificationExecutor") Executor notificationExecutor) {
     this.membershipRequestRepository = membershipRequestRepository;
     this.householdRepository = householdRepository;
     this.userRepository = userRepository;
     this.notificationService = notificationService;
     this.householdService = householdService;
+    this.counterService = counterService;
+    this.notificationExecutor = notificationExecutor;
     logger.info("MembershipRequestService initialized");
   }
 
@@ -97,6 +119,7 @@ public class MembershipRequestService {
 
     membershipRequestRepository.save(membershipRequest);
     logger.debug("Saved membership request with ID: {}", membershipRequest.getId());
+    counterService.onCreated(membershipRequest);
 
     // Send a notification to the receiver
     NotificationDto notificationDto = new NotificationDto(
@@ -114,6 +137,115 @@ public class MembershipRequestService {
         household.getName());
   }
 
+  /**
+   * Invites many users to the current user's household at once. The emails are resolved with one
+   * query, users who are already members or already have a pending invitation are skipped, the
+   * remaining invitations are inserted with a single statement, and the notifications are sent
+   * in the background once the invitations have committed.
+   *
+   * @param emails the emails of the users to invite
+   * @return which emails were invited and why the others were skipped
+   */
+  @Transactional
+  public BulkInvitationResultDto sendBulkInvitations(List<String> emails) {
+    Set<String> requested = new LinkedHashSet<>();
+    if (emails != null) {
+      emails.stream()
+          .filter(email -> email != null && !email.isBlank())
+          .map(String::trim)
+          .forEach(requested::add);
+    }
+    if (requested.isEmpty()) {
+      logger.warn("Bulk invitation without any emails");
+      throw new IllegalArgumentException("No emails given");
+    }
+    if (requested.size() > MAX_BULK_INVITATIONS) {
+      logger.warn("Bulk invitation with {} emails exceeds the limit", requested.size());
+      throw new IllegalArgumentException(
+          "At most " + MAX_BULK_INVITATIONS + " invitations can be sent at once");
+    }
+
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    String currentUserEmail = authentication.getName();
+    User currentUser = userRepository.findByEmail(currentUserEmail)
+        .orElseThrow(() -> {
+          logger.warn("Current user not found with email: {}", currentUserEmail);
+          return new IllegalArgumentException("Current user not found");
+        });
+    Household household = currentUser.getHousehold();
+    if (household == null) {
+      logger.warn("User {} has no household to invite to", currentUserEmail);
+      throw new IllegalArgumentException("User does not belong to a household");
+    }
+    String householdId = household.getId();
+    logger.info("Sending {} bulk invitations for household: {}", requested.size(), householdId);
+
+    // Email lookups in the database are case-insensitive, so match the results the same way
+    Map<String, User> usersByEmail = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    userRepository.findAllWithHouseholdByEmailIn(requested)
+        .forEach(user -> usersByEmail.put(user.getEmail(), user));
+    Set<String> pendingReceiverIds = usersByEmail.isEmpty() ? Set.of() : new HashSet<>(
+        membershipRequestRepository.findPendingInvitationReceiverIds(householdId,
+            usersByEmail.values().stream().map(User::getId).toList()));
+
+    BulkInvitationResultDto result = new BulkInvitationResultDto();
+    List<User> receivers = new ArrayList<>();
+    Set<String> receiverIds = new LinkedHashSet<>();
+    for (String email : requested) {
+      User user = usersByEmail.get(email);
+      if (user == null) {
+        result.getNotFound().add(email);
+      } else if (user.getHousehold() != null
+          && householdId.equals(user.getHousehold().getId())) {
+        result.getAlreadyMembers().add(email);
+      } else if (pendingReceiverIds.contains(user.getId()) || !receiverIds.add(user.getId())) {
+        result.getAlreadyInvited().add(email);
+      } else {
+        receivers.add(user);
+        result.getInvited().add(email);
+      }
+    }
+    logger.debug("Bulk invitation: {} to invite, {} members, {} pending, {} unknown",
+        receivers.size(), result.getAlreadyMembers().size(), result.getAlreadyInvited().size(),
+        result.getNotFound().size());
+
+    if (receivers.isEmpty()) {
+      return result;
+    }
+    int inserted = membershipRequestRepository.insertInvitations(householdId, receiverIds,
+        new Timestamp(System.currentTimeMillis()));
+    logger.debug("Inserted {} invitations for household {}", inserted, householdId);
+    counterService.onInvitationsCreated(household, receivers);
+
+    String message = "You have received an invitation to join the household: "
+        + household.getName();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      // Invitees must not be told about invitations that end up rolled back
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          notifyInvitees(receivers, message);
+        }
+      });
+    } else {
+      notifyInvitees(receivers, message);
+    }
+
+    logger.info("Bulk invitations sent for household {}: {} invited", householdId,
+        receivers.size());
+    return result;
+  }
+
+  private void notifyInvitees(List<User> receivers, String message) {
+    try {
+      notificationExecutor.execute(() -> notificationService.notifyUsers(receivers,
+          NotificationType.MEMBERSHIP_REQUEST, message));
+    } catch (RejectedExecutionException e) {
+      // The invitations are stored and show up in the invitees' lists even without the push
+      logger.warn("Notification pool is full, skipped notifying {} invitees", receivers.size());
+    }
+  }
+
   /**
    * Send a request to join a household.
    */
@@ -149,6 +281,7 @@ public class MembershipRequestService {
 
     membershipRequestRepository.save(membershipRequest);
     logger.debug("Saved join request with ID: {}", membershipRequest.getId());
+    counterService.onCreated(membershipRequest);
 
     // Send a notification to the receiver
     NotificationDto notificationDto = new NotificationDto(
@@ -191,6 +324,7 @@ public class MembershipRequestService {
     request.setStatus(RequestStatus.ACCEPTED);
     membershipRequestRepository.save(request);
     logger.debug("Updated request status to ACCEPTED");
+    counterService.onResolved(request);
 
     UserHouseholdAssignmentRequestDto assignment = new UserHouseholdAssignmentRequestDto();
     assignment.setUserId(request.getSender().getId());
@@ -227,6 +361,7 @@ public class MembershipRequestService {
     request.setStatus(RequestStatus.ACCEPTED);
     membershipRequestRepository.save(request);
     logger.debug("Updated invitation status to ACCEPTED");
+    counterService.onResolved(request);
 
     UserHouseholdAssignmentRequestDto assignment = new UserHouseholdAssignmentRequestDto();
     assignment.setUserId(request.getReceiver().getId());
@@ -247,15 +382,18 @@ public class MembershipRequestService {
   public void cancelRequest(Long requestId) {
     logger.info("Cancelling membership request with ID: {}", requestId);
 
-    // Check if the request exists
-    if (!membershipRequestRepository.existsById(requestId)) {
-      logger.warn("Cannot cancel request - not found with ID: {}", requestId);
-      throw new IllegalArgumentException("Request not found");
-    }
+    MembershipRequest request = membershipRequestRepository.findById(requestId)
+        .orElseThrow(() -> {
+          logger.warn("Cannot cancel request - not found with ID: {}", requestId);
+          return new IllegalArgumentException("Request not found");
+        });
     logger.debug("Request found with ID: {}", requestId);
 
     // Update the request status to "canceled"
     membershipRequestRepository.updateStatusById(requestId, RequestStatus.CANCELED);
+    if (request.getStatus() == RequestStatus.PENDING) {
+      counterService.onResolved(request);
+    }
     logger.info("Request with ID {} successfully cancelled", requestId);
   }
 
@@ -267,15 +405,18 @@ public class MembershipRequestService {
   public void declineRequest(Long requestId) {
     logger.info("Declining membership request with ID: {}", requestId);
 
-    // Check if the request exists
-    if (!membershipRequestRepository.existsById(requestId)) {
-      logger.warn("Cannot decline request - not found with ID: {}", requestId);
-      throw new IllegalArgumentException("Request not found");
-    }
+    MembershipRequest request = membershipRequestRepository.findById(requestId)
+        .orElseThrow(() -> {
+          logger.warn("Cannot decline request - not found with ID: {}", requestId);
+          return new IllegalArgumentException("Request not found");
+        });
     logger.debug("Request found with ID: {}", requestId);
 
     // Update the request status to "rejected"
     membershipRequestRepository.updateStatusById(requestId, RequestStatus.REJECTED);
+    if (request.getStatus() == RequestStatus.PENDING) {
+      counterService.onResolved(request);
+    }
     logger.info("Request with ID {} successfully declined", requestId);
   }
 
@@ -296,27 +437,10 @@ public class MembershipRequestService {
           return new IllegalArgumentException("User not found");
         });
 
-    List<MembershipRequest> invitations =
-        membershipRequestRepository.findAllByReceiverAndTypeAndStatus(
-            user, RequestType.INVITATION, RequestStatus.PENDING);
-    logger.debug("Found {} pending invitations received by user", invitations.size());
-
-    List<MembershipRequestResponseDto> result = invitations.stream().map(invitation ->
-        new MembershipRequestResponseDto(
-            invitation.getId(),
-            invitation.getHousehold().getId(),
-            invitation.getHousehold().getName(),
-            new UserResponseDto(invitation.getSender().getId(), invitation.getSender().getEmail(),
-                invitation.getSender().getFullName(), invitation.getSender().getTlf(),
-                invitation.getSender().getRole()),
-            new UserResponseDto(invitation.getReceiver().getId(),
-                invitation.getReceiver().getEmail(), invitation.getReceiver().getFullName(),
-                invitation.getReceiver().getTlf(), invitation.getReceiver().getRole()),
-            invitation.getType(),
-            invitation.getStatus(),
-            invitation.getCreatedAt()
-        )
-    ).toList();
+    List<MembershipRequestResponseDto> result =
+        membershipRequestRepository.findResponsesByReceiverIdAndTypeAndStatus(
+            user.getId(), RequestType.INVITATION, RequestStatus.PENDING);
+    logger.debug("Found {} pending invitations received by user", result.size());
 
     logger.info("Returning {} received invitations for user {}", result.size(), user.getFullName());
     return result;
@@ -339,29 +463,12 @@ public class MembershipRequestService {
         });
     Household household = user.getHousehold();
 
-    List<MembershipRequest> requests =
-        membershipRequestRepository.findAllByHouseholdIdAndTypeAndStatus(
+    List<MembershipRequestResponseDto> result =
+        membershipRequestRepository.findResponsesByHouseholdIdAndTypeAndStatus(
             household.getId(), RequestType.JOIN_REQUEST, RequestStatus.PENDING);
-    logger.debug("Found {} pending join requests for household {}", requests.size(),
+    logger.debug("Found {} pending join requests for household {}", result.size(),
         household.getId());
 
-    List<MembershipRequestResponseDto> result = requests.stream().map(request ->
-        new MembershipRequestResponseDto(
-            request.getId(),
-            request.getHousehold().getId(),
-            request.getHousehold().getName(),
-            new UserResponseDto(request.getSender().getId(), request.getSender().getEmail(),
-                request.getSender().getFullName(), request.getSender().getTlf(),
-                request.getSender().getRole()),
-            new UserResponseDto(request.getReceiver().getId(),
-                request.getReceiver().getEmail(), request.getReceiver().getFullName(),
-                request.getReceiver().getTlf(), request.getReceiver().getRole()),
-            request.getType(),
-            request.getStatus(),
-            request.getCreatedAt()
-        )
-    ).toList();
-
     logger.info("Returning {} received join requests for household {}", result.size(),
         household.getId());
     return result;
@@ -385,27 +492,10 @@ public class MembershipRequestService {
 
     logger.info("Getting accepted join requests for household with ID: {}", householdId);
 
-    List<MembershipRequest> requests =
-        membershipRequestRepository.findAllByHouseholdIdAndTypeAndStatus(
+    List<MembershipRequestResponseDto> result =
+        membershipRequestRepository.findResponsesByHouseholdIdAndTypeAndStatus(
             householdId, RequestType.JOIN_REQUEST, RequestStatus.ACCEPTED);
-    logger.debug("Found {} accepted join requests for household {}", requests.size(), householdId);
-
-    List<MembershipRequestResponseDto> result = requests.stream().map(request ->
-        new MembershipRequestResponseDto(
-            request.getId(),
-            request.getHousehold().getId(),
-            request.getHousehold().getName(),
-            new UserResponseDto(request.getSender().getId(), request.getSender().getEmail(),
-                request.getSender().getFullName(), request.getSender().getTlf(),
-                request.getSender().getRole()),
-            new UserResponseDto(request.getReceiver().getId(),
-                request.getReceiver().getEmail(), request.getReceiver().getFullName(),
-                request.getReceiver().getTlf(), request.getReceiver().getRole()),
-            request.getType(),
-            request.getStatus(),
-            request.getCreatedAt()
-        )
-    ).toList();
+    logger.debug("Found {} accepted join requests for household {}", result.size(), householdId);
 
     logger.info("Returning {} accepted join requests for household {}", result.size(), householdId);
     return result;
@@ -432,37 +522,29 @@ public class MembershipRequestService {
     List<RequestStatus> statuses = List.of(RequestStatus.PENDING, RequestStatus.ACCEPTED);
     logger.debug("Looking up invitations with statuses: {}", statuses);
 
-    List<MembershipRequest> invitations =
-        membershipRequestRepository.findAllByHouseholdIdAndTypeAndStatusIn(
+    List<MembershipRequestResponseDto> result =
+        membershipRequestRepository.findResponsesByHouseholdIdAndTypeAndStatusIn(
             householdId, RequestType.INVITATION, statuses);
-    logger.debug("Found {} invitations sent by household {}", invitations.size(), householdId);
-
-    List<MembershipRequestResponseDto> result = invitations.stream().map(invitation ->
-        new MembershipRequestResponseDto(
-            invitation.getId(),
-            invitation.getHousehold().getId(),
-            invitation.getHousehold().getName(),
-            new UserResponseDto(
-                invitation.getSender().getId(),
-                invitation.getSender().getEmail(),
-                invitation.getSender().getFullName(),
-                invitation.getSender().getTlf(),
-                invitation.getSender().getRole()
-            ),
-            new UserResponseDto(
-                invitation.getReceiver().getId(),
-                invitation.getReceiver().getEmail(),
-                invitation.getReceiver().getFullName(),
-                invitation.getReceiver().getTlf(),
-                invitation.getReceiver().getRole()
-            ),
-            invitation.getType(),
-            invitation.getStatus(),
-            invitation.getCreatedAt()
-        )
-    ).toList();
+    logger.debug("Found {} invitations sent by household {}", result.size(), householdId);
 
     logger.info("Returning {} invitations sent by household {}", result.size(), householdId);
     return result;
   }
-}
\ No newline at end of file
+
+  /**
+   * Gets the number of pending requests for the current user and their household.
+   *
+   * @return the pending request counts
+   */
+  public PendingRequestCountsDto getPendingCounts() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    String email = authentication.getName();
+    User user = userRepository.findByEmail(email)
+        .orElseThrow(() -> {
+          logger.warn("User not found with email: {}", email);
+          return new IllegalArgumentException("User not found");
+        });
+
+    return counterService.getCounts(user);
+  }
+}
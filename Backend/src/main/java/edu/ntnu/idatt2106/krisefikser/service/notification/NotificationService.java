@@ -2,6 +2,7 @@ package edu.ntnu.idatt2106.krisefikser.service.notification;
 
 import edu.ntnu.idatt2106.krisefikser.api.dto.position.PositionDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.position.PositionResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.position.UserLocationDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.notification.NotificationDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.notification.NotificationResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Incident;
@@ -11,9 +12,17 @@ import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.NotificationType;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.notification.NotificationRepository;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdLocationIndex;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoArea;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoBounds;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoJsonPolygons;
+import edu.ntnu.idatt2106.krisefikser.service.map.MunicipalityIndex;
+import edu.ntnu.idatt2106.krisefikser.service.map.PreparedPolygon;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -30,21 +39,38 @@ public class NotificationService {
   private final SimpMessagingTemplate messagingTemplate;
   private final NotificationRepository notificationRepository;
   private final UserRepository userRepository;
+  private final HouseholdLocationIndex householdLocationIndex;
+  private final MunicipalityIndex municipalityIndex;
   private final Logger logger = LoggerFactory.getLogger(NotificationService.class.getName());
 
+  /**
+   * Margin on the radius of an incident when finding who to warn.
+   */
+  private static final double INCIDENT_RADIUS_MARGIN = 1.4;
+
+  /**
+   * Most household ids sent in one IN list.
+   */
+  private static final int HOUSEHOLD_BATCH_SIZE = 500;
+
   /**
    * Instantiates a new Notification service.
    *
    * @param messagingTemplate      the messaging template
    * @param notificationRepository the notification repository
    * @param userRepository         the user repository
+   * @param householdLocationIndex the index of where households live
+   * @param municipalityIndex      the municipality boundaries incidents may be scoped to
    */
   public NotificationService(SimpMessagingTemplate messagingTemplate,
       NotificationRepository notificationRepository,
-      UserRepository userRepository) {
+      UserRepository userRepository, HouseholdLocationIndex householdLocationIndex,
+      MunicipalityIndex municipalityIndex) {
     this.messagingTemplate = messagingTemplate;
     this.notificationRepository = notificationRepository;
     this.userRepository = userRepository;
+    this.householdLocationIndex = householdLocationIndex;
+    this.municipalityIndex = municipalityIndex;
     logger.info("NotificationService initialized");
   }
 
@@ -207,12 +233,7 @@ public class NotificationService {
         householdId, notification.getType(), notification.getMessage());
 
     try {
-      logger.debug("Creating notification entity");
-      Notification notificationEntity = new Notification();
-      notificationEntity.setType(notification.getType());
-      notificationEntity.setIsRead(notification.isRead());
-      notificationEntity.setTimestamp(LocalDateTime.now());
-      notificationEntity.setMessage(notification.getMessage());
+      LocalDateTime timestamp = LocalDateTime.now();
 
       logger.debug("Fetching users for household: {}", householdId);
       List<User> users = userRepository.getUsersByHouseholdId(householdId);
@@ -222,6 +243,12 @@ public class NotificationService {
         logger.info("Sending household notification to user {}: type={}, message={}",
             user.getId(), notification.getType(), notification.getMessage());
 
+        // One entity per recipient; reusing a single instance would keep overwriting one row
+        Notification notificationEntity = new Notification();
+        notificationEntity.setType(notification.getType());
+        notificationEntity.setIsRead(notification.isRead());
+        notificationEntity.setTimestamp(timestamp);
+        notificationEntity.setMessage(notification.getMessage());
         notificationEntity.setUser(user);
         notificationRepository.save(notificationEntity);
         logger.debug("Saved notification for user: {}", user.getId());
@@ -235,6 +262,39 @@ public class NotificationService {
     }
   }
 
+  /**
+   * Saves the same notification for many users with one batched save, then sends it to each of
+   * them privately.
+   *
+   * @param users   the recipients
+   * @param type    the notification type
+   * @param message the message
+   */
+  public void notifyUsers(List<User> users, NotificationType type, String message) {
+    logger.info("Saving {} notifications: type={}, message={}", users.size(), type, message);
+
+    try {
+      LocalDateTime timestamp = LocalDateTime.now();
+      List<Notification> notifications = users.stream().map(user -> {
+        Notification notification = new Notification();
+        notification.setType(type);
+        notification.setIsRead(false);
+        notification.setTimestamp(timestamp);
+        notification.setMessage(message);
+        notification.setUser(user);
+        return notification;
+      }).toList();
+      notificationRepository.saveAll(notifications);
+
+      users.forEach(user -> sendPrivateNotification(user.getId(),
+          new NotificationDto(type, user.getId(), timestamp, false, message)));
+      logger.info("Notifications processed for all {} users", users.size());
+    } catch (Exception e) {
+      logger.error("Failed to notify users: {}", e.getMessage(), e);
+      throw e;
+    }
+  }
+
   /**
    * Send private notification.
    *
@@ -274,19 +334,122 @@ public class NotificationService {
     notification.setTimestamp(LocalDateTime.now());
     logger.debug("Created incident notification: {}", notification.getMessage());
 
-    logger.debug("Finding users within incident radius");
-    List<User> affectedUsers = findUsersWithinIncidentRadius(
-        incident.getLatitude(), incident.getLongitude(), incident.getImpactRadius());
-    logger.debug("Found {} users within incident radius", affectedUsers.size());
+    Set<String> recipientIds = new LinkedHashSet<>();
+    if (incident.getLatitude() != null && incident.getLongitude() != null
+        && incident.getImpactRadius() != null) {
+      // An incident drawn only as a zone has no circle, and alerts only those inside the zone
+      logger.debug("Finding users within incident radius");
+      recipientIds.addAll(findIncidentRecipientIds(
+          incident.getLatitude(), incident.getLongitude(), incident.getImpactRadius()));
+    }
+    if (incident.getMunicipalityCode() != null) {
+      recipientIds.addAll(findMunicipalityRecipientIds(incident.getMunicipalityCode()));
+    }
+    if (incident.getImpactZone() != null) {
+      try {
+        recipientIds.addAll(findZoneRecipientIds(
+            GeoJsonPolygons.prepare(incident.getImpactZone())));
+      } catch (IllegalArgumentException e) {
+        logger.error("Could not read impact zone of incident {}: {}", incident.getId(),
+            e.getMessage());
+      }
+    }
+    logger.debug("Found {} users to notify about the incident", recipientIds.size());
 
-    affectedUsers.forEach(user -> {
-      logger.debug("Sending incident notification to user: {}", user.getId());
-      notification.setRecipientId(user.getId());
+    recipientIds.forEach(userId -> {
+      logger.debug("Sending incident notification to user: {}", userId);
+      notification.setRecipientId(userId);
       saveNotification(notification);
-      sendPrivateNotification(user.getId(), notification);
+      sendPrivateNotification(userId, notification);
     });
 
-    logger.info("Incident notifications sent to {} users", affectedUsers.size());
+    logger.info("Incident notifications sent to {} users", recipientIds.size());
+  }
+
+  /**
+   * Finds everyone to warn about an incident: users whose last shared position is inside its
+   * radius, and every member of a household whose home is inside it, whether they share their
+   * position or not. Each user is included once.
+   *
+   * @param latitude  the latitude.
+   * @param longitude the longitude.
+   * @param radius    the radius.
+   * @return the ids of the users to notify
+   */
+  public Set<String> findIncidentRecipientIds(double latitude, double longitude,
+      double radius) {
+    Set<String> recipientIds = new LinkedHashSet<>();
+    for (User user : findUsersWithinIncidentRadius(latitude, longitude, radius)) {
+      recipientIds.add(user.getId());
+    }
+
+    List<String> householdIds = householdLocationIndex.findWithinRadius(latitude, longitude,
+        radius * INCIDENT_RADIUS_MARGIN);
+    addHouseholdMembers(householdIds, recipientIds);
+    logger.info("Found {} households with their home within {}km radius", householdIds.size(),
+        radius);
+    return recipientIds;
+  }
+
+  /**
+   * Finds everyone to warn about an incident scoped to a municipality: users whose last shared
+   * position is inside it, and every member of a household living in it.
+   *
+   * @param municipalityCode the municipality number
+   * @return the ids of the users to notify, or none if the municipality is not loaded
+   */
+  public Set<String> findMunicipalityRecipientIds(String municipalityCode) {
+    GeoBounds bounds = municipalityIndex.getBounds(municipalityCode).orElse(null);
+    if (bounds == null) {
+      logger.warn("Municipality {} is not loaded, nobody is notified by municipality",
+          municipalityCode);
+      return new LinkedHashSet<>();
+    }
+    Set<String> recipientIds = findRecipientIdsInArea(bounds,
+        (latitude, longitude) -> municipalityIndex.contains(municipalityCode, latitude,
+            longitude));
+    logger.info("Found {} users to notify in municipality {}", recipientIds.size(),
+        municipalityCode);
+    return recipientIds;
+  }
+
+  /**
+   * Finds everyone to warn about an incident with a polygon impact zone: users whose last shared
+   * position is inside it, and every member of a household living in it.
+   *
+   * @param zone the impact zone
+   * @return the ids of the users to notify
+   */
+  public Set<String> findZoneRecipientIds(PreparedPolygon zone) {
+    Set<String> recipientIds = findRecipientIdsInArea(zone.getBounds(), zone);
+    logger.info("Found {} users to notify inside impact zone {}", recipientIds.size(),
+        zone.getBounds());
+    return recipientIds;
+  }
+
+  /**
+   * Finds the users and household members inside an area. Only the positions and homes inside
+   * the area's bounding box are read, and only those are tested against the area itself.
+   */
+  private Set<String> findRecipientIdsInArea(GeoBounds bounds, GeoArea area) {
+    Set<String> recipientIds = new LinkedHashSet<>();
+    for (UserLocationDto location : userRepository.findLocationsInBox(bounds.getSouth(),
+        bounds.getWest(), bounds.getNorth(), bounds.getEast())) {
+      if (area.contains(location.getLatitude(), location.getLongitude())) {
+        recipientIds.add(location.getUserId());
+      }
+    }
+
+    List<String> householdIds = householdLocationIndex.findWithinBounds(bounds, area);
+    addHouseholdMembers(householdIds, recipientIds);
+    return recipientIds;
+  }
+
+  private void addHouseholdMembers(List<String> householdIds, Set<String> recipientIds) {
+    for (int from = 0; from < householdIds.size(); from += HOUSEHOLD_BATCH_SIZE) {
+      recipientIds.addAll(userRepository.findIdsByHouseholdIdIn(householdIds.subList(from,
+          Math.min(householdIds.size(), from + HOUSEHOLD_BATCH_SIZE))));
+    }
   }
 
   /**
@@ -301,8 +464,7 @@ public class NotificationService {
       double radius) {
     logger.info("Finding users within {}km of coordinates [{}, {}]", radius, latitude, longitude);
 
-    // Using a multiplier of 1.4 on the radius as in original code
-    double adjustedRadius = radius * 1.4;
+    double adjustedRadius = radius * INCIDENT_RADIUS_MARGIN;
     logger.debug("Using adjusted radius of {}km for search", adjustedRadius);
 
     List<User> users = userRepository.findUsersWithinRadius(latitude, longitude, adjustedRadius);
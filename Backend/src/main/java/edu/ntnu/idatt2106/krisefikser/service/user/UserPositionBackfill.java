@@ -0,0 +1,73 @@
+package edu.ntnu.idatt2106.krisefikser.service.user;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills in the numeric position columns of users who shared their position before the columns
+ * were added, so they are found by area queries too.
+ *
+ * <p>Runs once on startup. Users are read in id order a batch at a time, and each batch is saved
+ * in its own transaction. Positions that are not valid numbers are left without a copy.</p>
+ */
+@Component
+public class UserPositionBackfill {
+
+  private static final Logger logger = LoggerFactory.getLogger(UserPositionBackfill.class);
+
+  /**
+   * Users read and saved per transaction.
+   */
+  private static final int BATCH_SIZE = 500;
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Constructor for UserPositionBackfill.
+   *
+   * @param userRepository     the user repository
+   * @param transactionManager the transaction manager, used to commit each batch on its own
+   */
+  public UserPositionBackfill(UserRepository userRepository,
+      PlatformTransactionManager transactionManager) {
+    this.userRepository = userRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Copies the shared position of every user that has no numeric copy of it.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfill() {
+    int[] indexed = new int[1];
+    String afterId = "";
+    while (afterId != null) {
+      String lastId = afterId;
+      afterId = transactionTemplate.execute(status -> {
+        List<User> batch = userRepository.findUnindexedPositions(lastId,
+            PageRequest.of(0, BATCH_SIZE));
+        for (User user : batch) {
+          user.indexPosition();
+          if (user.getPositionLatitude() != null && user.getPositionLongitude() != null) {
+            indexed[0]++;
+          }
+        }
+        userRepository.saveAll(batch);
+        return batch.size() < BATCH_SIZE ? null : batch.get(batch.size() - 1).getId();
+      });
+    }
+    if (indexed[0] > 0) {
+      logger.info("Indexed the shared position of {} users", indexed[0]);
+    }
+  }
+}
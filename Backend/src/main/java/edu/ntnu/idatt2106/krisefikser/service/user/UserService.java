@@ -3,10 +3,10 @@ package edu.ntnu.idatt2106.krisefikser.service.user;
 import edu.ntnu.idatt2106.krisefikser.api.dto.position.PositionDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdResponseDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserResponseDto;
-import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdCache;
 import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -26,16 +26,20 @@ public class UserService {
 
   private final UserRepository userRepository;
   private final NotificationService notificationService;
+  private final HouseholdCache householdCache;
 
   /**
    * Instantiates a new User service.
    *
    * @param userRepository      the user repository
    * @param notificationService the notification service
+   * @param householdCache      the cache of household name, address and owner
    */
-  public UserService(UserRepository userRepository, NotificationService notificationService) {
+  public UserService(UserRepository userRepository, NotificationService notificationService,
+      HouseholdCache householdCache) {
     this.userRepository = userRepository;
     this.notificationService = notificationService;
+    this.householdCache = householdCache;
     logger.info("UserService instantiated");
   }
 
@@ -94,27 +98,20 @@ public class UserService {
     logger.info("getHousehold() called for current user");
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
     String email = authentication.getName();
-    Household household = userRepository.findByEmail(email)
+    String householdId = userRepository.findHouseholdIdByEmail(email)
         .orElseThrow(() -> {
-          logger.error("No user logged in with email={}", email);
-          return new IllegalArgumentException("No user logged in");
-        }).getHousehold();
-
-    logger.info("Found household: id={}, name={}", household.getId(), household.getName());
-
-    HouseholdResponseDto dto = new HouseholdResponseDto(
-        household.getId(),
-        household.getName(),
-        household.getAddress(),
-        new UserResponseDto(
-            household.getOwner().getId(),
-            household.getOwner().getEmail(),
-            household.getOwner().getFullName(),
-            household.getOwner().getTlf(),
-            household.getOwner().getRole()
-        )
-    );
-    logger.debug("Returning HouseholdResponseDto: {}", dto);
+          // Only on the error path: tell a missing user apart from a user without a household
+          if (!userRepository.existsByEmail(email)) {
+            logger.error("No user logged in with email={}", email);
+            return new IllegalArgumentException("No user logged in");
+          }
+          logger.warn("User {} does not belong to a household", email);
+          return new IllegalArgumentException("User does not belong to a household");
+        });
+
+    HouseholdResponseDto dto = householdCache.get(householdId)
+        .orElseThrow(() -> new IllegalArgumentException("Household not found"));
+    logger.info("Found household: id={}, name={}", dto.getId(), dto.getName());
     return dto;
   }
 
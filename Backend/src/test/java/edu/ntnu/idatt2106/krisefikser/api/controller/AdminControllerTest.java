@@ -14,6 +14,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.ntnu.idatt2106.krisefikser.api.controller.admin.AdminController;
 import edu.ntnu.idatt2106.krisefikser.api.dto.auth.LoginResponse;
 import edu.ntnu.idatt2106.krisefikser.api.dto.auth.TwoFactorVerifyRequest;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdCacheStatsDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mail.MailQueueStatsDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.map.GeocodingBackfillResultDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserResponseDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.admin.AdminInviteRequest;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.admin.AdminSetupRequest;
@@ -21,6 +24,9 @@ import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
 import edu.ntnu.idatt2106.krisefikser.service.admin.AdminInvitationService;
 import edu.ntnu.idatt2106.krisefikser.service.auth.AuthService;
 import edu.ntnu.idatt2106.krisefikser.service.auth.TwoFactorService;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdCache;
+import edu.ntnu.idatt2106.krisefikser.service.mail.MailQueueService;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeocodingBackfillService;
 import edu.ntnu.idatt2106.krisefikser.service.user.UserService;
 import java.util.Arrays;
 import java.util.List;
@@ -43,6 +49,9 @@ class AdminControllerTest {
   private AuthService authService;
   private ObjectMapper objectMapper;
   private UserService userService;
+  private MailQueueService mailQueueService;
+  private HouseholdCache householdCache;
+  private GeocodingBackfillService geocodingBackfillService;
 
   @BeforeEach
   void setUp() {
@@ -51,11 +60,15 @@ class AdminControllerTest {
     twoFactorService = mock(TwoFactorService.class);
     authService = mock(AuthService.class);
     userService = mock(UserService.class);
+    mailQueueService = mock(MailQueueService.class);
+    householdCache = mock(HouseholdCache.class);
+    geocodingBackfillService = mock(GeocodingBackfillService.class);
     objectMapper = new ObjectMapper();
 
     // Setup controller with mocked services
     AdminController adminController = new AdminController(
-        adminInvitationService, twoFactorService, authService, userService);
+        adminInvitationService, twoFactorService, authService, userService,
+        mailQueueService, householdCache, geocodingBackfillService);
 
     // Setup MockMvc with the controller
     mockMvc = MockMvcBuilders
@@ -249,5 +262,57 @@ class AdminControllerTest {
         .andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.error").value("Admin user not found"));
   }
-}
 
+  @Test
+  void getMailQueueStats_shouldReturnStats() throws Exception {
+    // Arrange
+    when(mailQueueService.getStats())
+        .thenReturn(new MailQueueStatsDto(3, 1, 10, 2, 4, 12.5, 9));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/admin/mail-queue/stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.pending").value(3))
+        .andExpect(jsonPath("$.sentTotal").value(10))
+        .andExpect(jsonPath("$.averageBatchLatencyMs").value(12.5));
+  }
+
+  @Test
+  void getHouseholdCacheStats_shouldReturnStats() throws Exception {
+    // Arrange
+    when(householdCache.getStats())
+        .thenReturn(new HouseholdCacheStatsDto(120, 10000, 900, 100, 0.9, 0, 7));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/admin/household-cache/stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.size").value(120))
+        .andExpect(jsonPath("$.hitRate").value(0.9))
+        .andExpect(jsonPath("$.invalidations").value(7));
+  }
+
+  @Test
+  void backfillGeocoding_shouldReturnCounts() throws Exception {
+    // Arrange
+    when(geocodingBackfillService.backfill())
+        .thenReturn(new GeocodingBackfillResultDto(12, 3, 40, 5));
+
+    // Act & Assert
+    mockMvc.perform(post("/api/admin/geocoding/backfill"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.iconsGeocoded").value(12))
+        .andExpect(jsonPath("$.householdsUnmatched").value(5));
+  }
+
+  @Test
+  void backfillGeocoding_shouldReturnConflict_whenAlreadyRunning() throws Exception {
+    // Arrange
+    when(geocodingBackfillService.backfill())
+        .thenThrow(new IllegalStateException("A geocoding backfill is already running"));
+
+    // Act & Assert
+    mockMvc.perform(post("/api/admin/geocoding/backfill"))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.error").value("A geocoding backfill is already running"));
+  }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import edu.ntnu.idatt2106.krisefikser.api.controller.auth.AuthController;
@@ -14,6 +15,9 @@ import edu.ntnu.idatt2106.krisefikser.api.dto.user.RegisterRequestDto;
 import edu.ntnu.idatt2106.krisefikser.security.JwtTokenProvider;
 import edu.ntnu.idatt2106.krisefikser.service.auth.AuthService;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -134,9 +138,12 @@ class AuthControllerTest {
       // Arrange
       RegisterRequestDto registerRequest = new RegisterRequestDto("John Doe", "john@example.com",
           "password123", "12345678");
+      when(authService.registerUser(any(RegisterRequestDto.class)))
+          .thenReturn(CompletableFuture.completedFuture(null));
 
       // Act
-      ResponseEntity<Map<String, String>> response = authController.register(registerRequest);
+      ResponseEntity<Map<String, String>> response =
+          authController.register(registerRequest).join();
 
       // Assert
       assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -151,12 +158,12 @@ class AuthControllerTest {
           "password123", "87654321");
       String errorMessage = "Email already in use";
 
-      doThrow(new IllegalArgumentException(errorMessage))
-          .when(authService)
-          .registerUser(any(RegisterRequestDto.class));
+      when(authService.registerUser(any(RegisterRequestDto.class)))
+          .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException(errorMessage)));
 
       // Act
-      ResponseEntity<Map<String, String>> response = authController.register(registerRequest);
+      ResponseEntity<Map<String, String>> response =
+          authController.register(registerRequest).join();
 
       // Assert
       assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -170,18 +177,35 @@ class AuthControllerTest {
       RegisterRequestDto registerRequest = new RegisterRequestDto("Jake Smith", "jake@example.com",
           "password123", "87651234");
 
-      doThrow(new RuntimeException("Unexpected database error"))
-          .when(authService)
-          .registerUser(any(RegisterRequestDto.class));
+      when(authService.registerUser(any(RegisterRequestDto.class)))
+          .thenThrow(new RuntimeException("Unexpected database error"));
 
       // Act
-      ResponseEntity<Map<String, String>> response = authController.register(registerRequest);
+      ResponseEntity<Map<String, String>> response =
+          authController.register(registerRequest).join();
 
       // Assert
       assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
       assertNotNull(response.getBody());
       assertEquals("Internal server error", response.getBody().get("error"));
     }
+
+    @Test
+    void shouldReturnServiceUnavailable_whenRegistrationPoolIsFull() {
+      // Arrange
+      RegisterRequestDto registerRequest = new RegisterRequestDto("Jake Smith", "jake@example.com",
+          "password123", "87651234");
+      when(authService.registerUser(any(RegisterRequestDto.class)))
+          .thenReturn(CompletableFuture.failedFuture(
+              new CompletionException(new RejectedExecutionException("queue full"))));
+
+      // Act
+      ResponseEntity<Map<String, String>> response =
+          authController.register(registerRequest).join();
+
+      // Assert
+      assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
   }
 
   /**
@@ -438,4 +462,43 @@ class AuthControllerTest {
     }
   }
 
+  /**
+   * Tests for the logout endpoint.
+   */
+  @Nested
+  class LogoutTests {
+
+    @Test
+    void shouldRevokeToken_whenBearerTokenIsPresent() {
+      // Act
+      ResponseEntity<Map<String, String>> response = authController.logout("Bearer jwt-token");
+
+      // Assert
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      verify(authService).logout("jwt-token");
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenHeaderIsMissing() {
+      // Act
+      ResponseEntity<Map<String, String>> response = authController.logout(null);
+
+      // Assert
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+      assertEquals("Bearer token is required", response.getBody().get("error"));
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenTokenIsInvalid() {
+      // Arrange
+      doThrow(new IllegalArgumentException("Invalid token")).when(authService).logout("bad");
+
+      // Act
+      ResponseEntity<Map<String, String>> response = authController.logout("Bearer bad");
+
+      // Assert
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+      assertEquals("Invalid token", response.getBody().get("error"));
+    }
+  }
 }
@@ -14,6 +14,7 @@ import edu.ntnu.idatt2106.krisefikser.api.dto.position.PositionResponseDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.household.CreateHouseholdRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.household.EditHouseholdRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdBasicResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdDetailsResponseDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdResponseDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.unregisteredmembers.EditMemberDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.unregisteredmembers.RemoveUnregisteredMemberRequestDto;
@@ -23,8 +24,8 @@ import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserHouseholdAssignmentReques
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
 import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdService;
+import edu.ntnu.idatt2106.krisefikser.service.household.RateLimitExceededException;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,6 +34,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -365,24 +368,95 @@ class HouseholdControllerTest {
     assertEquals(Map.of("error", "Internal server error"), response.getBody());
   }
 
+  @Test
+  void testSearchHouseholdByIdRateLimited() {
+    // Given
+    Map<String, String> request = Map.of("householdId", "house123");
+    doThrow(new RateLimitExceededException("Too many household searches, try again in a minute"))
+        .when(householdService).searchHouseholdById("house123");
+
+    // When
+    ResponseEntity<?> response = householdController.searchHouseholdById(request);
+
+    // Then
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+  }
+
+  @Test
+  void testSearchHouseholdsSuccess() {
+    // Given
+    HouseholdBasicResponseDto household = new HouseholdBasicResponseDto("house123",
+        "Test Household");
+    when(householdService.searchHouseholds("Test", null, 0, 20))
+        .thenReturn(new PageImpl<>(List.of(household), PageRequest.of(0, 20), 1));
+
+    // When
+    ResponseEntity<?> response = householdController.searchHouseholds("Test", null, 0, 20);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    Map<?, ?> body = (Map<?, ?>) response.getBody();
+    assertEquals(List.of(household), body.get("households"));
+    assertEquals(1L, body.get("totalItems"));
+    assertEquals(1, body.get("totalPages"));
+  }
+
+  @Test
+  void testSearchHouseholdsValidationError() {
+    // Given
+    when(householdService.searchHouseholds(null, null, 0, 20))
+        .thenThrow(new IllegalArgumentException("A household name or ID is required"));
+
+    // When
+    ResponseEntity<?> response = householdController.searchHouseholds(null, null, 0, 20);
+
+    // Then
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertEquals(Map.of("error", "A household name or ID is required"), response.getBody());
+  }
+
+  @Test
+  void testSearchHouseholdsRateLimited() {
+    // Given
+    when(householdService.searchHouseholds("Test", null, 0, 20))
+        .thenThrow(new RateLimitExceededException(
+            "Too many household searches, try again in a minute"));
+
+    // When
+    ResponseEntity<?> response = householdController.searchHouseholds("Test", null, 0, 20);
+
+    // Then
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+  }
+
+  @Test
+  void testSearchHouseholdsUnexpectedStateIsNotRateLimited() {
+    // Given
+    when(householdService.searchHouseholds("Test", null, 0, 20))
+        .thenThrow(new IllegalStateException("Household cache is not ready"));
+
+    // When
+    ResponseEntity<?> response = householdController.searchHouseholds("Test", null, 0, 20);
+
+    // Then
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+  }
+
   @Test
   void testGetHouseholdDetailsSuccess() {
     // Given
-    Map<String, Object> details = new HashMap<>();
     HouseholdResponseDto householdResponseDto = new HouseholdResponseDto(
         "house123",
         "Test Household",
         "123 Main St",
         new UserResponseDto("user123", "test@example.com", "John Doe", "12345678", Role.USER)
     );
-    details.put("household", householdResponseDto);
-    details.put("users", Arrays.asList(
-        new UserResponseDto("user123", "test@example.com", "John Doe", "12345678", Role.USER),
-        new UserResponseDto("user456", "test2@example.com", "Jane Doe", "87654321", Role.USER)
-    ));
-    details.put("unregisteredMembers", List.of(
-        new UnregisteredMemberResponseDto(1L, "Baby Doe")
-    ));
+    HouseholdDetailsResponseDto details = new HouseholdDetailsResponseDto(householdResponseDto,
+        Arrays.asList(
+            new UserResponseDto("user123", "test@example.com", "John Doe", "12345678", Role.USER),
+            new UserResponseDto("user456", "test2@example.com", "Jane Doe", "87654321", Role.USER)
+        ),
+        List.of(new UnregisteredMemberResponseDto(1L, "Baby Doe")));
 
     when(householdService.getHouseholdDetails()).thenReturn(details);
 
@@ -398,7 +472,7 @@ class HouseholdControllerTest {
   @Test
   void testGetHouseholdDetailsUserHasNoHousehold() {
     // Given
-    when(householdService.getHouseholdDetails()).thenReturn(new HashMap<>());
+    when(householdService.getHouseholdDetails()).thenReturn(null);
 
     // When
     ResponseEntity<?> response = householdController.getHouseholdDetails();
@@ -585,7 +659,8 @@ class HouseholdControllerTest {
   void getHouseholdDetailsValidHouseholdIdReturnsDetails() {
     // Arrange
     HouseholdResponseDto dummyHousehold = mock(HouseholdResponseDto.class);
-    Map<String, Object> details = Map.of("household", dummyHousehold);
+    HouseholdDetailsResponseDto details =
+        new HouseholdDetailsResponseDto(dummyHousehold, List.of(), List.of());
     when(householdService.getHouseholdDetails()).thenReturn(details);
 
     // Act
@@ -5,9 +5,11 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 import edu.ntnu.idatt2106.krisefikser.api.controller.incident.IncidentController;
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.HouseholdGapDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.incident.IncidentRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.incident.IncidentResponseDto;
 import edu.ntnu.idatt2106.krisefikser.service.incident.IncidentService;
+import edu.ntnu.idatt2106.krisefikser.service.incident.ScenarioGapService;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +30,9 @@ class IncidentControllerTest {
   @Mock
   private IncidentService incidentService;
 
+  @Mock
+  private ScenarioGapService scenarioGapService;
+
   @InjectMocks
   private IncidentController incidentController;
 
@@ -189,7 +194,7 @@ class IncidentControllerTest {
 
       when(incidentService.getAllIncidents()).thenReturn(List.of(incident1, incident2));
 
-      ResponseEntity<List<IncidentResponseDto>> response = incidentController.getAllIncidents();
+      ResponseEntity<List<IncidentResponseDto>> response = incidentController.getAllIncidents(null);
 
       assertEquals(HttpStatus.OK, response.getStatusCode());
       assertEquals(2, response.getBody().size());
@@ -201,11 +206,64 @@ class IncidentControllerTest {
     void shouldReturnInternalServerError_whenExceptionThrown() {
       when(incidentService.getAllIncidents()).thenThrow(new RuntimeException("Unexpected failure"));
 
-      ResponseEntity<List<IncidentResponseDto>> response = incidentController.getAllIncidents();
+      ResponseEntity<List<IncidentResponseDto>> response = incidentController.getAllIncidents(null);
 
       assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
+
+    @Test
+    void shouldFilterByMunicipality_whenMunicipalityGiven() {
+      IncidentResponseDto incident = new IncidentResponseDto();
+      incident.setName("Storm");
+
+      when(incidentService.getIncidentsInMunicipality("5001")).thenReturn(List.of(incident));
+
+      ResponseEntity<List<IncidentResponseDto>> response =
+          incidentController.getAllIncidents("5001");
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals("Storm", response.getBody().get(0).getName());
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenMunicipalityUnknown() {
+      when(incidentService.getIncidentsInMunicipality("9999"))
+          .thenThrow(new IllegalArgumentException("Unknown municipality: 9999"));
+
+      ResponseEntity<List<IncidentResponseDto>> response =
+          incidentController.getAllIncidents("9999");
+
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
   }
 
-}
+  /**
+   * Test cases for the getHouseholdGaps method.
+   */
+  @Nested
+  class GetHouseholdGapsTests {
+
+    @Test
+    void shouldReturnGapsOfHouseholdsNearIncident() {
+      List<HouseholdGapDto> gaps = List.of(
+          new HouseholdGapDto("7KQ2-M9XD", "Nordmann", 1L, 2, 2, List.of()));
+      when(scenarioGapService.getIncidentGaps(5L)).thenReturn(gaps);
+
+      ResponseEntity<?> response = incidentController.getHouseholdGaps(5L);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(gaps, response.getBody());
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenIncidentHasNoScenario() {
+      when(scenarioGapService.getIncidentGaps(5L))
+          .thenThrow(new IllegalArgumentException("Incident has no scenario"));
+
+      ResponseEntity<?> response = incidentController.getHouseholdGaps(5L);
 
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+      assertEquals(Map.of("error", "Incident has no scenario"), response.getBody());
+    }
+  }
+}
@@ -2,14 +2,27 @@ package edu.ntnu.idatt2106.krisefikser.api.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import edu.ntnu.idatt2106.krisefikser.api.controller.mapIcon.MapIconController;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconChangesDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconClusterDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconImportResultDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconFileFormat;
 import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconService;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconTransferService;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,8 +31,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Unit tests for the MapIconController class.
@@ -29,6 +44,9 @@ class MapIconControllerTest {
   @Mock
   private MapIconService mapIconService;
 
+  @Mock
+  private MapIconTransferService transferService;
+
   @InjectMocks
   private MapIconController mapIconController;
 
@@ -164,6 +182,62 @@ class MapIconControllerTest {
     }
   }
 
+  @Nested
+  class GetMapIconClustersTests {
+
+    @Test
+    void shouldReturnClustersSuccessfully() {
+      MapIconClusterDto cluster = new MapIconClusterDto(63.4, 10.4, 3,
+          Map.of(MapIconType.SHELTER, 3));
+      when(mapIconService.getMapIconClusters(63.4, 10.4, 50.0, 8)).thenReturn(List.of(cluster));
+      ResponseEntity<?> response = mapIconController.getMapIconClusters(63.4, 10.4, 50.0, 8);
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(List.of(cluster), response.getBody());
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenZoomIsInvalid() {
+      when(mapIconService.getMapIconClusters(63.4, 10.4, 50.0, -1))
+          .thenThrow(new IllegalArgumentException("Zoom level cannot be negative"));
+      ResponseEntity<?> response = mapIconController.getMapIconClusters(63.4, 10.4, 50.0, -1);
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+      assertEquals(Map.of("error", "Zoom level cannot be negative"), response.getBody());
+    }
+  }
+
+  @Nested
+  class GetMapIconChangesTests {
+
+    @Test
+    void shouldReturnChangesSuccessfully() {
+      // Arrange
+      MapIconChangesDto changes = new MapIconChangesDto(List.of(new MapIconResponseDto()),
+          List.of(4L), 9, false);
+      when(mapIconService.getMapIconChanges(5, 1000)).thenReturn(changes);
+
+      // Act
+      ResponseEntity<?> response = mapIconController.getMapIconChanges(5, 1000);
+
+      // Assert
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(changes, response.getBody());
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenSequenceIsNegative() {
+      // Arrange
+      when(mapIconService.getMapIconChanges(-1, 1000))
+          .thenThrow(new IllegalArgumentException("Sequence number cannot be negative"));
+
+      // Act
+      ResponseEntity<?> response = mapIconController.getMapIconChanges(-1, 1000);
+
+      // Assert
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+      assertEquals(Map.of("error", "Sequence number cannot be negative"), response.getBody());
+    }
+  }
+
   @Nested
   class FindClosestMapIconTests {
 
@@ -216,4 +290,64 @@ class MapIconControllerTest {
           ((Map<String, String>) response.getBody()).get("error"));
     }
   }
+
+  /**
+   * Test cases for the bulk import and export endpoints.
+   */
+  @Nested
+  class TransferTests {
+
+    private InputStream body(String text) {
+      return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldImportMapIcons() throws IOException {
+      MapIconImportResultDto result = new MapIconImportResultDto(false, 2, 1, 1,
+          List.of("Row 2: Missing type"));
+      when(transferService.importIcons(any(), eq(MapIconFileFormat.CSV))).thenReturn(result);
+
+      ResponseEntity<?> response = mapIconController.importMapIcons("csv", body("type\n"));
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenImportFormatIsUnknown() {
+      ResponseEntity<?> response = mapIconController.importMapIcons("xlsx", body(""));
+
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+      assertEquals(Map.of("error", "Unsupported format: xlsx"), response.getBody());
+    }
+
+    @Test
+    void shouldReturnConflict_whenImportIsAlreadyRunning() throws IOException {
+      when(transferService.importIcons(any(), any()))
+          .thenThrow(new IllegalStateException("A map icon import is already running"));
+
+      ResponseEntity<?> response = mapIconController.importMapIcons("geojson", body("{}"));
+
+      assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void shouldStreamExport() throws IOException {
+      ResponseEntity<StreamingResponseBody> response = mapIconController.exportMapIcons("CSV");
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      response.getBody().writeTo(output);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals("attachment; filename=\"map-icons.csv\"",
+          response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+      verify(transferService).exportIcons(MapIconFileFormat.CSV, output);
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenExportFormatIsUnknown() {
+      ResponseEntity<StreamingResponseBody> response = mapIconController.exportMapIcons("kml");
+
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+  }
 }
@@ -0,0 +1,59 @@
+package edu.ntnu.idatt2106.krisefikser.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import edu.ntnu.idatt2106.krisefikser.api.controller.map.MapTileController;
+import edu.ntnu.idatt2106.krisefikser.service.map.MapTileService;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Unit tests for the MapTileController class.
+ */
+class MapTileControllerTest {
+
+  @Mock
+  private MapTileService mapTileService;
+
+  @InjectMocks
+  private MapTileController mapTileController;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  void shouldReturnVectorTile() {
+    byte[] tile = {26, 3, 1, 2, 3};
+    when(mapTileService.getTile(12, 2170, 1030)).thenReturn(tile);
+    ResponseEntity<?> response = mapTileController.getTile(12, 2170, 1030);
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(MapTileController.VECTOR_TILE, response.getHeaders().getContentType());
+    assertArrayEquals(tile, (byte[]) response.getBody());
+  }
+
+  @Test
+  void shouldReturnNoContent_whenTileIsEmpty() {
+    when(mapTileService.getTile(12, 0, 0)).thenReturn(new byte[0]);
+    ResponseEntity<?> response = mapTileController.getTile(12, 0, 0);
+    assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+  }
+
+  @Test
+  void shouldReturnBadRequest_whenTileIsOutsideMap() {
+    when(mapTileService.getTile(2, 4, 0))
+        .thenThrow(new IllegalArgumentException("Tile is outside the map at zoom level 2"));
+    ResponseEntity<?> response = mapTileController.getTile(2, 4, 0);
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertEquals(Map.of("error", "Tile is outside the map at zoom level 2"), response.getBody());
+  }
+}
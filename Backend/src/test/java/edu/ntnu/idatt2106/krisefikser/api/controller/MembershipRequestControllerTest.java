@@ -13,8 +13,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.ntnu.idatt2106.krisefikser.api.controller.membershiprequest.MembershipRequestController;
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.BulkInvitationRequestDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.BulkInvitationResultDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.MembershipInviteDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.MembershipRequestResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.PendingRequestCountsDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.RequestOperationDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestStatus;
@@ -620,4 +623,66 @@ class MembershipRequestControllerTest {
         .andExpect(status().isInternalServerError())
         .andExpect(content().string("Internal server error"));
   }
-}
\ No newline at end of file
+
+  @Test
+  void getPendingCounts_shouldReturnOkWithCounts() throws Exception {
+    // Arrange
+    when(membershipRequestService.getPendingCounts())
+        .thenReturn(new PendingRequestCountsDto(2, 3, 1));
+
+    // Act & Assert
+    mockMvc.perform(post("/api/membership-requests/pending-counts")
+            .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.receivedInvitations").value(2))
+        .andExpect(jsonPath("$.householdJoinRequests").value(3))
+        .andExpect(jsonPath("$.householdInvitations").value(1));
+  }
+
+  @Test
+  void getPendingCounts_shouldReturnBadRequest_whenIllegalArgumentException() throws Exception {
+    // Arrange
+    when(membershipRequestService.getPendingCounts())
+        .thenThrow(new IllegalArgumentException("User not found"));
+
+    // Act & Assert
+    mockMvc.perform(post("/api/membership-requests/pending-counts")
+            .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("User not found"));
+  }
+
+  @Test
+  void sendBulkInvitations_shouldReturnOkWithResult() throws Exception {
+    // Arrange
+    BulkInvitationResultDto result = new BulkInvitationResultDto();
+    result.getInvited().add("a@example.com");
+    result.getNotFound().add("b@example.com");
+    when(membershipRequestService.sendBulkInvitations(List.of("a@example.com", "b@example.com")))
+        .thenReturn(result);
+
+    // Act & Assert
+    mockMvc.perform(post("/api/membership-requests/send-invitations")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                new BulkInvitationRequestDto(List.of("a@example.com", "b@example.com")))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.invited[0]").value("a@example.com"))
+        .andExpect(jsonPath("$.notFound[0]").value("b@example.com"));
+  }
+
+  @Test
+  void sendBulkInvitations_shouldReturnBadRequest_whenIllegalArgumentException()
+      throws Exception {
+    // Arrange
+    when(membershipRequestService.sendBulkInvitations(List.of()))
+        .thenThrow(new IllegalArgumentException("No emails given"));
+
+    // Act & Assert
+    mockMvc.perform(post("/api/membership-requests/send-invitations")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new BulkInvitationRequestDto(List.of()))))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("No emails given"));
+  }
+}
@@ -0,0 +1,87 @@
+package edu.ntnu.idatt2106.krisefikser.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+import edu.ntnu.idatt2106.krisefikser.api.controller.map.MunicipalityController;
+import edu.ntnu.idatt2106.krisefikser.api.dto.map.MunicipalityDto;
+import edu.ntnu.idatt2106.krisefikser.service.map.MunicipalityService;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Unit tests for the MunicipalityController class.
+ */
+class MunicipalityControllerTest {
+
+  @Mock
+  private MunicipalityService municipalityService;
+
+  @InjectMocks
+  private MunicipalityController municipalityController;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  void shouldReturnMunicipalities() {
+    List<MunicipalityDto> municipalities = List.of(new MunicipalityDto("5001", "Trondheim"));
+    when(municipalityService.getMunicipalities()).thenReturn(municipalities);
+    ResponseEntity<?> response = municipalityController.getMunicipalities();
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertSame(municipalities, response.getBody());
+  }
+
+  @Test
+  void shouldReturnMunicipalityOfPosition() {
+    MunicipalityDto trondheim = new MunicipalityDto("5001", "Trondheim");
+    when(municipalityService.lookup(63.43, 10.39)).thenReturn(Optional.of(trondheim));
+    ResponseEntity<?> response = municipalityController.lookup(63.43, 10.39);
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertSame(trondheim, response.getBody());
+  }
+
+  @Test
+  void shouldReturnNotFound_whenPositionIsOutsideAllMunicipalities() {
+    when(municipalityService.lookup(0, 0)).thenReturn(Optional.empty());
+    ResponseEntity<?> response = municipalityController.lookup(0, 0);
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+  }
+
+  @Test
+  void shouldReturnBadRequest_whenCoordinatesAreOutOfRange() {
+    when(municipalityService.lookup(91, 0))
+        .thenThrow(new IllegalArgumentException("Coordinates are out of range"));
+    ResponseEntity<?> response = municipalityController.lookup(91, 0);
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertEquals(Map.of("error", "Coordinates are out of range"), response.getBody());
+  }
+
+  @Test
+  void shouldReturnMunicipalityOfHousehold() {
+    MunicipalityDto oslo = new MunicipalityDto("0301", "Oslo");
+    when(municipalityService.lookupHousehold("ABC123")).thenReturn(Optional.of(oslo));
+    ResponseEntity<?> response = municipalityController.lookupHousehold("ABC123");
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertSame(oslo, response.getBody());
+  }
+
+  @Test
+  void shouldReturnBadRequest_whenHouseholdHasNoLocation() {
+    when(municipalityService.lookupHousehold("ABC123")).thenThrow(
+        new IllegalArgumentException("Household not found or has no known location"));
+    ResponseEntity<?> response = municipalityController.lookupHousehold("ABC123");
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+  }
+}
@@ -5,8 +5,12 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 import edu.ntnu.idatt2106.krisefikser.api.controller.incident.ScenarioController;
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.GapItemDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.HouseholdGapDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.PackingListItemDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.incident.ScenarioRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.incident.ScenarioResponseDto;
+import edu.ntnu.idatt2106.krisefikser.service.incident.ScenarioGapService;
 import edu.ntnu.idatt2106.krisefikser.service.incident.ScenarioService;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +31,9 @@ class ScenarioControllerTest {
   @Mock
   private ScenarioService scenarioService;
 
+  @Mock
+  private ScenarioGapService scenarioGapService;
+
   @InjectMocks
   private ScenarioController scenarioController;
 
@@ -182,4 +189,44 @@ class ScenarioControllerTest {
     }
   }
 
+  /**
+   * Test cases for the getPackingList and getHouseholdGap methods.
+   */
+  @Nested
+  class GapTests {
+
+    @Test
+    void shouldReturnPackingList() {
+      List<PackingListItemDto> packingList = List.of(new PackingListItemDto("Vann", 3L, 9, "l"));
+      when(scenarioGapService.getPackingList(1L)).thenReturn(packingList);
+
+      ResponseEntity<?> response = scenarioController.getPackingList(1L);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(packingList, response.getBody());
+    }
+
+    @Test
+    void shouldReturnHouseholdGap() {
+      HouseholdGapDto gap = new HouseholdGapDto("7KQ2-M9XD", "Nordmann", 1L, 2, 1,
+          List.of(new GapItemDto("Vann", 3L, "l", 9, 4, 5)));
+      when(scenarioGapService.getHouseholdGap(1L)).thenReturn(gap);
+
+      ResponseEntity<?> response = scenarioController.getHouseholdGap(1L);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(gap, response.getBody());
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenUserHasNoHousehold() {
+      when(scenarioGapService.getHouseholdGap(1L))
+          .thenThrow(new IllegalArgumentException("User does not belong to a household"));
+
+      ResponseEntity<?> response = scenarioController.getHouseholdGap(1L);
+
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+      assertEquals(Map.of("error", "User does not belong to a household"), response.getBody());
+    }
+  }
 }
@@ -0,0 +1,183 @@
+package edu.ntnu.idatt2106.krisefikser.benchmark;
+
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoArea;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoDistance;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoOrigin;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the distance checks of a map search, one origin against many points up to 50 km away
+ * around Trondheim, as MapIconService did them before and as it does them through
+ * {@link GeoOrigin}.
+ *
+ * <p>The legacy methods are copies of the old code, trace logging included. Each benchmark
+ * measures one batch of {@link #POINTS} points, so divide by that for nanoseconds per point.
+ * {@link #main(String[])} first prints how far the fast path strays from the Haversine formula
+ * on the same points. Not part of the test suite; run {@link #main(String[])} with the test
+ * classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoDistanceBenchmark {
+
+  private static final Logger logger = LoggerFactory.getLogger(GeoDistanceBenchmark.class);
+
+  private static final int POINTS = 1024;
+  private static final double ORIGIN_LATITUDE = 63.43;
+  private static final double ORIGIN_LONGITUDE = 10.39;
+  private static final double RADIUS_KM = 25;
+
+  private double[] latitudes;
+  private double[] longitudes;
+  private GeoOrigin origin;
+  private GeoArea circle;
+
+  /**
+   * Spreads the points around the origin.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    latitudes = new double[POINTS];
+    longitudes = new double[POINTS];
+    for (int i = 0; i < POINTS; i++) {
+      latitudes[i] = ORIGIN_LATITUDE + (random.nextDouble() * 2 - 1) * 0.45;
+      longitudes[i] = ORIGIN_LONGITUDE + (random.nextDouble() * 2 - 1) * 1.0;
+    }
+    origin = new GeoOrigin(ORIGIN_LATITUDE, ORIGIN_LONGITUDE);
+    circle = origin.within(RADIUS_KM);
+  }
+
+  /**
+   * The old MapIconService.calculateDistance for each point.
+   */
+  @Benchmark
+  public void legacyCalculateDistance(Blackhole blackhole) {
+    for (int i = 0; i < POINTS; i++) {
+      blackhole.consume(legacyDistance(ORIGIN_LATITUDE, ORIGIN_LONGITUDE, latitudes[i],
+          longitudes[i]));
+    }
+  }
+
+  /**
+   * The Haversine formula alone, without the logging.
+   */
+  @Benchmark
+  public void haversine(Blackhole blackhole) {
+    for (int i = 0; i < POINTS; i++) {
+      blackhole.consume(GeoDistance.haversineKm(ORIGIN_LATITUDE, ORIGIN_LONGITUDE, latitudes[i],
+          longitudes[i]));
+    }
+  }
+
+  /**
+   * Distances from an origin whose trigonometry is already worked out.
+   */
+  @Benchmark
+  public void originDistanceKm(Blackhole blackhole) {
+    for (int i = 0; i < POINTS; i++) {
+      blackhole.consume(origin.distanceKm(latitudes[i], longitudes[i]));
+    }
+  }
+
+  /**
+   * Squared angles, as compared when looking for the closest point.
+   */
+  @Benchmark
+  public void originSquaredAngle(Blackhole blackhole) {
+    for (int i = 0; i < POINTS; i++) {
+      blackhole.consume(origin.squaredAngle(latitudes[i], longitudes[i]));
+    }
+  }
+
+  /**
+   * The old MapIconService radius check for each point.
+   */
+  @Benchmark
+  public void legacyWithinRadius(Blackhole blackhole) {
+    for (int i = 0; i < POINTS; i++) {
+      blackhole.consume(legacyDistance(ORIGIN_LATITUDE, ORIGIN_LONGITUDE, latitudes[i],
+          longitudes[i]) <= RADIUS_KM);
+    }
+  }
+
+  /**
+   * The radius check through a prepared circle.
+   */
+  @Benchmark
+  public void circleContains(Blackhole blackhole) {
+    for (int i = 0; i < POINTS; i++) {
+      blackhole.consume(circle.contains(latitudes[i], longitudes[i]));
+    }
+  }
+
+  private static double legacyDistance(double lat1, double lon1, double lat2, double lon2) {
+    logger.trace("Calculating distance between ({}, {}) and ({}, {})", lat1, lon1, lat2, lon2);
+
+    double dlat = Math.toRadians(lat2 - lat1);
+    double dlon = Math.toRadians(lon2 - lon1);
+    double a = Math.sin(dlat / 2) * Math.sin(dlat / 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+        * Math.sin(dlon / 2) * Math.sin(dlon / 2);
+    double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    double distance = 6371 * c;
+
+    logger.trace("Calculated distance: {}km", distance);
+    return distance;
+  }
+
+  /**
+   * Prints the accuracy of the fast path on a million points, then runs the benchmarks.
+   *
+   * @param args ignored
+   * @throws RunnerException if a benchmark fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    Random random = new Random(7);
+    double maxError = 0;
+    int disagreements = 0;
+    for (int i = 0; i < 1_000_000; i++) {
+      double latitude = ORIGIN_LATITUDE + (random.nextDouble() * 2 - 1) * 0.45;
+      double longitude = ORIGIN_LONGITUDE + (random.nextDouble() * 2 - 1) * 1.0;
+      double exact = GeoDistance.haversineKm(ORIGIN_LATITUDE, ORIGIN_LONGITUDE, latitude,
+          longitude);
+      GeoOrigin fast = new GeoOrigin(ORIGIN_LATITUDE, ORIGIN_LONGITUDE);
+      if (exact > 0.001) {
+        maxError = Math.max(maxError,
+            Math.abs(fast.distanceKm(latitude, longitude) - exact) / exact);
+      }
+      if (fast.within(RADIUS_KM).contains(latitude, longitude) != exact <= RADIUS_KM) {
+        disagreements++;
+      }
+    }
+    System.out.printf(Locale.ROOT,
+        "Fast path: largest relative error %.2e, %d radius checks disagree with Haversine%n",
+        maxError, disagreements);
+
+    new Runner(new OptionsBuilder()
+        .include(GeoDistanceBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
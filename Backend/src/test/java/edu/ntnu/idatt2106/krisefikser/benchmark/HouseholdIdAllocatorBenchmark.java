@@ -0,0 +1,104 @@
+package edu.ntnu.idatt2106.krisefikser.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdIdBlockRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdIdAllocator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Compares household ID allocation from reserved blocks with the random UUID prefix it replaced,
+ * with several threads sharing one allocator as request threads on a node do.
+ *
+ * <p>The block counter lives in memory and each reservation sleeps for {@code reserveMicros} to
+ * stand in for the database round trip. Not part of the test suite; run {@link #main(String[])}
+ * with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class HouseholdIdAllocatorBenchmark {
+
+  @Param({"100", "1000"})
+  private int blockSize;
+
+  @Param({"500"})
+  private long reserveMicros;
+
+  private HouseholdIdAllocator allocator;
+
+  /**
+   * Wires the allocator to an in-memory block counter.
+   */
+  @Setup
+  public void setUp() {
+    AtomicLong nextBlock = new AtomicLong();
+    HouseholdIdBlockRepository repository = Mockito.mock(HouseholdIdBlockRepository.class,
+        Mockito.withSettings().stubOnly());
+    when(repository.incrementNextBlock(anyString())).thenAnswer(invocation -> {
+      TimeUnit.MICROSECONDS.sleep(reserveMicros);
+      nextBlock.incrementAndGet();
+      return 1;
+    });
+    when(repository.findNextBlock(anyString())).thenAnswer(invocation -> nextBlock.get());
+    allocator = new HouseholdIdAllocator(repository,
+        Mockito.mock(PlatformTransactionManager.class, Mockito.withSettings().stubOnly()),
+        blockSize);
+  }
+
+  /**
+   * Allocates one ID from the reserved blocks.
+   *
+   * @return the ID
+   */
+  @Benchmark
+  public String allocateFromBlocks() {
+    return allocator.next();
+  }
+
+  /**
+   * Generates one ID the old way, from a random UUID, without any collision check.
+   *
+   * @return the ID
+   */
+  @Benchmark
+  public String randomUuidPrefix() {
+    return UUID.randomUUID().toString().replaceAll("-", "").substring(0, 8).toUpperCase();
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws RunnerException if the benchmark fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(HouseholdIdAllocatorBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,212 @@
+package edu.ntnu.idatt2106.krisefikser.benchmark;
+
+import edu.ntnu.idatt2106.krisefikser.KrisefikserApplication;
+import edu.ntnu.idatt2106.krisefikser.api.dto.position.UserLocationDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoBounds;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoJsonPolygons;
+import edu.ntnu.idatt2106.krisefikser.service.map.PreparedPolygon;
+import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Measures finding everyone to alert inside a polygon impact zone, end to end, among a million
+ * users who share their position and live in 250 000 geocoded households.
+ *
+ * <p>Runs the application with the test profile, so the database is H2 in memory rather than
+ * MySQL, and calls {@link NotificationService#findZoneRecipientIds} the way incident creation
+ * does: the indexed box query on user positions, the household location grid, the polygon test
+ * and the member lookups. Positions are spread like in {@link IncidentZoneTargetingBenchmark}, and
+ * the zone is the same valley. To compare only the position lookup, {@code indexedPositions}
+ * runs the box query on the numeric position columns and {@code castTextPositions} the one on
+ * the text columns that was used before. Not part of the test suite; run
+ * {@link #main(String[])} with the test classpath and a heap of at least 4 GB.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IncidentZoneRecipientsBenchmark {
+
+  private static final int USERS = 1_000_000;
+  private static final int USERS_PER_HOUSEHOLD = 4;
+  private static final int INSERT_BATCH = 10_000;
+  private static final double[][] CITIES = {
+      {59.91, 10.75}, {60.39, 5.32}, {63.43, 10.39}, {58.97, 5.73}, {69.65, 18.96}};
+
+  @Param({"64", "1024"})
+  private int zoneVertices;
+
+  private ConfigurableApplicationContext context;
+  private NotificationService notificationService;
+  private UserRepository userRepository;
+  private JdbcTemplate jdbcTemplate;
+  private PreparedPolygon zone;
+
+  /**
+   * Starts the application, stores the users and households and prepares the zone.
+   */
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(KrisefikserApplication.class)
+        .profiles("test")
+        .properties("server.port=0", "logging.level.root=WARN")
+        .run();
+    notificationService = context.getBean(NotificationService.class);
+    userRepository = context.getBean(UserRepository.class);
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+    populate();
+
+    zone = GeoJsonPolygons.prepare(IncidentZoneTargetingBenchmark.valley(63.2, 10.2,
+        zoneVertices));
+    // Builds the household location grid before measuring
+    notificationService.findZoneRecipientIds(zone);
+  }
+
+  /**
+   * Stops the application.
+   */
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  private void populate() {
+    Random random = new Random(42);
+    // Users point at their household and households at their owner, so load both unchecked
+    jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+    List<Object[]> users = new ArrayList<>(INSERT_BATCH);
+    List<Object[]> households = new ArrayList<>(INSERT_BATCH);
+    for (int i = 0; i < USERS; i++) {
+      double latitude;
+      double longitude;
+      if (i % 2 == 0) {
+        double[] city = CITIES[random.nextInt(CITIES.length)];
+        latitude = city[0] + random.nextGaussian() * 0.15;
+        longitude = city[1] + random.nextGaussian() * 0.3;
+      } else {
+        latitude = 58 + random.nextDouble() * 13;
+        longitude = 5 + random.nextDouble() * 25;
+      }
+      String householdId = householdId(i / USERS_PER_HOUSEHOLD);
+      users.add(new Object[] {userId(i), "user" + i + "@example.com", "hash", "User " + i,
+          "USER", true, householdId, Double.toString(latitude), Double.toString(longitude),
+          latitude, longitude});
+      if (i % USERS_PER_HOUSEHOLD == 0) {
+        // The owner is at home
+        households.add(new Object[] {householdId, "Household " + i, "Storgata 1",
+            USERS_PER_HOUSEHOLD, userId(i), latitude, longitude});
+      }
+      if (users.size() == INSERT_BATCH) {
+        flush(users, households);
+      }
+    }
+    flush(users, households);
+    jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+  }
+
+  private void flush(List<Object[]> users, List<Object[]> households) {
+    jdbcTemplate.batchUpdate("INSERT INTO \"user\" (id, email, password, full_name, role, "
+        + "confirmed, household_id, latitude, longitude, position_latitude, position_longitude) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", users);
+    jdbcTemplate.batchUpdate("INSERT INTO household (id, name, address, number_of_members, "
+        + "\"owner_id\", latitude, longitude) VALUES (?, ?, ?, ?, ?, ?, ?)", households);
+    users.clear();
+    households.clear();
+  }
+
+  private static String userId(int i) {
+    return String.format("00000000-0000-0000-0001-%012d", i);
+  }
+
+  private static String householdId(int i) {
+    return String.format("00000000-0000-0000-0002-%012d", i);
+  }
+
+  /**
+   * Finds everyone to alert in the zone, as incident creation does.
+   *
+   * @return the ids of the users to alert
+   */
+  @Benchmark
+  public Set<String> findZoneRecipientIds() {
+    return notificationService.findZoneRecipientIds(zone);
+  }
+
+  /**
+   * Finds the users whose shared position is in the zone with the indexed numeric columns.
+   * Household members are not included.
+   *
+   * @return the number found
+   */
+  @Benchmark
+  public int indexedPositions() {
+    GeoBounds bounds = zone.getBounds();
+    int found = 0;
+    for (UserLocationDto location : userRepository.findLocationsInBox(bounds.getSouth(),
+        bounds.getWest(), bounds.getNorth(), bounds.getEast())) {
+      if (zone.contains(location.getLatitude(), location.getLongitude())) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Finds the users whose shared position is in the zone by casting the text columns, as the box
+   * query did before the numeric columns were added. Household members are not included.
+   *
+   * @return the number found
+   */
+  @Benchmark
+  public int castTextPositions() {
+    GeoBounds bounds = zone.getBounds();
+    int[] found = new int[1];
+    jdbcTemplate.query("SELECT id, latitude, longitude FROM \"user\" "
+            + "WHERE CAST(latitude AS DOUBLE) BETWEEN ? AND ? "
+            + "AND CAST(longitude AS DOUBLE) BETWEEN ? AND ?",
+        row -> {
+          if (zone.contains(Double.parseDouble(row.getString(2)),
+              Double.parseDouble(row.getString(3)))) {
+            found[0]++;
+          }
+        }, bounds.getSouth(), bounds.getNorth(), bounds.getWest(), bounds.getEast());
+    return found[0];
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws RunnerException if the benchmark fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(IncidentZoneRecipientsBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,151 @@
+package edu.ntnu.idatt2106.krisefikser.benchmark;
+
+import static org.mockito.Mockito.when;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdLocationDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdLocationIndex;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoBounds;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoJsonPolygons;
+import edu.ntnu.idatt2106.krisefikser.service.map.PreparedPolygon;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures how long it takes to find everyone inside a polygon impact zone among a million
+ * positions spread over Norway, through the location grid and against a scan of every position.
+ *
+ * <p>Half the positions are clustered around the largest cities, as people are. The zone is a
+ * flood along a river valley of {@code zoneVertices} vertices, about 40 km long and a few km wide.
+ * Not part of the test suite; run {@link #main(String[])} with the test classpath and a heap of
+ * at least 2 GB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class IncidentZoneTargetingBenchmark {
+
+  private static final int POSITIONS = 1_000_000;
+  private static final double[][] CITIES = {
+      {59.91, 10.75}, {60.39, 5.32}, {63.43, 10.39}, {58.97, 5.73}, {69.65, 18.96}};
+
+  @Param({"64", "1024"})
+  private int zoneVertices;
+
+  private HouseholdLocationIndex index;
+  private PreparedPolygon zone;
+  private GeoBounds bounds;
+  private double[] latitudes;
+  private double[] longitudes;
+
+  /**
+   * Builds the grid from random positions and prepares the zone.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    List<HouseholdLocationDto> locations = new ArrayList<>(POSITIONS);
+    latitudes = new double[POSITIONS];
+    longitudes = new double[POSITIONS];
+    for (int i = 0; i < POSITIONS; i++) {
+      if (i % 2 == 0) {
+        double[] city = CITIES[random.nextInt(CITIES.length)];
+        latitudes[i] = city[0] + random.nextGaussian() * 0.15;
+        longitudes[i] = city[1] + random.nextGaussian() * 0.3;
+      } else {
+        latitudes[i] = 58 + random.nextDouble() * 13;
+        longitudes[i] = 5 + random.nextDouble() * 25;
+      }
+      locations.add(new HouseholdLocationDto("H" + i, latitudes[i], longitudes[i]));
+    }
+    HouseholdRepository repository = Mockito.mock(HouseholdRepository.class,
+        Mockito.withSettings().stubOnly());
+    when(repository.findLocations()).thenReturn(locations);
+    index = new HouseholdLocationIndex(repository);
+
+    zone = GeoJsonPolygons.prepare(valley(63.2, 10.2, zoneVertices));
+    bounds = zone.getBounds();
+    // Builds the grid before measuring
+    index.findWithinBounds(bounds, (latitude, longitude) -> true);
+  }
+
+  /**
+   * A winding strip north-east from a start point, as a Polygon in GeoJSON.
+   */
+  static String valley(double latitude, double longitude, int vertices) {
+    int perSide = vertices / 2;
+    StringBuilder left = new StringBuilder();
+    StringBuilder right = new StringBuilder();
+    for (int i = 0; i < perSide; i++) {
+      double t = (double) i / (perSide - 1);
+      double centerLatitude = latitude + t * 0.3;
+      double centerLongitude = longitude + t * 0.4 + 0.03 * Math.sin(t * 12);
+      double width = 0.02 + 0.015 * Math.sin(t * 31);
+      left.append(String.format(Locale.ROOT, "[%f, %f], ", centerLongitude - width,
+          centerLatitude + width / 2));
+      right.insert(0, String.format(Locale.ROOT, "[%f, %f], ", centerLongitude + width,
+          centerLatitude - width / 2));
+    }
+    String first = left.substring(0, left.indexOf("]") + 1);
+    return "{\"type\": \"Polygon\", \"coordinates\": [[" + left + right + first + "]]}";
+  }
+
+  /**
+   * Finds the positions in the zone through the grid cells its bounding box covers.
+   *
+   * @return the ids found
+   */
+  @Benchmark
+  public List<String> gridThenPolygon() {
+    return index.findWithinBounds(bounds, zone);
+  }
+
+  /**
+   * Finds the positions in the zone by testing every position against it.
+   *
+   * @return the number found
+   */
+  @Benchmark
+  public int scanEveryPosition() {
+    int found = 0;
+    for (int i = 0; i < POSITIONS; i++) {
+      if (zone.contains(latitudes[i], longitudes[i])) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws RunnerException if the benchmark fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(IncidentZoneTargetingBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,116 @@
+package edu.ntnu.idatt2106.krisefikser.benchmark;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.RevokedTokenRepository;
+import edu.ntnu.idatt2106.krisefikser.security.JwtAuthenticationFilter;
+import edu.ntnu.idatt2106.krisefikser.security.JwtTokenProvider;
+import edu.ntnu.idatt2106.krisefikser.service.auth.TokenRevocationService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Measures the overhead the JWT filter adds to every authenticated request, with the verified
+ * token cache disabled ({@code cacheSize = 0}) and enabled.
+ *
+ * <p>User details come from memory, so the numbers only cover token handling and not the user
+ * lookup. Not part of the test suite; run {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+  private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+  };
+
+  @Param({"0", "10000"})
+  private int cacheSize;
+
+  private JwtAuthenticationFilter filter;
+  private String authorizationHeader;
+
+  /**
+   * Wires the filter with a real token provider and an in-memory user lookup.
+   */
+  @Setup
+  public void setUp() {
+    TokenRevocationService revocationService = new TokenRevocationService(
+        Mockito.mock(RevokedTokenRepository.class), 3600000L, 10000, 0.01);
+
+    JwtTokenProvider tokenProvider = new JwtTokenProvider(revocationService);
+    ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+        "benchmark-secret-that-is-long-enough-for-hmac256");
+    ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3600000L);
+    ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", cacheSize);
+    tokenProvider.init();
+
+    UserDetails user = User.withUsername("user@example.com").password("")
+        .authorities(new SimpleGrantedAuthority("ROLE_USER")).build();
+    filter = new JwtAuthenticationFilter();
+    ReflectionTestUtils.setField(filter, "tokenProvider", tokenProvider);
+    UserDetailsService userDetailsService = username -> user;
+    ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+
+    String token = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(
+        user.getUsername(), null, List.of()));
+    authorizationHeader = "Bearer " + token;
+  }
+
+  /**
+   * Runs one request through the filter.
+   *
+   * @return the response, so the work is not optimised away
+   * @throws ServletException if the filter fails
+   * @throws IOException      if the filter fails
+   */
+  @Benchmark
+  public MockHttpServletResponse filterRequest() throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notifications");
+    request.addHeader("Authorization", authorizationHeader);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, NO_OP_CHAIN);
+    SecurityContextHolder.clearContext();
+    return response;
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws RunnerException if the benchmark fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,90 @@
+package edu.ntnu.idatt2106.krisefikser.benchmark;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MailTemplate;
+import edu.ntnu.idatt2106.krisefikser.service.mail.CompiledMailTemplate;
+import edu.ntnu.idatt2106.krisefikser.service.mail.MailTemplateService;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares rendering a compiled email template with the string concatenation the email service
+ * used before templates were introduced.
+ *
+ * <p>Not part of the test suite. Run {@link #main(String[])} with the test classpath, and add the
+ * {@code gc} profiler to compare allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MailTemplateRenderBenchmark {
+
+  private CompiledMailTemplate template;
+  private Map<String, String> params;
+  private String resetUrl;
+  private StringBuilder reusableBuilder;
+
+  /**
+   * Compiles the templates once, as the application does at startup.
+   *
+   * @throws IOException if the templates cannot be read
+   */
+  @Setup
+  public void setUp() throws IOException {
+    template = new MailTemplateService().getTemplate(MailTemplate.PASSWORD_RESET, null);
+    resetUrl = "http://localhost:5173/reset-password?token=" + UUID.randomUUID();
+    params = Map.of("resetUrl", resetUrl);
+    reusableBuilder = new StringBuilder(1024);
+  }
+
+  @Benchmark
+  public String compiledTemplate() {
+    return template.render(params);
+  }
+
+  @Benchmark
+  public StringBuilder compiledTemplateIntoReusedBuffer() throws IOException {
+    reusableBuilder.setLength(0);
+    template.renderTo(reusableBuilder, params);
+    return reusableBuilder;
+  }
+
+  @Benchmark
+  public String inlineConcatenation() {
+    return "<html><body>"
+        + "<h1>Glemt passord?</h1>"
+        + "<p>Klikk på lenken under for å tilbakestille passordet ditt. "
+        + "Lenken er gyldig i 1 time:</p>"
+        + "<a href=\"" + resetUrl + "\">Tilbakestill passord</a>"
+        + "</body></html>";
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws RunnerException if the benchmark fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(MailTemplateRenderBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,151 @@
+package edu.ntnu.idatt2106.krisefikser.benchmark;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.map.MunicipalityDto;
+import edu.ntnu.idatt2106.krisefikser.service.map.MunicipalityIndex;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * Compares municipality lookup through the index with checking every boundary in turn, over a
+ * country-sized grid of municipalities with jagged borders.
+ *
+ * <p>Each municipality is a cell of a 19 by 19 grid whose edges zigzag through
+ * {@code verticesPerSide} points, so the boundaries have about as many vertices as simplified
+ * real ones. Not part of the test suite; run {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MunicipalityLookupBenchmark {
+
+  private static final int GRID = 19;
+  private static final double SOUTH = 58;
+  private static final double WEST = 5;
+  private static final double CELL = 0.5;
+  private static final int POINTS = 4096;
+
+  @Param({"50", "500"})
+  private int verticesPerSide;
+
+  private MunicipalityIndex index;
+  private double[] latitudes;
+  private double[] longitudes;
+  private String[] codes;
+  private int next;
+
+  /**
+   * Loads the grid and picks random points inside it.
+   *
+   * @throws IOException never, the boundaries are read from memory
+   */
+  @Setup
+  public void setUp() throws IOException {
+    StringBuilder json = new StringBuilder("{\"type\": \"FeatureCollection\", \"features\": [");
+    codes = new String[GRID * GRID];
+    for (int row = 0; row < GRID; row++) {
+      for (int column = 0; column < GRID; column++) {
+        int cell = row * GRID + column;
+        codes[cell] = String.format(Locale.ROOT, "%04d", cell);
+        json.append(cell == 0 ? "" : ",")
+            .append("{\"properties\": {\"code\": \"").append(codes[cell])
+            .append("\"}, \"geometry\": {\"type\": \"Polygon\", \"coordinates\": [[");
+        ring(json, SOUTH + row * CELL, WEST + column * CELL);
+        json.append("]]}}");
+      }
+    }
+    index = new MunicipalityIndex(new DefaultResourceLoader(), "");
+    index.load(new StringReader(json.append("]}").toString()));
+
+    Random random = new Random(42);
+    latitudes = new double[POINTS];
+    longitudes = new double[POINTS];
+    for (int i = 0; i < POINTS; i++) {
+      latitudes[i] = SOUTH + random.nextDouble() * GRID * CELL;
+      longitudes[i] = WEST + random.nextDouble() * GRID * CELL;
+    }
+  }
+
+  /**
+   * Appends a cell whose sides zigzag slightly, so that neighbouring cells still share edges.
+   */
+  private void ring(StringBuilder json, double south, double west) {
+    double[][] corners = {{west, south}, {west + CELL, south}, {west + CELL, south + CELL},
+        {west, south + CELL}};
+    for (int side = 0; side < 4; side++) {
+      double[] from = corners[side];
+      double[] to = corners[(side + 1) % 4];
+      for (int i = 0; i < verticesPerSide; i++) {
+        double t = (double) i / verticesPerSide;
+        // Offset by the position along the side only, so both cells sharing it agree
+        double along = side % 2 == 0 ? from[0] + t * (to[0] - from[0]) : from[1]
+            + t * (to[1] - from[1]);
+        double wiggle = i == 0 ? 0 : 0.01 * Math.sin(along * 97);
+        double x = from[0] + t * (to[0] - from[0]) + (side % 2 == 1 ? wiggle : 0);
+        double y = from[1] + t * (to[1] - from[1]) + (side % 2 == 0 ? wiggle : 0);
+        json.append(String.format(Locale.ROOT, "[%f, %f], ", x, y));
+      }
+    }
+    json.append(String.format(Locale.ROOT, "[%f, %f]", west, south));
+  }
+
+  /**
+   * Looks up one point through the tree of bounding boxes.
+   *
+   * @return the municipality
+   */
+  @Benchmark
+  public Optional<MunicipalityDto> indexedLookup() {
+    int i = next++ & (POINTS - 1);
+    return index.lookup(latitudes[i], longitudes[i]);
+  }
+
+  /**
+   * Looks up one point by testing every municipality's boundary in turn.
+   *
+   * @return the number of the municipality, or null if none contains the point
+   */
+  @Benchmark
+  public String linearScan() {
+    int i = next++ & (POINTS - 1);
+    for (String code : codes) {
+      if (index.contains(code, latitudes[i], longitudes[i])) {
+        return code;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws RunnerException if the benchmark fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(MunicipalityLookupBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
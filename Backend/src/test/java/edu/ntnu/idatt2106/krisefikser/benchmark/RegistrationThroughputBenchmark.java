@@ -0,0 +1,135 @@
+package edu.ntnu.idatt2106.krisefikser.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.user.RegisterRequestDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.auth.AuthService;
+import edu.ntnu.idatt2106.krisefikser.service.auth.CaptchaService;
+import edu.ntnu.idatt2106.krisefikser.service.auth.EmailService;
+import edu.ntnu.idatt2106.krisefikser.service.mail.MailQueueService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Measures registration throughput with 16 concurrent clients, running every stage on the caller
+ * thread ({@code serial}) or through the registration and password hashing pools
+ * ({@code pipelined}).
+ *
+ * <p>The hCaptcha round-trip and the database calls are simulated with fixed delays, while the
+ * password is hashed with the real BCrypt encoder. Not part of the test suite; run
+ * {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(16)
+@Fork(1)
+public class RegistrationThroughputBenchmark {
+
+  private static final long CAPTCHA_LATENCY_MS = 80;
+  private static final long DATABASE_LATENCY_MS = 5;
+
+  @Param({"serial", "pipelined"})
+  private String mode;
+
+  private final AtomicLong counter = new AtomicLong();
+  private AuthService authService;
+  private ExecutorService registrationPool;
+  private ExecutorService hashingPool;
+
+  /**
+   * Wires an AuthService with simulated hCaptcha and database latency.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    // Stub-only mocks do not record invocations, so they do not grow during the run
+    CaptchaService captchaService = mock(CaptchaService.class, withSettings().stubOnly());
+    when(captchaService.verifyToken(anyString())).thenAnswer(invocation -> {
+      Thread.sleep(CAPTCHA_LATENCY_MS);
+      return true;
+    });
+    UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+    when(userRepository.existsByEmail(anyString())).thenAnswer(invocation -> {
+      Thread.sleep(DATABASE_LATENCY_MS);
+      return false;
+    });
+    when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+      Thread.sleep(DATABASE_LATENCY_MS);
+      return invocation.getArgument(0);
+    });
+    EmailService emailService =
+        new EmailService(mock(MailQueueService.class, withSettings().stubOnly()));
+
+    if ("pipelined".equals(mode)) {
+      registrationPool = Executors.newFixedThreadPool(32);
+      hashingPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+      authService = new AuthService(userRepository, new BCryptPasswordEncoder(), emailService,
+          null, null, captchaService, null, null, null, registrationPool, hashingPool);
+    } else {
+      authService = new AuthService(userRepository, new BCryptPasswordEncoder(), emailService,
+          null, null, captchaService, null, null, null, Runnable::run, Runnable::run);
+    }
+  }
+
+  /**
+   * Stops the pools of the pipelined mode.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (registrationPool != null) {
+      registrationPool.shutdownNow();
+      hashingPool.shutdownNow();
+    }
+  }
+
+  /**
+   * Registers one user and waits until it has been saved, as the endpoint does.
+   */
+  @Benchmark
+  public void register() {
+    RegisterRequestDto request = new RegisterRequestDto("Bench User",
+        "user" + counter.incrementAndGet() + "@example.com", "Password123!", "12345678");
+    request.sethCaptchaToken("token");
+    authService.registerUser(request).join();
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args ignored
+   * @throws RunnerException if the benchmark fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(RegistrationThroughputBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -52,6 +53,9 @@ class JwtAuthenticationFilterTest {
   @Mock
   private SecurityContext securityContext;
 
+  @Mock
+  private DecodedJWT decodedJwt;
+
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
@@ -64,8 +68,8 @@ class JwtAuthenticationFilterTest {
     // Arrange
     String token = "valid.jwt.token";
     when(tokenProvider.resolveToken(request)).thenReturn(token);
-    when(tokenProvider.validateToken(token)).thenReturn(true);
-    when(tokenProvider.getUsernameFromToken(token)).thenReturn("test@example.com");
+    when(tokenProvider.getValidatedToken(token)).thenReturn(decodedJwt);
+    when(decodedJwt.getSubject()).thenReturn("test@example.com");
     when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(userDetails);
     when(userDetails.getAuthorities()).thenReturn(java.util.Collections.emptyList());
 
@@ -78,6 +82,8 @@ class JwtAuthenticationFilterTest {
     // Assert
     verify(securityContext, times(1)).setAuthentication(any());
     verify(filterChain).doFilter(request, response);
+    verify(tokenProvider, times(1)).getValidatedToken(token);
+    verify(tokenProvider, never()).getUsernameFromToken(anyString());
   }
 
   @Test
@@ -102,7 +108,7 @@ class JwtAuthenticationFilterTest {
     // Arrange
     String token = "invalid.jwt.token";
     when(tokenProvider.resolveToken(request)).thenReturn(token);
-    when(tokenProvider.validateToken(token)).thenReturn(false);
+    when(tokenProvider.getValidatedToken(token)).thenReturn(null);
 
     SecurityContextHolder.setContext(securityContext);
 
@@ -112,6 +118,6 @@ class JwtAuthenticationFilterTest {
     // Assert
     verify(securityContext, never()).setAuthentication(any());
     verify(filterChain).doFilter(request, response);
-    verify(tokenProvider, never()).getUsernameFromToken(anyString());
+    verify(userDetailsService, never()).loadUserByUsername(anyString());
   }
 }
\ No newline at end of file
@@ -2,11 +2,20 @@ package edu.ntnu.idatt2106.krisefikser.security;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import edu.ntnu.idatt2106.krisefikser.service.auth.TokenRevocationService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,12 +40,16 @@ class JwtTokenProviderTest {
   @Mock
   private HttpServletRequest request;
 
+  @Mock
+  private TokenRevocationService tokenRevocationService;
+
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
     ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
         "testSecret123456789012345678901234567890");
     ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3600000L);
+    ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", 100);
     tokenProvider.init();
   }
 
@@ -60,6 +73,42 @@ class JwtTokenProviderTest {
     assertFalse(tokenProvider.validateToken("invalid.token.string"));
   }
 
+  @Test
+  void generateToken_shouldIncludeUniqueTokenId() {
+    // Arrange
+    when(authentication.getName()).thenReturn("test@example.com");
+
+    // Act
+    DecodedJWT first = tokenProvider.decodeToken(tokenProvider.generateToken(authentication));
+    DecodedJWT second = tokenProvider.decodeToken(tokenProvider.generateToken(authentication));
+
+    // Assert
+    assertNotNull(first.getId());
+    assertNotEquals(first.getId(), second.getId());
+  }
+
+  @Test
+  void validateToken_shouldReturnFalseForRevokedToken() {
+    // Arrange
+    when(authentication.getName()).thenReturn("test@example.com");
+    String token = tokenProvider.generateToken(authentication);
+    String jti = tokenProvider.decodeToken(token).getId();
+    when(tokenRevocationService.isRevoked(eq(jti), eq("test@example.com"), any()))
+        .thenReturn(true);
+
+    // Act & Assert
+    assertFalse(tokenProvider.validateToken(token));
+  }
+
+  @Test
+  void validateToken_shouldNotCheckRevocation_whenSignatureIsInvalid() {
+    // Act
+    tokenProvider.validateToken("invalid.token.string");
+
+    // Assert
+    verify(tokenRevocationService, never()).isRevoked(anyString(), anyString(), any());
+  }
+
   @Test
   void resolveToken_shouldExtractTokenFromHeader() {
     // Arrange
@@ -95,4 +144,44 @@ class JwtTokenProviderTest {
     // Assert
     assertNull(token);
   }
-}
\ No newline at end of file
+
+  @Test
+  void decodeToken_shouldReturnCachedClaims_whenTokenWasVerifiedBefore() {
+    // Arrange
+    when(authentication.getName()).thenReturn("test@example.com");
+    String token = tokenProvider.generateToken(authentication);
+
+    // Act
+    DecodedJWT first = tokenProvider.decodeToken(token);
+    DecodedJWT second = tokenProvider.decodeToken(token);
+
+    // Assert
+    assertSame(first, second);
+  }
+
+  @Test
+  void decodeToken_shouldNotCacheTamperedToken() {
+    // Arrange
+    when(authentication.getName()).thenReturn("test@example.com");
+    String token = tokenProvider.generateToken(authentication);
+    tokenProvider.decodeToken(token);
+    String[] parts = token.split("\\.");
+    String tampered = parts[0] + "." + parts[1] + "x." + parts[2];
+
+    // Act & Assert
+    assertFalse(tokenProvider.validateToken(tampered));
+  }
+
+  @Test
+  void getValidatedToken_shouldCheckRevocationOnCachedToken() {
+    // Arrange
+    when(authentication.getName()).thenReturn("test@example.com");
+    String token = tokenProvider.generateToken(authentication);
+    assertNotNull(tokenProvider.getValidatedToken(token));
+    when(tokenRevocationService.isRevoked(any(), eq("test@example.com"), any()))
+        .thenReturn(true);
+
+    // Act & Assert
+    assertNull(tokenProvider.getValidatedToken(token));
+  }
+}
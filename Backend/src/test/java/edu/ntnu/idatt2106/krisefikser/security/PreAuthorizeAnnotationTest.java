@@ -1,5 +1,6 @@
 package edu.ntnu.idatt2106.krisefikser.security;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -10,6 +11,7 @@ import edu.ntnu.idatt2106.krisefikser.api.dto.user.admin.AdminInviteRequest;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.admin.AdminSetupRequest;
 import edu.ntnu.idatt2106.krisefikser.service.admin.AdminInvitationService;
 import edu.ntnu.idatt2106.krisefikser.service.incident.IncidentService;
+import edu.ntnu.idatt2106.krisefikser.service.incident.ScenarioGapService;
 import java.time.LocalDateTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -49,6 +51,9 @@ public class PreAuthorizeAnnotationTest {
   @MockBean
   private IncidentService incidentService;
 
+  @MockBean
+  private ScenarioGapService scenarioGapService;
+
   /**
    * Setup method to initialize the MockMvc object before each test.
    */
@@ -178,4 +183,16 @@ public class PreAuthorizeAnnotationTest {
             .content(objectMapper.writeValueAsString(request)))
         .andExpect(status().isCreated());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void getScenarioGap_whenUnauthenticated_shouldReturnUnauthorized() throws Exception {
+    mockMvc.perform(get("/api/scenarios/1/gap"))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  public void getPackingList_whenUnauthenticated_shouldBeAllowed() throws Exception {
+    mockMvc.perform(get("/api/scenarios/1/packing-list"))
+        .andExpect(status().isOk());
+  }
+}
@@ -0,0 +1,93 @@
+package edu.ntnu.idatt2106.krisefikser.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import java.util.Date;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the VerifiedTokenCache class.
+ */
+class VerifiedTokenCacheTest {
+
+  private static DecodedJWT decodedExpiringIn(long millis) {
+    DecodedJWT decoded = mock(DecodedJWT.class);
+    when(decoded.getExpiresAt()).thenReturn(new Date(System.currentTimeMillis() + millis));
+    return decoded;
+  }
+
+  @Test
+  void get_shouldReturnCachedToken() {
+    // Arrange
+    VerifiedTokenCache cache = new VerifiedTokenCache(10);
+    DecodedJWT decoded = decodedExpiringIn(60000);
+    cache.put("token", decoded);
+
+    // Act & Assert
+    assertSame(decoded, cache.get("token"));
+    assertNull(cache.get("other-token"));
+  }
+
+  @Test
+  void get_shouldNotReturnExpiredToken() {
+    // Arrange
+    VerifiedTokenCache cache = new VerifiedTokenCache(10);
+    cache.put("token", decodedExpiringIn(-1000));
+
+    // Act & Assert
+    assertNull(cache.get("token"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void put_shouldStayWithinMaxSize() {
+    // Arrange
+    VerifiedTokenCache cache = new VerifiedTokenCache(20);
+    DecodedJWT decoded = decodedExpiringIn(60000);
+
+    // Act
+    for (int i = 0; i < 100; i++) {
+      cache.put("token-" + i, decoded);
+    }
+
+    // Assert
+    assertTrue(cache.size() <= 20);
+    assertSame(decoded, cache.get("token-99"));
+  }
+
+  @Test
+  void put_shouldEvictExpiredTokensFirst() {
+    // Arrange
+    VerifiedTokenCache cache = new VerifiedTokenCache(3);
+    cache.put("expired-1", decodedExpiringIn(-1000));
+    cache.put("expired-2", decodedExpiringIn(-1000));
+    DecodedJWT live = decodedExpiringIn(60000);
+    cache.put("live", live);
+
+    // Act
+    cache.put("new", decodedExpiringIn(60000));
+
+    // Assert
+    assertSame(live, cache.get("live"));
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void cache_shouldBeDisabled_whenMaxSizeIsZero() {
+    // Arrange
+    VerifiedTokenCache cache = new VerifiedTokenCache(0);
+
+    // Act
+    cache.put("token", decodedExpiringIn(60000));
+
+    // Assert
+    assertNull(cache.get("token"));
+    assertEquals(0, cache.size());
+  }
+}
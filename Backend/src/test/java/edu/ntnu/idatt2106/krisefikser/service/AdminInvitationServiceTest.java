@@ -17,6 +17,7 @@ import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
 import edu.ntnu.idatt2106.krisefikser.service.admin.AdminInvitationService;
 import edu.ntnu.idatt2106.krisefikser.service.auth.EmailService;
+import edu.ntnu.idatt2106.krisefikser.service.auth.TokenRevocationService;
 import java.util.Calendar;
 import java.util.Optional;
 import java.util.UUID;
@@ -39,6 +40,9 @@ class AdminInvitationServiceTest {
   @Mock
   private PasswordEncoder passwordEncoder;
 
+  @Mock
+  private TokenRevocationService tokenRevocationService;
+
   @InjectMocks
   private AdminInvitationService adminInvitationService;
 
@@ -271,6 +275,7 @@ class AdminInvitationServiceTest {
 
     // Assert
     verify(userRepository).delete(adminUser);
+    verify(tokenRevocationService).revokeAllForUser("admin@example.com");
   }
 
   @Test
@@ -2,6 +2,7 @@ package edu.ntnu.idatt2106.krisefikser.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -10,11 +11,15 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import edu.ntnu.idatt2106.krisefikser.api.dto.auth.LoginRequest;
 import edu.ntnu.idatt2106.krisefikser.api.dto.auth.LoginResponse;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.RegisterRequestDto;
@@ -26,19 +31,26 @@ import edu.ntnu.idatt2106.krisefikser.service.auth.AuthService;
 import edu.ntnu.idatt2106.krisefikser.service.auth.CaptchaService;
 import edu.ntnu.idatt2106.krisefikser.service.auth.EmailService;
 import edu.ntnu.idatt2106.krisefikser.service.auth.LoginAttemptService;
+import edu.ntnu.idatt2106.krisefikser.service.auth.TokenRevocationService;
 import edu.ntnu.idatt2106.krisefikser.service.auth.TwoFactorService;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -73,15 +85,22 @@ class AuthServiceTest {
   @Mock
   private TwoFactorService twoFactorService;
 
+  @Mock
+  private TokenRevocationService tokenRevocationService;
+
   @Mock
   private Authentication authentication;
 
-  @InjectMocks
   private AuthService authService;
 
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
+    // Run every registration stage on the calling thread so the pipeline is deterministic
+    Executor direct = Runnable::run;
+    authService = new AuthService(userRepository, passwordEncoder, emailService,
+        authenticationManager, tokenProvider, captchaService, loginAttemptService,
+        twoFactorService, tokenRevocationService, direct, direct);
   }
 
   @Test
@@ -159,8 +178,10 @@ class AuthServiceTest {
       when(userRepository.existsByEmail(anyString())).thenReturn(false);
       when(captchaService.verifyToken(anyString())).thenReturn(true);
 
+      when(passwordEncoder.encode("Password123!")).thenReturn("hashed");
+
       // Act
-      authService.registerUser(request);
+      authService.registerUser(request).join();
 
       // Assert
       ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
@@ -171,6 +192,7 @@ class AuthServiceTest {
       assertEquals("test@example.com", savedUser.getEmail());
       assertEquals("12345678", savedUser.getTlf());
       assertEquals(Role.USER, savedUser.getRole());
+      assertEquals("hashed", savedUser.getPassword());
       assertFalse(savedUser.isConfirmed());
       assertNotNull(savedUser.getConfirmationToken());
 
@@ -187,12 +209,15 @@ class AuthServiceTest {
       when(captchaService.verifyToken("invalidToken")).thenReturn(false);
 
       // Act & Assert
-      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-          () -> authService.registerUser(request));
+      CompletionException exception = assertThrows(CompletionException.class,
+          () -> authService.registerUser(request).join());
 
-      assertEquals("hCaptcha verification failed. Please try again.", exception.getMessage());
+      assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+      assertEquals("hCaptcha verification failed. Please try again.",
+          exception.getCause().getMessage());
       verify(captchaService).verifyToken("invalidToken");
-      verifyNoInteractions(userRepository);
+      verify(userRepository, never()).save(any(User.class));
+      verifyNoInteractions(passwordEncoder);
       verifyNoInteractions(emailService);
     }
 
@@ -207,14 +232,64 @@ class AuthServiceTest {
       when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
 
       // Act & Assert
-      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-          () -> authService.registerUser(request));
+      CompletionException exception = assertThrows(CompletionException.class,
+          () -> authService.registerUser(request).join());
 
-      assertEquals("Email already in use", exception.getMessage());
+      assertEquals("Email already in use", exception.getCause().getMessage());
       verify(userRepository).existsByEmail("existing@example.com");
       verifyNoMoreInteractions(userRepository);
       verifyNoInteractions(emailService);
     }
+
+    @Test
+    void registerUser_shouldReportEmailInUse_whenSaveViolatesUniqueEmail() {
+      // Arrange
+      RegisterRequestDto request = new RegisterRequestDto("Test User", "race@example.com",
+          "Password123!", "12345678");
+      request.sethCaptchaToken("validToken");
+
+      when(captchaService.verifyToken(anyString())).thenReturn(true);
+      when(userRepository.existsByEmail("race@example.com")).thenReturn(false);
+      when(userRepository.save(any(User.class)))
+          .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+      // Act & Assert
+      CompletionException exception = assertThrows(CompletionException.class,
+          () -> authService.registerUser(request).join());
+
+      assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+      assertEquals("Email already in use", exception.getCause().getMessage());
+      verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void registerUser_shouldHashPasswordOnHashingPool() {
+      // Arrange
+      RegisterRequestDto request = new RegisterRequestDto("Test User", "test@example.com",
+          "Password123!", "12345678");
+      request.sethCaptchaToken("validToken");
+      when(captchaService.verifyToken(anyString())).thenReturn(true);
+      when(userRepository.existsByEmail(anyString())).thenReturn(false);
+
+      List<String> hashingThreads = new ArrayList<>();
+      when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+        hashingThreads.add(Thread.currentThread().getName());
+        return "hashed";
+      });
+      ExecutorService hashingPool = Executors.newSingleThreadExecutor(
+          runnable -> new Thread(runnable, "hashing-test"));
+      AuthService pooledService = new AuthService(userRepository, passwordEncoder, emailService,
+          authenticationManager, tokenProvider, captchaService, loginAttemptService,
+          twoFactorService, tokenRevocationService, Runnable::run, hashingPool);
+
+      // Act
+      pooledService.registerUser(request).join();
+      hashingPool.shutdown();
+
+      // Assert
+      assertEquals(List.of("hashing-test"), hashingThreads);
+      verify(userRepository).save(any(User.class));
+    }
   }
 
   @Nested
@@ -821,6 +896,7 @@ class AuthServiceTest {
       assertNull(user.getResetPasswordToken());
       assertNull(user.getResetPasswordTokenExpiration());
       verify(userRepository).save(user);
+      verify(tokenRevocationService).revokeAllForUser("test@example.com");
     }
 
     @Test
@@ -858,4 +934,57 @@ class AuthServiceTest {
       verify(userRepository).findByResetPasswordToken(token);
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Tests for the logout functionality.
+   */
+  @Nested
+  class LogoutTests {
+
+    @Test
+    void logout_shouldRevokeToken_whenTokenHasId() {
+      // Arrange
+      DecodedJWT decoded = mock(DecodedJWT.class);
+      Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+      when(decoded.getId()).thenReturn("token-id");
+      when(decoded.getSubject()).thenReturn("test@example.com");
+      when(decoded.getExpiresAtAsInstant()).thenReturn(expiresAt);
+      when(tokenProvider.decodeToken("jwt")).thenReturn(decoded);
+
+      // Act
+      authService.logout("jwt");
+
+      // Assert
+      verify(tokenRevocationService).revokeToken("token-id", expiresAt);
+      verifyNoMoreInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void logout_shouldRevokeAllUserTokens_whenTokenHasNoId() {
+      // Arrange
+      DecodedJWT decoded = mock(DecodedJWT.class);
+      when(decoded.getSubject()).thenReturn("test@example.com");
+      when(tokenProvider.decodeToken("jwt")).thenReturn(decoded);
+
+      // Act
+      authService.logout("jwt");
+
+      // Assert
+      verify(tokenRevocationService).revokeAllForUser("test@example.com");
+    }
+
+    @Test
+    void logout_shouldThrowException_whenTokenIsInvalid() {
+      // Arrange
+      when(tokenProvider.decodeToken("invalid"))
+          .thenThrow(new JWTVerificationException("bad signature"));
+
+      // Act & Assert
+      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+          () -> authService.logout("invalid"));
+
+      assertEquals("Invalid token", exception.getMessage());
+      verifyNoInteractions(tokenRevocationService);
+    }
+  }
+}
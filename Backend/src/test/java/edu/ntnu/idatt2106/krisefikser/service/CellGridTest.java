@@ -0,0 +1,68 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.service.map.CellGrid;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoBounds;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CellGridTest {
+
+  private static List<String> collect(Map<Long, String> cells, long minRow, long maxRow,
+      long minColumn, long maxColumn) {
+    List<String> found = new ArrayList<>();
+    CellGrid.forEach(cells, minRow, maxRow, minColumn, maxColumn, found::add);
+    found.sort(null);
+    return found;
+  }
+
+  @Test
+  void forEach_shouldFindTheSameCells_whetherLookingUpOrScanning() {
+    // Arrange
+    Map<Long, String> cells = new HashMap<>();
+    cells.put(CellGrid.key(2, 3), "a");
+    cells.put(CellGrid.key(5, 5), "b");
+    cells.put(CellGrid.key(9, 1), "c");
+
+    // Act
+    List<String> lookedUp = collect(cells, 5, 5, 4, 5);
+    List<String> scanned = collect(cells, 0, 6, 0, 1000);
+
+    // Assert
+    assertEquals(List.of("b"), lookedUp);
+    assertEquals(List.of("a", "b"), scanned);
+  }
+
+  @Test
+  void forEach_shouldPlacePointsInTheDegreeGrid() {
+    // Arrange
+    Map<Long, String> cells = new HashMap<>();
+    cells.put(CellGrid.cellOf(63.43, 10.39), "trondheim");
+    cells.put(CellGrid.cellOf(59.91, 10.75), "oslo");
+    List<String> found = new ArrayList<>();
+
+    // Act
+    CellGrid.forEach(cells, new GeoBounds(63.3, 10.2, 63.5, 10.5), found::add);
+
+    // Assert
+    assertEquals(List.of("trondheim"), found);
+  }
+
+  @Test
+  void around_shouldCoverEveryLongitude_whenCircleReachesPole() {
+    // Act
+    GeoBounds polar = CellGrid.around(89.9, 10, 50);
+    GeoBounds trondheim = CellGrid.around(63.43, 10.39, 10);
+
+    // Assert
+    assertEquals(-180, polar.getWest());
+    assertEquals(180, polar.getEast());
+    assertTrue(trondheim.contains(63.5, 10.5));
+    assertTrue(trondheim.getEast() - trondheim.getWest() < 1);
+  }
+}
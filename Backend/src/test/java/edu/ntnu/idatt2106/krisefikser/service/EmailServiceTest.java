@@ -3,14 +3,19 @@ package edu.ntnu.idatt2106.krisefikser.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.any;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MailTemplate;
 import edu.ntnu.idatt2106.krisefikser.service.auth.EmailService;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import edu.ntnu.idatt2106.krisefikser.service.mail.MailQueueService;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -18,30 +23,25 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.mail.javamail.JavaMailSender;
 
 class EmailServiceTest {
 
   @Mock
-  private JavaMailSender mailSender;
-
-  @Mock
-  private MimeMessage mimeMessage;
+  private MailQueueService mailQueueService;
 
   @InjectMocks
   private EmailService emailService;
 
   @Captor
-  private ArgumentCaptor<MimeMessage> mimeMessageCaptor;
+  private ArgumentCaptor<Map<String, String>> paramsCaptor;
 
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
-    when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
   }
 
   @Test
-  void sendConfirmationEmail_shouldCreateAndSendEmail() throws MessagingException {
+  void sendConfirmationEmail_shouldQueueEmail() {
     // Arrange
     String email = "test@example.com";
     String token = "test-token-123";
@@ -50,16 +50,13 @@ class EmailServiceTest {
     emailService.sendConfirmationEmail(email, token);
 
     // Assert
-    verify(mailSender).createMimeMessage();
-    verify(mailSender).send(mimeMessageCaptor.capture());
-
-    // We can't easily verify the content directly due to MimeMessageHelper being final
-    // But we can verify that the message was sent
-    assertEquals(mimeMessage, mimeMessageCaptor.getValue());
+    verify(mailQueueService).enqueue(eq(email), eq(MailTemplate.CONFIRMATION), isNull(),
+        paramsCaptor.capture());
+    assertTrue(paramsCaptor.getValue().get("confirmationUrl").endsWith("confirm?token=" + token));
   }
 
   @Test
-  void sendAdminInvitation_shouldCreateAndSendEmail() throws MessagingException {
+  void sendAdminInvitation_shouldQueueEmail() {
     // Arrange
     String email = "admin@example.com";
     String invitationLink = "http://localhost:5173/admin/setup?token=abc123";
@@ -68,13 +65,13 @@ class EmailServiceTest {
     emailService.sendAdminInvitation(email, invitationLink);
 
     // Assert
-    verify(mailSender).createMimeMessage();
-    verify(mailSender).send(mimeMessageCaptor.capture());
-    assertEquals(mimeMessage, mimeMessageCaptor.getValue());
+    verify(mailQueueService).enqueue(eq(email), eq(MailTemplate.ADMIN_INVITATION), isNull(),
+        paramsCaptor.capture());
+    assertEquals(invitationLink, paramsCaptor.getValue().get("invitationLink"));
   }
 
   @Test
-  void sendOtpEmail_shouldCreateAndSendEmail() throws MessagingException {
+  void sendOtpEmail_shouldQueueEmail() {
     // Arrange
     String email = "user@example.com";
     String otp = "123456";
@@ -83,76 +80,41 @@ class EmailServiceTest {
     emailService.sendOtpEmail(email, otp);
 
     // Assert
-    verify(mailSender).createMimeMessage();
-    verify(mailSender).send(mimeMessageCaptor.capture());
-    assertEquals(mimeMessage, mimeMessageCaptor.getValue());
+    verify(mailQueueService).enqueue(eq(email), eq(MailTemplate.OTP), isNull(),
+        paramsCaptor.capture());
+    assertEquals(otp, paramsCaptor.getValue().get("otp"));
   }
 
   @Test
-  void sendConfirmationEmail_shouldThrowRuntimeException_whenMessagingExceptionOccurs()
-      throws MessagingException {
+  void sendPasswordResetEmail_shouldQueueEmail() {
     // Arrange
     String email = "test@example.com";
-    String token = "test-token-123";
+    String token = "reset-token-123";
 
-    // Mock the send method to throw an exception
-    doThrow(new RuntimeException("Failed to send email")).when(mailSender)
-        .send(any(MimeMessage.class));
+    // Act
+    emailService.sendPasswordResetEmail(email, token);
 
-    // Act & Assert
-    assertThrows(RuntimeException.class, () -> emailService.sendConfirmationEmail(email, token));
+    // Assert
+    verify(mailQueueService).enqueue(eq(email), eq(MailTemplate.PASSWORD_RESET), isNull(),
+        paramsCaptor.capture());
+    assertTrue(paramsCaptor.getValue().get("resetUrl").endsWith("reset-password?token=" + token));
   }
 
   @Test
-  void sendAdminInvitation_shouldThrowRuntimeException_whenMessagingExceptionOccurs()
-      throws MessagingException {
+  void sendConfirmationEmail_shouldPropagateException_whenQueueIsUnavailable() {
     // Arrange
-    String email = "admin@example.com";
-    String invitationLink = "http://localhost:5173/admin/setup?token=abc123";
-
-    // Mock the send method to throw an exception
-    doThrow(new RuntimeException("Failed to send email")).when(mailSender)
-        .send(any(MimeMessage.class));
+    doThrow(new RuntimeException("Database unavailable")).when(mailQueueService)
+        .enqueue(anyString(), any(MailTemplate.class), any(), anyMap());
 
     // Act & Assert
     assertThrows(RuntimeException.class,
-        () -> emailService.sendAdminInvitation(email, invitationLink));
-  }
-
-  @Test
-  void sendOtpEmail_shouldThrowRuntimeException_whenMessagingExceptionOccurs()
-      throws MessagingException {
-    // Arrange
-    String email = "user@example.com";
-    String otp = "123456";
-
-    // Mock the send method to throw an exception
-    doThrow(new RuntimeException("Failed to send email")).when(mailSender)
-        .send(any(MimeMessage.class));
-
-    // Act & Assert
-    assertThrows(RuntimeException.class, () -> emailService.sendOtpEmail(email, otp));
+        () -> emailService.sendConfirmationEmail("test@example.com", "token"));
   }
 
   @Test
   void emailService_shouldHaveCorrectDependencyInjected() {
-    // Verify that the constructor properly sets the JavaMailSender
-    EmailService service = new EmailService(mailSender);
+    // Verify that the constructor properly sets the MailQueueService
+    EmailService service = new EmailService(mailQueueService);
     assertNotNull(service);
   }
-
-  @Test
-  void sendPasswordResetEmail_shouldCreateAndSendEmail() {
-    // Arrange
-    String email = "test@example.com";
-    String token = "reset-token-123";
-
-    // Act
-    emailService.sendPasswordResetEmail(email, token);
-
-    // Assert
-    verify(mailSender).createMimeMessage();
-    verify(mailSender).send(mimeMessageCaptor.capture());
-    assertEquals(mimeMessage, mimeMessageCaptor.getValue());
-  }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoBounds;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoJsonPolygons;
+import edu.ntnu.idatt2106.krisefikser.service.map.PreparedPolygon;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the GeoJsonPolygons class.
+ */
+class GeoJsonPolygonsTest {
+
+  @Test
+  void prepare_shouldJoinAllPartsOfMultiPolygon() {
+    // Arrange
+    String zone = """
+        {"type": "MultiPolygon", "coordinates": [
+          [[[10.0, 63.0], [10.2, 63.0], [10.2, 63.2], [10.0, 63.2], [10.0, 63.0]],
+           [[10.05, 63.05], [10.15, 63.05], [10.15, 63.15], [10.05, 63.15], [10.05, 63.05]]],
+          [[[10.5, 63.0], [10.7, 63.0], [10.6, 63.2], [10.5, 63.0]]]]}
+        """;
+
+    // Act
+    PreparedPolygon polygon = GeoJsonPolygons.prepare(zone);
+
+    // Assert
+    assertTrue(polygon.contains(63.02, 10.02));
+    assertFalse(polygon.contains(63.1, 10.1));
+    assertTrue(polygon.contains(63.05, 10.6));
+    assertFalse(polygon.contains(63.1, 10.35));
+    GeoBounds bounds = polygon.getBounds();
+    assertEquals(10.0, bounds.getWest());
+    assertEquals(10.7, bounds.getEast());
+  }
+
+  @Test
+  void prepare_shouldRejectInvalidGeometries() {
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> GeoJsonPolygons.prepare("not json"));
+    assertThrows(IllegalArgumentException.class, () -> GeoJsonPolygons.prepare(
+        "{\"type\": \"LineString\", \"coordinates\": [[10, 63], [11, 63]]}"));
+    assertThrows(IllegalArgumentException.class, () -> GeoJsonPolygons.prepare(
+        "{\"type\": \"Polygon\", \"coordinates\": [[[10, 63], [11, 63]]]}"));
+    assertThrows(IllegalArgumentException.class, () -> GeoJsonPolygons.prepare(
+        "{\"type\": \"Polygon\", \"coordinates\": [[[10, 95], [11, 63], [11, 64], [10, 95]]]}"));
+    assertThrows(IllegalArgumentException.class, () -> GeoJsonPolygons.prepare(
+        "{\"type\": \"MultiPolygon\", \"coordinates\": []}"));
+  }
+}
@@ -0,0 +1,111 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoArea;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoDistance;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoOrigin;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the GeoOrigin class.
+ */
+class GeoOriginTest {
+
+  @Test
+  void distanceKm_shouldStayWithinFastPathErrorForShortDistances() {
+    // Arrange
+    Random random = new Random(7);
+    double maxError = 0;
+
+    // Act
+    for (int i = 0; i < 100_000; i++) {
+      double latitude = -78 + random.nextDouble() * 156;
+      double longitude = -180 + random.nextDouble() * 360;
+      double otherLatitude = latitude + (random.nextDouble() * 2 - 1);
+      double otherLongitude = longitude + (random.nextDouble() * 2 - 1);
+      double exact = GeoDistance.haversineKm(latitude, longitude, otherLatitude, otherLongitude);
+      if (exact > 0.001) {
+        double fast = new GeoOrigin(latitude, longitude).distanceKm(otherLatitude, otherLongitude);
+        maxError = Math.max(maxError, Math.abs(fast - exact) / exact);
+      }
+    }
+
+    // Assert
+    assertTrue(maxError < GeoOrigin.FAST_PATH_MAX_ERROR, "Largest error was " + maxError);
+  }
+
+  @Test
+  void distanceKm_shouldMatchHaversineForLongDistancesAndNearPoles() {
+    // Arrange
+    GeoOrigin oslo = new GeoOrigin(59.91, 10.75);
+    GeoOrigin svalbard = new GeoOrigin(89.5, 15.0);
+
+    // Act
+    double toTromso = oslo.distanceKm(69.65, 18.96);
+    double acrossPole = svalbard.distanceKm(89.5, -165.0);
+
+    // Assert
+    assertEquals(GeoDistance.haversineKm(59.91, 10.75, 69.65, 18.96), toTromso, 1e-6);
+    assertEquals(GeoDistance.haversineKm(89.5, 15.0, 89.5, -165.0), acrossPole, 1e-6);
+  }
+
+  @Test
+  void distanceKm_shouldWrapAroundDateLine() {
+    // Arrange
+    GeoOrigin origin = new GeoOrigin(65.0, 179.9);
+
+    // Act
+    double distance = origin.distanceKm(65.0, -179.9);
+
+    // Assert
+    assertEquals(GeoDistance.haversineKm(65.0, 179.9, 65.0, 180.1), distance, 0.01);
+    assertTrue(distance < 10);
+  }
+
+  @Test
+  void within_shouldAgreeWithHaversineOnRandomPoints() {
+    // Arrange
+    Random random = new Random(11);
+    int disagreements = 0;
+
+    // Act
+    for (int i = 0; i < 100_000; i++) {
+      double latitude = -85 + random.nextDouble() * 170;
+      double longitude = -180 + random.nextDouble() * 360;
+      double radiusKm = 0.1 + random.nextDouble() * (i % 10 == 0 ? 500 : 50);
+      double spread = radiusKm / GeoDistance.KM_PER_DEGREE_LATITUDE * 1.5;
+      double otherLatitude = Math.max(-90, Math.min(90,
+          latitude + (random.nextDouble() * 2 - 1) * spread));
+      double otherLongitude = longitude + (random.nextDouble() * 2 - 1) * spread;
+      double exact = GeoDistance.haversineKm(latitude, longitude, otherLatitude, otherLongitude);
+      if (Math.abs(exact - radiusKm) < 1e-6) {
+        // Too close to the edge for the two formulas to be compared
+        continue;
+      }
+      GeoArea circle = new GeoOrigin(latitude, longitude).within(radiusKm);
+      if (circle.contains(otherLatitude, otherLongitude) != exact <= radiusKm) {
+        disagreements++;
+      }
+    }
+
+    // Assert
+    assertEquals(0, disagreements);
+  }
+
+  @Test
+  void within_shouldHandleDateLineAndPole() {
+    // Arrange
+    GeoArea nearDateLine = new GeoOrigin(0.0, 179.95).within(20);
+    GeoArea nearPole = new GeoOrigin(89.9, 0.0).within(30);
+
+    // Act & Assert
+    assertTrue(nearDateLine.contains(0.0, -179.95));
+    assertFalse(nearDateLine.contains(0.0, -179.7));
+    assertTrue(nearPole.contains(89.9, 180.0));
+    assertFalse(nearPole.contains(89.5, 180.0));
+  }
+}
@@ -0,0 +1,96 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.map.GeocodingBackfillResultDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeocodingBackfillService;
+import edu.ntnu.idatt2106.krisefikser.service.map.OfflineGeocoder;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconChangeLog;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the geocoding backfill against the real schema.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({GeocodingBackfillService.class, MapIconChangeLog.class, OfflineGeocoder.class})
+class GeocodingBackfillServiceTest {
+
+  @Autowired
+  private GeocodingBackfillService backfillService;
+
+  @Autowired
+  private OfflineGeocoder geocoder;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  private Long knownIcon;
+  private Long unknownIcon;
+  private Long placedIcon;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    geocoder.load(new StringReader(
+        "Kongens gate;12;;7011;Trondheim;63.43;10.39\n"
+            + "Storgata;1;;0155;Oslo;59.91;10.75\n"));
+
+    knownIcon = persistIcon("Kongens gate 12, Trondheim", null).getId();
+    unknownIcon = persistIcon("Nowhere 1", null).getId();
+    placedIcon = persistIcon("Kongens gate 12", 60.0).getId();
+    persistHousehold("H1", "Storgata 1, 0155 Oslo");
+    persistHousehold("H2", "Nowhere 2");
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  private MapIcon persistIcon(String address, Double latitude) {
+    MapIcon icon = new MapIcon();
+    icon.setType(MapIconType.SHELTER);
+    icon.setAddress(address);
+    icon.setLatitude(latitude);
+    icon.setLongitude(latitude == null ? null : 10.0);
+    return entityManager.persist(icon);
+  }
+
+  private void persistHousehold(String id, String address) {
+    User owner = entityManager.persist(new User(id.toLowerCase() + "@example.com", "hash",
+        "Owner User", Role.USER, null, "12345678", true, null));
+    Household household = new Household("Household " + id, address, 1, owner);
+    household.setId(id);
+    entityManager.persist(household);
+  }
+
+  @Test
+  void backfill_shouldGeocodeRowsWithoutCoordinates() {
+    // Act
+    GeocodingBackfillResultDto result = backfillService.backfill();
+    entityManager.flush();
+    entityManager.clear();
+
+    // Assert
+    assertEquals(1, result.getIconsGeocoded());
+    assertEquals(1, result.getIconsUnmatched());
+    assertEquals(1, result.getHouseholdsGeocoded());
+    assertEquals(1, result.getHouseholdsUnmatched());
+    assertEquals(63.43, entityManager.find(MapIcon.class, knownIcon).getLatitude(), 1e-9);
+    assertNull(entityManager.find(MapIcon.class, unknownIcon).getLatitude());
+    assertEquals(60.0, entityManager.find(MapIcon.class, placedIcon).getLatitude(), 1e-9);
+    assertEquals(59.91, entityManager.find(Household.class, "H1").getLatitude(), 1e-9);
+    assertNull(entityManager.find(Household.class, "H2").getLatitude());
+  }
+}
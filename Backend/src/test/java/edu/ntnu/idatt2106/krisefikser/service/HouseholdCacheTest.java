@@ -0,0 +1,218 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdCacheStatsDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdResponseDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdCache;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdChangedEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HouseholdCacheTest {
+
+  private HouseholdRepository householdRepository;
+  private HouseholdCache householdCache;
+
+  @BeforeEach
+  void setUp() {
+    householdRepository = mock(HouseholdRepository.class);
+    householdCache = new HouseholdCache(householdRepository, 100, 60_000);
+  }
+
+  private static HouseholdResponseDto household(String id, String name) {
+    return new HouseholdResponseDto(id, name, "Storgata 1", null);
+  }
+
+  private static HouseholdChangedEvent edited(String id) {
+    return new HouseholdChangedEvent(id, HouseholdChangedEvent.Change.EDITED);
+  }
+
+  @Test
+  void get_shouldServeRepeatedReadsFromCache() {
+    // Arrange
+    when(householdRepository.findResponseById("h1"))
+        .thenReturn(Optional.of(household("h1", "Nordmann")));
+
+    // Act
+    householdCache.get("h1");
+    Optional<HouseholdResponseDto> result = householdCache.get("h1");
+
+    // Assert
+    assertEquals("Nordmann", result.orElseThrow().getName());
+    verify(householdRepository, times(1)).findResponseById("h1");
+    HouseholdCacheStatsDto stats = householdCache.getStats();
+    assertEquals(1, stats.getHits());
+    assertEquals(1, stats.getMisses());
+    assertEquals(0.5, stats.getHitRate());
+  }
+
+  @Test
+  void get_shouldNotCacheMissingHousehold() {
+    // Arrange
+    when(householdRepository.findResponseById("missing")).thenReturn(Optional.empty());
+
+    // Act
+    householdCache.get("missing");
+    householdCache.get("missing");
+
+    // Assert
+    verify(householdRepository, times(2)).findResponseById("missing");
+    assertEquals(0, householdCache.getStats().getSize());
+  }
+
+  @Test
+  void onHouseholdChanged_shouldDropHousehold() {
+    // Arrange
+    when(householdRepository.findResponseById("h1"))
+        .thenReturn(Optional.of(household("h1", "Nordmann")))
+        .thenReturn(Optional.of(household("h1", "Nordmann Hytte")));
+    householdCache.get("h1");
+
+    // Act
+    householdCache.onHouseholdChanged(edited("h1"));
+    Optional<HouseholdResponseDto> result = householdCache.get("h1");
+
+    // Assert
+    assertEquals("Nordmann Hytte", result.orElseThrow().getName());
+    assertEquals(1, householdCache.getStats().getInvalidations());
+  }
+
+  @Test
+  void get_shouldNotStoreValueLoadedBeforeConcurrentChange() {
+    // Arrange: the household changes while the first read is loading it
+    when(householdRepository.findResponseById("h1"))
+        .thenAnswer(invocation -> {
+          householdCache.onHouseholdChanged(edited("h1"));
+          return Optional.of(household("h1", "Old name"));
+        })
+        .thenReturn(Optional.of(household("h1", "New name")));
+
+    // Act
+    householdCache.get("h1");
+    Optional<HouseholdResponseDto> result = householdCache.get("h1");
+
+    // Assert
+    assertEquals("New name", result.orElseThrow().getName());
+  }
+
+  @Test
+  void get_shouldEvictWhenFull() {
+    // Arrange
+    householdCache = new HouseholdCache(householdRepository, 10, 60_000);
+    when(householdRepository.findResponseById(anyString()))
+        .thenAnswer(invocation -> Optional.of(household(invocation.getArgument(0), "Name")));
+
+    // Act
+    for (int i = 0; i < 25; i++) {
+      householdCache.get("h" + i);
+    }
+
+    // Assert
+    HouseholdCacheStatsDto stats = householdCache.getStats();
+    assertTrue(stats.getSize() <= 10);
+    assertTrue(stats.getEvictions() > 0);
+  }
+
+  @Test
+  void get_shouldReloadExpiredHousehold() {
+    // Arrange
+    householdCache = new HouseholdCache(householdRepository, 100, 0);
+    when(householdRepository.findResponseById("h1"))
+        .thenReturn(Optional.of(household("h1", "Nordmann")));
+
+    // Act
+    householdCache.get("h1");
+    householdCache.get("h1");
+
+    // Assert
+    verify(householdRepository, times(2)).findResponseById("h1");
+  }
+
+  @Test
+  void concurrentEdits_shouldNeverLeaveStaleHouseholdInCache() throws Exception {
+    // Arrange: a slow repository over a household whose name is bumped by every edit
+    HouseholdRepository slowRepository =
+        mock(HouseholdRepository.class, withSettings().stubOnly());
+    Object lock = new Object();
+    int[] version = {0};
+    when(slowRepository.findResponseById("h1")).thenAnswer(invocation -> {
+      int read;
+      synchronized (lock) {
+        read = version[0];
+      }
+      TimeUnit.MICROSECONDS.sleep(ThreadLocalRandom.current().nextInt(200));
+      return Optional.of(household("h1", String.valueOf(read)));
+    });
+    HouseholdCache cache = new HouseholdCache(slowRepository, 100, 60_000);
+
+    int writers = 2;
+    int readers = 6;
+    int editsPerWriter = 300;
+    ExecutorService pool = Executors.newFixedThreadPool(writers + readers);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicBoolean writing = new AtomicBoolean(true);
+    List<Future<?>> writerTasks = new ArrayList<>();
+    List<Future<?>> readerTasks = new ArrayList<>();
+    for (int w = 0; w < writers; w++) {
+      writerTasks.add(pool.submit(() -> {
+        start.await();
+        for (int i = 0; i < editsPerWriter; i++) {
+          int written;
+          synchronized (lock) {
+            written = ++version[0];
+          }
+          cache.onHouseholdChanged(edited("h1"));
+          // Once the change is published, its writer must never read an older household
+          int seen = Integer.parseInt(cache.get("h1").orElseThrow().getName());
+          assertTrue(seen >= written, "Read version " + seen + " after writing " + written);
+        }
+        return null;
+      }));
+    }
+    for (int r = 0; r < readers; r++) {
+      readerTasks.add(pool.submit(() -> {
+        start.await();
+        while (writing.get()) {
+          cache.get("h1");
+        }
+        return null;
+      }));
+    }
+
+    // Act
+    start.countDown();
+    for (Future<?> task : writerTasks) {
+      task.get(60, TimeUnit.SECONDS);
+    }
+    writing.set(false);
+    for (Future<?> task : readerTasks) {
+      task.get(10, TimeUnit.SECONDS);
+    }
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+    // Assert
+    assertEquals(String.valueOf(writers * editsPerWriter),
+        cache.get("h1").orElseThrow().getName());
+    assertTrue(cache.getStats().getHits() > 0);
+  }
+}
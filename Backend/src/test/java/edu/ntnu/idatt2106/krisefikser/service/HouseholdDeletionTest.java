@@ -0,0 +1,132 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.item.Item;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.storage.StorageItem;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.unregisteredhouseholdmember.UnregisteredHouseholdMember;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.ItemType;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdCache;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdIdAllocator;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdSearchRateLimiter;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdService;
+import edu.ntnu.idatt2106.krisefikser.service.map.OfflineGeocoder;
+import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Deletes a populated household against the real schema and checks that everything is removed
+ * with bulk statements instead of one statement per member or storage item.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({HouseholdService.class, HouseholdIdAllocator.class, HouseholdSearchRateLimiter.class,
+    HouseholdCache.class, OfflineGeocoder.class})
+class HouseholdDeletionTest {
+
+  private static final int MEMBERS = 10;
+
+  @Autowired
+  private HouseholdService householdService;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @MockBean
+  private NotificationService notificationService;
+
+  private String householdId;
+  private final List<String> userIds = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    User owner = persistUser("owner");
+    Household household = new Household("Doomed Household", "1 Main St", MEMBERS + 1, owner);
+    household.setId(UUID.randomUUID().toString());
+    entityManager.persist(household);
+    owner.setHousehold(household);
+    householdId = household.getId();
+    userIds.add(owner.getId());
+
+    Item water = entityManager.persist(new Item("Water", 0, ItemType.LIQUIDS));
+    for (int i = 0; i < MEMBERS; i++) {
+      User member = persistUser("member" + i);
+      member.setHousehold(household);
+      userIds.add(member.getId());
+      entityManager.persist(new UnregisteredHouseholdMember("Child " + i, household));
+      entityManager.persist(new StorageItem(household, water, "L", 2,
+          LocalDateTime.now().plusDays(30), LocalDateTime.now()));
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    SecurityContextHolder.setContext(new SecurityContextImpl(
+        new UsernamePasswordAuthenticationToken("owner@example.com", null)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  private User persistUser(String name) {
+    return entityManager.persist(
+        new User(name + "@example.com", "hash", name, Role.USER, null, "12345678", true, null));
+  }
+
+  private long count(String entity) {
+    return entityManager.getEntityManager()
+        .createQuery("SELECT COUNT(e) FROM " + entity + " e WHERE e.household.id = :id",
+            Long.class)
+        .setParameter("id", householdId)
+        .getSingleResult();
+  }
+
+  @Test
+  void deleteHousehold_shouldRemoveEverythingWithBulkStatements() {
+    // Arrange
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    // Act
+    householdService.deleteHousehold();
+    entityManager.flush();
+
+    // Assert
+    assertEquals(0, statistics.getEntityDeleteCount());
+    assertEquals(0, statistics.getEntityUpdateCount());
+    entityManager.clear();
+    assertNull(entityManager.find(Household.class, householdId));
+    assertEquals(0, count("UnregisteredHouseholdMember"));
+    assertEquals(0, count("StorageItem"));
+    assertEquals(0, count("User"));
+    assertTrue(userIds.stream()
+        .allMatch(id -> entityManager.find(User.class, id).getHousehold() == null));
+  }
+}
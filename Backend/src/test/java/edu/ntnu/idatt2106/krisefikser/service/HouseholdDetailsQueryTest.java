@@ -0,0 +1,134 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdDetailsResponseDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.unregisteredhouseholdmember.UnregisteredHouseholdMember;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdCache;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdIdAllocator;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdSearchRateLimiter;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdService;
+import edu.ntnu.idatt2106.krisefikser.service.map.OfflineGeocoder;
+import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs getHouseholdDetails against the real schema and counts the SQL statements it issues, so
+ * the screen does not slide back into one query per association.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({HouseholdService.class, HouseholdIdAllocator.class, HouseholdSearchRateLimiter.class,
+    HouseholdCache.class, OfflineGeocoder.class})
+class HouseholdDetailsQueryTest {
+
+  @Autowired
+  private HouseholdService householdService;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @MockBean
+  private NotificationService notificationService;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    User owner = persistUser("owner@example.com", "Owner User");
+    Household household = new Household("Test Household", "123 Main St", 5, owner);
+    household.setId(UUID.randomUUID().toString());
+    entityManager.persist(household);
+    owner.setHousehold(household);
+
+    User member = persistUser("member@example.com", "Member User");
+    member.setHousehold(household);
+    persistUser("nohousehold@example.com", "Lonely User");
+    entityManager.persist(new UnregisteredHouseholdMember("Baby Doe", household));
+    entityManager.persist(new UnregisteredHouseholdMember("Grandpa Doe", household));
+    entityManager.flush();
+    entityManager.clear();
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  private User persistUser(String email, String fullName) {
+    User user = new User(email, "hash", fullName, Role.USER, null, "12345678", true, null);
+    return entityManager.persist(user);
+  }
+
+  private void loginAs(String email) {
+    SecurityContextHolder.setContext(
+        new SecurityContextImpl(new UsernamePasswordAuthenticationToken(email, null)));
+  }
+
+  @Test
+  void shouldLoadDetailsWithTwoStatements() {
+    // Arrange
+    loginAs("member@example.com");
+
+    // Act
+    HouseholdDetailsResponseDto details = householdService.getHouseholdDetails();
+
+    // Assert
+    assertEquals(2, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+    assertEquals("Test Household", details.getHousehold().getName());
+    assertEquals("owner@example.com", details.getHousehold().getOwner().getEmail());
+    assertEquals(2, details.getUsers().size());
+    assertTrue(details.getUsers().stream()
+        .anyMatch(user -> user.getEmail().equals("member@example.com")));
+    assertEquals(2, details.getUnregisteredMembers().size());
+  }
+
+  @Test
+  void shouldReportMissingHousehold() {
+    // Arrange
+    loginAs("nohousehold@example.com");
+
+    // Act & Assert
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> householdService.getHouseholdDetails());
+    assertEquals("User does not belong to a household", exception.getMessage());
+  }
+
+  @Test
+  void shouldReportMissingUser() {
+    // Arrange
+    loginAs("unknown@example.com");
+
+    // Act & Assert
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> householdService.getHouseholdDetails());
+    assertEquals("User not found", exception.getMessage());
+  }
+}
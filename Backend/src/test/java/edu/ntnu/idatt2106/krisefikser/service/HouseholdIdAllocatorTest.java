@@ -0,0 +1,140 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdIdBlockRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdIdAllocator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs several allocators against one database, as several nodes would, and checks that the
+ * codes they hand out never collide. Runs without a test transaction, so each block reservation
+ * commits like it does in production.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HouseholdIdAllocatorTest {
+
+  private static final String CODE_PATTERN = "[0-9A-HJKMNP-TV-Z]{4}-[0-9A-HJKMNP-TV-Z]{4}";
+
+  @Autowired
+  private HouseholdIdBlockRepository blockRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @AfterEach
+  void tearDown() {
+    blockRepository.deleteAll();
+  }
+
+  private HouseholdIdAllocator newAllocator(int blockSize) {
+    return new HouseholdIdAllocator(blockRepository, transactionManager, blockSize);
+  }
+
+  @Test
+  void next_shouldReturnReadableCodes() {
+    // Arrange
+    HouseholdIdAllocator allocator = newAllocator(100);
+
+    // Act
+    List<String> codes = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      codes.add(allocator.next());
+    }
+
+    // Assert
+    assertTrue(codes.stream().allMatch(code -> code.matches(CODE_PATTERN)));
+    assertEquals(codes.size(), Set.copyOf(codes).size());
+  }
+
+  @Test
+  void next_shouldOnlyReserveOneBlockPerBlockSizeIds() {
+    // Arrange
+    HouseholdIdAllocator allocator = newAllocator(1000);
+
+    // Act
+    for (int i = 0; i < 2500; i++) {
+      allocator.next();
+    }
+
+    // Assert
+    assertEquals(3, blockRepository.findNextBlock("household"));
+  }
+
+  @Test
+  void normalize_shouldReadCodesAsTyped() {
+    // Act & Assert
+    assertEquals("7KQ2-M9XD", HouseholdIdAllocator.normalize(" 7kq2-m9xd "));
+    assertEquals("7KQ2-M9XD", HouseholdIdAllocator.normalize("7kq2m9xd"));
+    assertEquals("7KQ2-M9XD", HouseholdIdAllocator.normalize("7KQ2 M9XD"));
+    assertEquals("7KQ2-M9XD", HouseholdIdAllocator.normalize("7 kq2 - m9 xd"));
+    assertEquals("7KQ2-M90D", HouseholdIdAllocator.normalize("7kq2m9od"));
+    assertEquals("1B2C-3D4E", HouseholdIdAllocator.normalize("1b2c-3d4e"));
+    assertEquals("7KQ2", HouseholdIdAllocator.normalize("7kq2"));
+    assertNull(HouseholdIdAllocator.normalize(null));
+  }
+
+  @Test
+  void normalize_shouldKeepLegacyHexIds() {
+    // Act & Assert
+    assertEquals("1B2C3D4E", HouseholdIdAllocator.normalize(" 1b2c3d4e "));
+  }
+
+  @Test
+  void concurrentAllocators_shouldNeverHandOutTheSameCode() throws Exception {
+    // Arrange
+    int nodes = 3;
+    int threadsPerNode = 4;
+    int idsPerThread = 500;
+    List<HouseholdIdAllocator> allocators = new ArrayList<>();
+    for (int i = 0; i < nodes; i++) {
+      allocators.add(newAllocator(50));
+    }
+    Set<String> codes = ConcurrentHashMap.newKeySet();
+    ExecutorService pool = Executors.newFixedThreadPool(nodes * threadsPerNode);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> tasks = new ArrayList<>();
+    for (HouseholdIdAllocator allocator : allocators) {
+      for (int t = 0; t < threadsPerNode; t++) {
+        tasks.add(pool.submit(() -> {
+          start.await();
+          for (int i = 0; i < idsPerThread; i++) {
+            codes.add(allocator.next());
+          }
+          return null;
+        }));
+      }
+    }
+
+    // Act
+    start.countDown();
+    for (Future<?> task : tasks) {
+      task.get(60, TimeUnit.SECONDS);
+    }
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+    // Assert
+    assertEquals(nodes * threadsPerNode * idsPerThread, codes.size());
+  }
+}
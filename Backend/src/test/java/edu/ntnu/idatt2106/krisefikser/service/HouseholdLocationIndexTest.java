@@ -0,0 +1,164 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.position.UserLocationDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdChangedEvent;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdLocationIndex;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoBounds;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Tests the household location index against the real schema.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(HouseholdLocationIndex.class)
+class HouseholdLocationIndexTest {
+
+  @Autowired
+  private HouseholdLocationIndex index;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @BeforeEach
+  void setUp() {
+    // Trondheim centre, Heimdal (about 10 km south) and Oslo
+    persistHousehold("H1", 63.4305, 10.3951);
+    persistHousehold("H2", 63.3500, 10.3600);
+    persistHousehold("H3", 59.9139, 10.7522);
+    persistHousehold("H4", null, null);
+    entityManager.flush();
+    entityManager.clear();
+    // The index outlives the rolled back data of earlier tests, so start each test from this data
+    index.refresh();
+  }
+
+  private void persistHousehold(String id, Double latitude, Double longitude) {
+    User owner = entityManager.persist(new User(id.toLowerCase() + "@example.com", "hash",
+        "Owner User", Role.USER, null, "12345678", true, null));
+    Household household = new Household("Household " + id, "Storgata 1", 1, owner);
+    household.setId(id);
+    household.setLatitude(latitude);
+    household.setLongitude(longitude);
+    entityManager.persist(household);
+    owner.setHousehold(household);
+  }
+
+  private List<String> find(double latitude, double longitude, double radiusKm) {
+    return index.findWithinRadius(latitude, longitude, radiusKm).stream()
+        .map(String::trim)
+        .sorted()
+        .toList();
+  }
+
+  @Test
+  void findWithinRadius_shouldOnlyReturnHouseholdsInsideRadius() {
+    // Act & Assert
+    assertEquals(List.of("H1"), find(63.43, 10.39, 2));
+    assertEquals(List.of("H1", "H2"), find(63.43, 10.39, 15));
+    assertEquals(List.of("H1", "H2", "H3"), find(63.43, 10.39, 500));
+  }
+
+  @Test
+  void onHouseholdChanged_shouldMoveAndDropHouseholds() {
+    // Arrange
+    assertEquals(List.of("H1"), find(63.43, 10.39, 2));
+    Household moved = entityManager.find(Household.class, "H3");
+    moved.setLatitude(63.4310);
+    moved.setLongitude(10.3940);
+    Household ungeocoded = entityManager.find(Household.class, "H1");
+    ungeocoded.setLatitude(null);
+    ungeocoded.setLongitude(null);
+    entityManager.flush();
+
+    // Act
+    index.onHouseholdChanged(new HouseholdChangedEvent("H3",
+        HouseholdChangedEvent.Change.EDITED));
+    index.onHouseholdChanged(new HouseholdChangedEvent("H1",
+        HouseholdChangedEvent.Change.EDITED));
+
+    // Assert
+    assertEquals(List.of("H3"), find(63.43, 10.39, 2));
+  }
+
+  @Test
+  void refresh_shouldPickUpChangesMadeWithoutEvent() {
+    // Arrange
+    assertEquals(List.of("H1"), find(63.43, 10.39, 2));
+    Household geocoded = entityManager.find(Household.class, "H4");
+    geocoded.setLatitude(63.4300);
+    geocoded.setLongitude(10.3960);
+    Household moved = entityManager.find(Household.class, "H1");
+    moved.setLatitude(59.9140);
+    moved.setLongitude(10.7520);
+    entityManager.flush();
+    assertEquals(List.of("H1"), find(63.43, 10.39, 2));
+
+    // Act: the changes were made on another node, so no event arrives
+    index.refresh();
+
+    // Assert
+    assertEquals(List.of("H4"), find(63.43, 10.39, 2));
+    assertEquals(List.of("H1", "H3"), find(59.91, 10.75, 2));
+  }
+
+  @Test
+  void findIdsByHouseholdIdIn_shouldReturnMembersOfHouseholds() {
+    // Act
+    List<String> members = userRepository.findIdsByHouseholdIdIn(List.of("H1", "H2"));
+
+    // Assert
+    assertEquals(2, members.size());
+    assertTrue(members.stream().noneMatch(String::isBlank));
+  }
+
+  @Test
+  void findWithinBounds_shouldApplyBoxAndFurtherTest() {
+    // Act
+    List<String> found = index.findWithinBounds(new GeoBounds(63.0, 10.0, 64.0, 11.0),
+        (latitude, longitude) -> latitude > 63.4).stream().map(String::trim).toList();
+
+    // Assert
+    assertEquals(List.of("H1"), found);
+  }
+
+  @Test
+  void findLocationsInBox_shouldReturnUsersWhoseSharedPositionIsInBox() {
+    // Arrange
+    User sharing = userRepository.findByEmail("h1@example.com").orElseThrow();
+    sharing.setLatitude("63.4305");
+    sharing.setLongitude("10.3951");
+    User elsewhere = userRepository.findByEmail("h3@example.com").orElseThrow();
+    elsewhere.setLatitude("59.9139");
+    elsewhere.setLongitude("10.7522");
+    User malformed = userRepository.findByEmail("h2@example.com").orElseThrow();
+    malformed.setLatitude("63.4305");
+    malformed.setLongitude("east");
+    entityManager.flush();
+
+    // Act
+    List<UserLocationDto> locations = userRepository.findLocationsInBox(63.0, 10.0, 64.0, 11.0);
+
+    // Assert
+    assertEquals(1, locations.size());
+    assertEquals(sharing.getId(), locations.get(0).getUserId());
+    assertEquals(63.4305, locations.get(0).getLatitude());
+  }
+}
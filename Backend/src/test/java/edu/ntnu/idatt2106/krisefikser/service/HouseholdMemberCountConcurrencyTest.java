@@ -0,0 +1,196 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserHouseholdAssignmentRequestDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdCache;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdIdAllocator;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdSearchRateLimiter;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdService;
+import edu.ntnu.idatt2106.krisefikser.service.map.OfflineGeocoder;
+import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Joins many users to one household at the same time, and moves one user to two households at
+ * the same time, and checks that no member count update is lost or applied twice. Runs without a
+ * test transaction, so every thread sees committed data.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({HouseholdService.class, HouseholdIdAllocator.class, HouseholdSearchRateLimiter.class,
+    HouseholdCache.class, OfflineGeocoder.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HouseholdMemberCountConcurrencyTest {
+
+  private static final int JOINING_USERS = 24;
+  private static final int MOVE_ROUNDS = 10;
+
+  @Autowired
+  private HouseholdService householdService;
+
+  @Autowired
+  private HouseholdRepository householdRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @MockBean
+  private NotificationService notificationService;
+
+  private String householdId;
+  private final List<String> joiningUserIds = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    User owner = userRepository.save(newUser("owner"));
+    Household household = new Household("Crowded Household", "1 Main St", 1, owner);
+    household.setId(UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+    householdRepository.save(household);
+    userRepository.updateHouseholdId(owner.getId(), household.getId());
+    householdId = household.getId();
+
+    for (int i = 0; i < JOINING_USERS; i++) {
+      joiningUserIds.add(userRepository.save(newUser("joiner" + i)).getId());
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    userRepository.findAll().forEach(user -> userRepository.updateHouseholdId(user.getId(), null));
+    householdRepository.deleteAll();
+    userRepository.deleteAll();
+  }
+
+  private String newHousehold(String name, int members) {
+    // Each household has an owner of its own, as a user can own only one household
+    User owner = userRepository.save(newUser("owner-" + UUID.randomUUID()));
+    Household household = new Household(name, "1 Main St", members, owner);
+    household.setId(UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+    return householdRepository.save(household).getId();
+  }
+
+  private static User newUser(String name) {
+    return new User(name + "@example.com", "hash", name, Role.USER, null, "12345678", true, null);
+  }
+
+  @Test
+  void concurrentJoins_shouldNotLoseMemberCountUpdates() throws Exception {
+    // Arrange
+    ExecutorService pool = Executors.newFixedThreadPool(JOINING_USERS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> joins = new ArrayList<>();
+    for (String userId : joiningUserIds) {
+      UserHouseholdAssignmentRequestDto request = new UserHouseholdAssignmentRequestDto();
+      request.setUserId(userId);
+      request.setHouseholdId(householdId);
+      joins.add(pool.submit(() -> {
+        start.await();
+        householdService.addUserToHousehold(request);
+        return null;
+      }));
+    }
+
+    // Act
+    start.countDown();
+    for (Future<?> join : joins) {
+      join.get(30, TimeUnit.SECONDS);
+    }
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+    // Assert
+    Household household = householdRepository.findById(householdId).orElseThrow();
+    assertEquals(1 + JOINING_USERS, household.getNumberOfMembers());
+    assertEquals(1 + JOINING_USERS, userRepository.getUsersByHouseholdId(householdId).size());
+  }
+
+  @Test
+  void concurrentMovesOfOneUser_shouldAdjustCountsOnce() throws Exception {
+    // Arrange
+    String moverId = joiningUserIds.get(1);
+    UserHouseholdAssignmentRequestDto join = new UserHouseholdAssignmentRequestDto();
+    join.setUserId(moverId);
+    join.setHouseholdId(householdId);
+    householdService.addUserToHousehold(join);
+    List<String> householdIds = new ArrayList<>(List.of(householdId));
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+
+    for (int round = 0; round < MOVE_ROUNDS; round++) {
+      List<Future<?>> moves = new ArrayList<>();
+      CountDownLatch start = new CountDownLatch(1);
+      for (int target = 0; target < 2; target++) {
+        String targetId = newHousehold("Target " + round + "-" + target, 0);
+        householdIds.add(targetId);
+        UserHouseholdAssignmentRequestDto request = new UserHouseholdAssignmentRequestDto();
+        request.setUserId(moverId);
+        request.setHouseholdId(targetId);
+        moves.add(pool.submit(() -> {
+          start.await();
+          householdService.addUserToHousehold(request);
+          return null;
+        }));
+      }
+
+      // Act
+      start.countDown();
+      int succeeded = 0;
+      for (Future<?> move : moves) {
+        try {
+          move.get(30, TimeUnit.SECONDS);
+          succeeded++;
+        } catch (ExecutionException e) {
+          // The losing move either sees the user already moved or fails on the row lock
+        }
+      }
+
+      // Assert
+      assertTrue(succeeded >= 1, "No move succeeded in round " + round);
+    }
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+    for (String id : householdIds) {
+      int members = userRepository.getUsersByHouseholdId(id).size();
+      assertEquals(members, householdRepository.findById(id).orElseThrow().getNumberOfMembers(),
+          "Member count of household " + id);
+    }
+  }
+
+  @Test
+  void decrement_shouldNotGoBelowZero() {
+    // Arrange
+    householdRepository.decrementNumberOfMembers(householdId);
+
+    // Act
+    int updated = householdRepository.decrementNumberOfMembers(householdId);
+
+    // Assert
+    assertEquals(0, updated);
+    assertEquals(0, householdRepository.findById(householdId).orElseThrow().getNumberOfMembers());
+  }
+}
@@ -0,0 +1,121 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdBasicResponseDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdCache;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdIdAllocator;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdSearchRateLimiter;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdService;
+import edu.ntnu.idatt2106.krisefikser.service.map.OfflineGeocoder;
+import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the household search against the real schema, checking that wildcards typed by the user
+ * are matched literally and that results are read straight into DTOs.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({HouseholdService.class, HouseholdIdAllocator.class, HouseholdSearchRateLimiter.class,
+    HouseholdCache.class, OfflineGeocoder.class})
+class HouseholdSearchQueryTest {
+
+  @Autowired
+  private HouseholdService householdService;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @MockBean
+  private NotificationService notificationService;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    persistHousehold("7KQ2-M9XD", "Nordmann");
+    persistHousehold("7KQ2-M9XE", "Nordmann Hytte");
+    persistHousehold("7KQ2-M9XF", "100% Ready");
+    persistHousehold("7KQ2-M9XG", "1000 Ready");
+    persistHousehold("7KQ2-M9XH", "Sørmann");
+    entityManager.flush();
+    entityManager.clear();
+
+    SecurityContextHolder.setContext(new SecurityContextImpl(
+        new UsernamePasswordAuthenticationToken("7kq2-m9xd@example.com", null)));
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  private void persistHousehold(String id, String name) {
+    User owner = entityManager.persist(new User(id.toLowerCase() + "@example.com", "hash",
+        "Owner User", Role.USER, null, "12345678", true, null));
+    Household household = new Household(name, "Storgata 1", 2, owner);
+    household.setId(id);
+    entityManager.persist(household);
+  }
+
+  @Test
+  void searchHouseholds_shouldMatchNamePrefixInPages() {
+    // Act
+    Page<HouseholdBasicResponseDto> first = householdService.searchHouseholds("Nord", null, 0, 1);
+    Page<HouseholdBasicResponseDto> second = householdService.searchHouseholds("Nord", null, 1, 1);
+
+    // Assert
+    assertEquals(2, first.getTotalElements());
+    assertEquals("Nordmann", first.getContent().get(0).getName());
+    assertEquals("Nordmann Hytte", second.getContent().get(0).getName());
+    assertEquals(0, statistics.getEntityLoadCount());
+  }
+
+  @Test
+  void searchHouseholds_shouldMatchWildcardsLiterally() {
+    // Act
+    Page<HouseholdBasicResponseDto> result = householdService.searchHouseholds("100%", null, 0, 20);
+
+    // Assert
+    assertEquals(List.of("100% Ready"),
+        result.getContent().stream().map(HouseholdBasicResponseDto::getName).toList());
+  }
+
+  @Test
+  void searchHouseholdById_shouldReadOnlyTheIdAndName() {
+    // Act
+    HouseholdBasicResponseDto result = householdService.searchHouseholdById("7kq2-m9xd");
+
+    // Assert
+    assertEquals("Nordmann", result.getName());
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+    assertTrue(result.getId().startsWith("7KQ2"));
+  }
+}
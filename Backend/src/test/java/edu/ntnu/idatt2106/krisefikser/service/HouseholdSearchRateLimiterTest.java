@@ -0,0 +1,104 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdSearchRateLimiter;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HouseholdSearchRateLimiterTest {
+
+  private MutableClock clock;
+  private HouseholdSearchRateLimiter rateLimiter;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+    rateLimiter = new HouseholdSearchRateLimiter(3, clock);
+  }
+
+  @Test
+  void tryAcquire_shouldRejectSearchesOverTheLimit() {
+    // Act & Assert
+    assertTrue(rateLimiter.tryAcquire("user@example.com"));
+    assertTrue(rateLimiter.tryAcquire("user@example.com"));
+    assertTrue(rateLimiter.tryAcquire("user@example.com"));
+    assertFalse(rateLimiter.tryAcquire("user@example.com"));
+  }
+
+  @Test
+  void tryAcquire_shouldCountEachUserSeparately() {
+    // Arrange
+    for (int i = 0; i < 3; i++) {
+      rateLimiter.tryAcquire("user@example.com");
+    }
+
+    // Act & Assert
+    assertFalse(rateLimiter.tryAcquire("user@example.com"));
+    assertTrue(rateLimiter.tryAcquire("other@example.com"));
+  }
+
+  @Test
+  void tryAcquire_shouldAllowSearchesAgainInTheNextMinute() {
+    // Arrange
+    for (int i = 0; i < 4; i++) {
+      rateLimiter.tryAcquire("user@example.com");
+    }
+
+    // Act
+    clock.advanceSeconds(60);
+
+    // Assert
+    assertTrue(rateLimiter.tryAcquire("user@example.com"));
+  }
+
+  @Test
+  void purgeExpired_shouldKeepCountsOfTheCurrentMinute() {
+    // Arrange
+    for (int i = 0; i < 3; i++) {
+      rateLimiter.tryAcquire("user@example.com");
+    }
+
+    // Act
+    rateLimiter.purgeExpired();
+
+    // Assert
+    assertFalse(rateLimiter.tryAcquire("user@example.com"));
+  }
+
+  /**
+   * A clock the test can move forward.
+   */
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    private MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    private void advanceSeconds(long seconds) {
+      now = now.plusSeconds(seconds);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
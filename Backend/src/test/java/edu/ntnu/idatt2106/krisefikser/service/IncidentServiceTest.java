@@ -2,13 +2,16 @@ package edu.ntnu.idatt2106.krisefikser.service;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.ntnu.idatt2106.krisefikser.api.dto.incident.IncidentRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.incident.IncidentResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Incident;
@@ -16,7 +19,10 @@ import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Scenario;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.Severity;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.incident.IncidentRepository;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.incident.ScenarioRepository;
+import edu.ntnu.idatt2106.krisefikser.service.incident.IncidentChangedEvent;
 import edu.ntnu.idatt2106.krisefikser.service.incident.IncidentService;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoBounds;
+import edu.ntnu.idatt2106.krisefikser.service.map.MunicipalityIndex;
 import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,9 +30,11 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 /**
  * Unit tests for the IncidentService class.
@@ -42,6 +50,12 @@ class IncidentServiceTest {
   @Mock
   private NotificationService notificationService;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private MunicipalityIndex municipalityIndex;
+
   @InjectMocks
   private IncidentService incidentService;
 
@@ -100,6 +114,9 @@ class IncidentServiceTest {
       IncidentRequestDto request = new IncidentRequestDto();
       request.setName("Explosion");
       request.setScenarioId(scenarioId);
+      request.setLatitude(60.0);
+      request.setLongitude(10.0);
+      request.setImpactRadius(1.0);
 
       when(scenarioRepository.findById(scenarioId)).thenReturn(Optional.empty());
 
@@ -110,6 +127,95 @@ class IncidentServiceTest {
       verify(scenarioRepository).findById(scenarioId);
       verifyNoMoreInteractions(incidentRepository);
     }
+
+    @Test
+    void createIncident_shouldStoreImpactZone() throws Exception {
+      Scenario scenario = new Scenario();
+      scenario.setId(1L);
+      String zone = "{\"type\":\"MultiPolygon\",\"coordinates\":"
+          + "[[[[10.0,63.0],[10.2,63.0],[10.1,63.1],[10.0,63.0]]]]}";
+
+      IncidentRequestDto request = new IncidentRequestDto();
+      request.setName("Flood");
+      request.setSeverity("red");
+      request.setScenarioId(1L);
+      request.setImpactZone(new ObjectMapper().readTree(zone));
+
+      when(scenarioRepository.findById(1L)).thenReturn(Optional.of(scenario));
+
+      incidentService.createIncident(request);
+
+      ArgumentCaptor<Incident> saved = ArgumentCaptor.forClass(Incident.class);
+      verify(incidentRepository).save(saved.capture());
+      assertEquals(zone, saved.getValue().getImpactZone());
+      assertNull(saved.getValue().getImpactRadius());
+      assertEquals(63.0, saved.getValue().getZoneSouth());
+      assertEquals(10.0, saved.getValue().getZoneWest());
+      assertEquals(63.1, saved.getValue().getZoneNorth());
+      assertEquals(10.2, saved.getValue().getZoneEast());
+    }
+
+    @Test
+    void createIncident_shouldFail_whenImpactCircleIsIncomplete() {
+      IncidentRequestDto request = new IncidentRequestDto();
+      request.setName("Flood");
+      request.setScenarioId(1L);
+      request.setLatitude(63.0);
+      request.setLongitude(10.0);
+
+      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+          () -> incidentService.createIncident(request));
+
+      assertEquals("Latitude, longitude and impact radius must be given together",
+          exception.getMessage());
+      verifyNoInteractions(scenarioRepository, incidentRepository);
+    }
+
+    @Test
+    void createIncident_shouldFail_whenNoImpactAreaIsGiven() {
+      IncidentRequestDto request = new IncidentRequestDto();
+      request.setName("Flood");
+      request.setScenarioId(1L);
+
+      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+          () -> incidentService.createIncident(request));
+
+      assertEquals("An incident needs an impact circle or an impact zone",
+          exception.getMessage());
+      verifyNoInteractions(scenarioRepository, incidentRepository);
+    }
+
+    @Test
+    void createIncident_shouldFail_whenImpactZoneIsNotPolygon() throws Exception {
+      IncidentRequestDto request = new IncidentRequestDto();
+      request.setName("Flood");
+      request.setScenarioId(1L);
+      request.setImpactZone(new ObjectMapper().readTree(
+          "{\"type\": \"Point\", \"coordinates\": [10.0, 63.0]}"));
+
+      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+          () -> incidentService.createIncident(request));
+
+      assertEquals("Invalid impact zone: Unsupported geometry type 'Point'",
+          exception.getMessage());
+      verifyNoInteractions(scenarioRepository, incidentRepository);
+    }
+
+    @Test
+    void createIncident_shouldFail_whenMunicipalityUnknown() {
+      IncidentRequestDto request = new IncidentRequestDto();
+      request.setName("Storm");
+      request.setScenarioId(1L);
+      request.setMunicipalityCode("9999");
+
+      when(municipalityIndex.getBounds("9999")).thenReturn(Optional.empty());
+
+      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+          () -> incidentService.createIncident(request));
+
+      assertEquals("Unknown municipality: 9999", exception.getMessage());
+      verifyNoInteractions(scenarioRepository, incidentRepository);
+    }
   }
 
   /**
@@ -194,6 +300,9 @@ class IncidentServiceTest {
 
       IncidentRequestDto request = new IncidentRequestDto();
       request.setScenarioId(scenarioId);
+      request.setLatitude(60.0);
+      request.setLongitude(10.0);
+      request.setImpactRadius(1.0);
 
       when(incidentRepository.findById(incidentId)).thenReturn(Optional.of(incident));
       when(scenarioRepository.findById(scenarioId)).thenReturn(Optional.empty());
@@ -222,6 +331,7 @@ class IncidentServiceTest {
       assertDoesNotThrow(() -> incidentService.deleteIncident(id));
       verify(incidentRepository).existsById(id);
       verify(incidentRepository).deleteById(id);
+      verify(eventPublisher).publishEvent(any(IncidentChangedEvent.class));
     }
 
     @Test
@@ -286,4 +396,88 @@ class IncidentServiceTest {
       verify(incidentRepository).findAll();
     }
   }
+
+  /**
+   * Test cases for the getIncidentsInMunicipality method.
+   */
+  @Nested
+  class GetIncidentsInMunicipalityTests {
+
+    @Test
+    void getIncidentsInMunicipality_shouldReturnScopedAndCenteredIncidents() {
+      // Arrange
+      Incident scoped = incident(1L, "Storm", 59.9, 10.7);
+      scoped.setMunicipalityCode("5001");
+      Incident centered = incident(2L, "Flom", 63.42, 10.39);
+      Incident elsewhere = incident(3L, "Brann", 59.9, 10.7);
+
+      GeoBounds bounds = new GeoBounds(63.0, 9.7, 63.6, 10.8);
+      when(municipalityIndex.getBounds("5001")).thenReturn(Optional.of(bounds));
+      when(municipalityIndex.contains("5001", 63.42, 10.39)).thenReturn(true);
+      when(incidentRepository.findByMunicipalityCodeOrInBox("5001", 63.0, 9.7, 63.6, 10.8))
+          .thenReturn(List.of(scoped, centered, elsewhere));
+
+      // Act
+      List<IncidentResponseDto> result = incidentService.getIncidentsInMunicipality("5001");
+
+      // Assert
+      assertEquals(List.of("Storm", "Flom"),
+          result.stream().map(IncidentResponseDto::getName).toList());
+      assertEquals("5001", result.get(0).getMunicipalityCode());
+      verify(incidentRepository, never()).findAll();
+    }
+
+    @Test
+    void getIncidentsInMunicipality_shouldReturnIncidentsWithZoneOverlappingMunicipality() {
+      // Arrange
+      Incident zoned = new Incident();
+      zoned.setId(4L);
+      zoned.setName("Ras");
+      zoned.setSeverity(Severity.RED);
+      zoned.setImpactZone("{}");
+      zoned.setZoneBounds(63.5, 10.7, 63.8, 11.2);
+      Incident zonedElsewhere = new Incident();
+      zonedElsewhere.setId(5L);
+      zonedElsewhere.setName("Skred");
+      zonedElsewhere.setSeverity(Severity.RED);
+      zonedElsewhere.setLatitude(63.42);
+      zonedElsewhere.setLongitude(10.39);
+      zonedElsewhere.setImpactRadius(1.0);
+      zonedElsewhere.setZoneBounds(59.8, 10.6, 60.0, 10.9);
+
+      GeoBounds bounds = new GeoBounds(63.0, 9.7, 63.6, 10.8);
+      when(municipalityIndex.getBounds("5001")).thenReturn(Optional.of(bounds));
+      when(incidentRepository.findByMunicipalityCodeOrInBox("5001", 63.0, 9.7, 63.6, 10.8))
+          .thenReturn(List.of(zoned, zonedElsewhere));
+
+      // Act
+      List<IncidentResponseDto> result = incidentService.getIncidentsInMunicipality("5001");
+
+      // Assert: the second is centered in the box but outside the boundary, its zone elsewhere
+      assertEquals(List.of("Ras"), result.stream().map(IncidentResponseDto::getName).toList());
+    }
+
+    @Test
+    void getIncidentsInMunicipality_shouldFail_whenMunicipalityUnknown() {
+      // Arrange
+      when(municipalityIndex.get("9999")).thenReturn(Optional.empty());
+
+      // Act & Assert
+      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+          () -> incidentService.getIncidentsInMunicipality("9999"));
+      assertEquals("Unknown municipality: 9999", exception.getMessage());
+      verifyNoInteractions(incidentRepository);
+    }
+
+    private Incident incident(Long id, String name, double latitude, double longitude) {
+      Incident incident = new Incident();
+      incident.setId(id);
+      incident.setName(name);
+      incident.setLatitude(latitude);
+      incident.setLongitude(longitude);
+      incident.setImpactRadius(1.0);
+      incident.setSeverity(Severity.YELLOW);
+      return incident;
+    }
+  }
 }
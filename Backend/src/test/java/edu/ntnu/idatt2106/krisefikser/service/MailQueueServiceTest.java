@@ -0,0 +1,340 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mail.MailQueueStatsDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mail.OutboundMail;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MailStatus;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MailTemplate;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mail.OutboundMailRepository;
+import edu.ntnu.idatt2106.krisefikser.service.mail.MailQueueService;
+import edu.ntnu.idatt2106.krisefikser.service.mail.MailTemplateService;
+import jakarta.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+class MailQueueServiceTest {
+
+  @RegisterExtension
+  static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+  @Mock
+  private OutboundMailRepository outboundMailRepository;
+
+  private static MailTemplateService mailTemplateService;
+
+  private MailQueueService mailQueueService;
+
+  @BeforeAll
+  static void loadTemplates() throws Exception {
+    mailTemplateService = new MailTemplateService();
+  }
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(outboundMailRepository.save(any(OutboundMail.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (mailQueueService != null) {
+      mailQueueService.shutdown();
+    }
+  }
+
+  private MailQueueService createService(int port, int batchSize, int maxAttempts) {
+    JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+    mailSender.setHost("localhost");
+    mailSender.setPort(port);
+    return new MailQueueService(outboundMailRepository, mailSender, mailTemplateService, true,
+        batchSize, 2, maxAttempts, 1000, 60000, 600000, 604800000);
+  }
+
+  /**
+   * Lets the mocked repository hand out the given batches, one per drain round, each claimed in
+   * full by this node.
+   */
+  @SafeVarargs
+  private void queueBatches(Supplier<List<OutboundMail>>... batches) {
+    Deque<Supplier<List<OutboundMail>>> remaining = new ArrayDeque<>(List.of(batches));
+    AtomicReference<List<OutboundMail>> current = new AtomicReference<>(List.of());
+    when(outboundMailRepository.findDueIds(eq(MailStatus.PENDING), any(LocalDateTime.class),
+        any(Pageable.class))).thenAnswer(invocation -> {
+          List<OutboundMail> next = remaining.isEmpty() ? List.of() : remaining.poll().get();
+          current.set(next);
+          return next.stream().map(OutboundMail::getId).toList();
+        });
+    when(outboundMailRepository.claim(anyCollection(), eq(MailStatus.PENDING),
+        eq(MailStatus.SENDING), anyString(), any(LocalDateTime.class))).thenAnswer(invocation -> {
+          current.get().forEach(mail -> mail.setStatus(MailStatus.SENDING));
+          return current.get().size();
+        });
+    when(outboundMailRepository.findByClaimToken(anyString()))
+        .thenAnswer(invocation -> current.get());
+  }
+
+  private List<OutboundMail> pendingMails(int count) {
+    List<OutboundMail> mails = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      OutboundMail mail = new OutboundMail("user" + i + "@example.com", "Subject " + i,
+          "<html><body>Body " + i + "</body></html>");
+      mail.setId((long) i);
+      mails.add(mail);
+    }
+    return mails;
+  }
+
+  @Nested
+  class DeliveryTests {
+
+    @Test
+    void shouldSendQueuedEmailsToSmtpServer() throws Exception {
+      // Arrange
+      List<OutboundMail> mails = pendingMails(5);
+      queueBatches(() -> mails);
+      mailQueueService = createService(ServerSetupTest.SMTP.getPort(), 10, 5);
+
+      // Act
+      mailQueueService.wakeUp();
+
+      // Assert
+      assertTrue(greenMail.waitForIncomingEmail(5000, 5));
+      MimeMessage[] received = greenMail.getReceivedMessages();
+      assertEquals(5, received.length);
+      verify(outboundMailRepository, timeout(5000).times(2)).saveAll(any());
+      mails.forEach(mail -> {
+        assertEquals(MailStatus.SENT, mail.getStatus());
+        assertEquals(1, mail.getAttempts());
+        assertNotNull(mail.getSentAt());
+        assertNull(mail.getBody());
+      });
+    }
+
+    @Test
+    void shouldSkipMails_whenAnotherNodeClaimedThem() {
+      // Arrange
+      when(outboundMailRepository.findDueIds(eq(MailStatus.PENDING), any(LocalDateTime.class),
+          any(Pageable.class))).thenReturn(List.of(1L, 2L), List.of());
+      mailQueueService = createService(ServerSetupTest.SMTP.getPort(), 10, 5);
+
+      // Act
+      mailQueueService.wakeUp();
+
+      // Assert
+      verify(outboundMailRepository, timeout(5000)).findByClaimToken(anyString());
+      verify(outboundMailRepository, never()).saveAll(any());
+      assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void shouldNotResend_whenRecordingTheOutcomeFails() throws Exception {
+      // Arrange
+      List<OutboundMail> mails = pendingMails(1);
+      queueBatches(() -> mails);
+      doThrow(new DataAccessResourceFailureException("Connection lost"))
+          .when(outboundMailRepository).saveAll(any());
+      mailQueueService = createService(ServerSetupTest.SMTP.getPort(), 1, 5);
+
+      // Act
+      mailQueueService.wakeUp();
+
+      // Assert
+      assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+      verify(outboundMailRepository, timeout(5000).times(2))
+          .findDueIds(eq(MailStatus.PENDING), any(LocalDateTime.class), any(Pageable.class));
+      assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void shouldPersistEmailAndDeliverIt_whenEnqueued() throws Exception {
+      // Arrange
+      OutboundMail stored = pendingMails(1).get(0);
+      queueBatches(() -> List.of(stored));
+      mailQueueService = createService(ServerSetupTest.SMTP.getPort(), 10, 5);
+
+      // Act
+      mailQueueService.enqueue("user0@example.com", "Subject 0", "<p>Body</p>");
+
+      // Assert
+      ArgumentCaptor<OutboundMail> captor = ArgumentCaptor.forClass(OutboundMail.class);
+      verify(outboundMailRepository).save(captor.capture());
+      assertEquals(MailStatus.PENDING, captor.getValue().getStatus());
+      assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+      assertEquals("Subject 0", greenMail.getReceivedMessages()[0].getSubject());
+    }
+
+    @Test
+    void shouldRenderTemplateAtSendTime_whenTemplatedEmailIsEnqueued() throws Exception {
+      // Arrange
+      AtomicReference<OutboundMail> stored = new AtomicReference<>();
+      when(outboundMailRepository.save(any(OutboundMail.class))).thenAnswer(invocation -> {
+        stored.set(invocation.getArgument(0));
+        return stored.get();
+      });
+      queueBatches(() -> List.of(stored.get()));
+      mailQueueService = createService(ServerSetupTest.SMTP.getPort(), 10, 5);
+
+      // Act
+      mailQueueService.enqueue("user@example.com", MailTemplate.OTP, Locale.ENGLISH,
+          Map.of("otp", "654321"));
+
+      // Assert
+      assertNull(stored.get().getBody());
+      assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+      MimeMessage received = greenMail.getReceivedMessages()[0];
+      assertEquals("Your Krisefikser verification code", received.getSubject());
+      assertTrue(GreenMailUtil.getBody(received).contains("654321"));
+      verify(outboundMailRepository, timeout(5000)).saveAll(any());
+      assertEquals(MailStatus.SENT, stored.get().getStatus());
+      assertNull(stored.get().getTemplateParams());
+    }
+
+    @Test
+    void shouldKeepDrainingWhileBatchesAreFull() throws Exception {
+      // Arrange
+      List<OutboundMail> mails = pendingMails(4);
+      queueBatches(() -> mails.subList(0, 2), () -> mails.subList(2, 4));
+      mailQueueService = createService(ServerSetupTest.SMTP.getPort(), 2, 5);
+
+      // Act
+      mailQueueService.wakeUp();
+
+      // Assert
+      assertTrue(greenMail.waitForIncomingEmail(5000, 4));
+      verify(outboundMailRepository, timeout(5000).times(3))
+          .findDueIds(eq(MailStatus.PENDING), any(LocalDateTime.class), any(Pageable.class));
+    }
+  }
+
+  @Nested
+  class RetryTests {
+
+    @Test
+    void shouldScheduleRetry_whenSmtpServerIsUnavailable() {
+      // Arrange
+      OutboundMail mail = pendingMails(1).get(0);
+      queueBatches(() -> List.of(mail));
+      mailQueueService = createService(ServerSetupTest.SMTP.getPort() + 1, 10, 5);
+      LocalDateTime before = LocalDateTime.now();
+
+      // Act
+      mailQueueService.wakeUp();
+
+      // Assert
+      verify(outboundMailRepository, timeout(5000)).saveAll(any());
+      assertEquals(MailStatus.PENDING, mail.getStatus());
+      assertEquals(1, mail.getAttempts());
+      assertNotNull(mail.getLastError());
+      assertTrue(mail.getNextAttemptAt().isAfter(before));
+
+      MailQueueStatsDto stats = mailQueueService.getStats();
+      assertEquals(1, stats.getFailedAttemptsTotal());
+      assertEquals(0, stats.getSentTotal());
+    }
+
+    @Test
+    void shouldMarkAsFailed_whenMaxAttemptsReached() {
+      // Arrange
+      OutboundMail mail = pendingMails(1).get(0);
+      mail.setAttempts(2);
+      queueBatches(() -> List.of(mail));
+      mailQueueService = createService(ServerSetupTest.SMTP.getPort() + 1, 10, 3);
+
+      // Act
+      mailQueueService.wakeUp();
+
+      // Assert
+      verify(outboundMailRepository, timeout(5000)).saveAll(any());
+      assertEquals(MailStatus.FAILED, mail.getStatus());
+      assertEquals(3, mail.getAttempts());
+      assertNull(mail.getBody());
+    }
+  }
+
+  @Test
+  void purge_shouldExpireStaleClaimsAndDeleteFinishedMails() {
+    // Arrange
+    mailQueueService = createService(ServerSetupTest.SMTP.getPort(), 10, 5);
+    LocalDateTime before = LocalDateTime.now();
+
+    // Act
+    mailQueueService.purge();
+
+    // Assert
+    ArgumentCaptor<LocalDateTime> claimCutOff = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(outboundMailRepository).expireClaims(eq(MailStatus.SENDING), eq(MailStatus.FAILED),
+        claimCutOff.capture(), anyString());
+    assertTrue(claimCutOff.getValue().isBefore(before.minusMinutes(9)));
+    ArgumentCaptor<LocalDateTime> retentionCutOff = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(outboundMailRepository).deleteFinishedBefore(
+        eq(List.of(MailStatus.SENT, MailStatus.FAILED)), retentionCutOff.capture());
+    assertTrue(retentionCutOff.getValue().isBefore(before.minusDays(6)));
+  }
+
+  @Test
+  void shouldNotDeliver_whenDisabled() {
+    // Arrange
+    mailQueueService = new MailQueueService(outboundMailRepository, new JavaMailSenderImpl(),
+        mailTemplateService, false, 10, 1, 5, 1000, 60000, 600000, 604800000);
+
+    // Act
+    mailQueueService.enqueue("user@example.com", "Subject", "<p>Body</p>");
+
+    // Assert
+    verify(outboundMailRepository).save(any(OutboundMail.class));
+    verify(outboundMailRepository, never())
+        .findDueIds(any(), any(), any());
+  }
+
+  @Test
+  void getStats_shouldReportQueueDepth() {
+    // Arrange
+    when(outboundMailRepository.countByStatus(MailStatus.PENDING)).thenReturn(7L);
+    when(outboundMailRepository.countByStatus(MailStatus.FAILED)).thenReturn(2L);
+    mailQueueService = createService(ServerSetupTest.SMTP.getPort(), 10, 5);
+
+    // Act
+    MailQueueStatsDto stats = mailQueueService.getStats();
+
+    // Assert
+    assertEquals(7L, stats.getPending());
+    assertEquals(2L, stats.getFailed());
+    assertEquals(0L, stats.getBatchesTotal());
+  }
+}
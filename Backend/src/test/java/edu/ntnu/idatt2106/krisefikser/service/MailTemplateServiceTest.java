@@ -0,0 +1,136 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MailTemplate;
+import edu.ntnu.idatt2106.krisefikser.service.mail.CompiledMailTemplate;
+import edu.ntnu.idatt2106.krisefikser.service.mail.MailTemplateService;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class MailTemplateServiceTest {
+
+  private MailTemplateService mailTemplateService;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    mailTemplateService = new MailTemplateService();
+  }
+
+  @Nested
+  class LoadingTests {
+
+    @Test
+    void shouldLoadEveryTemplateForItsDefaultLocale() {
+      for (MailTemplate template : MailTemplate.values()) {
+        // Act
+        CompiledMailTemplate compiled = mailTemplateService.getTemplate(template, null);
+
+        // Assert
+        assertEquals(template.getDefaultLocale(), compiled.getLocale());
+        assertFalse(compiled.getSubject().isBlank());
+      }
+    }
+
+    @Test
+    void shouldReadSubjectFromTitle() {
+      // Act
+      CompiledMailTemplate compiled =
+          mailTemplateService.getTemplate(MailTemplate.PASSWORD_RESET, null);
+
+      // Assert
+      assertEquals("Tilbakestill passordet ditt – Krisefikser", compiled.getSubject());
+    }
+
+    @Test
+    void shouldFallBackToDefaultLocale_whenTranslationIsMissing() {
+      // Act
+      CompiledMailTemplate compiled =
+          mailTemplateService.getTemplate(MailTemplate.CONFIRMATION, Locale.GERMAN);
+
+      // Assert
+      assertEquals(Locale.forLanguageTag("nb"), compiled.getLocale());
+    }
+  }
+
+  @Nested
+  class RenderingTests {
+
+    @Test
+    void shouldReplacePlaceholders() {
+      // Arrange
+      CompiledMailTemplate compiled = mailTemplateService.getTemplate(MailTemplate.OTP, null);
+
+      // Act
+      String body = compiled.render(Map.of("otp", "123456"));
+
+      // Assert
+      assertTrue(body.contains(">123456</h2>"));
+      assertFalse(body.contains("{{"));
+    }
+
+    @Test
+    void shouldEscapeHtmlInValues() {
+      // Arrange
+      CompiledMailTemplate compiled = CompiledMailTemplate.compile(
+          "<html><head><title>Test</title></head><body>{{name}}</body></html>", Locale.ENGLISH);
+
+      // Act
+      String body = compiled.render(Map.of("name", "<b>\"Ola\" & 'Kari'</b>"));
+
+      // Assert
+      assertEquals("<html><head><title>Test</title></head><body>"
+          + "&lt;b&gt;&quot;Ola&quot; &amp; &#39;Kari&#39;&lt;/b&gt;</body></html>", body);
+    }
+
+    @Test
+    void shouldRenderRepeatedPlaceholders() {
+      // Arrange
+      CompiledMailTemplate compiled = CompiledMailTemplate.compile(
+          "<title>T</title>{{ a }}-{{b}}-{{a}}", Locale.ENGLISH);
+
+      // Act
+      String body = compiled.render(Map.of("a", "1", "b", "2"));
+
+      // Assert
+      assertEquals("<title>T</title>1-2-1", body);
+    }
+
+    @Test
+    void shouldThrowException_whenValueIsMissing() {
+      // Arrange
+      CompiledMailTemplate compiled = mailTemplateService.getTemplate(MailTemplate.OTP, null);
+
+      // Act & Assert
+      assertThrows(IllegalArgumentException.class, () -> compiled.render(Map.of()));
+    }
+  }
+
+  @Nested
+  class CompileTests {
+
+    @Test
+    void shouldThrowException_whenPlaceholderIsUnterminated() {
+      assertThrows(IllegalArgumentException.class,
+          () -> CompiledMailTemplate.compile("<title>T</title>{{name", Locale.ENGLISH));
+    }
+
+    @Test
+    void shouldThrowException_whenPlaceholderIsEmpty() {
+      assertThrows(IllegalArgumentException.class,
+          () -> CompiledMailTemplate.compile("<title>T</title>{{ }}", Locale.ENGLISH));
+    }
+
+    @Test
+    void shouldThrowException_whenTitleIsMissing() {
+      assertThrows(IllegalArgumentException.class,
+          () -> CompiledMailTemplate.compile("<html>{{name}}</html>", Locale.ENGLISH));
+    }
+  }
+}
@@ -0,0 +1,234 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconChangesDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconResponseDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconChangeCounterRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconTombstoneRepository;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconChangeLog;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Numbers map icon changes against the real schema and syncs a client copy from them. Runs
+ * without a test transaction, so each change commits like it does in production.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(MapIconChangeLog.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MapIconChangeLogTest {
+
+  @Autowired
+  private MapIconChangeLog changeLog;
+
+  @Autowired
+  private MapIconRepository mapIconRepository;
+
+  @Autowired
+  private MapIconTombstoneRepository tombstoneRepository;
+
+  @Autowired
+  private MapIconChangeCounterRepository counterRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate transactionTemplate;
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mapIconRepository.deleteAll();
+    tombstoneRepository.deleteAll();
+    counterRepository.deleteAll();
+  }
+
+  private MapIcon create(String description) {
+    return transactionTemplate.execute(status -> {
+      MapIcon icon = new MapIcon();
+      icon.setType(MapIconType.SHELTER);
+      icon.setLatitude(63.43);
+      icon.setLongitude(10.39);
+      icon.setDescription(description);
+      changeLog.stamp(icon);
+      return mapIconRepository.save(icon);
+    });
+  }
+
+  private void update(Long id, String description) {
+    transactionTemplate.executeWithoutResult(status -> {
+      MapIcon icon = mapIconRepository.findById(id).orElseThrow();
+      icon.setDescription(description);
+      changeLog.stamp(icon);
+      mapIconRepository.save(icon);
+    });
+  }
+
+  private void delete(Long id) {
+    transactionTemplate.executeWithoutResult(status -> {
+      mapIconRepository.deleteById(id);
+      changeLog.recordDeletion(id);
+    });
+  }
+
+  /**
+   * Syncs a client copy the way a client would, until no more changes are waiting.
+   */
+  private long sync(Map<Long, String> copy, long since, int limit) {
+    MapIconChangesDto changes;
+    do {
+      changes = changeLog.changesSince(since, limit);
+      for (MapIconResponseDto icon : changes.getChanged()) {
+        copy.put(icon.getId(), icon.getDescription());
+      }
+      changes.getDeleted().forEach(copy::remove);
+      since = changes.getNextSince();
+    } while (changes.isHasMore());
+    return since;
+  }
+
+  private Map<Long, String> stored() {
+    Map<Long, String> stored = new TreeMap<>();
+    mapIconRepository.findAll().forEach(icon -> stored.put(icon.getId(), icon.getDescription()));
+    return stored;
+  }
+
+  @Test
+  void changesSince_shouldReturnOnlyLaterChangesInOrder() {
+    // Arrange
+    MapIcon first = create("Tilfluktsrom");
+    MapIcon second = create("Sykehus");
+    create("Matstasjon");
+    long since = changeLog.changesSince(0, 100).getNextSince();
+    update(first.getId(), "Tilfluktsrom, stengt");
+    delete(second.getId());
+
+    // Act
+    MapIconChangesDto changes = changeLog.changesSince(since, 100);
+
+    // Assert
+    assertEquals(List.of(first.getId()),
+        changes.getChanged().stream().map(MapIconResponseDto::getId).toList());
+    assertEquals("Tilfluktsrom, stengt", changes.getChanged().get(0).getDescription());
+    assertEquals(List.of(second.getId()), changes.getDeleted());
+    assertEquals(since + 2, changes.getNextSince());
+    assertFalse(changes.isHasMore());
+    MapIconChangesDto none = changeLog.changesSince(changes.getNextSince(), 100);
+    assertTrue(none.getChanged().isEmpty() && none.getDeleted().isEmpty());
+    assertEquals(changes.getNextSince(), none.getNextSince());
+  }
+
+  @Test
+  void changesSince_shouldPageThroughChangesAndDeletions() {
+    // Arrange
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      ids.add(create("Ikon " + i).getId());
+    }
+    for (int i = 0; i < 10; i += 3) {
+      delete(ids.get(i));
+    }
+    Map<Long, String> copy = new TreeMap<>();
+
+    // Act
+    MapIconChangesDto firstPage = changeLog.changesSince(0, 4);
+    long since = sync(copy, 0, 4);
+
+    // Assert
+    assertEquals(4, firstPage.getChanged().size() + firstPage.getDeleted().size());
+    assertTrue(firstPage.isHasMore());
+    assertEquals(stored(), copy);
+    assertEquals(counterRepository.findLastSeq().orElseThrow(), since);
+  }
+
+  @Test
+  void stamp_shouldNumberIconsStoredBeforeTheCounterExisted() {
+    // Arrange
+    MapIcon legacy = new MapIcon();
+    legacy.setType(MapIconType.HOSPITAL);
+    legacy.setAddress("Prinsens gate 20");
+    legacy = mapIconRepository.save(legacy);
+
+    // Act
+    MapIcon created = create("Ny");
+    Map<Long, String> copy = new TreeMap<>();
+    sync(copy, 0, 100);
+
+    // Assert
+    assertEquals(legacy.getId(), mapIconRepository.findById(legacy.getId()).orElseThrow()
+        .getChangeSeq());
+    assertTrue(created.getChangeSeq() > legacy.getId());
+    assertEquals(Set.of(legacy.getId(), created.getId()), copy.keySet());
+  }
+
+  @Test
+  void changesSince_shouldNotSkipChangesCommittedWhileClientsSync() throws Exception {
+    // Arrange
+    create("Start");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    AtomicBoolean writing = new AtomicBoolean(true);
+    Map<Long, String> copy = new TreeMap<>();
+
+    // Act
+    List<Future<?>> writers = new ArrayList<>();
+    for (int w = 0; w < 3; w++) {
+      int writer = w;
+      writers.add(executor.submit(() -> {
+        for (int i = 0; i < 40; i++) {
+          MapIcon icon = create("Skriver " + writer + " ikon " + i);
+          if (i % 4 == 0) {
+            update(icon.getId(), "Endret " + writer + " " + i);
+          } else if (i % 5 == 0) {
+            delete(icon.getId());
+          }
+        }
+      }));
+    }
+    Future<Long> reader = executor.submit(() -> {
+      long since = 0;
+      while (writing.get()) {
+        since = sync(copy, since, 7);
+      }
+      return sync(copy, since, 7);
+    });
+    for (Future<?> writer : writers) {
+      writer.get(60, TimeUnit.SECONDS);
+    }
+    writing.set(false);
+    reader.get(60, TimeUnit.SECONDS);
+    executor.shutdown();
+
+    // Assert
+    assertEquals(stored(), copy);
+  }
+}
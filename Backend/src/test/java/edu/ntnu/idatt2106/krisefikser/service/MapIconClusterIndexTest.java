@@ -0,0 +1,142 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconClusterDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconChangedEvent;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconClusterIndex;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MapIconClusterIndexTest {
+
+  private MapIconRepository mapIconRepository;
+  private MapIconClusterIndex clusterIndex;
+  private List<MapIcon> icons;
+
+  @BeforeEach
+  void setUp() {
+    mapIconRepository = mock(MapIconRepository.class);
+    clusterIndex = new MapIconClusterIndex(mapIconRepository);
+    icons = new ArrayList<>(List.of(
+        icon(1L, MapIconType.SHELTER, 63.4300, 10.3950),
+        icon(2L, MapIconType.SHELTER, 63.4310, 10.3960),
+        icon(3L, MapIconType.HOSPITAL, 63.4200, 10.4100),
+        icon(4L, MapIconType.HOSPITAL, 59.9139, 10.7522),
+        icon(5L, MapIconType.FOODSTATION, null, null)));
+    when(mapIconRepository.findAll()).thenReturn(icons);
+  }
+
+  private static MapIcon icon(Long id, MapIconType type, Double latitude, Double longitude) {
+    MapIcon icon = new MapIcon();
+    icon.setId(id);
+    icon.setType(type);
+    icon.setLatitude(latitude);
+    icon.setLongitude(longitude);
+    return icon;
+  }
+
+  private List<MapIconClusterDto> norway(int zoom) {
+    return clusterIndex.getClusters(zoom, 57, 4, 71, 31);
+  }
+
+  private static int total(List<MapIconClusterDto> clusters) {
+    return clusters.stream().mapToInt(MapIconClusterDto::getCount).sum();
+  }
+
+  @Test
+  void getClusters_shouldGroupIconsByZoomLevel() {
+    // Act
+    List<MapIconClusterDto> zoomedOut = norway(1);
+    List<MapIconClusterDto> zoomedIn = norway(MapIconClusterIndex.MAX_ZOOM);
+
+    // Assert
+    assertEquals(1, zoomedOut.size());
+    assertEquals(4, total(zoomedOut));
+    assertEquals(Map.of(MapIconType.SHELTER, 2, MapIconType.HOSPITAL, 2),
+        zoomedOut.get(0).getTypes());
+    assertEquals(4, zoomedIn.size());
+    assertEquals(4, total(zoomedIn));
+  }
+
+  @Test
+  void getClusters_shouldPlaceClusterAtCentroid() {
+    // Act
+    List<MapIconClusterDto> trondheim = clusterIndex.getClusters(6, 63.2, 10.0, 63.6, 10.8);
+
+    // Assert
+    assertEquals(1, trondheim.size());
+    MapIconClusterDto cluster = trondheim.get(0);
+    assertEquals(3, cluster.getCount());
+    assertEquals((63.4300 + 63.4310 + 63.4200) / 3, cluster.getLatitude(), 1e-9);
+    assertEquals((10.3950 + 10.3960 + 10.4100) / 3, cluster.getLongitude(), 1e-9);
+  }
+
+  @Test
+  void getClusters_shouldLeaveOutCellsOutsideBox() {
+    // Act
+    List<MapIconClusterDto> oslo = clusterIndex.getClusters(10, 59.8, 10.6, 60.0, 10.9);
+
+    // Assert
+    assertEquals(1, oslo.size());
+    assertEquals(Map.of(MapIconType.HOSPITAL, 1), oslo.get(0).getTypes());
+  }
+
+  @Test
+  void onMapIconChanged_shouldMoveIconWithoutRebuilding() {
+    // Arrange
+    norway(3);
+    MapIcon moved = icon(3L, MapIconType.HOSPITAL, 59.9100, 10.7500);
+    when(mapIconRepository.findById(3L)).thenReturn(Optional.of(moved));
+    when(mapIconRepository.findById(1L)).thenReturn(Optional.empty());
+
+    // Act
+    clusterIndex.onMapIconChanged(new MapIconChangedEvent(3L));
+    clusterIndex.onMapIconChanged(new MapIconChangedEvent(1L));
+
+    // Assert
+    List<MapIconClusterDto> trondheim = clusterIndex.getClusters(6, 63.2, 10.0, 63.6, 10.8);
+    assertEquals(1, trondheim.size());
+    assertEquals(Map.of(MapIconType.SHELTER, 1), trondheim.get(0).getTypes());
+    assertEquals(63.4310, trondheim.get(0).getLatitude(), 1e-9);
+    List<MapIconClusterDto> oslo = clusterIndex.getClusters(6, 59.8, 10.6, 60.0, 10.9);
+    assertEquals(2, total(oslo));
+    assertEquals(3, total(norway(0)));
+    verify(mapIconRepository, times(1)).findAll();
+  }
+
+  @Test
+  void onMapIconChanged_shouldWaitForFirstReadBeforeLoadingAnything() {
+    // Act
+    clusterIndex.onMapIconChanged(new MapIconChangedEvent(1L));
+    icons.add(icon(6L, MapIconType.MEETINGPLACE, 63.4, 10.4));
+
+    // Assert
+    verify(mapIconRepository, never()).findById(any());
+    assertEquals(5, total(norway(0)));
+  }
+
+  @Test
+  void getClusters_shouldTreatZoomBeyondMaxAsMax() {
+    // Act
+    List<MapIconClusterDto> deep = norway(22);
+
+    // Assert
+    assertTrue(deep.stream().allMatch(cluster -> cluster.getCount() == 1));
+    assertEquals(4, deep.size());
+  }
+}
@@ -0,0 +1,134 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconChangesDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconClusterDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconResponseDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.MapTileService;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconChangeLog;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconClusterIndex;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconIndexRefresher;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconSearchIndex;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MapIconIndexRefresherTest {
+
+  private MapIconRepository mapIconRepository;
+  private MapIconChangeLog changeLog;
+  private MapIconClusterIndex clusterIndex;
+  private MapIconSearchIndex searchIndex;
+  private MapTileService mapTileService;
+  private MapIconIndexRefresher refresher;
+  private List<MapIcon> icons;
+
+  @BeforeEach
+  void setUp() {
+    mapIconRepository = mock(MapIconRepository.class);
+    changeLog = mock(MapIconChangeLog.class);
+    clusterIndex = new MapIconClusterIndex(mapIconRepository);
+    searchIndex = new MapIconSearchIndex(mapIconRepository);
+    mapTileService = mock(MapTileService.class);
+    refresher = new MapIconIndexRefresher(changeLog, clusterIndex, searchIndex, mapTileService);
+    icons = new ArrayList<>(List.of(
+        icon(1L, "Tilfluktsrom", 63.4305, 10.3951),
+        icon(2L, "Sjukehus", 63.4210, 10.3890)));
+    when(mapIconRepository.findAll()).thenAnswer(invocation -> List.copyOf(icons));
+  }
+
+  private static MapIcon icon(Long id, String description, double latitude, double longitude) {
+    MapIcon icon = new MapIcon();
+    icon.setId(id);
+    icon.setType(MapIconType.SHELTER);
+    icon.setDescription(description);
+    icon.setLatitude(latitude);
+    icon.setLongitude(longitude);
+    return icon;
+  }
+
+  private List<Long> trondheim() {
+    return searchIndex.search(63.43, 10.39, 5, "").stream().map(MapIconResponseDto::getId)
+        .toList();
+  }
+
+  private int clustered() {
+    return clusterIndex.getClusters(0, 57, 4, 71, 31).stream()
+        .mapToInt(MapIconClusterDto::getCount).sum();
+  }
+
+  @Test
+  void refresh_shouldReloadIconsChangedOnOtherNodes() {
+    // Arrange
+    when(changeLog.latestSeq()).thenReturn(10L);
+    trondheim();
+    clustered();
+    refresher.refresh();
+    MapIcon added = icon(3L, "Matstasjon", 63.4269, 10.3969);
+    icons.add(added);
+    when(mapIconRepository.findById(3L)).thenReturn(Optional.of(added));
+    when(mapIconRepository.findById(1L)).thenReturn(Optional.empty());
+    when(changeLog.changesSince(10L, MapIconIndexRefresher.BATCH_SIZE)).thenReturn(
+        new MapIconChangesDto(List.of(MapIconResponseDto.fromEntity(added)), List.of(1L), 12L,
+            false));
+
+    // Act
+    refresher.refresh();
+
+    // Assert
+    assertEquals(List.of(2L, 3L), trondheim());
+    assertEquals(2, clustered());
+    verify(mapIconRepository, times(2)).findById(3L);
+    verify(mapTileService).onMapIconsChanged(Set.of(3L, 1L));
+  }
+
+  @Test
+  void refresh_shouldRebuildOnFirstRun_soEarlierChangesNeedNoReplay() {
+    // Arrange
+    trondheim();
+    icons.remove(0);
+
+    // Act
+    refresher.refresh();
+
+    // Assert
+    assertEquals(List.of(2L), trondheim());
+    verify(changeLog, never()).changesSince(anyLong(), anyInt());
+    verify(mapTileService).clear();
+  }
+
+  @Test
+  void refresh_shouldPageThroughChanges() {
+    // Arrange
+    when(changeLog.latestSeq()).thenReturn(0L);
+    refresher.refresh();
+    trondheim();
+    icons.clear();
+    when(mapIconRepository.findById(anyLong())).thenReturn(Optional.empty());
+    when(changeLog.changesSince(0L, MapIconIndexRefresher.BATCH_SIZE))
+        .thenReturn(new MapIconChangesDto(List.of(), List.of(1L), 1L, true));
+    when(changeLog.changesSince(1L, MapIconIndexRefresher.BATCH_SIZE))
+        .thenReturn(new MapIconChangesDto(List.of(), List.of(2L), 2L, false));
+
+    // Act
+    refresher.refresh();
+
+    // Assert
+    assertEquals(List.of(), trondheim());
+    verify(mapIconRepository, times(1)).findAll();
+  }
+}
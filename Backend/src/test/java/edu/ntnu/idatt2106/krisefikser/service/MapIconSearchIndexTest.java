@@ -0,0 +1,168 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconResponseDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoDistance;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconChangedEvent;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconSearchIndex;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MapIconSearchIndexTest {
+
+  private MapIconRepository mapIconRepository;
+  private MapIconSearchIndex searchIndex;
+  private List<MapIcon> icons;
+
+  @BeforeEach
+  void setUp() {
+    mapIconRepository = mock(MapIconRepository.class);
+    searchIndex = new MapIconSearchIndex(mapIconRepository);
+    icons = new ArrayList<>(List.of(
+        icon(1L, "Tilfluktsrom under Torvet", "Kongens gate 1", 63.4305, 10.3951),
+        icon(2L, "Sjukehus med legevakt", "Prinsens gate 20", 63.4210, 10.3890),
+        icon(3L, "Matstasjon ved Nidarosdomen", "Kongsgårdsgata 2", 63.4269, 10.3969),
+        icon(4L, "Tilfluktsrom i Oslo", "Karl Johans gate 1", 59.9139, 10.7522),
+        icon(5L, "Tilfluktsrom uten koordinater", "Kongens gate 9", null, null)));
+    when(mapIconRepository.findAll()).thenReturn(icons);
+  }
+
+  private static MapIcon icon(Long id, String description, String address, Double latitude,
+      Double longitude) {
+    MapIcon icon = new MapIcon();
+    icon.setId(id);
+    icon.setType(MapIconType.SHELTER);
+    icon.setDescription(description);
+    icon.setAddress(address);
+    icon.setLatitude(latitude);
+    icon.setLongitude(longitude);
+    return icon;
+  }
+
+  private List<Long> ids(List<MapIconResponseDto> found) {
+    return found.stream().map(MapIconResponseDto::getId).toList();
+  }
+
+  @Test
+  void search_shouldIntersectTextAndRadius() {
+    // Act
+    List<MapIconResponseDto> found = searchIndex.search(63.43, 10.395, 5, "tilfluktsrom");
+
+    // Assert
+    assertEquals(List.of(1L), ids(found));
+  }
+
+  @Test
+  void search_shouldReturnEveryIconInRadius_whenQueryIsBlank() {
+    // Act
+    List<MapIconResponseDto> found = searchIndex.search(63.43, 10.395, 5, "  ");
+
+    // Assert
+    assertEquals(List.of(1L, 2L, 3L), ids(found));
+  }
+
+  @Test
+  void search_shouldMatchSubstringsAcrossWordsIgnoringCase() {
+    // Act
+    List<MapIconResponseDto> middle = searchIndex.search(63.43, 10.395, 5, "ENS GATE 2");
+    List<MapIconResponseDto> twoLetters = searchIndex.search(63.43, 10.395, 5, "ns");
+    List<MapIconResponseDto> none = searchIndex.search(63.43, 10.395, 5, "gate 3");
+
+    // Assert
+    assertEquals(List.of(2L), ids(middle));
+    assertEquals(List.of(1L, 2L), ids(twoLetters));
+    assertTrue(none.isEmpty());
+  }
+
+  @Test
+  void search_shouldMatchNorwegianLettersInEitherUnicodeForm() {
+    // Arrange
+    String decomposed = "Kongsga\u030Ardsgata";
+
+    // Act
+    List<MapIconResponseDto> found = searchIndex.search(63.43, 10.395, 5, decomposed);
+    List<MapIconResponseDto> upper = searchIndex.search(63.43, 10.395, 5, "GÅRD");
+
+    // Assert
+    assertEquals(List.of(3L), ids(found));
+    assertEquals(List.of(3L), ids(upper));
+  }
+
+  @Test
+  void search_shouldNotMatchEverything_whenQueryIsOnlyPunctuation() {
+    // Act
+    List<MapIconResponseDto> found = searchIndex.search(63.43, 10.395, 5, "--");
+
+    // Assert
+    assertTrue(found.isEmpty());
+  }
+
+  @Test
+  void onMapIconChanged_shouldReindexChangedIcon() {
+    // Arrange
+    searchIndex.search(63.43, 10.395, 5, null);
+    MapIcon moved = icon(4L, "Tilfluktsrom ved Torvet", "Munkegata 1", 63.4300, 10.3940);
+    when(mapIconRepository.findById(4L)).thenReturn(Optional.of(moved));
+    when(mapIconRepository.findById(1L)).thenReturn(Optional.empty());
+
+    // Act
+    searchIndex.onMapIconChanged(new MapIconChangedEvent(4L));
+    searchIndex.onMapIconChanged(new MapIconChangedEvent(1L));
+    List<MapIconResponseDto> found = searchIndex.search(63.43, 10.395, 5, "torvet");
+
+    // Assert
+    assertEquals(List.of(4L), ids(found));
+    assertTrue(searchIndex.search(59.9139, 10.7522, 5, null).isEmpty());
+    verify(mapIconRepository, times(1)).findAll();
+  }
+
+  @Test
+  void search_shouldAgreeWithScan_afterManyChanges() {
+    // Arrange
+    Random random = new Random(3);
+    String[] words = {"skole", "hall", "kirke", "sykehus", "brannstasjon", "bibliotek"};
+    List<MapIcon> all = new ArrayList<>();
+    for (long id = 1; id <= 300; id++) {
+      all.add(icon(id, words[random.nextInt(words.length)] + " " + id, "Gate " + id % 7,
+          63 + random.nextDouble(), 10 + random.nextDouble()));
+    }
+    icons.clear();
+    icons.addAll(all);
+    searchIndex.search(63.5, 10.5, 1, null);
+    for (int i = 0; i < 600; i++) {
+      long id = 1 + random.nextInt(300);
+      MapIcon changed = icon(id, words[random.nextInt(words.length)], "Gate " + i % 11,
+          63 + random.nextDouble(), 10 + random.nextDouble());
+      boolean deleted = random.nextInt(4) == 0;
+      all.set((int) id - 1, deleted ? null : changed);
+      when(mapIconRepository.findById(id))
+          .thenReturn(deleted ? Optional.empty() : Optional.of(changed));
+      searchIndex.onMapIconChanged(new MapIconChangedEvent(id));
+    }
+
+    // Act
+    List<MapIconResponseDto> found = searchIndex.search(63.5, 10.5, 20, "kirke");
+
+    // Assert
+    List<Long> expected = all.stream()
+        .filter(icon -> icon != null && icon.getDescription().contains("kirke"))
+        .filter(icon -> GeoDistance.haversineKm(63.5, 10.5, icon.getLatitude(),
+            icon.getLongitude()) <= 20)
+        .map(MapIcon::getId)
+        .toList();
+    assertEquals(expected, ids(found));
+  }
+}
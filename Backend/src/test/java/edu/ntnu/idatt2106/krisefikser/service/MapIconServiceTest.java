@@ -7,26 +7,40 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconChangesDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconClusterDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconRequestDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconResponseDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoPoint;
+import edu.ntnu.idatt2106.krisefikser.service.map.OfflineGeocoder;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconChangeLog;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconChangedEvent;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconClusterIndex;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconSearchIndex;
 import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconService;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 /**
  * Unit tests for the MapIconService class.
@@ -36,12 +50,25 @@ class MapIconServiceTest {
   @Mock
   private MapIconRepository mapIconRepository;
 
-  @InjectMocks
+  @Mock
+  private MapIconClusterIndex clusterIndex;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private OfflineGeocoder geocoder;
+
+  @Mock
+  private MapIconChangeLog changeLog;
+
   private MapIconService mapIconService;
 
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
+    mapIconService = new MapIconService(mapIconRepository, clusterIndex, eventPublisher, geocoder,
+        new MapIconSearchIndex(mapIconRepository), changeLog);
   }
 
   /**
@@ -60,6 +87,7 @@ class MapIconServiceTest {
       when(mapIconRepository.save(any(MapIcon.class))).thenReturn(new MapIcon());
 
       assertDoesNotThrow(() -> mapIconService.createMapIcon(request));
+      verify(changeLog).stamp(any(MapIcon.class));
       verify(mapIconRepository).save(any(MapIcon.class));
     }
 
@@ -86,6 +114,59 @@ class MapIconServiceTest {
       assertEquals("Either coordinates or address must be provided.", exception.getMessage());
       verifyNoInteractions(mapIconRepository);
     }
+
+    @Test
+    void createMapIcon_shouldGeocodeAddress_whenNoCoordinatesGiven() {
+      // Arrange
+      MapIconRequestDto request = new MapIconRequestDto();
+      request.setType(MapIconType.FOODSTATION);
+      request.setAddress("Kongens gate 12, 7011 Trondheim");
+      when(geocoder.geocode("Kongens gate 12, 7011 Trondheim"))
+          .thenReturn(Optional.of(new GeoPoint(63.43, 10.39)));
+
+      // Act
+      mapIconService.createMapIcon(request);
+
+      // Assert
+      ArgumentCaptor<MapIcon> saved = ArgumentCaptor.forClass(MapIcon.class);
+      verify(mapIconRepository).save(saved.capture());
+      assertEquals(63.43, saved.getValue().getLatitude());
+      assertEquals(10.39, saved.getValue().getLongitude());
+    }
+
+    @Test
+    void createMapIcon_shouldSaveWithoutCoordinates_whenAddressNotFound() {
+      // Arrange
+      MapIconRequestDto request = new MapIconRequestDto();
+      request.setType(MapIconType.FOODSTATION);
+      request.setAddress("Unknown street 1");
+      when(geocoder.geocode(anyString())).thenReturn(Optional.empty());
+
+      // Act
+      mapIconService.createMapIcon(request);
+
+      // Assert
+      ArgumentCaptor<MapIcon> saved = ArgumentCaptor.forClass(MapIcon.class);
+      verify(mapIconRepository).save(saved.capture());
+      assertNull(saved.getValue().getLatitude());
+      assertNull(saved.getValue().getLongitude());
+    }
+
+    @Test
+    void createMapIcon_shouldNotGeocode_whenCoordinatesGiven() {
+      // Arrange
+      MapIconRequestDto request = new MapIconRequestDto();
+      request.setType(MapIconType.SHELTER);
+      request.setAddress("Kongens gate 12, 7011 Trondheim");
+      request.setLatitude(63.42);
+      request.setLongitude(10.39);
+
+      // Act
+      mapIconService.createMapIcon(request);
+
+      // Assert
+      verify(geocoder, never()).geocode(anyString());
+    }
   }
 
   /**
@@ -105,7 +186,9 @@ class MapIconServiceTest {
       request.setType(MapIconType.SHELTER);
 
       assertDoesNotThrow(() -> mapIconService.updateMapIcon(id, request));
+      verify(changeLog).stamp(existing);
       verify(mapIconRepository).save(any(MapIcon.class));
+      verify(eventPublisher).publishEvent(any(MapIconChangedEvent.class));
     }
 
     @Test
@@ -138,6 +221,8 @@ class MapIconServiceTest {
 
       assertDoesNotThrow(() -> mapIconService.deleteMapIcon(id));
       verify(mapIconRepository).deleteById(id);
+      verify(changeLog).recordDeletion(id);
+      verify(eventPublisher).publishEvent(any(MapIconChangedEvent.class));
     }
 
     @Test
@@ -151,6 +236,67 @@ class MapIconServiceTest {
       assertEquals("Map icon not found", exception.getMessage());
       verify(mapIconRepository).existsById(id);
       verifyNoMoreInteractions(mapIconRepository);
+      verifyNoInteractions(changeLog);
+    }
+  }
+
+  /**
+   * Test cases for the getMapIconChanges method.
+   */
+  @Nested
+  class GetMapIconChangesTests {
+
+    @Test
+    void getMapIconChanges_shouldReturnChangesFromChangeLog() {
+      // Arrange
+      MapIconChangesDto changes = new MapIconChangesDto(List.of(), List.of(7L), 12, false);
+      when(changeLog.changesSince(10, 500)).thenReturn(changes);
+
+      // Act
+      MapIconChangesDto result = mapIconService.getMapIconChanges(10, 500);
+
+      // Assert
+      assertEquals(changes, result);
+    }
+
+    @Test
+    void getMapIconChanges_shouldRejectNegativeSequenceAndBadLimits() {
+      // Act & Assert
+      assertThrows(IllegalArgumentException.class,
+          () -> mapIconService.getMapIconChanges(-1, 500));
+      assertThrows(IllegalArgumentException.class,
+          () -> mapIconService.getMapIconChanges(0, 0));
+      assertThrows(IllegalArgumentException.class,
+          () -> mapIconService.getMapIconChanges(0, 5001));
+      verifyNoInteractions(changeLog);
+    }
+  }
+
+  /**
+   * Test cases for the getMapIconClusters method.
+   */
+  @Nested
+  class GetMapIconClustersTests {
+
+    @Test
+    void getMapIconClusters_shouldKeepClustersWithinRadius() {
+      MapIconClusterDto near = new MapIconClusterDto(63.43, 10.40, 4,
+          Map.of(MapIconType.SHELTER, 4));
+      MapIconClusterDto corner = new MapIconClusterDto(63.85, 11.25, 2,
+          Map.of(MapIconType.HOSPITAL, 2));
+      when(clusterIndex.getClusters(eq(8), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+          .thenReturn(List.of(near, corner));
+
+      List<MapIconClusterDto> result = mapIconService.getMapIconClusters(63.42, 10.39, 50, 8);
+
+      assertEquals(List.of(near), result);
+    }
+
+    @Test
+    void getMapIconClusters_shouldRejectNegativeZoom() {
+      assertThrows(IllegalArgumentException.class,
+          () -> mapIconService.getMapIconClusters(63.42, 10.39, 50, -1));
+      verifyNoInteractions(clusterIndex);
     }
   }
 
@@ -472,23 +618,12 @@ class MapIconServiceTest {
     void getMapIcons_shouldFilterByRadius() {
       // Arrange
       MapIcon icon = createIcon("Hospital", "123 Main St", "555-1234");
-      List<MapIcon> icons = List.of(icon);
-      when(mapIconRepository.findAll()).thenReturn(icons);
-
-      // Create a spy that properly intercepts the isWithinRadius method call
-      MapIconService spyService = org.mockito.Mockito.spy(mapIconService);
-
-      // Use PowerMockito to mock the private method
-      // Since we can't do that directly, we mock calculateDistance with a large value
-      // The key is to make sure we're mocking all possible calls to calculateDistance
-      org.mockito.Mockito.doReturn(20.0).when(spyService).calculateDistance(
-          org.mockito.ArgumentMatchers.eq(0.0),
-          org.mockito.ArgumentMatchers.eq(0.0),
-          org.mockito.ArgumentMatchers.eq(0.0),
-          org.mockito.ArgumentMatchers.eq(0.0));
+      // About 20 km north of the search center
+      icon.setLatitude(0.18);
+      when(mapIconRepository.findAll()).thenReturn(List.of(icon));
 
       // Act
-      List<MapIconResponseDto> result = spyService.getMapIcons(0.0, 0.0, 10.0, null);
+      List<MapIconResponseDto> result = mapIconService.getMapIcons(0.0, 0.0, 10.0, null);
 
       // Assert
       assertEquals(0, result.size());
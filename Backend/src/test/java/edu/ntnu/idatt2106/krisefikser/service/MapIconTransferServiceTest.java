@@ -0,0 +1,217 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ntnu.idatt2106.krisefikser.api.dto.mapicon.MapIconImportResultDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.OfflineGeocoder;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconChangeLog;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconFileFormat;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconTransferService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs bulk map icon imports and exports against the real schema.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({MapIconTransferService.class, MapIconChangeLog.class, OfflineGeocoder.class})
+class MapIconTransferServiceTest {
+
+  @Autowired
+  private MapIconTransferService transferService;
+
+  @Autowired
+  private MapIconRepository mapIconRepository;
+
+  @Autowired
+  private OfflineGeocoder geocoder;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    geocoder.load(new StringReader("Kongens gate;12;;7011;Trondheim;63.43;10.39\n"));
+  }
+
+  @Test
+  void importIcons_shouldSaveValidFeaturesAndReportInvalidOnes() throws IOException {
+    // Arrange
+    String geoJson = """
+        {"type": "FeatureCollection", "name": "shelters", "features": [
+          {"type": "Feature", "geometry": {"type": "Point", "coordinates": [10.4, 63.4]},
+           "properties": {"type": "shelter", "description": "Tilfluktsrom", "ignored": [1]}},
+          {"type": "Feature", "geometry": null,
+           "properties": {"type": "HOSPITAL", "address": "Kongens gate 12, Trondheim"}},
+          {"type": "Feature", "geometry": {"type": "Point", "coordinates": [10.4, 63.4]},
+           "properties": {"type": "CASTLE"}},
+          {"type": "Feature", "geometry": {"type": "LineString", "coordinates": [[0, 0]]},
+           "properties": {"type": "SHELTER"}},
+          {"type": "Feature", "geometry": {"type": "Point", "coordinates": [10.4, 95]},
+           "properties": {"type": "SHELTER"}}
+        ]}
+        """;
+
+    // Act
+    MapIconImportResultDto result = transferService.importIcons(new StringReader(geoJson),
+        MapIconFileFormat.GEOJSON);
+
+    // Assert
+    assertEquals(5, result.getRowsRead());
+    assertEquals(2, result.getImported());
+    assertEquals(3, result.getRejected());
+    assertEquals(List.of("Row 3: Unknown type: CASTLE", "Row 4: Geometry must be a Point",
+        "Row 5: Coordinates are out of range"), result.getErrors());
+    assertFalse(result.isRunning());
+    List<MapIcon> saved = mapIconRepository.findAll();
+    assertEquals(2, saved.size());
+    MapIcon hospital = saved.stream().filter(icon -> icon.getType() == MapIconType.HOSPITAL)
+        .findFirst().orElseThrow();
+    assertEquals(63.43, hospital.getLatitude());
+  }
+
+  @Test
+  void importIcons_shouldReadSemicolonCsvWithDecimalCommasAndQuotes() throws IOException {
+    // Arrange
+    String csv = "\uFEFFType;Latitude;Longitude;Description;ContactInfo\r\n"
+        + "HEARTSTARTER;63,4305;10,3951;\"Hjertestarter; \"\"inngang\"\"\n2. etasje\";\r\n"
+        + "\r\n"
+        + "SHELTER;63,43;;Mangler lengdegrad;\r\n";
+
+    // Act
+    MapIconImportResultDto result = transferService.importIcons(new StringReader(csv),
+        MapIconFileFormat.CSV);
+
+    // Assert
+    assertEquals(1, result.getImported());
+    assertEquals(List.of("Row 2: Latitude and longitude must be given together"),
+        result.getErrors());
+    MapIcon icon = mapIconRepository.findAll().get(0);
+    assertEquals(63.4305, icon.getLatitude());
+    assertEquals(10.3951, icon.getLongitude());
+    assertEquals("Hjertestarter; \"inngang\"\n2. etasje", icon.getDescription());
+  }
+
+  @Test
+  void importIcons_shouldSaveInChunks() throws IOException {
+    // Arrange
+    StringBuilder csv = new StringBuilder("type,latitude,longitude\n");
+    for (int i = 0; i < 1201; i++) {
+      csv.append("SHELTER,").append(60 + i / 10000.0).append(",10\n");
+    }
+
+    // Act
+    MapIconImportResultDto result = transferService.importIcons(
+        new StringReader(csv.toString()), MapIconFileFormat.CSV);
+
+    // Assert
+    assertEquals(1201, result.getImported());
+    assertEquals(1201, mapIconRepository.count());
+    assertEquals(1201, transferService.getImportStatus().getImported());
+  }
+
+  @Test
+  void importIcons_shouldRejectMalformedFiles() {
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> transferService.importIcons(
+        new StringReader("{\"type\": \"FeatureCollection\", \"features\": [{\"type\""),
+        MapIconFileFormat.GEOJSON));
+    assertThrows(IllegalArgumentException.class, () -> transferService.importIcons(
+        new StringReader("[]"), MapIconFileFormat.GEOJSON));
+    assertThrows(IllegalArgumentException.class, () -> transferService.importIcons(
+        new StringReader("latitude,longitude\n1,2\n"), MapIconFileFormat.CSV));
+    assertThrows(IllegalArgumentException.class, () -> transferService.importIcons(
+        new StringReader("type,description\nSHELTER,\"unclosed\n"), MapIconFileFormat.CSV));
+  }
+
+  @Test
+  void exportIcons_shouldWriteEveryIconInBothFormats() throws IOException {
+    // Arrange
+    MapIcon placed = new MapIcon();
+    placed.setType(MapIconType.SHELTER);
+    placed.setLatitude(63.43);
+    placed.setLongitude(10.39);
+    placed.setDescription("Tilfluktsrom, Torvet");
+    entityManager.persist(placed);
+    MapIcon unplaced = new MapIcon();
+    unplaced.setType(MapIconType.FOODSTATION);
+    unplaced.setAddress("Ukjent vei 1");
+    entityManager.persist(unplaced);
+    entityManager.flush();
+    entityManager.clear();
+
+    // Act
+    ByteArrayOutputStream geoJson = new ByteArrayOutputStream();
+    transferService.exportIcons(MapIconFileFormat.GEOJSON, geoJson);
+    ByteArrayOutputStream csv = new ByteArrayOutputStream();
+    transferService.exportIcons(MapIconFileFormat.CSV, csv);
+
+    // Assert
+    JsonNode features = new ObjectMapper().readTree(geoJson.toByteArray()).path("features");
+    assertEquals(2, features.size());
+    assertEquals(10.39, features.get(0).path("geometry").path("coordinates").get(0).asDouble());
+    assertEquals("Tilfluktsrom, Torvet",
+        features.get(0).path("properties").path("description").asText());
+    assertTrue(features.get(1).path("geometry").isNull());
+    String[] lines = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+    assertEquals(3, lines.length);
+    assertEquals("id,type,address,latitude,longitude,description,openingHours,contactInfo",
+        lines[0]);
+    assertTrue(lines[1].endsWith(",SHELTER,,63.43,10.39,\"Tilfluktsrom, Torvet\",,"));
+
+    MapIconImportResultDto reimported = transferService.importIcons(
+        new StringReader(csv.toString(StandardCharsets.UTF_8)), MapIconFileFormat.CSV);
+    assertEquals(2, reimported.getImported());
+  }
+
+  @Test
+  void exportIcons_shouldGuardFormulasInCsvText() throws IOException {
+    // Arrange
+    MapIcon icon = new MapIcon();
+    icon.setType(MapIconType.SHELTER);
+    icon.setLatitude(-33.86);
+    icon.setLongitude(151.21);
+    icon.setDescription("=HYPERLINK(\"http://example.com\")");
+    icon.setContactInfo("+47 12345678");
+    entityManager.persist(icon);
+    entityManager.flush();
+    entityManager.clear();
+
+    // Act
+    ByteArrayOutputStream csv = new ByteArrayOutputStream();
+    transferService.exportIcons(MapIconFileFormat.CSV, csv);
+    MapIconImportResultDto reimported = transferService.importIcons(
+        new StringReader(csv.toString(StandardCharsets.UTF_8)), MapIconFileFormat.CSV);
+
+    // Assert: text is guarded, numbers are not, and the guard is dropped on import
+    String[] lines = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+    assertTrue(lines[1].endsWith(
+        ",SHELTER,,-33.86,151.21,\"'=HYPERLINK(\"\"http://example.com\"\")\",,'+47 12345678"));
+    assertEquals(1, reimported.getImported());
+    List<MapIcon> saved = mapIconRepository.findAll();
+    assertEquals(2, saved.size());
+    for (MapIcon copy : saved) {
+      assertEquals("=HYPERLINK(\"http://example.com\")", copy.getDescription());
+      assertEquals("+47 12345678", copy.getContactInfo());
+    }
+  }
+}
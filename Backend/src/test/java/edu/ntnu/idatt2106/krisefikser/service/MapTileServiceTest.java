@@ -0,0 +1,290 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Incident;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mapicon.MapIcon;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MapIconType;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Severity;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.incident.IncidentRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mapicon.MapIconRepository;
+import edu.ntnu.idatt2106.krisefikser.service.incident.IncidentChangedEvent;
+import edu.ntnu.idatt2106.krisefikser.service.map.MapTileService;
+import edu.ntnu.idatt2106.krisefikser.service.map.WebMercator;
+import edu.ntnu.idatt2106.krisefikser.service.mapicon.MapIconChangedEvent;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MapTileServiceTest {
+
+  private static final int ZOOM = 12;
+
+  private MapIconRepository mapIconRepository;
+  private IncidentRepository incidentRepository;
+  private MapTileService mapTileService;
+  private List<MapIcon> icons;
+  private List<Incident> incidents;
+
+  @BeforeEach
+  void setUp() {
+    mapIconRepository = mock(MapIconRepository.class);
+    incidentRepository = mock(IncidentRepository.class);
+    mapTileService = new MapTileService(mapIconRepository, incidentRepository, 100, 60_000);
+    icons = new ArrayList<>();
+    incidents = new ArrayList<>();
+
+    // The repository honours the bounding box, so each tile sees only its own icons
+    when(mapIconRepository.findInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+        .thenAnswer(invocation -> {
+          double south = invocation.getArgument(0);
+          double west = invocation.getArgument(1);
+          double north = invocation.getArgument(2);
+          double east = invocation.getArgument(3);
+          return icons.stream()
+              .filter(icon -> icon.getLatitude() >= south && icon.getLatitude() <= north
+                  && icon.getLongitude() >= west && icon.getLongitude() <= east)
+              .toList();
+        });
+    when(incidentRepository.findActive(any())).thenAnswer(invocation -> incidents);
+  }
+
+  private MapIcon addIcon(Long id, double latitude, double longitude) {
+    MapIcon icon = new MapIcon();
+    icon.setId(id);
+    icon.setType(MapIconType.SHELTER);
+    icon.setLatitude(latitude);
+    icon.setLongitude(longitude);
+    icons.add(icon);
+    when(mapIconRepository.findById(id)).thenReturn(Optional.of(icon));
+    return icon;
+  }
+
+  private static int tileX(double longitude) {
+    return (int) WebMercator.tileX(longitude, ZOOM);
+  }
+
+  private static int tileY(double latitude) {
+    return (int) WebMercator.tileY(latitude, ZOOM);
+  }
+
+  private byte[] tileAt(double latitude, double longitude) {
+    return mapTileService.getTile(ZOOM, tileX(longitude), tileY(latitude));
+  }
+
+  @Test
+  void getTile_shouldServeRepeatedReadsFromMemory() {
+    // Arrange
+    addIcon(1L, 63.4300, 10.3950);
+
+    // Act
+    byte[] first = tileAt(63.4300, 10.3950);
+    byte[] second = tileAt(63.4300, 10.3950);
+
+    // Assert
+    assertTrue(first.length > 0);
+    assertEquals(first, second);
+    verify(mapIconRepository, times(1))
+        .findInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+  }
+
+  @Test
+  void getTile_shouldBeEmptyWhenNothingIsInTile() {
+    // Act
+    byte[] tile = tileAt(70.0, 25.0);
+
+    // Assert
+    assertEquals(0, tile.length);
+  }
+
+  @Test
+  void onMapIconChanged_shouldOnlyDropTilesShowingIcon() {
+    // Arrange
+    MapIcon moved = addIcon(1L, 63.4300, 10.3950);
+    addIcon(2L, 59.9139, 10.7522);
+    tileAt(63.4300, 10.3950);
+    tileAt(59.9139, 10.7522);
+    tileAt(60.3913, 5.3221);
+
+    // Act: the icon moves from Trondheim to Bergen
+    moved.setLatitude(60.3913);
+    moved.setLongitude(5.3221);
+    mapTileService.onMapIconChanged(new MapIconChangedEvent(1L));
+    byte[] trondheim = tileAt(63.4300, 10.3950);
+    tileAt(59.9139, 10.7522);
+    byte[] bergen = tileAt(60.3913, 5.3221);
+
+    // Assert: Trondheim and Bergen were built again, Oslo was not
+    assertEquals(0, trondheim.length);
+    assertTrue(bergen.length > 0);
+    verify(mapIconRepository, times(5))
+        .findInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+  }
+
+  @Test
+  void getTile_shouldNotStoreTileBuiltDuringChange() {
+    // Arrange: the icon is edited while its tile is being read
+    addIcon(1L, 63.4300, 10.3950);
+    when(mapIconRepository.findInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+        .thenAnswer(invocation -> {
+          mapTileService.onMapIconChanged(new MapIconChangedEvent(1L));
+          return List.copyOf(icons);
+        })
+        .thenReturn(List.of());
+
+    // Act
+    tileAt(63.4300, 10.3950);
+    byte[] second = tileAt(63.4300, 10.3950);
+
+    // Assert
+    assertEquals(0, second.length);
+    verify(mapIconRepository, times(2))
+        .findInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+  }
+
+  @Test
+  void onIncidentChanged_shouldDropTilesCoveredByIncident() {
+    // Arrange
+    tileAt(63.4300, 10.3950);
+    tileAt(59.9139, 10.7522);
+    Incident incident = new Incident();
+    incident.setId(9L);
+    incident.setName("Flom");
+    incident.setSeverity(Severity.RED);
+    incident.setLatitude(63.4300);
+    incident.setLongitude(10.3950);
+    incident.setImpactRadius(1.0);
+    incidents.add(incident);
+    when(incidentRepository.findById(9L)).thenReturn(Optional.of(incident));
+
+    // Act
+    mapTileService.onIncidentChanged(new IncidentChangedEvent(9L));
+    byte[] trondheim = tileAt(63.4300, 10.3950);
+    byte[] oslo = tileAt(59.9139, 10.7522);
+
+    // Assert
+    assertTrue(trondheim.length > 0);
+    assertEquals(0, oslo.length);
+    verify(incidentRepository, times(3)).findActive(any());
+  }
+
+  @Test
+  void onMapIconsChanged_shouldDropTilesOfIconsChangedOnOtherNodes() {
+    // Arrange
+    MapIcon moved = addIcon(1L, 63.4300, 10.3950);
+    tileAt(63.4300, 10.3950);
+
+    // Act: the icon was moved to Bergen on another node
+    moved.setLatitude(60.3913);
+    moved.setLongitude(5.3221);
+    mapTileService.onMapIconsChanged(List.of(1L));
+    byte[] trondheim = tileAt(63.4300, 10.3950);
+
+    // Assert
+    assertEquals(0, trondheim.length);
+  }
+
+  @Test
+  void refreshIncidents_shouldDropTilesOfIncidentsChangedWithoutEvent() {
+    // Arrange
+    mapTileService.refreshIncidents();
+    tileAt(63.4300, 10.3950);
+    tileAt(59.9139, 10.7522);
+    Incident incident = new Incident();
+    incident.setId(9L);
+    incident.setName("Flom");
+    incident.setSeverity(Severity.RED);
+    incident.setLatitude(63.4300);
+    incident.setLongitude(10.3950);
+    incident.setImpactRadius(1.0);
+    incidents.add(incident);
+
+    // Act: the incident was created on another node, then moved away
+    mapTileService.refreshIncidents();
+    byte[] created = tileAt(63.4300, 10.3950);
+    tileAt(59.9139, 10.7522);
+    mapTileService.refreshIncidents();
+    tileAt(63.4300, 10.3950);
+    incident.setLatitude(59.9139);
+    incident.setLongitude(10.7522);
+    mapTileService.refreshIncidents();
+    byte[] left = tileAt(63.4300, 10.3950);
+    byte[] oslo = tileAt(59.9139, 10.7522);
+
+    // Assert
+    assertTrue(created.length > 0);
+    assertEquals(0, left.length);
+    assertTrue(oslo.length > 0);
+    // First reads, one rebuild after the incident was created and two after it moved, and one
+    // findActive per refresh
+    verify(incidentRepository, times(5 + 4)).findActive(any());
+  }
+
+  @Test
+  void getTile_shouldDrawAndDropIncidentsWithOnlyImpactZone() {
+    // Arrange: a square zone around Trondheim, with a hole, and no circle
+    Incident incident = new Incident();
+    incident.setId(9L);
+    incident.setName("Ras");
+    incident.setSeverity(Severity.RED);
+    incident.setImpactZone("{\"type\":\"Polygon\",\"coordinates\":["
+        + "[[10.38,63.42],[10.41,63.42],[10.41,63.44],[10.38,63.44],[10.38,63.42]],"
+        + "[[10.39,63.425],[10.395,63.43],[10.40,63.425],[10.39,63.425]]]}");
+    incidents.add(incident);
+    when(incidentRepository.findById(9L)).thenReturn(Optional.of(incident));
+    mapTileService.refreshIncidents();
+
+    // Act
+    byte[] trondheim = tileAt(63.4300, 10.3950);
+    byte[] oslo = tileAt(59.9139, 10.7522);
+    incident.setImpactZone("{\"type\":\"Polygon\",\"coordinates\":["
+        + "[[10.74,59.90],[10.76,59.90],[10.76,59.92],[10.74,59.92],[10.74,59.90]]]}");
+    mapTileService.refreshIncidents();
+    byte[] left = tileAt(63.4300, 10.3950);
+    byte[] moved = tileAt(59.9139, 10.7522);
+
+    // Assert
+    assertTrue(trondheim.length > 0);
+    assertEquals(0, oslo.length);
+    assertEquals(0, left.length);
+    assertTrue(moved.length > 0);
+  }
+
+  @Test
+  void getTile_shouldBuildAgainWhenIncidentEnds() {
+    // Arrange
+    Incident incident = new Incident();
+    incident.setId(9L);
+    incident.setLatitude(63.4300);
+    incident.setLongitude(10.3950);
+    incident.setImpactRadius(1.0);
+    incident.setEndedAt(LocalDateTime.now().minusSeconds(1));
+    incidents.add(incident);
+
+    // Act
+    tileAt(63.4300, 10.3950);
+    tileAt(63.4300, 10.3950);
+
+    // Assert
+    verify(incidentRepository, times(2)).findActive(any());
+  }
+
+  @Test
+  void getTile_shouldRejectTilesOutsideMap() {
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> mapTileService.getTile(19, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> mapTileService.getTile(2, 4, 0));
+    assertThrows(IllegalArgumentException.class, () -> mapTileService.getTile(2, 0, -1));
+  }
+}
@@ -0,0 +1,215 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.PendingRequestCountsDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.membershiprequest.MembershipRequest;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestStatus;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestType;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.membershiprequest.MembershipRequestRepository;
+import edu.ntnu.idatt2106.krisefikser.service.membershiprequests.MembershipRequestCounterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MembershipRequestCounterServiceTest {
+
+  @Mock
+  private MembershipRequestRepository membershipRequestRepository;
+
+  @Mock
+  private SimpMessagingTemplate messagingTemplate;
+
+  private MembershipRequestCounterService counterService;
+
+  private User owner;
+  private User invitee;
+  private Household household;
+
+  @BeforeEach
+  void setUp() {
+    counterService = new MembershipRequestCounterService(membershipRequestRepository,
+        messagingTemplate, true);
+
+    owner = new User();
+    owner.setId("owner-123");
+    invitee = new User();
+    invitee.setId("invitee-456");
+
+    household = new Household();
+    household.setId("household-123");
+    household.setOwner(owner);
+    owner.setHousehold(household);
+
+    when(membershipRequestRepository.countByReceiverIdAndTypeAndStatus(
+        "invitee-456", RequestType.INVITATION, RequestStatus.PENDING)).thenReturn(1L);
+    when(membershipRequestRepository.countByReceiverIdAndTypeAndStatus(
+        "owner-123", RequestType.INVITATION, RequestStatus.PENDING)).thenReturn(0L);
+    when(membershipRequestRepository.countByHouseholdIdAndTypeAndStatus(
+        "household-123", RequestType.JOIN_REQUEST, RequestStatus.PENDING)).thenReturn(2L);
+    when(membershipRequestRepository.countByHouseholdIdAndTypeAndStatus(
+        "household-123", RequestType.INVITATION, RequestStatus.PENDING)).thenReturn(1L);
+  }
+
+  private MembershipRequest request(RequestType type, User sender, User receiver) {
+    MembershipRequest request = new MembershipRequest();
+    request.setHousehold(household);
+    request.setSender(sender);
+    request.setReceiver(receiver);
+    request.setType(type);
+    request.setStatus(RequestStatus.PENDING);
+    return request;
+  }
+
+  @Nested
+  class GetCounts {
+
+    @Test
+    void shouldLoadCountersOnceAndServeFromMemory() {
+      // Act
+      counterService.getCounts(owner);
+      PendingRequestCountsDto counts = counterService.getCounts(owner);
+
+      // Assert
+      assertEquals(0, counts.getReceivedInvitations());
+      assertEquals(2, counts.getHouseholdJoinRequests());
+      assertEquals(1, counts.getHouseholdInvitations());
+      verify(membershipRequestRepository, times(1)).countByHouseholdIdAndTypeAndStatus(
+          "household-123", RequestType.JOIN_REQUEST, RequestStatus.PENDING);
+    }
+
+    @Test
+    void shouldReturnZeroHouseholdCounts_whenUserHasNoHousehold() {
+      // Act
+      PendingRequestCountsDto counts = counterService.getCounts(invitee);
+
+      // Assert
+      assertEquals(1, counts.getReceivedInvitations());
+      assertEquals(0, counts.getHouseholdJoinRequests());
+      assertEquals(0, counts.getHouseholdInvitations());
+    }
+
+    @Test
+    void shouldReloadFromDatabase_afterResync() {
+      // Arrange
+      counterService.getCounts(owner);
+
+      // Act
+      counterService.resync();
+      counterService.getCounts(owner);
+
+      // Assert
+      verify(membershipRequestRepository, times(2)).countByHouseholdIdAndTypeAndStatus(
+          "household-123", RequestType.JOIN_REQUEST, RequestStatus.PENDING);
+    }
+  }
+
+  @Nested
+  class Changes {
+
+    @Test
+    void onCreated_shouldIncrementLoadedInvitationCounters() {
+      // Arrange
+      counterService.getCounts(owner);
+      counterService.getCounts(invitee);
+
+      // Act
+      counterService.onCreated(request(RequestType.INVITATION, owner, invitee));
+
+      // Assert
+      assertEquals(2, counterService.getCounts(invitee).getReceivedInvitations());
+      assertEquals(2, counterService.getCounts(owner).getHouseholdInvitations());
+    }
+
+    @Test
+    void onResolved_shouldDecrementJoinRequestCounter() {
+      // Arrange
+      counterService.getCounts(owner);
+
+      // Act
+      counterService.onResolved(request(RequestType.JOIN_REQUEST, invitee, owner));
+
+      // Assert
+      assertEquals(1, counterService.getCounts(owner).getHouseholdJoinRequests());
+    }
+
+    @Test
+    void onResolved_shouldNotGoBelowZero() {
+      // Arrange
+      counterService.getCounts(owner);
+      MembershipRequest joinRequest = request(RequestType.JOIN_REQUEST, invitee, owner);
+
+      // Act
+      counterService.onResolved(joinRequest);
+      counterService.onResolved(joinRequest);
+      counterService.onResolved(joinRequest);
+
+      // Assert
+      assertEquals(0, counterService.getCounts(owner).getHouseholdJoinRequests());
+    }
+
+    @Test
+    void onCreated_shouldWaitForCommit_whenInTransaction() {
+      // Arrange
+      counterService.getCounts(invitee);
+      TransactionSynchronizationManager.initSynchronization();
+      try {
+        // Act
+        counterService.onCreated(request(RequestType.INVITATION, owner, invitee));
+        int beforeCommit = counterService.getCounts(invitee).getReceivedInvitations();
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertEquals(1, beforeCommit);
+        assertEquals(2, counterService.getCounts(invitee).getReceivedInvitations());
+      } finally {
+        TransactionSynchronizationManager.clearSynchronization();
+      }
+    }
+
+    @Test
+    void onCreated_shouldPushCountsToReceiverAndOwner() {
+      // Act
+      counterService.onCreated(request(RequestType.INVITATION, owner, invitee));
+
+      // Assert
+      verify(messagingTemplate).convertAndSendToUser(eq("invitee-456"),
+          eq("/queue/request-counts"), any(PendingRequestCountsDto.class));
+      verify(messagingTemplate).convertAndSendToUser(eq("owner-123"),
+          eq("/queue/request-counts"), any(PendingRequestCountsDto.class));
+    }
+
+    @Test
+    void onCreated_shouldNotPush_whenPushIsDisabled() {
+      // Arrange
+      counterService = new MembershipRequestCounterService(membershipRequestRepository,
+          messagingTemplate, false);
+
+      // Act
+      counterService.onCreated(request(RequestType.JOIN_REQUEST, invitee, owner));
+
+      // Assert
+      verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any());
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.MembershipRequestResponseDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.membershiprequest.MembershipRequest;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestStatus;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.RequestType;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.membershiprequest.MembershipRequestRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the membership request listing queries against the real schema and checks that each one
+ * is a single statement that loads no entities.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class MembershipRequestQueryTest {
+
+  @Autowired
+  private MembershipRequestRepository membershipRequestRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Household household;
+  private User owner;
+  private User invitee;
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    owner = persistUser("owner");
+    household = new Household("Inviting Household", "1 Main St", 1, owner);
+    household.setId(UUID.randomUUID().toString());
+    entityManager.persist(household);
+    owner.setHousehold(household);
+    invitee = persistUser("invitee");
+
+    // Several requests per household and receiver, which one-to-one mappings did not allow
+    persistRequest(owner, invitee, RequestType.INVITATION, RequestStatus.PENDING);
+    persistRequest(owner, persistUser("other"), RequestType.INVITATION, RequestStatus.ACCEPTED);
+    persistRequest(owner, invitee, RequestType.INVITATION, RequestStatus.REJECTED);
+    persistRequest(invitee, owner, RequestType.JOIN_REQUEST, RequestStatus.PENDING);
+    entityManager.flush();
+    entityManager.clear();
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  private User persistUser(String name) {
+    return entityManager.persist(
+        new User(name + "@example.com", "hash", name, Role.USER, null, "12345678", true, null));
+  }
+
+  private void persistRequest(User sender, User receiver, RequestType type,
+      RequestStatus status) {
+    MembershipRequest request = new MembershipRequest();
+    request.setHousehold(household);
+    request.setSender(sender);
+    request.setReceiver(receiver);
+    request.setType(type);
+    request.setStatus(status);
+    request.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+    entityManager.persist(request);
+  }
+
+  @Test
+  void findResponsesByHouseholdIdAndTypeAndStatusIn_shouldUseOneStatement() {
+    // Act
+    List<MembershipRequestResponseDto> result =
+        membershipRequestRepository.findResponsesByHouseholdIdAndTypeAndStatusIn(
+            household.getId(), RequestType.INVITATION,
+            List.of(RequestStatus.PENDING, RequestStatus.ACCEPTED));
+
+    // Assert
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+    assertEquals(2, result.size());
+    assertTrue(result.stream().allMatch(r -> r.getSender().getId().equals(owner.getId())));
+    assertTrue(result.stream().allMatch(r -> r.getHouseholdName().equals("Inviting Household")));
+  }
+
+  @Test
+  void findResponsesByReceiverIdAndTypeAndStatus_shouldReturnPendingInvitations() {
+    // Act
+    List<MembershipRequestResponseDto> result =
+        membershipRequestRepository.findResponsesByReceiverIdAndTypeAndStatus(
+            invitee.getId(), RequestType.INVITATION, RequestStatus.PENDING);
+
+    // Assert
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(1, result.size());
+    assertEquals("invitee@example.com", result.get(0).getRecipient().getEmail());
+    assertEquals(RequestStatus.PENDING, result.get(0).getStatus());
+  }
+
+  @Test
+  void findResponsesByHouseholdIdAndTypeAndStatus_shouldReturnJoinRequests() {
+    // Act
+    List<MembershipRequestResponseDto> result =
+        membershipRequestRepository.findResponsesByHouseholdIdAndTypeAndStatus(
+            household.getId(), RequestType.JOIN_REQUEST, RequestStatus.PENDING);
+
+    // Assert
+    assertEquals(1, result.size());
+    assertEquals(invitee.getId(), result.get(0).getSender().getId());
+    assertEquals(RequestType.JOIN_REQUEST, result.get(0).getRequestType());
+  }
+
+  @Test
+  void findAllWithHouseholdByEmailIn_shouldResolveEmailsWithOneStatement() {
+    // Act
+    List<User> users = userRepository.findAllWithHouseholdByEmailIn(
+        List.of("owner@example.com", "invitee@example.com", "ghost@example.com"));
+
+    // Assert
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(2, users.size());
+    assertTrue(users.stream().anyMatch(user -> user.getHousehold() != null
+        && user.getHousehold().getId().equals(household.getId())));
+  }
+
+  @Test
+  void findPendingInvitationReceiverIds_shouldOnlyReturnPendingInvitations() {
+    // Arrange
+    User other = userRepository.findByEmail("other@example.com").orElseThrow();
+    statistics.clear();
+
+    // Act
+    List<String> pending = membershipRequestRepository.findPendingInvitationReceiverIds(
+        household.getId(), List.of(invitee.getId(), other.getId(), owner.getId()));
+
+    // Assert
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(List.of(invitee.getId()), pending);
+  }
+
+  @Test
+  void insertInvitations_shouldInsertAllInvitationsWithOneStatement() {
+    // Arrange
+    List<String> receiverIds = List.of(persistUser("new1").getId(), persistUser("new2").getId(),
+        persistUser("new3").getId());
+    entityManager.flush();
+    statistics.clear();
+
+    // Act
+    int inserted = membershipRequestRepository.insertInvitations(household.getId(), receiverIds,
+        new Timestamp(System.currentTimeMillis()));
+
+    // Assert
+    assertEquals(3, inserted);
+    assertEquals(1, statistics.getPrepareStatementCount());
+    List<MembershipRequestResponseDto> invitations =
+        membershipRequestRepository.findResponsesByHouseholdIdAndTypeAndStatus(
+            household.getId(), RequestType.INVITATION, RequestStatus.PENDING);
+    assertEquals(4, invitations.size());
+    assertTrue(invitations.stream().allMatch(r -> r.getSender().getId().equals(owner.getId())));
+  }
+}
@@ -6,13 +6,18 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.BulkInvitationResultDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.MembershipRequestResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.membershiprequest.PendingRequestCountsDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.notification.NotificationDto;
 import edu.ntnu.idatt2106.krisefikser.api.dto.user.UserHouseholdAssignmentRequestDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
@@ -26,12 +31,17 @@ import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.Household
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.membershiprequest.MembershipRequestRepository;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
 import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdService;
+import edu.ntnu.idatt2106.krisefikser.service.membershiprequests.MembershipRequestCounterService;
 import edu.ntnu.idatt2106.krisefikser.service.membershiprequests.MembershipRequestService;
 import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -45,6 +55,8 @@ import org.mockito.quality.Strictness;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -65,6 +77,12 @@ class MembershipRequestServiceTest {
   @Mock
   private HouseholdService householdService;
 
+  @Mock
+  private MembershipRequestCounterService counterService;
+
+  @Mock
+  private Executor notificationExecutor;
+
   @Mock
   private SecurityContext securityContext;
 
@@ -141,6 +159,16 @@ class MembershipRequestServiceTest {
     testJoinRequest.setCreatedAt(Timestamp.from(Instant.now()));
   }
 
+  private static MembershipRequestResponseDto toResponse(MembershipRequest request) {
+    User sender = request.getSender();
+    User receiver = request.getReceiver();
+    return new MembershipRequestResponseDto(request.getId(), request.getHousehold().getId(),
+        request.getHousehold().getName(), sender.getId(), sender.getEmail(),
+        sender.getFullName(), sender.getTlf(), sender.getRole(), receiver.getId(),
+        receiver.getEmail(), receiver.getFullName(), receiver.getTlf(), receiver.getRole(),
+        request.getType(), request.getStatus(), request.getCreatedAt());
+  }
+
   @Test
   void sendInvitation_shouldCreateAndSaveInvitation() {
     // Arrange
@@ -173,6 +201,7 @@ class MembershipRequestServiceTest {
 
     verify(notificationService).sendPrivateNotification(eq(testUser.getId()),
         any(NotificationDto.class));
+    verify(counterService).onCreated(capturedRequest);
   }
 
   @Test
@@ -316,7 +345,7 @@ class MembershipRequestServiceTest {
   void cancelRequest_shouldUpdateRequestStatus() {
     // Arrange
     Long requestId = 1L;
-    when(membershipRequestRepository.existsById(requestId)).thenReturn(true);
+    when(membershipRequestRepository.findById(requestId)).thenReturn(Optional.of(testInvitation));
 
     // Act
     membershipRequestService.cancelRequest(requestId);
@@ -329,7 +358,7 @@ class MembershipRequestServiceTest {
   void cancelRequest_shouldThrowException_whenRequestNotFound() {
     // Arrange
     Long requestId = 999L;
-    when(membershipRequestRepository.existsById(requestId)).thenReturn(false);
+    when(membershipRequestRepository.findById(requestId)).thenReturn(Optional.empty());
 
     // Act & Assert
     Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -340,11 +369,36 @@ class MembershipRequestServiceTest {
     verify(membershipRequestRepository, never()).updateStatusById(any(), any());
   }
 
+  @Test
+  void cancelRequest_shouldDecrementCounters_whenRequestWasPending() {
+    // Arrange
+    when(membershipRequestRepository.findById(1L)).thenReturn(Optional.of(testInvitation));
+
+    // Act
+    membershipRequestService.cancelRequest(1L);
+
+    // Assert
+    verify(counterService).onResolved(testInvitation);
+  }
+
+  @Test
+  void cancelRequest_shouldLeaveCounters_whenRequestWasNotPending() {
+    // Arrange
+    testInvitation.setStatus(RequestStatus.ACCEPTED);
+    when(membershipRequestRepository.findById(1L)).thenReturn(Optional.of(testInvitation));
+
+    // Act
+    membershipRequestService.cancelRequest(1L);
+
+    // Assert
+    verify(counterService, never()).onResolved(any());
+  }
+
   @Test
   void declineRequest_shouldUpdateRequestStatus() {
     // Arrange
     Long requestId = 1L;
-    when(membershipRequestRepository.existsById(requestId)).thenReturn(true);
+    when(membershipRequestRepository.findById(requestId)).thenReturn(Optional.of(testInvitation));
 
     // Act
     membershipRequestService.declineRequest(requestId);
@@ -358,9 +412,9 @@ class MembershipRequestServiceTest {
     // Arrange
     when(authentication.getName()).thenReturn(testUser.getEmail());
     when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
-    when(membershipRequestRepository.findAllByReceiverAndTypeAndStatus(
-        testUser, RequestType.INVITATION, RequestStatus.PENDING))
-        .thenReturn(List.of(testInvitation));
+    when(membershipRequestRepository.findResponsesByReceiverIdAndTypeAndStatus(
+        testUser.getId(), RequestType.INVITATION, RequestStatus.PENDING))
+        .thenReturn(List.of(toResponse(testInvitation)));
 
     // Act
     List<MembershipRequestResponseDto> result
@@ -381,9 +435,9 @@ class MembershipRequestServiceTest {
     when(authentication.getName()).thenReturn(householdOwner.getEmail());
     when(userRepository.findByEmail(householdOwner.getEmail())).thenReturn(
         Optional.of(householdOwner));
-    when(membershipRequestRepository.findAllByHouseholdIdAndTypeAndStatus(
+    when(membershipRequestRepository.findResponsesByHouseholdIdAndTypeAndStatus(
         testHousehold.getId(), RequestType.JOIN_REQUEST, RequestStatus.PENDING))
-        .thenReturn(List.of(testJoinRequest));
+        .thenReturn(List.of(toResponse(testJoinRequest)));
 
     // Act
     List<MembershipRequestResponseDto> result
@@ -415,10 +469,9 @@ class MembershipRequestServiceTest {
     acceptedRequest.setStatus(RequestStatus.ACCEPTED);
     acceptedRequest.setCreatedAt(Timestamp.from(Instant.now()));
 
-    List<MembershipRequest> acceptedRequests = List.of(acceptedRequest);
-    when(membershipRequestRepository.findAllByHouseholdIdAndTypeAndStatus(
+    when(membershipRequestRepository.findResponsesByHouseholdIdAndTypeAndStatus(
         testHousehold.getId(), RequestType.JOIN_REQUEST, RequestStatus.ACCEPTED))
-        .thenReturn(acceptedRequests);
+        .thenReturn(List.of(toResponse(acceptedRequest)));
 
     // Act
     List<MembershipRequestResponseDto> result
@@ -436,9 +489,9 @@ class MembershipRequestServiceTest {
     when(authentication.getName()).thenReturn(householdOwner.getEmail());
     when(userRepository.findByEmail(householdOwner.getEmail())).thenReturn(
         Optional.of(householdOwner));
-    when(membershipRequestRepository.findAllByHouseholdIdAndTypeAndStatusIn(
+    when(membershipRequestRepository.findResponsesByHouseholdIdAndTypeAndStatusIn(
         eq(testHousehold.getId()), eq(RequestType.INVITATION), anyList()))
-        .thenReturn(List.of(testInvitation));
+        .thenReturn(List.of(toResponse(testInvitation)));
 
     // Act
     List<MembershipRequestResponseDto> result
@@ -452,4 +505,140 @@ class MembershipRequestServiceTest {
     assertEquals(testUser.getId(), result.get(0).getRecipient().getId());
     assertEquals(RequestType.INVITATION, result.get(0).getRequestType());
   }
-}
\ No newline at end of file
+
+  @Test
+  void getPendingCounts_shouldReturnCountsForCurrentUser() {
+    // Arrange
+    PendingRequestCountsDto counts = new PendingRequestCountsDto(0, 2, 1);
+    when(authentication.getName()).thenReturn(householdOwner.getEmail());
+    when(userRepository.findByEmail(householdOwner.getEmail()))
+        .thenReturn(Optional.of(householdOwner));
+    when(counterService.getCounts(householdOwner)).thenReturn(counts);
+
+    // Act
+    PendingRequestCountsDto result = membershipRequestService.getPendingCounts();
+
+    // Assert
+    assertEquals(counts, result);
+  }
+
+  @Test
+  void sendBulkInvitations_shouldSkipMembersPendingAndUnknownEmails() {
+    // Arrange
+    User pendingUser = new User();
+    pendingUser.setId("pending-789");
+    pendingUser.setEmail("pending@example.com");
+    when(authentication.getName()).thenReturn(householdOwner.getEmail());
+    when(userRepository.findByEmail(householdOwner.getEmail()))
+        .thenReturn(Optional.of(householdOwner));
+    when(userRepository.findAllWithHouseholdByEmailIn(anyCollection()))
+        .thenReturn(List.of(testUser, householdOwner, pendingUser));
+    when(membershipRequestRepository.findPendingInvitationReceiverIds(eq("household-123"),
+        anyCollection())).thenReturn(List.of("pending-789"));
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(notificationExecutor).execute(any());
+
+    // Act
+    BulkInvitationResultDto result = membershipRequestService.sendBulkInvitations(List.of(
+        "USER@example.com", "owner@example.com", "pending@example.com", "ghost@example.com",
+        " "));
+
+    // Assert
+    assertEquals(List.of("USER@example.com"), result.getInvited());
+    assertEquals(List.of("owner@example.com"), result.getAlreadyMembers());
+    assertEquals(List.of("pending@example.com"), result.getAlreadyInvited());
+    assertEquals(List.of("ghost@example.com"), result.getNotFound());
+    verify(membershipRequestRepository).insertInvitations(eq("household-123"),
+        eq(Set.of("user-123")), any(Timestamp.class));
+    verify(counterService).onInvitationsCreated(testHousehold, List.of(testUser));
+    verify(notificationService).notifyUsers(eq(List.of(testUser)),
+        eq(NotificationType.MEMBERSHIP_REQUEST), any(String.class));
+    verify(membershipRequestRepository, never()).save(any());
+  }
+
+  @Test
+  void sendBulkInvitations_shouldNotInsert_whenNobodyIsLeftToInvite() {
+    // Arrange
+    when(authentication.getName()).thenReturn(householdOwner.getEmail());
+    when(userRepository.findByEmail(householdOwner.getEmail()))
+        .thenReturn(Optional.of(householdOwner));
+    when(userRepository.findAllWithHouseholdByEmailIn(anyCollection())).thenReturn(List.of());
+
+    // Act
+    BulkInvitationResultDto result =
+        membershipRequestService.sendBulkInvitations(List.of("ghost@example.com"));
+
+    // Assert
+    assertEquals(List.of("ghost@example.com"), result.getNotFound());
+    verify(membershipRequestRepository, never()).insertInvitations(any(), anyCollection(),
+        any());
+    verify(notificationExecutor, never()).execute(any());
+  }
+
+  @Test
+  void sendBulkInvitations_shouldNotifyOnlyAfterCommit_whenInTransaction() {
+    // Arrange
+    when(authentication.getName()).thenReturn(householdOwner.getEmail());
+    when(userRepository.findByEmail(householdOwner.getEmail()))
+        .thenReturn(Optional.of(householdOwner));
+    when(userRepository.findAllWithHouseholdByEmailIn(anyCollection()))
+        .thenReturn(List.of(testUser));
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      // Act
+      membershipRequestService.sendBulkInvitations(List.of(testUser.getEmail()));
+      verify(notificationExecutor, never()).execute(any());
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+
+      // Assert
+      verify(notificationExecutor).execute(any());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void sendBulkInvitations_shouldStillSucceed_whenNotificationPoolIsFull() {
+    // Arrange
+    when(authentication.getName()).thenReturn(householdOwner.getEmail());
+    when(userRepository.findByEmail(householdOwner.getEmail()))
+        .thenReturn(Optional.of(householdOwner));
+    when(userRepository.findAllWithHouseholdByEmailIn(anyCollection()))
+        .thenReturn(List.of(testUser));
+    doThrow(new RejectedExecutionException("full")).when(notificationExecutor).execute(any());
+
+    // Act
+    BulkInvitationResultDto result =
+        membershipRequestService.sendBulkInvitations(List.of(testUser.getEmail()));
+
+    // Assert
+    assertEquals(List.of(testUser.getEmail()), result.getInvited());
+    verify(membershipRequestRepository).insertInvitations(eq("household-123"), anyCollection(),
+        any(Timestamp.class));
+  }
+
+  @Test
+  void sendBulkInvitations_shouldThrowException_whenNoEmailsGiven() {
+    // Act & Assert
+    Exception exception = assertThrows(IllegalArgumentException.class,
+        () -> membershipRequestService.sendBulkInvitations(List.of("", "  ")));
+
+    assertEquals("No emails given", exception.getMessage());
+  }
+
+  @Test
+  void sendBulkInvitations_shouldThrowException_whenTooManyEmails() {
+    // Arrange
+    List<String> emails = IntStream.range(0, 501)
+        .mapToObj(i -> "user" + i + "@example.com")
+        .toList();
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class,
+        () -> membershipRequestService.sendBulkInvitations(emails));
+    verify(userRepository, never()).findAllWithHouseholdByEmailIn(anyCollection());
+  }
+}
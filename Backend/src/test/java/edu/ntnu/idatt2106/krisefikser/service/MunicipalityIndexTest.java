@@ -0,0 +1,159 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.map.MunicipalityDto;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoBounds;
+import edu.ntnu.idatt2106.krisefikser.service.map.MunicipalityIndex;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * Unit tests for the MunicipalityIndex class.
+ */
+class MunicipalityIndexTest {
+
+  private static final String BOUNDARIES = """
+      {"type": "FeatureCollection", "features": [
+        {"type": "Feature",
+         "properties": {"kommunenummer": "0301", "kommunenavn": "Oslo"},
+         "geometry": {"type": "Polygon", "coordinates": [
+           [[10.0, 59.0], [11.0, 59.0], [11.0, 60.0], [10.0, 60.0], [10.0, 59.0]],
+           [[10.4, 59.4], [10.6, 59.4], [10.6, 59.6], [10.4, 59.6], [10.4, 59.4]]]}},
+        {"type": "Feature",
+         "properties": {"code": "0999", "name": "Enklave"},
+         "geometry": {"type": "Polygon", "coordinates": [
+           [[10.4, 59.4], [10.6, 59.4], [10.6, 59.6], [10.4, 59.6], [10.4, 59.4]]]}},
+        {"type": "Feature",
+         "properties": {"kommunenummer": "5001", "kommunenavn": "Trondheim"},
+         "geometry": {"type": "MultiPolygon", "coordinates": [
+           [[[10.0, 63.0], [11.0, 63.0], [11.0, 64.0], [10.0, 64.0], [10.0, 63.0]]],
+           [[[12.0, 63.0], [13.0, 63.0], [13.0, 64.0], [12.0, 64.0], [12.0, 63.0]]]]}},
+        {"type": "Feature",
+         "properties": {"kommunenummer": "1001", "kommunenavn": "Kristiansand"},
+         "geometry": {"type": "Polygon", "coordinates": [
+           [[7.0, 58.0], [9.0, 58.0], [7.0, 59.0], [7.0, 58.0]]]}},
+        {"type": "Feature",
+         "properties": {"kommunenummer": "4601", "kommunenavn": "Bergen"},
+         "geometry": {"type": "Point", "coordinates": [5.3, 60.4]}},
+        {"type": "Feature",
+         "properties": {"kommunenavn": "Nowhere"},
+         "geometry": {"type": "Polygon", "coordinates": [
+           [[0.0, 0.0], [1.0, 0.0], [1.0, 1.0], [0.0, 0.0]]]}}
+      ]}
+      """;
+
+  private MunicipalityIndex index;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    index = new MunicipalityIndex(new DefaultResourceLoader(), "");
+    index.load(new StringReader(BOUNDARIES));
+  }
+
+  @Test
+  void load_shouldSkipFeaturesWithoutNumberOrPolygon() {
+    // Assert
+    assertEquals(4, index.getAll().size());
+    assertTrue(index.get("4601").isEmpty());
+  }
+
+  @Test
+  void load_shouldRejectInputThatIsNotFeatureCollection() {
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class,
+        () -> index.load(new StringReader("{\"type\": \"Feature\"}")));
+  }
+
+  @Test
+  void getAll_shouldOrderByNumber() {
+    // Act & Assert
+    assertEquals(List.of("0301", "0999", "1001", "5001"),
+        index.getAll().stream().map(MunicipalityDto::getCode).toList());
+  }
+
+  @Test
+  void lookup_shouldFindMunicipalityContainingPoint() {
+    // Act
+    Optional<MunicipalityDto> municipality = index.lookup(59.9, 10.7);
+
+    // Assert
+    assertEquals("Oslo", municipality.orElseThrow().getName());
+  }
+
+  @Test
+  void lookup_shouldRespectHolesInPolygon() {
+    // Act
+    Optional<MunicipalityDto> municipality = index.lookup(59.5, 10.5);
+
+    // Assert
+    assertEquals("0999", municipality.orElseThrow().getCode());
+    assertFalse(index.contains("0301", 59.5, 10.5));
+  }
+
+  @Test
+  void lookup_shouldFindEveryPartOfMultiPolygon() {
+    // Act & Assert
+    assertEquals("5001", index.lookup(63.5, 10.5).orElseThrow().getCode());
+    assertEquals("5001", index.lookup(63.5, 12.5).orElseThrow().getCode());
+    assertTrue(index.lookup(63.5, 11.5).isEmpty());
+  }
+
+  @Test
+  void lookup_shouldCheckSlantedEdgesRatherThanBoundingBox() {
+    // Act & Assert
+    assertTrue(index.contains("1001", 58.2, 7.5));
+    assertFalse(index.contains("1001", 58.8, 8.8));
+    assertTrue(index.lookup(58.8, 8.8).isEmpty());
+  }
+
+  @Test
+  void getBounds_shouldCoverAllPartsOfMunicipality() {
+    // Act
+    GeoBounds bounds = index.getBounds("5001").orElseThrow();
+
+    // Assert
+    assertEquals(63.0, bounds.getSouth());
+    assertEquals(10.0, bounds.getWest());
+    assertEquals(64.0, bounds.getNorth());
+    assertEquals(13.0, bounds.getEast());
+  }
+
+  @Test
+  void lookup_shouldFindRightCellAmongManyMunicipalities() throws IOException {
+    // Arrange
+    StringBuilder json = new StringBuilder("{\"type\": \"FeatureCollection\", \"features\": [");
+    for (int row = 0; row < 40; row++) {
+      for (int column = 0; column < 40; column++) {
+        double south = 58 + row * 0.1;
+        double west = 5 + column * 0.1;
+        json.append(row + column == 0 ? "" : ",")
+            .append("{\"properties\": {\"code\": \"").append(row * 100 + column)
+            .append("\"}, \"geometry\": {\"type\": \"Polygon\", \"coordinates\": [[")
+            .append(String.format(Locale.ROOT,
+                "[%1$f, %2$f], [%3$f, %2$f], [%3$f, %4$f], [%1$f, %4$f], [%1$f, %2$f]",
+                west, south, west + 0.1, south + 0.1))
+            .append("]]}}");
+      }
+    }
+    json.append("]}");
+
+    // Act
+    int loaded = index.load(new StringReader(json.toString()));
+
+    // Assert
+    assertEquals(1600, loaded);
+    assertEquals("1217", index.lookup(59.25, 6.75).orElseThrow().getCode());
+    assertEquals("3905", index.lookup(61.95, 5.55).orElseThrow().getCode());
+    assertTrue(index.lookup(57.95, 5.55).isEmpty());
+  }
+}
@@ -0,0 +1,72 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdLocationDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.map.MunicipalityDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdRepository;
+import edu.ntnu.idatt2106.krisefikser.service.map.MunicipalityIndex;
+import edu.ntnu.idatt2106.krisefikser.service.map.MunicipalityService;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Unit tests for the MunicipalityService class.
+ */
+class MunicipalityServiceTest {
+
+  @Mock
+  private MunicipalityIndex municipalityIndex;
+
+  @Mock
+  private HouseholdRepository householdRepository;
+
+  @InjectMocks
+  private MunicipalityService municipalityService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  void lookup_shouldRejectCoordinatesOutOfRange() {
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> municipalityService.lookup(95, 10));
+    assertThrows(IllegalArgumentException.class, () -> municipalityService.lookup(60, -190));
+    verifyNoInteractions(municipalityIndex);
+  }
+
+  @Test
+  void lookupHousehold_shouldLookUpGeocodedHome() {
+    // Arrange
+    MunicipalityDto trondheim = new MunicipalityDto("5001", "Trondheim");
+    when(householdRepository.findLocationById("ABC123"))
+        .thenReturn(Optional.of(new HouseholdLocationDto("ABC123", 63.43, 10.39)));
+    when(municipalityIndex.lookup(63.43, 10.39)).thenReturn(Optional.of(trondheim));
+
+    // Act
+    Optional<MunicipalityDto> municipality = municipalityService.lookupHousehold("ABC123");
+
+    // Assert
+    assertEquals(Optional.of(trondheim), municipality);
+  }
+
+  @Test
+  void lookupHousehold_shouldFail_whenHouseholdHasNoLocation() {
+    // Arrange
+    when(householdRepository.findLocationById("ABC123")).thenReturn(Optional.empty());
+
+    // Act & Assert
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> municipalityService.lookupHousehold("ABC123"));
+    assertEquals("Household not found or has no known location", exception.getMessage());
+  }
+}
@@ -4,11 +4,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyDouble;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import edu.ntnu.idatt2106.krisefikser.api.dto.notification.NotificationDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.position.UserLocationDto;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Incident;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.item.Item;
@@ -20,11 +25,15 @@ import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.Severity;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.notification.NotificationRepository;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdLocationIndex;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoBounds;
+import edu.ntnu.idatt2106.krisefikser.service.map.MunicipalityIndex;
 import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -49,6 +58,12 @@ class NotificationServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private HouseholdLocationIndex householdLocationIndex;
+
+  @Mock
+  private MunicipalityIndex municipalityIndex;
+
   @InjectMocks
   private NotificationService notificationService;
 
@@ -184,8 +199,12 @@ class NotificationServiceTest {
     notificationService.saveHouseholdNotification(notification, householdId);
 
     // Assert
-    verify(notificationRepository, times(2)).save(any(Notification.class));
+    ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+    verify(notificationRepository, times(2)).save(captor.capture());
     verify(userRepository).getUsersByHouseholdId(householdId);
+    // Each member gets its own row
+    assertEquals(user1, captor.getAllValues().get(0).getUser());
+    assertEquals(user2, captor.getAllValues().get(1).getUser());
   }
 
   @Test
@@ -233,6 +252,148 @@ class NotificationServiceTest {
     verify(userRepository).findById("user-123");
   }
 
+  @Test
+  void notifyIncident_shouldAlsoNotifyMembersOfHouseholdsInZoneOnce() {
+    // Arrange
+    Incident incident = new Incident();
+    incident.setName("Flood");
+    incident.setLatitude(60.0);
+    incident.setLongitude(10.0);
+    incident.setImpactRadius(5.0);
+
+    User sharing = new User();
+    sharing.setId("user-123");
+    User notSharing = new User();
+    notSharing.setId("user-456");
+    when(userRepository.findUsersWithinRadius(60.0, 10.0, 5.0 * 1.4))
+        .thenReturn(List.of(sharing));
+    when(householdLocationIndex.findWithinRadius(60.0, 10.0, 5.0 * 1.4))
+        .thenReturn(List.of("household-1"));
+    when(userRepository.findIdsByHouseholdIdIn(List.of("household-1")))
+        .thenReturn(List.of("user-123", "user-456"));
+    when(userRepository.findById("user-123")).thenReturn(Optional.of(sharing));
+    when(userRepository.findById("user-456")).thenReturn(Optional.of(notSharing));
+
+    // Act
+    notificationService.notifyIncident("Flood warning", incident);
+
+    // Assert
+    verify(notificationRepository, times(2)).save(any(Notification.class));
+    verify(messagingTemplate).convertAndSendToUser(eq("user-123"), eq("/queue/notifications"),
+        any(NotificationDto.class));
+    verify(messagingTemplate).convertAndSendToUser(eq("user-456"), eq("/queue/notifications"),
+        any(NotificationDto.class));
+  }
+
+  @Test
+  void notifyIncident_shouldAlsoNotifyEveryoneInScopedMunicipality() {
+    // Arrange
+    Incident incident = new Incident();
+    incident.setName("Storm");
+    incident.setLatitude(60.0);
+    incident.setLongitude(10.0);
+    incident.setImpactRadius(1.0);
+    incident.setMunicipalityCode("5001");
+
+    User inside = new User();
+    inside.setId("user-inside");
+    User member = new User();
+    member.setId("user-member");
+    GeoBounds bounds = new GeoBounds(63.0, 10.0, 64.0, 11.0);
+    when(municipalityIndex.getBounds("5001")).thenReturn(Optional.of(bounds));
+    when(userRepository.findLocationsInBox(63.0, 10.0, 64.0, 11.0)).thenReturn(List.of(
+        new UserLocationDto("user-inside", 63.4, 10.4),
+        new UserLocationDto("user-outside", 63.9, 10.9)));
+    when(municipalityIndex.contains("5001", 63.4, 10.4)).thenReturn(true);
+    when(municipalityIndex.contains("5001", 63.9, 10.9)).thenReturn(false);
+    when(householdLocationIndex.findWithinBounds(eq(bounds), any()))
+        .thenReturn(List.of("household-1"));
+    when(userRepository.findIdsByHouseholdIdIn(List.of("household-1")))
+        .thenReturn(List.of("user-member", "user-inside"));
+    when(userRepository.findById("user-inside")).thenReturn(Optional.of(inside));
+    when(userRepository.findById("user-member")).thenReturn(Optional.of(member));
+
+    // Act
+    notificationService.notifyIncident("Storm warning", incident);
+
+    // Assert
+    verify(notificationRepository, times(2)).save(any(Notification.class));
+    verify(messagingTemplate).convertAndSendToUser(eq("user-inside"), eq("/queue/notifications"),
+        any(NotificationDto.class));
+    verify(messagingTemplate).convertAndSendToUser(eq("user-member"), eq("/queue/notifications"),
+        any(NotificationDto.class));
+  }
+
+  @Test
+  void notifyIncident_shouldAlsoNotifyEveryoneInsideImpactZone() {
+    // Arrange
+    Incident incident = new Incident();
+    incident.setName("Gas leak");
+    incident.setLatitude(63.42);
+    incident.setLongitude(10.45);
+    incident.setImpactRadius(0.0);
+    // A triangle, so its bounding box holds points that are outside it
+    incident.setImpactZone("{\"type\": \"Polygon\", \"coordinates\": "
+        + "[[[10.3, 63.4], [10.5, 63.4], [10.5, 63.5], [10.3, 63.4]]]}");
+
+    User inside = new User();
+    inside.setId("user-inside");
+    when(userRepository.findLocationsInBox(63.4, 10.3, 63.5, 10.5)).thenReturn(List.of(
+        new UserLocationDto("user-inside", 63.42, 10.45),
+        new UserLocationDto("user-corner", 63.48, 10.32)));
+    when(householdLocationIndex.findWithinBounds(any(GeoBounds.class), any()))
+        .thenReturn(List.of());
+    when(userRepository.findById("user-inside")).thenReturn(Optional.of(inside));
+
+    // Act
+    notificationService.notifyIncident("Gas leak warning", incident);
+
+    // Assert
+    verify(notificationRepository, times(1)).save(any(Notification.class));
+    verify(messagingTemplate).convertAndSendToUser(eq("user-inside"), eq("/queue/notifications"),
+        any(NotificationDto.class));
+  }
+
+  @Test
+  void notifyIncident_shouldSkipCircle_whenIncidentOnlyHasImpactZone() {
+    // Arrange
+    Incident incident = new Incident();
+    incident.setName("Gas leak");
+    incident.setImpactZone("{\"type\": \"Polygon\", \"coordinates\": "
+        + "[[[10.3, 63.4], [10.5, 63.4], [10.5, 63.5], [10.3, 63.4]]]}");
+
+    User inside = new User();
+    inside.setId("user-inside");
+    when(userRepository.findLocationsInBox(63.4, 10.3, 63.5, 10.5)).thenReturn(List.of(
+        new UserLocationDto("user-inside", 63.42, 10.45)));
+    when(householdLocationIndex.findWithinBounds(any(GeoBounds.class), any()))
+        .thenReturn(List.of());
+    when(userRepository.findById("user-inside")).thenReturn(Optional.of(inside));
+
+    // Act
+    notificationService.notifyIncident("Gas leak warning", incident);
+
+    // Assert
+    verify(userRepository, never()).findUsersWithinRadius(anyDouble(), anyDouble(),
+        anyDouble());
+    verify(householdLocationIndex, never()).findWithinRadius(anyDouble(), anyDouble(),
+        anyDouble());
+    verify(messagingTemplate).convertAndSendToUser(eq("user-inside"), eq("/queue/notifications"),
+        any(NotificationDto.class));
+  }
+
+  @Test
+  void findMunicipalityRecipientIds_shouldReturnNobody_whenMunicipalityNotLoaded() {
+    // Arrange
+    when(municipalityIndex.getBounds("9999")).thenReturn(Optional.empty());
+
+    // Act
+    Set<String> recipients = notificationService.findMunicipalityRecipientIds("9999");
+
+    // Assert
+    assertTrue(recipients.isEmpty());
+  }
+
   @Test
   void saveNotification_shouldSaveNotificationForUser() {
     // Arrange
@@ -285,4 +446,22 @@ class NotificationServiceTest {
     assertEquals(testUser, result.get(0));
     verify(userRepository).findUsersWithinRadius(latitude, longitude, radius * 1.4);
   }
-}
\ No newline at end of file
+
+  @Test
+  void notifyUsers_shouldSaveAllInOneCallAndSendToEachUser() {
+    // Arrange
+    User otherUser = new User();
+    otherUser.setId("user-456");
+
+    // Act
+    notificationService.notifyUsers(List.of(testUser, otherUser),
+        NotificationType.MEMBERSHIP_REQUEST, "You are invited");
+
+    // Assert
+    verify(notificationRepository, times(1)).saveAll(anyList());
+    verify(messagingTemplate).convertAndSendToUser(eq(testUser.getId()),
+        eq("/queue/notifications"), any(NotificationDto.class));
+    verify(messagingTemplate).convertAndSendToUser(eq("user-456"),
+        eq("/queue/notifications"), any(NotificationDto.class));
+  }
+}
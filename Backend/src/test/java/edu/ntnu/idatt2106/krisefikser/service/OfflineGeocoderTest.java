@@ -0,0 +1,111 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoPoint;
+import edu.ntnu.idatt2106.krisefikser.service.map.OfflineGeocoder;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * Unit tests for the OfflineGeocoder class.
+ */
+class OfflineGeocoderTest {
+
+  private static final String DATASET = String.join("\n",
+      "street;number;letter;postcode;city;latitude;longitude",
+      "# Trondheim",
+      "Kongens gate;12;;7011;Trondheim;63.430000;10.390000",
+      "Kongens gate;12;B;7011;Trondheim;63.430200;10.390200",
+      "Kongens gate;14;;7011;Trondheim;63.430400;10.390400",
+      "Kongens gate;14;A;7011;Trondheim;63.430600;10.390600",
+      "Ringveien;3;;7030;Trondheim;63.410000;10.400000",
+      "Ringveien;3;;0672;Oslo;59.910000;10.800000",
+      "not;enough;fields",
+      "Storgata;x;;0155;Oslo;59.91;10.75");
+
+  private OfflineGeocoder geocoder;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    geocoder = new OfflineGeocoder(new DefaultResourceLoader(), "");
+    geocoder.load(new StringReader(DATASET));
+  }
+
+  @Test
+  void load_shouldSkipHeaderCommentsAndMalformedLines() {
+    // Assert
+    assertEquals(6, geocoder.size());
+  }
+
+  @Test
+  void geocode_shouldFindExactHouse() {
+    // Act
+    GeoPoint point = geocoder.geocode("Kongens gate 12B, 7011 Trondheim").orElseThrow();
+
+    // Assert
+    assertEquals(63.4302, point.getLatitude(), 1e-9);
+    assertEquals(10.3902, point.getLongitude(), 1e-9);
+  }
+
+  @Test
+  void geocode_shouldMatchSpellingVariantsOfStreetName() {
+    // Act
+    GeoPoint point = geocoder.geocode("kongensgata 12 b").orElseThrow();
+
+    // Assert
+    assertEquals(63.4302, point.getLatitude(), 1e-9);
+  }
+
+  @Test
+  void geocode_shouldFallBackToAnyLetter_whenLetterUnknown() {
+    // Act
+    GeoPoint point = geocoder.geocode("Kongens gt. 14C").orElseThrow();
+
+    // Assert
+    assertEquals(63.4305, point.getLatitude(), 1e-9);
+  }
+
+  @Test
+  void geocode_shouldUseMiddleOfStreet_whenNoNumberGiven() {
+    // Act
+    GeoPoint point = geocoder.geocode("Kongens gate, Trondheim").orElseThrow();
+
+    // Assert
+    assertEquals(63.4303, point.getLatitude(), 1e-9);
+  }
+
+  @Test
+  void geocode_shouldUsePostcodeOrCityToTellStreetsApart() {
+    // Act
+    GeoPoint byPostcode = geocoder.geocode("Ringveien 3, 0672").orElseThrow();
+    GeoPoint byCity = geocoder.geocode("Ringvegen 3 Trondheim").orElseThrow();
+
+    // Assert
+    assertEquals(59.91, byPostcode.getLatitude(), 1e-9);
+    assertEquals(63.41, byCity.getLatitude(), 1e-9);
+  }
+
+  @Test
+  void geocode_shouldReturnEmpty_whenAmbiguousOrUnknown() {
+    // Assert
+    assertTrue(geocoder.geocode("Ringveien 3").isEmpty());
+    assertTrue(geocoder.geocode("Ringveien 3, Bergen").isEmpty());
+    assertTrue(geocoder.geocode("Dronningens gate 1").isEmpty());
+    assertTrue(geocoder.geocode(" ").isEmpty());
+  }
+
+  @Test
+  void geocode_shouldReturnEmpty_whenNoDatasetLoaded() {
+    // Arrange
+    OfflineGeocoder empty = new OfflineGeocoder(new DefaultResourceLoader(), "");
+
+    // Assert
+    assertEquals(0, empty.size());
+    assertTrue(empty.geocode("Kongens gate 12, 7011 Trondheim").isEmpty());
+  }
+}
@@ -0,0 +1,114 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.mail.OutboundMail;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.MailStatus;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.mail.OutboundMailRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the outbound mail queue's claim, expiry and purge queries against the real schema.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class OutboundMailQueryTest {
+
+  @Autowired
+  private OutboundMailRepository outboundMailRepository;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  private OutboundMail persist(MailStatus status, LocalDateTime createdAt) {
+    OutboundMail mail = new OutboundMail("user@example.com", "Subject", "<p>Kode 123456</p>");
+    mail.setStatus(status);
+    mail.setCreatedAt(createdAt);
+    mail.setNextAttemptAt(createdAt);
+    mail.setTemplateParams(Map.of("otp", "123456"));
+    return entityManager.persist(mail);
+  }
+
+  @Test
+  void claim_shouldHandEachDueMailToOneDrainRoundOnly() {
+    // Arrange
+    LocalDateTime now = LocalDateTime.now();
+    OutboundMail first = persist(MailStatus.PENDING, now.minusMinutes(1));
+    OutboundMail second = persist(MailStatus.PENDING, now.minusMinutes(1));
+    persist(MailStatus.PENDING, now.plusMinutes(5));
+    List<Long> due = outboundMailRepository.findDueIds(MailStatus.PENDING, now,
+        PageRequest.of(0, 10));
+
+    // Act
+    int claimedByA = outboundMailRepository.claim(due, MailStatus.PENDING, MailStatus.SENDING,
+        "round-a", now);
+    int claimedByB = outboundMailRepository.claim(due, MailStatus.PENDING, MailStatus.SENDING,
+        "round-b", now);
+    entityManager.clear();
+
+    // Assert
+    assertEquals(List.of(first.getId(), second.getId()), due);
+    assertEquals(2, claimedByA);
+    assertEquals(0, claimedByB);
+    List<OutboundMail> claimed = outboundMailRepository.findByClaimToken("round-a");
+    assertEquals(2, claimed.size());
+    assertTrue(claimed.stream().allMatch(mail -> mail.getStatus() == MailStatus.SENDING));
+    assertTrue(outboundMailRepository.findDueIds(MailStatus.PENDING, now.plusMinutes(1),
+        PageRequest.of(0, 10)).isEmpty());
+  }
+
+  @Test
+  void expireClaims_shouldFailOnlyClaimsPastTheCutOff() {
+    // Arrange
+    LocalDateTime now = LocalDateTime.now();
+    OutboundMail stale = persist(MailStatus.PENDING, now.minusHours(1));
+    OutboundMail fresh = persist(MailStatus.PENDING, now.minusHours(1));
+    outboundMailRepository.claim(List.of(stale.getId()), MailStatus.PENDING, MailStatus.SENDING,
+        "old", now.minusMinutes(30));
+    outboundMailRepository.claim(List.of(fresh.getId()), MailStatus.PENDING, MailStatus.SENDING,
+        "new", now);
+
+    // Act
+    int expired = outboundMailRepository.expireClaims(MailStatus.SENDING, MailStatus.FAILED,
+        now.minusMinutes(10), "Outcome unknown");
+    entityManager.clear();
+
+    // Assert
+    assertEquals(1, expired);
+    OutboundMail failed = outboundMailRepository.findById(stale.getId()).orElseThrow();
+    assertEquals(MailStatus.FAILED, failed.getStatus());
+    assertNull(failed.getBody());
+    assertNull(failed.getTemplateParams());
+    assertEquals(MailStatus.SENDING,
+        outboundMailRepository.findById(fresh.getId()).orElseThrow().getStatus());
+  }
+
+  @Test
+  void deleteFinishedBefore_shouldKeepPendingAndRecentMails() {
+    // Arrange
+    LocalDateTime now = LocalDateTime.now();
+    persist(MailStatus.SENT, now.minusDays(8));
+    persist(MailStatus.FAILED, now.minusDays(8));
+    OutboundMail recent = persist(MailStatus.SENT, now.minusDays(1));
+    OutboundMail pending = persist(MailStatus.PENDING, now.minusDays(8));
+
+    // Act
+    int deleted = outboundMailRepository.deleteFinishedBefore(
+        List.of(MailStatus.SENT, MailStatus.FAILED), now.minusDays(7));
+
+    // Assert
+    assertEquals(2, deleted);
+    assertEquals(List.of(recent.getId(), pending.getId()), outboundMailRepository.findAll()
+        .stream().map(OutboundMail::getId).sorted().toList());
+  }
+}
@@ -0,0 +1,100 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.service.incident.PackingListEntry;
+import edu.ntnu.idatt2106.krisefikser.service.incident.PackingListParser;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PackingListParserTest {
+
+  @Test
+  void parse_shouldSplitOnCommasAndLineBreaks() {
+    // Act
+    List<PackingListEntry> entries = PackingListParser.parse("Vann, klær\nMat; Radio");
+
+    // Assert
+    assertEquals(List.of("vann", "klær", "mat", "radio"),
+        entries.stream().map(PackingListEntry::getKey).toList());
+    assertTrue(entries.stream().allMatch(entry -> entry.getQuantity() == 1));
+  }
+
+  @Test
+  void parse_shouldReadLeadingQuantityAndUnit() {
+    // Act
+    List<PackingListEntry> entries = PackingListParser.parse("- 9 l Vann\n- 1,5 kg ris\n"
+        + "2 lommelykter");
+
+    // Assert
+    assertEquals("Vann", entries.get(0).getName());
+    assertEquals(9, entries.get(0).getQuantity());
+    assertEquals("l", entries.get(0).getUnit());
+    assertEquals(1.5, entries.get(1).getQuantity());
+    assertEquals("kg", entries.get(1).getUnit());
+    assertEquals("lommelykter", entries.get(2).getKey());
+    assertEquals(2, entries.get(2).getQuantity());
+    assertNull(entries.get(2).getUnit());
+  }
+
+  @Test
+  void parse_shouldReadTrailingQuantity() {
+    // Act
+    List<PackingListEntry> entries =
+        PackingListParser.parse("1. Batterier x 4\n2. Stearinlys (10 stk)");
+
+    // Assert
+    assertEquals("batterier", entries.get(0).getKey());
+    assertEquals(4, entries.get(0).getQuantity());
+    assertEquals("stearinlys", entries.get(1).getKey());
+    assertEquals(10, entries.get(1).getQuantity());
+    assertEquals("stk", entries.get(1).getUnit());
+  }
+
+  @Test
+  void parse_shouldMergeRepeatedEntries() {
+    // Act
+    List<PackingListEntry> entries = PackingListParser.parse("3 l vann, 6 l  Vann, vann");
+
+    // Assert
+    assertEquals(2, entries.size());
+    assertEquals(9, entries.get(0).getQuantity());
+    assertEquals("l", entries.get(0).getUnit());
+    assertNull(entries.get(1).getUnit());
+  }
+
+  @Test
+  void parse_shouldBringUnitsOfOneMeasureTogether() {
+    // Act
+    List<PackingListEntry> entries = PackingListParser.parse("2 liter vann, 5 dl Vann\n"
+        + "500 g ris\n3 pcs lys, 1 stk lys");
+
+    // Assert
+    assertEquals(3, entries.size());
+    assertEquals("l", entries.get(0).getUnit());
+    assertEquals(2.5, entries.get(0).getQuantity());
+    assertEquals("kg", entries.get(1).getUnit());
+    assertEquals(0.5, entries.get(1).getQuantity());
+    assertEquals("stk", entries.get(2).getUnit());
+    assertEquals(4, entries.get(2).getQuantity());
+  }
+
+  @Test
+  void normalizeUnit_shouldMapKnownUnitsAndLowerCaseOthers() {
+    // Act & Assert
+    assertEquals("l", PackingListParser.normalizeUnit("Liter"));
+    assertEquals(0.001, PackingListParser.unitFactor("ml"));
+    assertEquals("flaske", PackingListParser.normalizeUnit("Flasker"));
+    assertEquals("sekk", PackingListParser.normalizeUnit(" Sekk "));
+    assertNull(PackingListParser.normalizeUnit(" "));
+  }
+
+  @Test
+  void parse_shouldIgnoreEmptyText() {
+    // Act & Assert
+    assertTrue(PackingListParser.parse(null).isEmpty());
+    assertTrue(PackingListParser.parse(" ,\n ; ").isEmpty());
+  }
+}
@@ -0,0 +1,296 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdBasicResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdLocationDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.household.HouseholdResponseDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.GapItemDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.HouseholdGapDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.incident.PackingListItemDto;
+import edu.ntnu.idatt2106.krisefikser.api.dto.storage.StorageTotalRowDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Incident;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.incident.Scenario;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.item.Item;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.ItemType;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.household.HouseholdRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.incident.IncidentRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.incident.ScenarioRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.item.ItemRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.storage.StorageItemRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdCache;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdLocationIndex;
+import edu.ntnu.idatt2106.krisefikser.service.incident.ScenarioGapService;
+import edu.ntnu.idatt2106.krisefikser.service.map.GeoArea;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ScenarioGapServiceTest {
+
+  @Mock
+  private ScenarioRepository scenarioRepository;
+
+  @Mock
+  private IncidentRepository incidentRepository;
+
+  @Mock
+  private ItemRepository itemRepository;
+
+  @Mock
+  private StorageItemRepository storageItemRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private HouseholdRepository householdRepository;
+
+  @Mock
+  private HouseholdCache householdCache;
+
+  @Mock
+  private HouseholdLocationIndex householdLocationIndex;
+
+  @InjectMocks
+  private ScenarioGapService scenarioGapService;
+
+  private Scenario scenario;
+
+  @BeforeEach
+  void setUp() {
+    scenario = new Scenario(1L, "Strømbrudd", "Uten strøm", null,
+        "9 l vann, 4 stk batterier, radio, knekkebrød", "bolt");
+    when(scenarioRepository.findById(1L)).thenReturn(Optional.of(scenario));
+    when(itemRepository.findByLowerCaseNameIn(anyCollection())).thenReturn(List.of(
+        item(10L, "Vann"), item(11L, "Batterier"), item(12L, "Radio")));
+
+    SecurityContextHolder.setContext(new SecurityContextImpl(
+        new UsernamePasswordAuthenticationToken("user@example.com", null)));
+    when(userRepository.findHouseholdIdByEmail("user@example.com"))
+        .thenReturn(Optional.of("h1"));
+    when(householdCache.get("h1")).thenReturn(Optional.of(
+        new HouseholdResponseDto("h1", "Nordmann", "Storgata 1", null)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  private static Item item(Long id, String name) {
+    Item item = new Item(name, 0, ItemType.OTHER);
+    item.setId(id);
+    return item;
+  }
+
+  @Test
+  void getPackingList_shouldTieEntriesToCatalogItems() {
+    // Act
+    List<PackingListItemDto> packingList = scenarioGapService.getPackingList(1L);
+
+    // Assert
+    assertEquals(4, packingList.size());
+    assertEquals(10L, packingList.get(0).getItemId());
+    assertEquals(9, packingList.get(0).getQuantity());
+    assertNull(packingList.get(3).getItemId());
+  }
+
+  @Test
+  void getPackingList_shouldFollowTextChanges() {
+    // Act
+    scenarioGapService.getPackingList(1L);
+    scenario.setPackingList("radio");
+    List<PackingListItemDto> changed = scenarioGapService.getPackingList(1L);
+
+    // Assert
+    assertEquals(1, changed.size());
+    assertEquals(12L, changed.get(0).getItemId());
+  }
+
+  @Test
+  void getPackingList_shouldPickUpItemsAddedToTheCatalog() {
+    // Arrange
+    assertNull(scenarioGapService.getPackingList(1L).get(3).getItemId());
+    when(itemRepository.findByLowerCaseNameIn(anyCollection())).thenReturn(List.of(
+        item(10L, "Vann"), item(11L, "Batterier"), item(12L, "Radio"),
+        item(13L, "Knekkebrød")));
+
+    // Act
+    List<PackingListItemDto> packingList = scenarioGapService.getPackingList(1L);
+
+    // Assert
+    assertEquals(13L, packingList.get(3).getItemId());
+  }
+
+  @Test
+  void getHouseholdGap_shouldAddUpAmountsInOtherUnitsOfTheSameMeasure() {
+    // Arrange
+    when(storageItemRepository.sumUnexpiredByHouseholdIds(any(), any())).thenReturn(List.of(
+        new StorageTotalRowDto("h1", 10L, "Vann", "Liter", 4L),
+        new StorageTotalRowDto("h1", 10L, "Vann", "L", 3L),
+        new StorageTotalRowDto("h1", 10L, "Vann", "dl", 15L)));
+
+    // Act
+    HouseholdGapDto gap = scenarioGapService.getHouseholdGap(1L);
+
+    // Assert
+    GapItemDto water = gap.getMissing().get(0);
+    assertEquals("vann", water.getName());
+    assertEquals(8.5, water.getAvailable());
+    assertEquals(0.5, water.getMissing());
+  }
+
+  @Test
+  void getHouseholdGap_shouldOnlyCountPiecesForEntriesWithoutUnit() {
+    // Arrange
+    scenario.setPackingList("2 vann");
+    when(storageItemRepository.sumUnexpiredByHouseholdIds(any(), any())).thenReturn(List.of(
+        new StorageTotalRowDto("h1", 10L, "Vann", "dl", 5L),
+        new StorageTotalRowDto("h1", 10L, "Vann", "l", 1L),
+        new StorageTotalRowDto("h1", 10L, "Vann", "stk", 1L)));
+
+    // Act
+    HouseholdGapDto gap = scenarioGapService.getHouseholdGap(1L);
+
+    // Assert
+    GapItemDto water = gap.getMissing().get(0);
+    assertEquals(1, water.getAvailable());
+    assertEquals(1, water.getMissing());
+  }
+
+  @Test
+  void getHouseholdGap_shouldListWhatIsMissing() {
+    // Arrange
+    when(storageItemRepository.sumUnexpiredByHouseholdIds(any(), any())).thenReturn(List.of(
+        new StorageTotalRowDto("h1", 10L, "Vann", "l", 4L),
+        new StorageTotalRowDto("h1", 10L, "Vann", "flasker", 6L),
+        new StorageTotalRowDto("h1", 11L, "Batterier", "stk", 8L),
+        new StorageTotalRowDto("h1", 12L, "Radio", "stk", 1L)));
+
+    // Act
+    HouseholdGapDto gap = scenarioGapService.getHouseholdGap(1L);
+
+    // Assert
+    assertEquals("Nordmann", gap.getHouseholdName());
+    assertEquals(4, gap.getTotalItems());
+    assertEquals(2, gap.getCoveredItems());
+    GapItemDto water = gap.getMissing().get(0);
+    assertEquals("vann", water.getName());
+    assertEquals(4, water.getAvailable());
+    assertEquals(5, water.getMissing());
+    assertEquals("knekkebrød", gap.getMissing().get(1).getName());
+  }
+
+  @Test
+  void getHouseholdGap_shouldRequireHousehold() {
+    // Arrange
+    when(userRepository.findHouseholdIdByEmail("user@example.com")).thenReturn(Optional.empty());
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> scenarioGapService.getHouseholdGap(1L));
+  }
+
+  @Test
+  void getIncidentGaps_shouldPutHouseholdsMissingMostFirst() {
+    // Arrange
+    Incident incident = new Incident();
+    incident.setId(5L);
+    incident.setLatitude(63.43);
+    incident.setLongitude(10.39);
+    incident.setImpactRadius(2.0);
+    incident.setScenario(scenario);
+    when(incidentRepository.findById(5L)).thenReturn(Optional.of(incident));
+    when(userRepository.findHouseholdIdsWithinRadius(anyDouble(), anyDouble(), anyDouble()))
+        .thenReturn(List.of("h1"));
+    when(householdLocationIndex.findWithinRadius(anyDouble(), anyDouble(), anyDouble()))
+        .thenReturn(List.of("h2", "h1"));
+    when(householdRepository.findBasicByIdIn(anyCollection())).thenReturn(List.of(
+        new HouseholdBasicResponseDto("h1", "Nordmann"),
+        new HouseholdBasicResponseDto("h2", "Sørmann")));
+    when(storageItemRepository.sumUnexpiredByHouseholdIds(any(), any())).thenReturn(List.of(
+        new StorageTotalRowDto("h1", 10L, "Vann", "l", 9L),
+        new StorageTotalRowDto("h1", 12L, "Radio", "stk", 1L)));
+
+    // Act
+    List<HouseholdGapDto> gaps = scenarioGapService.getIncidentGaps(5L);
+
+    // Assert
+    assertEquals(List.of("h2", "h1"), gaps.stream().map(HouseholdGapDto::getHouseholdId).toList());
+    assertEquals(4, gaps.get(0).getMissing().size());
+    assertEquals(2, gaps.get(1).getMissing().size());
+    verify(storageItemRepository, times(1)).sumUnexpiredByHouseholdIds(any(), any());
+    verify(userRepository).findHouseholdIdsWithinRadius(63.43, 10.39, 2.0 * 1.4);
+    verify(householdRepository).findBasicByIdIn(List.of("h1", "h2"));
+  }
+
+  @Test
+  void getIncidentGaps_shouldRequireScenario() {
+    // Arrange
+    Incident incident = new Incident();
+    incident.setId(5L);
+    when(incidentRepository.findById(5L)).thenReturn(Optional.of(incident));
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> scenarioGapService.getIncidentGaps(5L));
+  }
+
+  @Test
+  void getIncidentGaps_shouldIncludeHouseholdsInsideImpactZone() {
+    // Arrange
+    Incident incident = new Incident();
+    incident.setId(5L);
+    incident.setLatitude(63.43);
+    incident.setLongitude(10.39);
+    incident.setImpactRadius(0.0);
+    incident.setImpactZone("{\"type\": \"Polygon\", \"coordinates\": "
+        + "[[[10.3, 63.4], [10.5, 63.4], [10.5, 63.5], [10.3, 63.4]]]}");
+    incident.setScenario(scenario);
+    when(incidentRepository.findById(5L)).thenReturn(Optional.of(incident));
+    when(userRepository.findHouseholdIdsWithinRadius(anyDouble(), anyDouble(), anyDouble()))
+        .thenReturn(List.of());
+    when(householdLocationIndex.findWithinRadius(anyDouble(), anyDouble(), anyDouble()))
+        .thenReturn(List.of());
+    when(householdLocationIndex.findWithinBounds(any(), any())).thenAnswer(invocation -> {
+      GeoArea zone = invocation.getArgument(1);
+      return Stream.of(new HouseholdLocationDto("h1", 63.42, 10.45),
+              new HouseholdLocationDto("h2", 63.48, 10.32))
+          .filter(home -> zone.contains(home.getLatitude(), home.getLongitude()))
+          .map(HouseholdLocationDto::getId)
+          .toList();
+    });
+    when(householdRepository.findBasicByIdIn(anyCollection())).thenReturn(List.of(
+        new HouseholdBasicResponseDto("h1", "Nordmann")));
+    when(storageItemRepository.sumUnexpiredByHouseholdIds(any(), any())).thenReturn(List.of());
+
+    // Act
+    List<HouseholdGapDto> gaps = scenarioGapService.getIncidentGaps(5L);
+
+    // Assert
+    assertEquals(List.of("h1"), gaps.stream().map(HouseholdGapDto::getHouseholdId).toList());
+    verify(householdRepository).findBasicByIdIn(List.of("h1"));
+  }
+}
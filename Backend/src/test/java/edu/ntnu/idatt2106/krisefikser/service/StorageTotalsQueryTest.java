@@ -0,0 +1,98 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.ntnu.idatt2106.krisefikser.api.dto.storage.StorageTotalRowDto;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.item.Item;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.storage.StorageItem;
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.ItemType;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.item.ItemRepository;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.storage.StorageItemRepository;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the queries behind the scenario gap analysis against the real schema.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class StorageTotalsQueryTest {
+
+  @Autowired
+  private StorageItemRepository storageItemRepository;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  private final LocalDateTime now = LocalDateTime.now();
+
+  @BeforeEach
+  void setUp() {
+    Household first = persistHousehold("H1");
+    Household second = persistHousehold("H2");
+    Household other = persistHousehold("H3");
+    Item water = entityManager.persist(new Item("Vann", 0, ItemType.LIQUIDS));
+    Item rice = entityManager.persist(new Item("Ris", 1300, ItemType.FOOD));
+
+    entityManager.persist(new StorageItem(first, water, "l", 3, now.plusDays(30), now));
+    entityManager.persist(new StorageItem(first, water, "l", 6, now.plusYears(1), now));
+    entityManager.persist(new StorageItem(first, water, "flasker", 2, now.plusYears(1), now));
+    entityManager.persist(new StorageItem(first, water, "l", 10, now.minusDays(1), now));
+    entityManager.persist(new StorageItem(second, rice, "kg", 2, now.plusYears(1), now));
+    entityManager.persist(new StorageItem(other, rice, "kg", 5, now.plusYears(1), now));
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  private Household persistHousehold(String id) {
+    User owner = entityManager.persist(new User(id.toLowerCase() + "@example.com", "hash",
+        "Owner User", Role.USER, null, "12345678", true, null));
+    Household household = new Household("Household " + id, "Storgata 1", 1, owner);
+    household.setId(id);
+    return entityManager.persist(household);
+  }
+
+  @Test
+  void sumUnexpiredByHouseholdIds_shouldSumPerItemAndUnitLeavingOutExpired() {
+    // Act
+    List<StorageTotalRowDto> rows = storageItemRepository
+        .sumUnexpiredByHouseholdIds(List.of("H1", "H2"), now).stream()
+        .sorted(Comparator.comparing(StorageTotalRowDto::getHouseholdId)
+            .thenComparing(StorageTotalRowDto::getUnit))
+        .toList();
+
+    // Assert
+    assertEquals(3, rows.size());
+    assertEquals("flasker", rows.get(0).getUnit());
+    assertEquals(2L, rows.get(0).getAmount());
+    assertEquals("l", rows.get(1).getUnit());
+    assertEquals(9L, rows.get(1).getAmount());
+    assertEquals("Vann", rows.get(1).getItemName());
+    assertEquals("H2", rows.get(2).getHouseholdId().trim());
+    assertEquals(2L, rows.get(2).getAmount());
+  }
+
+  @Test
+  void findByLowerCaseNameIn_shouldIgnoreCase() {
+    // Act
+    List<Item> items = itemRepository.findByLowerCaseNameIn(Set.of("vann", "radio"));
+
+    // Assert
+    assertEquals(1, items.size());
+    assertEquals("Vann", items.get(0).getName());
+  }
+}
@@ -0,0 +1,293 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.RevokedToken;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.RevocationType;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.RevokedTokenRepository;
+import edu.ntnu.idatt2106.krisefikser.service.auth.BloomFilter;
+import edu.ntnu.idatt2106.krisefikser.service.auth.TokenRevocationService;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class TokenRevocationServiceTest {
+
+  @Mock
+  private RevokedTokenRepository revokedTokenRepository;
+
+  private TokenRevocationService tokenRevocationService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(revokedTokenRepository.findByTypeAndValue(any(), any())).thenReturn(Optional.empty());
+    tokenRevocationService = new TokenRevocationService(revokedTokenRepository, 3600000L, 100,
+        0.01);
+  }
+
+  @Nested
+  class RevokeTokenTests {
+
+    @Test
+    void shouldPersistAndRejectRevokedToken() {
+      // Arrange
+      Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+
+      // Act
+      tokenRevocationService.revokeToken("jti-1", expiresAt);
+
+      // Assert
+      ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+      verify(revokedTokenRepository).save(captor.capture());
+      assertEquals(RevocationType.TOKEN, captor.getValue().getType());
+      assertEquals("jti-1", captor.getValue().getValue());
+      assertEquals(expiresAt, captor.getValue().getExpiresAt());
+      assertTrue(tokenRevocationService.isRevoked("jti-1", "user@example.com", Instant.now()));
+    }
+
+    @Test
+    void shouldNotAffectOtherTokens() {
+      // Act
+      tokenRevocationService.revokeToken("jti-1", Instant.now().plus(1, ChronoUnit.HOURS));
+
+      // Assert
+      assertFalse(tokenRevocationService.isRevoked("jti-2", "user@example.com", Instant.now()));
+    }
+
+    @Test
+    void shouldApplyRevocationOnlyAfterCommit() {
+      // Arrange
+      TransactionSynchronizationManager.initSynchronization();
+      try {
+        // Act
+        tokenRevocationService.revokeToken("jti-1", Instant.now().plus(1, ChronoUnit.HOURS));
+        boolean revokedBeforeCommit = tokenRevocationService.isRevoked("jti-1", null, null);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertFalse(revokedBeforeCommit);
+        assertTrue(tokenRevocationService.isRevoked("jti-1", null, null));
+      } finally {
+        TransactionSynchronizationManager.clearSynchronization();
+      }
+    }
+
+    @Test
+    void shouldThrowException_whenTokenHasNoId() {
+      assertThrows(IllegalArgumentException.class,
+          () -> tokenRevocationService.revokeToken(null, Instant.now()));
+      verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldGrowFilter_whenCapacityIsExceeded() {
+      // Act
+      for (int i = 0; i < 250; i++) {
+        tokenRevocationService.revokeToken("jti-" + i, Instant.now().plus(1, ChronoUnit.HOURS));
+      }
+
+      // Assert
+      for (int i = 0; i < 250; i++) {
+        assertTrue(tokenRevocationService.isRevoked("jti-" + i, "user@example.com", null));
+      }
+      assertFalse(tokenRevocationService.isRevoked("jti-250", "user@example.com", null));
+    }
+  }
+
+  @Nested
+  class RevokeAllForUserTests {
+
+    @Test
+    void shouldRejectTokensIssuedBeforeRevocation() {
+      // Arrange
+      Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).minusSeconds(60);
+
+      // Act
+      tokenRevocationService.revokeAllForUser("user@example.com");
+
+      // Assert
+      assertTrue(tokenRevocationService.isRevoked("jti-1", "user@example.com", issuedAt));
+      assertFalse(tokenRevocationService.isRevoked("jti-1", "other@example.com", issuedAt));
+    }
+
+    @Test
+    void shouldAcceptTokensIssuedAfterRevocation() {
+      // Arrange
+      Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(5);
+
+      // Act
+      tokenRevocationService.revokeAllForUser("user@example.com");
+
+      // Assert
+      assertFalse(tokenRevocationService.isRevoked("jti-1", "user@example.com", issuedAt));
+    }
+
+    @Test
+    void shouldRejectTokensIssuedInTheSecondOfRevocation() {
+      // Arrange
+      Instant before = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+      // Act
+      tokenRevocationService.revokeAllForUser("user@example.com");
+      Instant after = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+      // Assert
+      assertTrue(tokenRevocationService.isRevoked("jti-1", "user@example.com", before));
+      assertTrue(tokenRevocationService.isRevoked("jti-1", "user@example.com", after));
+      assertFalse(tokenRevocationService.isRevoked("jti-1", "user@example.com",
+          after.plusSeconds(1)));
+    }
+
+    @Test
+    void shouldKeepRevocationUntilLastTokenHasExpired() {
+      // Act
+      tokenRevocationService.revokeAllForUser("user@example.com");
+
+      // Assert
+      ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+      verify(revokedTokenRepository).save(captor.capture());
+      RevokedToken saved = captor.getValue();
+      assertEquals(RevocationType.USER, saved.getType());
+      assertTrue(saved.getExpiresAt().isAfter(saved.getRevokedAt().plusMillis(3600000L - 1)));
+    }
+  }
+
+  @Nested
+  class RebuildTests {
+
+    @Test
+    void shouldLoadPersistedRevocations() {
+      // Arrange
+      Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+      when(revokedTokenRepository.findAllByExpiresAtAfter(any())).thenReturn(List.of(
+          new RevokedToken(RevocationType.TOKEN, "jti-1", now, now.plusSeconds(3600)),
+          new RevokedToken(RevocationType.USER, "user@example.com", now, now.plusSeconds(3600))));
+
+      // Act
+      tokenRevocationService.rebuild();
+
+      // Assert
+      assertTrue(tokenRevocationService.isRevoked("jti-1", "other@example.com", now));
+      assertTrue(tokenRevocationService.isRevoked("jti-2", "user@example.com",
+          now.minusSeconds(1)));
+      assertFalse(tokenRevocationService.isRevoked("jti-2", "other@example.com",
+          now.minusSeconds(1)));
+    }
+
+    @Test
+    void shouldReadInRevocationsMadeOnOtherNodes() {
+      // Arrange
+      Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+      when(revokedTokenRepository.findAllByRevokedAtAfter(any())).thenReturn(List.of(
+          new RevokedToken(RevocationType.TOKEN, "jti-1", now, now.plusSeconds(3600)),
+          new RevokedToken(RevocationType.USER, "user@example.com", now, now.plusSeconds(3600))));
+
+      // Act
+      tokenRevocationService.refresh();
+
+      // Assert
+      assertTrue(tokenRevocationService.isRevoked("jti-1", "other@example.com", now));
+      assertTrue(tokenRevocationService.isRevoked("jti-2", "user@example.com",
+          now.minusSeconds(1)));
+      assertTrue(tokenRevocationService.isRevoked("jti-2", "user@example.com", now));
+      assertFalse(tokenRevocationService.isRevoked("jti-2", "user@example.com",
+          now.plusSeconds(1)));
+    }
+
+    @Test
+    void shouldKeepLaterCutOff_whenRefreshReadsAnOlderOne() {
+      // Arrange
+      tokenRevocationService.revokeAllForUser("user@example.com");
+      Instant revokedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+      Instant older = revokedAt.minusSeconds(30);
+      when(revokedTokenRepository.findAllByRevokedAtAfter(any())).thenReturn(List.of(
+          new RevokedToken(RevocationType.USER, "user@example.com", older,
+              older.plusSeconds(3600))));
+
+      // Act
+      tokenRevocationService.refresh();
+
+      // Assert
+      assertTrue(tokenRevocationService.isRevoked("jti-1", "user@example.com",
+          revokedAt.minusSeconds(10)));
+    }
+
+    @Test
+    void shouldDropRevocationsThatAreNoLongerPersisted() {
+      // Arrange
+      tokenRevocationService.revokeToken("jti-1", Instant.now().plus(1, ChronoUnit.HOURS));
+      when(revokedTokenRepository.deleteExpired(any())).thenReturn(1);
+      when(revokedTokenRepository.findAllByExpiresAtAfter(any())).thenReturn(List.of());
+
+      // Act
+      tokenRevocationService.purgeExpired();
+
+      // Assert
+      assertFalse(tokenRevocationService.isRevoked("jti-1", "user@example.com", null));
+    }
+  }
+
+  @Nested
+  class BloomFilterTests {
+
+    @Test
+    void shouldContainAllInsertedKeys() {
+      // Arrange
+      BloomFilter filter = new BloomFilter(1000, 0.01);
+
+      // Act
+      for (int i = 0; i < 1000; i++) {
+        filter.put("key-" + i);
+      }
+
+      // Assert
+      for (int i = 0; i < 1000; i++) {
+        assertTrue(filter.mightContain("key-" + i));
+      }
+    }
+
+    @Test
+    void shouldKeepFalsePositiveRateNearTarget() {
+      // Arrange
+      BloomFilter filter = new BloomFilter(10000, 0.01);
+      for (int i = 0; i < 10000; i++) {
+        filter.put("key-" + i);
+      }
+
+      // Act
+      int falsePositives = 0;
+      for (int i = 0; i < 100000; i++) {
+        if (filter.mightContain("other-" + i)) {
+          falsePositives++;
+        }
+      }
+
+      // Assert
+      assertTrue(falsePositives < 2000, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void shouldThrowException_whenArgumentsAreInvalid() {
+      assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+      assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1.0));
+    }
+  }
+}
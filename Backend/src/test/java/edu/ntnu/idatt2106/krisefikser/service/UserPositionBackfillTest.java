@@ -0,0 +1,72 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
+import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
+import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.user.UserPositionBackfill;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Fills in the numeric positions of users stored before they existed, against the real schema.
+ * Runs without a test transaction, as the backfill commits each batch itself.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(UserPositionBackfill.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserPositionBackfillTest {
+
+  @Autowired
+  private UserPositionBackfill backfill;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void tearDown() {
+    userRepository.deleteAll();
+  }
+
+  private String persistLegacy(String email, String latitude, String longitude) {
+    User user = userRepository.save(new User(email, "hash", "Legacy User", Role.USER, null,
+        "12345678", true, null));
+    // Written past the entity, as rows saved before the numeric columns were added
+    jdbcTemplate.update("UPDATE \"user\" SET latitude = ?, longitude = ?, "
+        + "position_latitude = NULL, position_longitude = NULL WHERE id = ?",
+        latitude, longitude, user.getId());
+    return user.getId();
+  }
+
+  @Test
+  void backfill_shouldCopyValidPositionsAndSkipMalformedOnes() {
+    // Arrange
+    String valid = persistLegacy("valid@example.com", "63.4305", " 10.3951");
+    String malformed = persistLegacy("malformed@example.com", "north", "10.3951");
+    String outOfRange = persistLegacy("range@example.com", "123.0", "10.3951");
+
+    // Act
+    backfill.backfill();
+
+    // Assert
+    User indexed = userRepository.findById(valid).orElseThrow();
+    assertEquals(63.4305, indexed.getPositionLatitude());
+    assertEquals(10.3951, indexed.getPositionLongitude());
+    assertNull(userRepository.findById(malformed).orElseThrow().getPositionLatitude());
+    assertNull(userRepository.findById(outOfRange).orElseThrow().getPositionLatitude());
+    assertEquals(1, userRepository.findLocationsInBox(63.0, 10.0, 64.0, 11.0).size());
+  }
+}
@@ -18,6 +18,7 @@ import edu.ntnu.idatt2106.krisefikser.persistance.entity.household.Household;
 import edu.ntnu.idatt2106.krisefikser.persistance.entity.user.User;
 import edu.ntnu.idatt2106.krisefikser.persistance.enums.Role;
 import edu.ntnu.idatt2106.krisefikser.persistance.repository.user.UserRepository;
+import edu.ntnu.idatt2106.krisefikser.service.household.HouseholdCache;
 import edu.ntnu.idatt2106.krisefikser.service.notification.NotificationService;
 import edu.ntnu.idatt2106.krisefikser.service.user.UserService;
 import java.util.Arrays;
@@ -46,6 +47,9 @@ class UserServiceTest {
   @Mock
   private NotificationService notificationService;
 
+  @Mock
+  private HouseholdCache householdCache;
+
   @InjectMocks
   private UserService userService;
 
@@ -235,7 +239,11 @@ class UserServiceTest {
       mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
       when(securityContext.getAuthentication()).thenReturn(authentication);
       when(authentication.getName()).thenReturn("user@example.com");
-      when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(testUser));
+      when(userRepository.findHouseholdIdByEmail("user@example.com"))
+          .thenReturn(Optional.of("household-123"));
+      when(householdCache.get("household-123")).thenReturn(Optional.of(new HouseholdResponseDto(
+          "household-123", "Test Household", "123 Test Street",
+          new UserResponseDto("owner-123", "owner@example.com", "Owner", "12345678", Role.USER))));
 
       // Act
       HouseholdResponseDto result = userService.getHousehold();
@@ -246,7 +254,7 @@ class UserServiceTest {
       assertEquals("Test Household", result.getName());
       assertEquals("123 Test Street", result.getAddress());
       assertEquals("owner-123", result.getOwner().getId());
-      verify(userRepository).findByEmail("user@example.com");
+      verify(userRepository, never()).findByEmail("user@example.com");
     }
   }
 
@@ -258,7 +266,9 @@ class UserServiceTest {
       mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
       when(securityContext.getAuthentication()).thenReturn(authentication);
       when(authentication.getName()).thenReturn("unknown@example.com");
-      when(userRepository.findByEmail("unknown@example.com")).thenReturn(Optional.empty());
+      when(userRepository.findHouseholdIdByEmail("unknown@example.com"))
+          .thenReturn(Optional.empty());
+      when(userRepository.existsByEmail("unknown@example.com")).thenReturn(false);
 
       // Act & Assert
       IllegalArgumentException exception = assertThrows(
@@ -266,7 +276,28 @@ class UserServiceTest {
           () -> userService.getHousehold()
       );
       assertEquals("No user logged in", exception.getMessage());
-      verify(userRepository).findByEmail("unknown@example.com");
+    }
+  }
+
+  @Test
+  void getHouseholdUserWithoutHousehold() {
+    try (MockedStatic<SecurityContextHolder> mockedStatic = Mockito.mockStatic(
+        SecurityContextHolder.class)) {
+      // Arrange
+      mockedStatic.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+      when(securityContext.getAuthentication()).thenReturn(authentication);
+      when(authentication.getName()).thenReturn("user@example.com");
+      when(userRepository.findHouseholdIdByEmail("user@example.com"))
+          .thenReturn(Optional.empty());
+      when(userRepository.existsByEmail("user@example.com")).thenReturn(true);
+
+      // Act & Assert
+      IllegalArgumentException exception = assertThrows(
+          IllegalArgumentException.class,
+          () -> userService.getHousehold()
+      );
+      assertEquals("User does not belong to a household", exception.getMessage());
+      verify(householdCache, never()).get(anyString());
     }
   }
 
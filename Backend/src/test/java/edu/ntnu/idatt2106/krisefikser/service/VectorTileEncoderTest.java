@@ -0,0 +1,201 @@
+package edu.ntnu.idatt2106.krisefikser.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idatt2106.krisefikser.service.map.VectorTileEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class VectorTileEncoderTest {
+
+  /**
+   * A decoded Protocol Buffers field: a number for varint and 64-bit fields, bytes otherwise.
+   */
+  private static final class Field {
+
+    private final int number;
+    private final long value;
+    private final byte[] bytes;
+
+    private Field(int number, long value, byte[] bytes) {
+      this.number = number;
+      this.value = value;
+      this.bytes = bytes;
+    }
+  }
+
+  private static List<Field> decode(byte[] message) {
+    List<Field> fields = new ArrayList<>();
+    int[] position = {0};
+    while (position[0] < message.length) {
+      long tag = readVarint(message, position);
+      int number = (int) (tag >>> 3);
+      switch ((int) (tag & 7)) {
+        case 0 -> fields.add(new Field(number, readVarint(message, position), null));
+        case 1 -> {
+          long bits = 0;
+          for (int i = 0; i < 8; i++) {
+            bits |= (message[position[0]++] & 0xFFL) << (8 * i);
+          }
+          fields.add(new Field(number, bits, null));
+        }
+        case 2 -> {
+          int length = (int) readVarint(message, position);
+          byte[] bytes = new byte[length];
+          System.arraycopy(message, position[0], bytes, 0, length);
+          position[0] += length;
+          fields.add(new Field(number, 0, bytes));
+        }
+        default -> throw new IllegalStateException("Unexpected wire type in tag " + tag);
+      }
+    }
+    return fields;
+  }
+
+  private static long readVarint(byte[] bytes, int[] position) {
+    long value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = bytes[position[0]++];
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+
+  private static int[] packed(byte[] bytes) {
+    List<Integer> values = new ArrayList<>();
+    int[] position = {0};
+    while (position[0] < bytes.length) {
+      values.add((int) readVarint(bytes, position));
+    }
+    return values.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static List<Field> all(List<Field> fields, int number) {
+    return fields.stream().filter(field -> field.number == number).toList();
+  }
+
+  private static Field one(List<Field> fields, int number) {
+    List<Field> matching = all(fields, number);
+    assertEquals(1, matching.size(), "field " + number);
+    return matching.get(0);
+  }
+
+  private static String string(Field field) {
+    return new String(field.bytes, StandardCharsets.UTF_8);
+  }
+
+  private static Map<String, Object> properties(Object... keysAndValues) {
+    Map<String, Object> properties = new LinkedHashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      properties.put((String) keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return properties;
+  }
+
+  @Test
+  void encode_shouldWritePointLayer() {
+    // Arrange
+    VectorTileEncoder encoder = new VectorTileEncoder();
+    encoder.addPoint("map_icons", 7, properties("type", "SHELTER"), 25, 17);
+
+    // Act
+    List<Field> tile = decode(encoder.encode());
+
+    // Assert
+    List<Field> layer = decode(one(tile, 3).bytes);
+    assertEquals(2, one(layer, 15).value);
+    assertEquals("map_icons", string(one(layer, 1)));
+    assertEquals(VectorTileEncoder.EXTENT, one(layer, 5).value);
+    assertEquals("type", string(one(layer, 3)));
+    assertEquals("SHELTER", string(one(decode(one(layer, 4).bytes), 1)));
+
+    List<Field> feature = decode(one(layer, 2).bytes);
+    assertEquals(7, one(feature, 1).value);
+    assertArrayEquals(new int[] {0, 0}, packed(one(feature, 2).bytes));
+    assertEquals(1, one(feature, 3).value);
+    // MoveTo once, then x = 25 and y = 17 zig-zag encoded
+    assertArrayEquals(new int[] {9, 50, 34}, packed(one(feature, 4).bytes));
+  }
+
+  @Test
+  void encode_shouldShareKeysAndValuesWithinLayer() {
+    // Arrange
+    VectorTileEncoder encoder = new VectorTileEncoder();
+    encoder.addPoint("map_icons", 1, properties("type", "SHELTER", "address", null), 0, 0);
+    encoder.addPoint("map_icons", 2, properties("type", "SHELTER"), 10, 10);
+    encoder.addPoint("map_icons", 3, properties("type", "HOSPITAL"), -5, 10);
+
+    // Act
+    List<Field> layer = decode(one(decode(encoder.encode()), 3).bytes);
+
+    // Assert
+    assertEquals(1, all(layer, 3).size());
+    assertEquals(2, all(layer, 4).size());
+    List<Field> features = all(layer, 2);
+    assertArrayEquals(new int[] {0, 0}, packed(one(decode(features.get(1).bytes), 2).bytes));
+    assertArrayEquals(new int[] {0, 1}, packed(one(decode(features.get(2).bytes), 2).bytes));
+    // Coordinates outside the tile are allowed; -5 zig-zag encodes to 9
+    assertArrayEquals(new int[] {9, 9, 20},
+        packed(one(decode(features.get(2).bytes), 4).bytes));
+  }
+
+  @Test
+  void encode_shouldWritePolygonRingWithRelativeMoves() {
+    // Arrange
+    VectorTileEncoder encoder = new VectorTileEncoder();
+    encoder.addPolygon("incidents", 4, properties("radius_km", 2.5, "severity", "RED"),
+        new int[] {0, 10, 0}, new int[] {0, 0, 10});
+
+    // Act
+    List<Field> layer = decode(one(decode(encoder.encode()), 3).bytes);
+
+    // Assert
+    List<Field> feature = decode(one(layer, 2).bytes);
+    assertEquals(3, one(feature, 3).value);
+    // MoveTo(0, 0), LineTo x2 (+10, 0) (-10, +10), ClosePath
+    assertArrayEquals(new int[] {9, 0, 0, 18, 20, 0, 19, 20, 15},
+        packed(one(feature, 4).bytes));
+    List<Field> radius = decode(all(layer, 4).get(0).bytes);
+    assertEquals(2.5, Double.longBitsToDouble(one(radius, 3).value));
+  }
+
+  @Test
+  void encode_shouldMoveFromEndOfPreviousRing() {
+    // Arrange: a triangle with a triangular hole
+    VectorTileEncoder encoder = new VectorTileEncoder();
+    encoder.addPolygon("incidents", 4, properties("severity", "RED"),
+        List.of(new int[] {0, 10, 0}, new int[] {2, 2, 4}),
+        List.of(new int[] {0, 0, 10}, new int[] {2, 4, 2}));
+
+    // Act
+    List<Field> layer = decode(one(decode(encoder.encode()), 3).bytes);
+
+    // Assert
+    List<Field> feature = decode(one(layer, 2).bytes);
+    // The hole starts with MoveTo(+2, -8) from the last vertex (0, 10) of the outer ring
+    assertArrayEquals(new int[] {9, 0, 0, 18, 20, 0, 19, 20, 15, 9, 4, 15, 18, 0, 4, 4, 3, 15},
+        packed(one(feature, 4).bytes));
+  }
+
+  @Test
+  void isEmpty_shouldBeTrueUntilFeatureIsAdded() {
+    // Arrange
+    VectorTileEncoder encoder = new VectorTileEncoder();
+
+    // Act & Assert
+    assertTrue(encoder.isEmpty());
+    assertEquals(0, encoder.encode().length);
+    assertThrows(IllegalArgumentException.class, () -> encoder.addPolygon("incidents", 1,
+        Map.of(), new int[] {0, 1}, new int[] {0, 1}));
+  }
+}